@@ -5,6 +5,7 @@ import org.aibles.authenservice.dto.response.BaseResponse;
 import org.aibles.authenservice.dto.response.LoginResponse;
 import org.aibles.authenservice.dto.response.SignupResponse;
 import org.aibles.authenservice.entity.Account;
+import org.aibles.authenservice.entity.Role;
 import org.aibles.authenservice.entity.User;
 import org.aibles.authenservice.exception.*;
 import org.aibles.authenservice.facade.AuthService;
@@ -28,6 +29,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -197,7 +199,7 @@ public class AuthServiceImpl implements AuthService {
                 throw new AccountIsActiveException();
             }
 
-            String accessToken = jwtUtil.generateAccessToken(account.getUsername());
+            String accessToken = jwtUtil.generateAccessToken(account.getUsername(), tokenRole(account));
             String refreshToken = jwtUtil.generateRefreshToken(account.getUsername());
             if (attemptCount > 0) {
                 redisTemplate.delete(loginAttemptKey);
@@ -339,7 +341,7 @@ public class AuthServiceImpl implements AuthService {
             }
 
             long now = System.currentTimeMillis();
-            String accessToken = jwtUtil.generateAccessToken(account.getUsername());
+            String accessToken = jwtUtil.generateAccessToken(account.getUsername(), tokenRole(account));
             String refreshToken = jwtUtil.generateRefreshToken(account.getUsername());
             long accessTokenExpiration = (now + ACCESS_TOKEN_EXPIRATION) / 1000;
             long refreshTokenExpiration = (now + REFRESH_TOKEN_EXPIRATION) / 1000;
@@ -393,6 +395,19 @@ public class AuthServiceImpl implements AuthService {
         return key;
     }
 
+    // The access token's role claim: ADMIN when the account holds it, otherwise its first role, USER if it has none
+    private String tokenRole(Account account) {
+        List<String> roles = accountRoleRepository.findByAccountId(account.getId()).stream()
+                .map(accountRole -> roleRepository.findById(accountRole.getRoleId()))
+                .flatMap(Optional::stream)
+                .map(Role::getName)
+                .toList();
+        if (roles.contains("ADMIN")) {
+            return "ADMIN";
+        }
+        return roles.isEmpty() ? "USER" : roles.get(0);
+    }
+
     private void sendEmail(String toEmail, String otpCode) {
         log.info("Sending email with OTP to: {}", toEmail);
         try {
@@ -28,23 +28,26 @@ public class JwtUtil {
         this.keyPair = keyPairGenerator.generateKeyPair();
     }
 
-    public String generateAccessToken(String username) {
-        return createToken(username, ACCESS_TOKEN_EXPIRATION);
+    // role: the account's role name without a ROLE_ prefix (USER, ADMIN), issued as the "role" claim;
+    // library-backend grants ROLE_<role> from it, e.g. ADMIN for /actuator/**
+    public String generateAccessToken(String username, String role) {
+        return createToken(username, role, ACCESS_TOKEN_EXPIRATION);
     }
 
     public String generateRefreshToken(String username) {
-        String refreshToken = createToken(username, REFRESH_TOKEN_EXPIRATION);
+        String refreshToken = createToken(username, null, REFRESH_TOKEN_EXPIRATION);
         redisTemplate.opsForValue().set("refresh_token:" + refreshToken, username, REFRESH_TOKEN_EXPIRATION / 1000, TimeUnit.SECONDS);
         return refreshToken;
     }
 
-    private String createToken(String username, long expiration) {
+    private String createToken(String username, String role, long expiration) {
         try {
             String header = "{\"alg\":\"RS256\",\"kid\":\"" + UUID.randomUUID().toString() + "\"}";
             String encodedHeader = Base64.getUrlEncoder().withoutPadding().encodeToString(header.getBytes(StandardCharsets.UTF_8));
 
             long now = System.currentTimeMillis();
-            String payload = "{\"sub\":\"" + username + "\",\"iat\":" + (now / 1000) + ",\"exp\":" + ((now + expiration) / 1000) + "}";
+            String roleClaim = role != null ? ",\"role\":\"" + role + "\"" : "";
+            String payload = "{\"sub\":\"" + username + "\"" + roleClaim + ",\"iat\":" + (now / 1000) + ",\"exp\":" + ((now + expiration) / 1000) + "}";
             String encodedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
 
             String dataToSign = encodedHeader + "." + encodedPayload;
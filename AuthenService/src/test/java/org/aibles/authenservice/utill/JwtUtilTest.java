@@ -0,0 +1,31 @@
+package org.aibles.authenservice.utill;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilTest {
+
+    @Test
+    void generateAccessToken_ShouldIssueTheRoleClaim() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil();
+
+        String token = jwtUtil.generateAccessToken("admin", "ADMIN");
+
+        assertThat(jwtUtil.validateToken(token, "admin")).isTrue();
+        JsonNode payload = payload(token);
+        assertThat(payload.get("sub").asText()).isEqualTo("admin");
+        assertThat(payload.get("role").asText()).isEqualTo("ADMIN");
+        assertThat(payload.get("exp").asLong()).isGreaterThan(payload.get("iat").asLong());
+    }
+
+    private static JsonNode payload(String token) throws Exception {
+        byte[] json = Base64.getUrlDecoder().decode(token.split("\\.")[1]);
+        return new ObjectMapper().readTree(new String(json, StandardCharsets.UTF_8));
+    }
+}
@@ -1,21 +1,25 @@
 package com.library.config;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.PropertyAccessor;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.CollectionType;
 import com.fasterxml.jackson.databind.type.TypeFactory;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.CacheManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -28,22 +32,27 @@ import java.util.Map;
 @Slf4j
 public class CacheConfig {
 
+    @Value("${library.cache.local.enabled:true}")
+    private boolean localCacheEnabled;
+
+    // JSON until every instance runs a release that reads Smile; see RedisValueSerializer for the rollout order
+    @Value("${library.cache.codec.format:JSON}")
+    private RedisValueSerializer.Format codecFormat;
+
+    @Value("${library.cache.codec.compression-threshold:1024}")
+    private int compressionThreshold;
+
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                             StringRedisTemplate stringRedisTemplate) {
         log.info("Configuring Redis Cache Manager");
         
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
-        objectMapper.enableDefaultTyping(ObjectMapper.DefaultTyping.NON_FINAL);
-        objectMapper.registerModule(new JavaTimeModule());
-
-        Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer = 
-                new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
+        RedisValueSerializer valueSerializer = new RedisValueSerializer(codecFormat, compressionThreshold);
 
         RedisCacheConfiguration defaultCacheConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofHours(1)) // Default TTL: 1 hour
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jackson2JsonRedisSerializer))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer))
                 .disableCachingNullValues();
 
         // Configure specific cache settings
@@ -69,10 +78,55 @@ public class CacheConfig {
         cacheConfigurations.put("loan-stats", defaultCacheConfig.entryTtl(Duration.ofMinutes(10)));
         cacheConfigurations.put("order-stats", defaultCacheConfig.entryTtl(Duration.ofMinutes(10)));
 
-        return RedisCacheManager.builder(redisConnectionFactory)
-                .cacheDefaults(defaultCacheConfig)
-                .withInitialCacheConfigurations(cacheConfigurations)
-                .build();
+        // Hit/miss statistics feed the cache dashboard and the cache.gets metrics;
+        // SCAN keeps allEntries evictions from blocking Redis the way KEYS would
+        RedisCacheWriter cacheWriter = RedisCacheWriter
+                .nonLockingRedisCacheWriter(redisConnectionFactory, BatchStrategies.scan(1000))
+                .withStatisticsCollector(CacheStatisticsCollector.create());
+
+        SingleFlightRedisCacheManager redisCacheManager =
+                new SingleFlightRedisCacheManager(cacheWriter, defaultCacheConfig, cacheConfigurations);
+        redisCacheManager.afterPropertiesSet();
+
+        // In-process copies of hot, rarely changing caches; the local TTL bounds staleness
+        // on an instance that missed an invalidation message
+        Map<String, TwoLevelCacheManager.LocalCacheSpec> localCaches = new HashMap<>();
+        if (localCacheEnabled) {
+            localCaches.put("books", new TwoLevelCacheManager.LocalCacheSpec(10_000, Duration.ofMinutes(5)));
+            localCaches.put("categories", new TwoLevelCacheManager.LocalCacheSpec(1_000, Duration.ofMinutes(5)));
+            localCaches.put("authors", new TwoLevelCacheManager.LocalCacheSpec(5_000, Duration.ofMinutes(5)));
+            localCaches.put("publishers", new TwoLevelCacheManager.LocalCacheSpec(2_000, Duration.ofMinutes(5)));
+            localCaches.put("notification-count", new TwoLevelCacheManager.LocalCacheSpec(10_000, Duration.ofSeconds(30)));
+        }
+
+        TwoLevelCacheManager cacheManager =
+                new TwoLevelCacheManager(redisCacheManager, localCaches, stringRedisTemplate);
+        // Evictions issued inside a transaction run after commit, not before the new row is visible
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                            TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    /**
+     * Publishes cache.gets and friends for both levels: the Redis level under the cache name,
+     * the local level under {@code <name>.local}
+     */
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return (cache, tags) -> registry -> {
+            if (cache.getRemoteCache() instanceof RedisCache redisCache) {
+                new RedisCacheMetrics(redisCache, tags).bindTo(registry);
+            }
+            new CaffeineCacheMetrics<>(cache.getLocalCache(), cache.getName() + ".local", tags).bindTo(registry);
+        };
     }
 
     @Bean
@@ -82,13 +136,7 @@ public class CacheConfig {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(redisConnectionFactory);
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
-        objectMapper.enableDefaultTyping(ObjectMapper.DefaultTyping.NON_FINAL);
-        objectMapper.registerModule(new JavaTimeModule());
-
-        Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer = 
-                new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
+        RedisValueSerializer valueSerializer = new RedisValueSerializer(codecFormat, compressionThreshold);
 
         StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
 
@@ -97,8 +145,8 @@ public class CacheConfig {
         template.setHashKeySerializer(stringRedisSerializer);
 
         // Value serialization
-        template.setValueSerializer(jackson2JsonRedisSerializer);
-        template.setHashValueSerializer(jackson2JsonRedisSerializer);
+        template.setValueSerializer(valueSerializer);
+        template.setHashValueSerializer(valueSerializer);
 
         template.afterPropertiesSet();
         return template;
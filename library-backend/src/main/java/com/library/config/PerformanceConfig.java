@@ -1,6 +1,7 @@
 package com.library.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.metrics.MetricsEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -56,4 +57,19 @@ public class PerformanceConfig {
         
         return executor;
     }
+
+    @Bean(name = "loanSweepExecutor")
+    public Executor loanSweepExecutor(@Value("${library.loan.sweep.threads:4}") int threads) {
+        log.info("Creating loan sweep executor with {} threads", threads);
+        
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads);
+        executor.setThreadNamePrefix("LoanSweep-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        
+        return executor;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,164 @@
+package com.library.config;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Redis value serializer for the cache manager and {@code redisTemplate}. Values are written as
+ * Smile (binary JSON, with repeated field names and type ids written once) behind a header:
+ * <pre>
+ *   byte 0    magic 0xB1, never the first byte of a JSON value
+ *   byte 1    format version, 1 = Smile
+ *   byte 2    flags, bit 0 = LZ4 block compressed
+ *   byte 3-6  uncompressed length, present only when compressed
+ * </pre>
+ * Values without the header are read as the JSON written by earlier releases, so existing
+ * entries stay readable until they expire. Older releases cannot read Smile: roll out with
+ * {@link Format#JSON} first and switch to {@link Format#SMILE} once every instance reads both.
+ */
+public class RedisValueSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte VERSION_SMILE = 1;
+    static final byte FLAG_LZ4 = 1;
+
+    private static final int HEADER_LENGTH = 3;
+    private static final int LENGTH_FIELD = 4;
+    private static final byte[] EMPTY = new byte[0];
+
+    public enum Format {
+        JSON, SMILE
+    }
+
+    private final Format writeFormat;
+    private final int compressionThreshold;
+    private final ObjectMapper smileMapper;
+    private final Jackson2JsonRedisSerializer<Object> jsonSerializer;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    /**
+     * @param compressionThreshold Smile payloads of at least this many bytes are LZ4 compressed;
+     *                             a negative value disables compression
+     */
+    public RedisValueSerializer(Format writeFormat, int compressionThreshold) {
+        this.writeFormat = writeFormat;
+        this.compressionThreshold = compressionThreshold;
+        this.smileMapper = objectMapper(SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build());
+        this.jsonSerializer = new Jackson2JsonRedisSerializer<>(objectMapper(new JsonFactory()), Object.class);
+
+        LZ4Factory lz4 = LZ4Factory.fastestInstance();
+        this.compressor = lz4.fastCompressor();
+        this.decompressor = lz4.fastDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY;
+        }
+        if (writeFormat == Format.JSON) {
+            return jsonSerializer.serialize(value);
+        }
+
+        byte[] payload;
+        try {
+            payload = smileMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write Smile: " + e.getMessage(), e);
+        }
+
+        if (compressionThreshold >= 0 && payload.length >= compressionThreshold) {
+            byte[] compressed = compress(payload);
+            if (compressed != null) {
+                return compressed;
+            }
+        }
+
+        byte[] bytes = new byte[HEADER_LENGTH + payload.length];
+        writeHeader(bytes, (byte) 0);
+        System.arraycopy(payload, 0, bytes, HEADER_LENGTH, payload.length);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return jsonSerializer.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[1] != VERSION_SMILE) {
+            throw new SerializationException("Unsupported cache value format version: "
+                    + (bytes.length > 1 ? bytes[1] : "missing"));
+        }
+
+        try {
+            if ((bytes[2] & FLAG_LZ4) != 0) {
+                int length = ByteBuffer.wrap(bytes, HEADER_LENGTH, LENGTH_FIELD).getInt();
+                byte[] payload = decompressor.decompress(bytes, HEADER_LENGTH + LENGTH_FIELD, length);
+                return smileMapper.readValue(payload, Object.class);
+            }
+            return smileMapper.readValue(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, Object.class);
+        } catch (IOException | LZ4Exception e) {
+            throw new SerializationException("Could not read cached value: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Same mapper settings as the JSON values written so far: field access and embedded type ids,
+     * so cached DTOs need neither setters nor type hints
+     */
+    @SuppressWarnings("deprecation")
+    static ObjectMapper objectMapper(JsonFactory factory) {
+        ObjectMapper objectMapper = new ObjectMapper(factory);
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        objectMapper.enableDefaultTyping(ObjectMapper.DefaultTyping.NON_FINAL);
+        objectMapper.registerModule(new JavaTimeModule());
+        return objectMapper;
+    }
+
+    // Private helper methods
+
+    /**
+     * @return the compressed value, or null when compression does not make it smaller
+     */
+    private byte[] compress(byte[] payload) {
+        int offset = HEADER_LENGTH + LENGTH_FIELD;
+        int maxLength = compressor.maxCompressedLength(payload.length);
+        byte[] bytes = new byte[offset + maxLength];
+        int compressedLength = compressor.compress(payload, 0, payload.length, bytes, offset, maxLength);
+        if (offset + compressedLength >= HEADER_LENGTH + payload.length) {
+            return null;
+        }
+
+        writeHeader(bytes, FLAG_LZ4);
+        ByteBuffer.wrap(bytes, HEADER_LENGTH, LENGTH_FIELD).putInt(payload.length);
+        return Arrays.copyOf(bytes, offset + compressedLength);
+    }
+
+    private static void writeHeader(byte[] bytes, byte flags) {
+        bytes[0] = MAGIC;
+        bytes[1] = VERSION_SMILE;
+        bytes[2] = flags;
+    }
+}
@@ -0,0 +1,77 @@
+package com.library.config;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis cache manager whose caches load each missing key once per instance. Concurrent misses on
+ * the same key ({@code @Cacheable(sync = true)}) wait for the first caller's result instead of all
+ * querying the database, and misses on different keys do not block each other.
+ */
+public class SingleFlightRedisCacheManager extends RedisCacheManager {
+
+    public SingleFlightRedisCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration,
+                                         Map<String, RedisCacheConfiguration> initialCacheConfigurations) {
+        super(cacheWriter, defaultCacheConfiguration, initialCacheConfigurations);
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfiguration) {
+        return new SingleFlightRedisCache(name, getCacheWriter(),
+                cacheConfiguration != null ? cacheConfiguration : getDefaultCacheConfiguration());
+    }
+
+    static class SingleFlightRedisCache extends RedisCache {
+
+        private final Map<Object, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+        SingleFlightRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfiguration) {
+            super(name, cacheWriter, cacheConfiguration);
+        }
+
+        /**
+         * Replaces the cache-wide lock of {@link RedisCache} with one in-flight load per key
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            ValueWrapper cached = get(key);
+            if (cached != null) {
+                return (T) cached.get();
+            }
+
+            CompletableFuture<Object> load = new CompletableFuture<>();
+            CompletableFuture<Object> inFlight = loading.putIfAbsent(key, load);
+            if (inFlight != null) {
+                try {
+                    return (T) inFlight.join();
+                } catch (CompletionException e) {
+                    throw new ValueRetrievalException(key, valueLoader, e.getCause());
+                }
+            }
+
+            try {
+                // The previous load of this key may have completed between the lookup and registration
+                ValueWrapper loaded = get(key);
+                T value = loaded != null ? (T) loaded.get() : loadCacheValue(key, valueLoader);
+                load.complete(value);
+                return value;
+            } catch (Throwable e) {
+                // Waiters get the loader's own exception, e.g. a not-found for the key
+                Throwable cause = e instanceof ValueRetrievalException && e.getCause() != null ? e.getCause() : e;
+                load.completeExceptionally(cause);
+                throw e;
+            } finally {
+                loading.remove(key, load);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.library.config;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cache with an in-process copy (L1) in front of a shared Redis cache (L2). Reads try L1 first;
+ * writes go to both levels, and evictions are additionally broadcast so other instances drop
+ * their L1 copies. Values are kept in L1 as deserialized objects, so an L1 hit costs neither a
+ * network round trip nor deserialization.
+ * <p>
+ * A value read from L2 may be invalidated before it lands in L1. Every L1 invalidation bumps an
+ * epoch for the key's stripe, and a fill that sees its stripe's epoch move drops what it stored.
+ */
+public class TwoLevelCache implements Cache {
+
+    private static final int EPOCH_STRIPES = 64;
+
+    private final Cache remoteCache;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache;
+    private final TwoLevelCacheManager.EvictionBroadcaster broadcaster;
+    private final AtomicLongArray invalidationEpochs = new AtomicLongArray(EPOCH_STRIPES);
+    private volatile CacheStats localStatsBaseline = CacheStats.empty();
+
+    TwoLevelCache(Cache remoteCache, com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache,
+                  TwoLevelCacheManager.EvictionBroadcaster broadcaster) {
+        this.remoteCache = remoteCache;
+        this.localCache = localCache;
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public String getName() {
+        return remoteCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = localCache.getIfPresent(localKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+
+        long epoch = invalidationEpochs.get(stripe(localKey));
+        ValueWrapper remoteValue = remoteCache.get(key);
+        if (remoteValue != null && remoteValue.get() != null) {
+            fillLocal(localKey, remoteValue.get(), epoch);
+        }
+        return remoteValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * L1 misses fall through to the L2 cache, which loads each missing key once; the L1 copy is
+     * stored outside of any Caffeine compute so a slow load never blocks other L1 keys
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object value = localCache.getIfPresent(localKey);
+        if (value != null) {
+            return (T) value;
+        }
+
+        long epoch = invalidationEpochs.get(stripe(localKey));
+        T loaded = remoteCache.get(key, valueLoader);
+        if (loaded != null) {
+            fillLocal(localKey, loaded, epoch);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        if (value != null) {
+            localCache.put(localKey(key), value);
+        } else {
+            invalidateLocal(localKey(key));
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remoteCache.putIfAbsent(key, value);
+        invalidateLocal(localKey(key));
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        invalidateLocal(localKey(key));
+        broadcaster.evicted(getName(), localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        invalidateAllLocal();
+        broadcaster.evicted(getName(), null);
+    }
+
+    public Cache getRemoteCache() {
+        return remoteCache;
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<Object, Object> getLocalCache() {
+        return localCache;
+    }
+
+    /**
+     * Local hit/miss counts since the last {@link #clearLocalStatistics()}
+     */
+    public CacheStats getLocalStats() {
+        return localCache.stats().minus(localStatsBaseline);
+    }
+
+    public void clearLocalStatistics() {
+        localStatsBaseline = localCache.stats();
+    }
+
+    // Invalidation received from another instance
+
+    void evictLocal(String localKey) {
+        invalidateLocal(localKey);
+    }
+
+    void clearLocal() {
+        invalidateAllLocal();
+    }
+
+    // Epoch first, so a fill that stores after this invalidation ran still sees the epoch move
+
+    private void invalidateLocal(String localKey) {
+        invalidationEpochs.incrementAndGet(stripe(localKey));
+        localCache.invalidate(localKey);
+    }
+
+    private void invalidateAllLocal() {
+        for (int stripe = 0; stripe < EPOCH_STRIPES; stripe++) {
+            invalidationEpochs.incrementAndGet(stripe);
+        }
+        localCache.invalidateAll();
+    }
+
+    /**
+     * Stores a value read from L2 while the stripe was at {@code epoch}. Stored first and checked
+     * after: an invalidation between the two is seen here, one after the check removes the value itself.
+     */
+    private void fillLocal(String localKey, Object value, long epoch) {
+        localCache.put(localKey, value);
+        if (invalidationEpochs.get(stripe(localKey)) != epoch) {
+            localCache.invalidate(localKey);
+        }
+    }
+
+    private static int stripe(String localKey) {
+        return localKey.hashCode() & (EPOCH_STRIPES - 1);
+    }
+
+    /**
+     * L1 keys are the string form of the cache key, the same form the eviction broadcast carries
+     */
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,140 @@
+package com.library.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Cache manager that puts a bounded in-process cache (L1) in front of selected caches of the
+ * Redis cache manager (L2); caches without a local spec are served by Redis alone.
+ * <p>
+ * Evictions are published on {@value #INVALIDATION_CHANNEL} and every other instance drops the
+ * key from its L1 copy. Redis pub/sub does not redeliver messages missed while disconnected, so
+ * the L1 TTL is kept short to bound how long such an instance can serve a stale value.
+ * <p>
+ * The L2 manager must not be transaction-aware itself: this manager defers evictions until
+ * commit for both levels and the broadcast.
+ */
+@Slf4j
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "library:cache-invalidation";
+
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final CacheManager remoteCacheManager;
+    private final Map<String, LocalCacheSpec> localCacheSpecs;
+    private final StringRedisTemplate redisTemplate;
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, Map<String, LocalCacheSpec> localCacheSpecs,
+                                StringRedisTemplate redisTemplate) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.localCacheSpecs = localCacheSpecs;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return remoteCacheManager.getCacheNames().stream()
+                .map(remoteCacheManager::getCache)
+                .filter(Objects::nonNull)
+                .map(this::withLocalCache)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        return remoteCache != null ? withLocalCache(remoteCache) : null;
+    }
+
+    /**
+     * Applies an eviction published by another instance to the local level only
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // instanceId:cacheName:E<key> or instanceId:cacheName:C
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 3);
+        if (parts.length != 3 || parts[2].isEmpty() || instanceId.equals(parts[0])) {
+            return;
+        }
+
+        Cache cache = lookupCache(parts[1]);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        if (!(cache instanceof TwoLevelCache twoLevelCache)) {
+            return;
+        }
+
+        if (parts[2].startsWith(CLEAR)) {
+            twoLevelCache.clearLocal();
+        } else if (parts[2].startsWith(EVICT)) {
+            twoLevelCache.evictLocal(parts[2].substring(EVICT.length()));
+        }
+        log.trace("Applied remote cache invalidation {}", parts[2]);
+    }
+
+    // Private helper methods
+
+    private Cache withLocalCache(Cache remoteCache) {
+        LocalCacheSpec spec = localCacheSpecs.get(remoteCache.getName());
+        if (spec == null) {
+            return remoteCache;
+        }
+
+        // Caffeine evicts by W-TinyLFU once the size bound is reached
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getTimeToLive())
+                .recordStats()
+                .build();
+        return new TwoLevelCache(remoteCache, localCache, this::publishEviction);
+    }
+
+    private void publishEviction(String cacheName, String localKey) {
+        String operation = localKey == null ? CLEAR : EVICT + localKey;
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, instanceId + ":" + cacheName + ":" + operation);
+        } catch (RuntimeException e) {
+            // The remote entry is already gone; other instances fall back to the L1 TTL
+            log.warn("Failed to publish cache invalidation for {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    interface EvictionBroadcaster {
+        /**
+         * @param localKey Evicted key, or null when the whole cache was cleared
+         */
+        void evicted(String cacheName, String localKey);
+    }
+
+    /**
+     * Bounds of the in-process level of one cache
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class LocalCacheSpec {
+        private final long maximumSize;
+        private final Duration timeToLive;
+    }
+}
@@ -0,0 +1,60 @@
+package com.library.controller;
+
+import com.library.dto.BaseResponse;
+import com.library.dto.CacheStatsDTO;
+import com.library.service.CacheStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/cache")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin Cache Monitoring", description = "APIs for monitoring cache effectiveness")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminCacheController {
+
+    private final CacheStatsService cacheStatsService;
+
+    @GetMapping("/stats")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Get cache statistics", description = "Get hits, misses and hit ratio of every cache since startup or the last reset")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access forbidden")
+    })
+    public BaseResponse<List<CacheStatsDTO>> getCacheStats() {
+        log.info("Getting cache statistics");
+        return BaseResponse.success(cacheStatsService.getCacheStats());
+    }
+
+    @GetMapping("/stats/{cacheName}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Get statistics of one cache", description = "Get hits, misses and hit ratio of a single cache")
+    public BaseResponse<CacheStatsDTO> getCacheStats(
+            @Parameter(description = "Cache name, e.g. books") @PathVariable String cacheName) {
+        log.info("Getting statistics for cache: {}", cacheName);
+        return BaseResponse.success(cacheStatsService.getCacheStats(cacheName));
+    }
+
+    @DeleteMapping("/stats")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Reset cache statistics", description = "Reset counters of every cache, e.g. before measuring a load test")
+    public BaseResponse<Void> resetCacheStats() {
+        log.info("Resetting cache statistics");
+        cacheStatsService.resetCacheStats();
+        return BaseResponse.success(null);
+    }
+}
@@ -3,10 +3,16 @@ package com.library.controller;
 import com.library.dto.AdminLoanDTO;
 import com.library.dto.ApproveLoanRequestDTO;
 import com.library.dto.BaseResponse;
+import com.library.dto.BookHoldDTO;
+import com.library.dto.FineReportDTO;
 import com.library.dto.LoanDTO;
+import com.library.dto.LoanSweepResultDTO;
 import com.library.dto.ProcessReturnRequestDTO;
 import com.library.dto.RejectLoanRequestDTO;
+import com.library.service.BookHoldService;
 import com.library.service.LibrarianLoanService;
+import com.library.service.LoanSweepService;
+import com.library.service.UserLoanSummaryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -17,11 +23,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -32,9 +40,16 @@ import java.util.List;
 public class AdminLoanController {
     
     private final LibrarianLoanService librarianLoanService;
+    private final LoanSweepService loanSweepService;
+    private final UserLoanSummaryService userLoanSummaryService;
+    private final BookHoldService bookHoldService;
     
-    public AdminLoanController(LibrarianLoanService librarianLoanService) {
+    public AdminLoanController(LibrarianLoanService librarianLoanService, LoanSweepService loanSweepService,
+                               UserLoanSummaryService userLoanSummaryService, BookHoldService bookHoldService) {
         this.librarianLoanService = librarianLoanService;
+        this.loanSweepService = loanSweepService;
+        this.userLoanSummaryService = userLoanSummaryService;
+        this.bookHoldService = bookHoldService;
     }
     
     @GetMapping("/admin/loans")
@@ -177,6 +192,60 @@ public class AdminLoanController {
         return BaseResponse.success(loan);
     }
     
+    @PostMapping("/admin/loans/accrue-fines")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('LIBRARIAN') or hasRole('ADMIN')")
+    @Operation(summary = "Accrue fines", description = "Bring fines of borrowed and overdue loans up to date now instead of waiting for the nightly run (LIBRARIAN role required)")
+    public BaseResponse<LoanSweepResultDTO> accrueFines() {
+        
+        log.info("Accruing loan fines");
+        return BaseResponse.success(loanSweepService.accrueFines());
+    }
+    
+    @PostMapping("/admin/loans/summaries/reconcile")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reconcile user loan summaries",
+               description = "Recompute the per-user loan counters and held books from the loans, for one user or for all users; returns the number that had drifted")
+    public BaseResponse<Integer> reconcileLoanSummaries(
+            @Parameter(description = "User ID, all users when omitted") @RequestParam(required = false) Long userId) {
+        
+        if (userId != null) {
+            log.info("Reconciling loan summary of user: {}", userId);
+            return BaseResponse.success(userLoanSummaryService.reconcile(userId) ? 1 : 0);
+        }
+        
+        log.info("Reconciling loan summaries of all users");
+        return BaseResponse.success(userLoanSummaryService.reconcileAll());
+    }
+    
+    @PutMapping("/admin/loans/holds/{holdId}/priority")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('LIBRARIAN') or hasRole('ADMIN')")
+    @Operation(summary = "Set hold priority",
+               description = "Move a waiting hold within its book's queue; higher priorities are served first, equal ones in order of placing (LIBRARIAN role required)")
+    public BaseResponse<BookHoldDTO> updateHoldPriority(
+            @Parameter(description = "Hold ID") @PathVariable Long holdId,
+            @Parameter(description = "New priority") @RequestParam int priority) {
+        
+        log.info("Setting priority of hold {} to {}", holdId, priority);
+        return BaseResponse.success(bookHoldService.updatePriority(holdId, priority));
+    }
+    
+    @GetMapping("/admin/loans/fine-report")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('LIBRARIAN') or hasRole('ADMIN')")
+    @Operation(summary = "Get fine report", description = "Outstanding fines and fines charged in a period, 30 days by default (LIBRARIAN role required)")
+    public BaseResponse<FineReportDTO> getFineReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(30);
+        log.info("Getting fine report from {} to {}", start, end);
+        return BaseResponse.success(librarianLoanService.getFineReport(start, end));
+    }
+    
     @GetMapping("/admin/loans/unpaid-fines")
     @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasRole('LIBRARIAN') or hasRole('ADMIN')")
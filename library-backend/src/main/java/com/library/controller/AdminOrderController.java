@@ -4,6 +4,10 @@ import com.library.dto.*;
 import com.library.entity.OrderStatus;
 import com.library.entity.PaymentStatus;
 import com.library.service.AdminOrderService;
+import com.library.service.OrderArchiveService;
+import com.library.service.OrderStatusJobService;
+import com.library.service.OrderViewService;
+import com.library.service.UserOrderStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -32,6 +36,10 @@ import java.util.List;
 public class AdminOrderController {
 
     private final AdminOrderService adminOrderService;
+    private final UserOrderStatsService userOrderStatsService;
+    private final OrderStatusJobService orderStatusJobService;
+    private final OrderViewService orderViewService;
+    private final OrderArchiveService orderArchiveService;
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
@@ -203,22 +211,114 @@ public class AdminOrderController {
         return BaseResponse.success(stats);
     }
 
-    @PutMapping("/bulk-update-status")
+    @PostMapping("/statistics/users/rebuild")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Rebuild user order statistics",
+               description = "Recompute the per-user order statistics from the orders, for one user or for all users")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "User order statistics rebuilt successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access forbidden")
+    })
+    public BaseResponse<Integer> rebuildUserOrderStatistics(
+            @Parameter(description = "User ID, all users when omitted") @RequestParam(required = false) Long userId) {
+        
+        if (userId != null) {
+            log.info("Rebuilding order statistics of user: {}", userId);
+            userOrderStatsService.rebuild(userId);
+            return BaseResponse.success(1);
+        }
+        
+        log.info("Rebuilding order statistics of all users");
+        return BaseResponse.success(userOrderStatsService.rebuildAll());
+    }
+
+    @PostMapping("/views/check")
     @ResponseStatus(HttpStatus.OK)
-    @Operation(summary = "Bulk update order status", description = "Update status for multiple orders at once")
+    @Operation(summary = "Check order views",
+               description = "Compare the order history read model against the orders, optionally repairing the differences")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Order views checked successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access forbidden")
+    })
+    public BaseResponse<OrderViewConsistencyDTO> checkOrderViews(
+            @Parameter(description = "Rewrite missing and stale views, delete orphaned ones")
+            @RequestParam(defaultValue = "false") boolean repair) {
+        
+        log.info("Checking order views, repair: {}", repair);
+        return BaseResponse.success(orderViewService.checkConsistency(repair));
+    }
+
+    @PostMapping("/archive")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Archive finished orders",
+               description = "Move delivered, cancelled and refunded orders past the archive age out of the hot tables now")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Orders archived successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access forbidden")
+    })
+    public BaseResponse<Integer> archiveFinishedOrders() {
+        log.info("Archiving finished orders");
+        return BaseResponse.success(orderArchiveService.archiveFinishedOrders());
+    }
+
+    @PutMapping("/bulk-update-status")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Bulk update order status",
+               description = "Queue a status change of multiple orders; it runs in the background, track it by job ID")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Orders updated successfully"),
+        @ApiResponse(responseCode = "202", description = "Status change queued successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid request data"),
         @ApiResponse(responseCode = "401", description = "Unauthorized access"),
         @ApiResponse(responseCode = "403", description = "Access forbidden")
     })
-    public BaseResponse<List<AdminOrderDTO>> bulkUpdateOrderStatus(
+    public BaseResponse<OrderStatusJobDTO> bulkUpdateOrderStatus(
             @Parameter(description = "Order IDs") @RequestParam List<Long> orderIds,
             @Parameter(description = "New status") @RequestParam OrderStatus newStatus) {
         
-        log.info("Bulk updating {} orders to status {}", orderIds.size(), newStatus);
-        List<AdminOrderDTO> updatedOrders = adminOrderService.bulkUpdateOrderStatus(orderIds, newStatus);
-        return BaseResponse.success(updatedOrders);
+        log.info("Queueing bulk update of {} orders to status {}", orderIds.size(), newStatus);
+        OrderStatusJobDTO job = orderStatusJobService.submit(orderIds, newStatus);
+        return BaseResponse.success(job);
+    }
+
+    @GetMapping("/bulk-update-status/{jobId}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Get bulk update progress", description = "Get the state and progress of a bulk status change")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Job retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Job not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access forbidden")
+    })
+    public BaseResponse<OrderStatusJobDTO> getBulkUpdateStatusJob(
+            @Parameter(description = "Job ID") @PathVariable Long jobId) {
+        
+        log.info("Getting bulk status job: {}", jobId);
+        return BaseResponse.success(orderStatusJobService.getJob(jobId));
+    }
+
+    @GetMapping("/bulk-update-status/{jobId}/failures")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Get bulk update failures", description = "Get the orders a bulk status change could not update, with the reason")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Failures retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Job not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access forbidden")
+    })
+    public BaseResponse<Page<OrderStatusJobFailureDTO>> getBulkUpdateStatusFailures(
+            @Parameter(description = "Job ID") @PathVariable Long jobId,
+            @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        
+        log.info("Getting failures of bulk status job: {}, page: {}, size: {}", jobId, page, size);
+        Pageable pageable = PageRequest.of(page, size);
+        return BaseResponse.success(orderStatusJobService.getFailures(jobId, pageable));
     }
 
     @PostMapping("/{orderId}/notes")
@@ -57,6 +57,29 @@ public class BookController {
         return BaseResponse.success(books);
     }
     
+    @GetMapping("/books/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Scroll books", description = "Cursor-paginated list of books with the same filters as /books. " +
+               "Pass nextCursor from the previous slice to continue; sortBy supports title, createdAt and id")
+    public BaseResponse<CursorPage<BookDTO>> scrollBooks(
+            @Parameter(description = "Book title to search for") @RequestParam(required = false) String title,
+            @Parameter(description = "Author name to search for") @RequestParam(required = false) String author,
+            @Parameter(description = "Category ID to filter by") @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "Filter by lendable books") @RequestParam(required = false) Boolean isLendable,
+            @Parameter(description = "Filter by sellable books") @RequestParam(required = false) Boolean isSellable,
+            @Parameter(description = "Language code to filter by") @RequestParam(required = false) String language,
+            @Parameter(description = "Cursor from the previous slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort field") @RequestParam(defaultValue = "title") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Include total count (runs an extra count query)") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        log.info("Received scroll books request - title: {}, author: {}, categoryId: {}", title, author, categoryId);
+        CursorPage<BookDTO> books = bookService.scrollBooks(title, author, categoryId, isLendable, isSellable, language,
+                sortBy, sortDir, cursor, size, includeTotal);
+        return BaseResponse.success(books);
+    }
+    
     @PostMapping("/books/search")
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Advanced book search", description = "Advanced search with comprehensive criteria")
@@ -0,0 +1,76 @@
+package com.library.controller;
+
+import com.library.dto.BaseResponse;
+import com.library.dto.BookHoldDTO;
+import com.library.dto.CreateBookHoldRequestDTO;
+import com.library.service.BookHoldService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1")
+@Slf4j
+@Tag(name = "Book Holds", description = "APIs for queueing for books with no copy on the shelf")
+@CrossOrigin(origins = "*")
+public class BookHoldController {
+
+    private final BookHoldService bookHoldService;
+
+    public BookHoldController(BookHoldService bookHoldService) {
+        this.bookHoldService = bookHoldService;
+    }
+
+    @PostMapping("/loans/holds")
+    @ResponseStatus(HttpStatus.CREATED)
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Place a hold on a book",
+               description = "Join the book's hold queue; a copy is set aside right away if one is on the shelf (USER role required)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Hold placed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "409", description = "User already holds this book")
+    })
+    public BaseResponse<BookHoldDTO> placeHold(
+            @RequestAttribute("userId") Long userId,
+            @RequestBody @Validated CreateBookHoldRequestDTO request) {
+
+        log.info("User {} placing hold on book {}", userId, request.getBookId());
+        BookHoldDTO hold = bookHoldService.placeHold(userId, request.getBookId());
+        return BaseResponse.success(hold);
+    }
+
+    @GetMapping("/loans/holds/my")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Get user's holds",
+               description = "Waiting holds with their queue position and ready holds with their pickup deadline (USER role required)")
+    public BaseResponse<List<BookHoldDTO>> getUserHolds(
+            @RequestAttribute("userId") Long userId) {
+
+        log.info("Getting holds for user {}", userId);
+        return BaseResponse.success(bookHoldService.getUserHolds(userId));
+    }
+
+    @DeleteMapping("/loans/holds/{holdId}")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Cancel a hold", description = "Leave the queue, passing a set-aside copy to the next holder (USER role required)")
+    public BaseResponse<Void> cancelHold(
+            @RequestAttribute("userId") Long userId,
+            @Parameter(description = "Hold ID") @PathVariable Long holdId) {
+
+        log.info("User {} cancelling hold {}", userId, holdId);
+        bookHoldService.cancelHold(userId, holdId);
+        return BaseResponse.success(null);
+    }
+}
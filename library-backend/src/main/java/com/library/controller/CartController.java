@@ -186,8 +186,24 @@ public class CartController {
             @Parameter(description = "User ID", required = true) @RequestHeader("X-User-Id") Long userId) {
         
         log.info("Validating cart for user: {}", userId);
-        cartService.syncCartWithInventory(userId);
-        boolean isValid = cartService.validateCartForCheckout(userId);
-        return BaseResponse.success(isValid);
+        CartRevalidationDTO revalidation = cartService.revalidateCart(userId);
+        return BaseResponse.success(revalidation.isValid());
+    }
+    
+    @PostMapping("/revalidate")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Operation(summary = "Revalidate cart", description = "Correct the cart against current stock and prices and list the changes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cart revalidated"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+        @ApiResponse(responseCode = "403", description = "Access forbidden")
+    })
+    public BaseResponse<CartRevalidationDTO> revalidateCart(
+            @Parameter(description = "User ID", required = true) @RequestHeader("X-User-Id") Long userId) {
+        
+        log.info("Revalidating cart for user: {}", userId);
+        CartRevalidationDTO revalidation = cartService.revalidateCart(userId);
+        return BaseResponse.success(revalidation);
     }
 }
\ No newline at end of file
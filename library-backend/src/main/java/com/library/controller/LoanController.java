@@ -5,6 +5,7 @@ import com.library.dto.CreateLoanRequestDTO;
 import com.library.dto.LoanDTO;
 import com.library.dto.LoanHistoryDTO;
 import com.library.dto.CurrentLoanDTO;
+import com.library.dto.CursorPage;
 import com.library.service.LoanService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -22,6 +23,8 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+
 @RestController
 @RequestMapping("/api/v1")
 @Slf4j
@@ -72,6 +75,21 @@ public class LoanController {
         return BaseResponse.success(loans);
     }
     
+    @GetMapping("/loans/my-loans/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Scroll user's loan history", description = "Cursor-paginated loans of the authenticated user, newest first")
+    public BaseResponse<CursorPage<LoanDTO>> scrollUserLoans(
+            @RequestAttribute("userId") Long userId,
+            @Parameter(description = "Cursor from the previous slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Include total count (runs an extra count query)") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        log.info("Scrolling loans for user {}", userId);
+        CursorPage<LoanDTO> loans = loanService.scrollUserLoans(userId, cursor, size, includeTotal);
+        return BaseResponse.success(loans);
+    }
+    
     @GetMapping("/loans/my-loans/current")
     @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasRole('USER')")
@@ -113,6 +131,17 @@ public class LoanController {
         return BaseResponse.success(canBorrow, String.format("User has %d active loans", activeLoanCount));
     }
     
+    @GetMapping("/loans/my-fines")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Get user's unpaid fines", description = "Total of the authenticated user's unpaid loan fines (USER role required)")
+    public BaseResponse<BigDecimal> getUserUnpaidFineTotal(
+            @RequestAttribute("userId") Long userId) {
+        
+        log.info("Getting unpaid fine total for user {}", userId);
+        return BaseResponse.success(loanService.getUserUnpaidFineTotal(userId));
+    }
+    
     @GetMapping("/loans/my-history")
     @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasRole('USER')")
@@ -64,6 +64,26 @@ public class NotificationController {
         return BaseResponse.success(notifications);
     }
 
+    @GetMapping("/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Scroll user notifications", description = "Cursor-paginated user notifications, newest first")
+    @PreAuthorize("hasRole('USER') or hasRole('LIBRARIAN') or hasRole('ADMIN')")
+    public BaseResponse<CursorPage<NotificationDTO>> scrollUserNotifications(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Parameter(description = "Cursor from the previous slice") 
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size") 
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Include total count (runs an extra count query)") 
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.info("Scrolling notifications for user: {}", userDetails.getUsername());
+        
+        CursorPage<NotificationDTO> notifications = notificationService.scrollUserNotifications(
+                userDetails.getUsername(), cursor, size, includeTotal);
+        return BaseResponse.success(notifications);
+    }
+
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Get notification by ID", description = "Get specific notification details")
@@ -1,9 +1,11 @@
 package com.library.controller;
 
 import com.library.dto.*;
+import com.library.security.Idempotent;
 import com.library.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -33,12 +35,15 @@ public class OrderController {
     @ResponseStatus(HttpStatus.CREATED)
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     @Operation(summary = "Create order from cart", description = "Create a new order from user's shopping cart")
+    @Idempotent
+    @Parameter(in = ParameterIn.HEADER, name = "Idempotency-Key",
+               description = "Client-chosen key; retries with the same key replay the first response")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Order created successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid request data or cannot place order"),
         @ApiResponse(responseCode = "401", description = "Unauthorized access"),
         @ApiResponse(responseCode = "403", description = "Access forbidden"),
-        @ApiResponse(responseCode = "409", description = "Cart is empty or insufficient stock")
+        @ApiResponse(responseCode = "409", description = "Cart is empty, insufficient stock or Idempotency-Key conflict")
     })
     public BaseResponse<OrderDTO> createOrder(
             @Parameter(description = "User ID", required = true) @RequestHeader("X-User-Id") Long userId,
@@ -64,10 +69,11 @@ public class OrderController {
         @ApiResponse(responseCode = "403", description = "Access forbidden")
     })
     public BaseResponse<OrderCalculationDTO> calculateOrderTotals(
-            @Parameter(description = "User ID", required = true) @RequestHeader("X-User-Id") Long userId) {
+            @Parameter(description = "User ID", required = true) @RequestHeader("X-User-Id") Long userId,
+            @Parameter(description = "Promo code to apply") @RequestParam(required = false) String promoCode) {
         
         log.info("Calculating order totals for user: {}", userId);
-        OrderCalculationDTO calculation = orderService.calculateOrderTotals(userId);
+        OrderCalculationDTO calculation = orderService.calculateOrderTotals(userId, promoCode);
         return BaseResponse.success(calculation);
     }
 
@@ -91,6 +97,21 @@ public class OrderController {
         return BaseResponse.success(orders);
     }
 
+    @GetMapping("/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Operation(summary = "Scroll user order history", description = "Cursor-paginated list of user's orders, newest first")
+    public BaseResponse<CursorPage<OrderSummaryDTO>> scrollUserOrderHistory(
+            @Parameter(description = "User ID", required = true) @RequestHeader("X-User-Id") Long userId,
+            @Parameter(description = "Cursor from the previous slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Include total count (runs an extra count query)") @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.info("Scrolling order history for user: {}, size: {}", userId, size);
+        CursorPage<OrderSummaryDTO> orders = orderService.scrollUserOrderHistory(userId, cursor, size, includeTotal);
+        return BaseResponse.success(orders);
+    }
+
     @GetMapping("/current")
     @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
@@ -131,12 +152,16 @@ public class OrderController {
     @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     @Operation(summary = "Cancel order", description = "Cancel an order (only if not yet paid)")
+    @Idempotent
+    @Parameter(in = ParameterIn.HEADER, name = "Idempotency-Key",
+               description = "Client-chosen key; retries with the same key replay the first response")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Order cancelled successfully"),
         @ApiResponse(responseCode = "400", description = "Cannot cancel order"),
         @ApiResponse(responseCode = "401", description = "Unauthorized access"),
         @ApiResponse(responseCode = "403", description = "Access forbidden"),
-        @ApiResponse(responseCode = "404", description = "Order not found")
+        @ApiResponse(responseCode = "404", description = "Order not found"),
+        @ApiResponse(responseCode = "409", description = "Idempotency-Key conflict")
     })
     public BaseResponse<OrderDTO> cancelOrder(
             @Parameter(description = "User ID", required = true) @RequestHeader("X-User-Id") Long userId,
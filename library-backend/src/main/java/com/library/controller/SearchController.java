@@ -3,6 +3,8 @@ package com.library.controller;
 import com.library.dto.BaseResponse;
 import com.library.dto.BookDTO;
 import com.library.dto.BookSearchCriteria;
+import com.library.dto.BookSearchResultDTO;
+import com.library.dto.CursorPage;
 import com.library.service.SearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -32,7 +34,7 @@ public class SearchController {
     
     @GetMapping("/fulltext")
     @ResponseStatus(HttpStatus.OK)
-    @Operation(summary = "Full-text search", description = "Perform full-text search using PostgreSQL capabilities")
+    @Operation(summary = "Full-text search", description = "Perform ranked full-text search over title, description, ISBN, authors and publisher")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Search completed successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid search parameters")
@@ -46,9 +48,10 @@ public class SearchController {
         
         log.info("Full-text search request: q={}, page={}, size={}", q, page, size);
         
+        // An unsorted page request means relevance order
         Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, 
-            sortBy.equals("relevance") ? "createdAt" : sortBy));
+        Pageable pageable = sortBy.equals("relevance") ? PageRequest.of(page, size)
+            : PageRequest.of(page, size, Sort.by(direction, sortBy));
         
         Page<BookDTO> results = searchService.fullTextSearch(q, pageable);
         return BaseResponse.success(results);
@@ -77,6 +80,45 @@ public class SearchController {
         return BaseResponse.success(results);
     }
     
+    @PostMapping("/advanced/faceted")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Advanced search with facets", 
+               description = "Advanced search that also returns category, publisher, language, decade and price counts over all matches")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Search completed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid search criteria")
+    })
+    public BaseResponse<BookSearchResultDTO> advancedSearchWithFacets(
+            @RequestBody BookSearchCriteria criteria,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        
+        log.info("Faceted advanced search request with criteria: {}", criteria);
+        
+        Sort.Direction direction = criteria.getSortDirection().equalsIgnoreCase("desc") ? 
+            Sort.Direction.DESC : Sort.Direction.ASC;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, criteria.getSortBy()));
+        
+        BookSearchResultDTO results = searchService.advancedSearchWithFacets(criteria, pageable);
+        return BaseResponse.success(results);
+    }
+    
+    @PostMapping("/advanced/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Advanced search with cursor pagination",
+               description = "Same filters as /advanced without OFFSET or COUNT; sortBy supports title, createdAt and id")
+    public BaseResponse<CursorPage<BookDTO>> scrollAdvancedSearch(
+            @RequestBody BookSearchCriteria criteria,
+            @Parameter(description = "Cursor from the previous slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Include total count (runs an extra count query)") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        log.info("Advanced search scroll request with criteria: {}", criteria);
+        
+        CursorPage<BookDTO> results = searchService.scrollAdvancedSearch(criteria, cursor, size, includeTotal);
+        return BaseResponse.success(results);
+    }
+    
     @GetMapping("/categories")
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Search by categories", description = "Search books by multiple categories")
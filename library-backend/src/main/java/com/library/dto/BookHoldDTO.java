@@ -0,0 +1,40 @@
+package com.library.dto;
+
+import com.library.entity.BookHold;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookHoldDTO {
+
+    private Long id;
+
+    private Long bookId;
+
+    private String bookTitle;
+
+    private Long userId;
+
+    private BookHold.Status status;
+
+    private Integer priority;
+
+    // 1 for the next holder served; only while WAITING
+    private Long queuePosition;
+
+    private LocalDateTime readyAt;
+
+    // Request the loan before this, or the copy moves on
+    private LocalDateTime pickupExpiresAt;
+
+    private Long loanId;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,23 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Search results together with facet counts over the whole hit set, keyed by facet name
+ * (category, publisher, language, decade, price)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSearchResultDTO {
+    private Page<BookDTO> results;
+    private Map<String, List<FacetCountDTO>> facets;
+}
@@ -0,0 +1,29 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private String cacheName;
+    private long gets;
+    private long hits;
+    private long misses;
+    private Double hitRatio; // null until the cache has been read
+    private long puts;
+    private long evictions;
+    private Instant since;
+
+    // In-process level; null for caches that are served by Redis alone
+    private Long localHits;
+    private Long localMisses;
+    private Double localHitRatio;
+    private Long localSize;
+}
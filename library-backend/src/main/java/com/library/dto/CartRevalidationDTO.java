@@ -0,0 +1,47 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartRevalidationDTO {
+
+    private Long userId;
+
+    private int checkedItems;
+
+    // Lines removed, reduced or repriced, as they were and as they are now
+    private List<LineChange> changes;
+
+    // False when the cart changed meanwhile and some corrections were not applied
+    private boolean valid;
+
+    public enum ChangeType {
+        REMOVED,
+        QUANTITY_REDUCED,
+        PRICE_CHANGED
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineChange {
+        private Long bookId;
+        private String bookTitle;
+        private ChangeType type;
+        private String reason;
+        private int oldQuantity;
+        private int newQuantity;
+        private BigDecimal oldUnitPrice;
+        private BigDecimal newUnitPrice;
+    }
+}
@@ -0,0 +1,15 @@
+package com.library.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateBookHoldRequestDTO {
+
+    @NotNull(message = "Book ID is required")
+    private Long bookId;
+}
@@ -39,4 +39,8 @@ public class CreateOrderRequestDTO {
     // Payment method preference
     @Size(max = 50, message = "Payment method must not exceed 50 characters")
     private String paymentMethod;
+
+    // Optional promo code, priced at checkout
+    @Size(max = 50, message = "Promo code must not exceed 50 characters")
+    private String promoCode;
 }
\ No newline at end of file
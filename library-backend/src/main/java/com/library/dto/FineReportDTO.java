@@ -0,0 +1,27 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FineReportDTO {
+
+    // Outstanding fines right now
+    private long loansWithUnpaidFines;
+    private long usersWithUnpaidFines;
+    private BigDecimal unpaidFineAmount;
+
+    // Fine ledger activity in [from, to)
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long loansFined;
+    private BigDecimal finedAmount;
+}
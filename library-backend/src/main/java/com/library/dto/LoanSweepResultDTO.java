@@ -0,0 +1,33 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoanSweepResultDTO {
+
+    private String sweep;
+
+    // Cutoff the loans were swept against
+    private LocalDateTime asOf;
+
+    // Whether this run continued one cut short
+    private boolean resumed;
+
+    private long processedLoans;
+
+    private long updatedLoans;
+
+    private int chunks;
+
+    private long elapsedMillis;
+
+    private double loansPerSecond;
+}
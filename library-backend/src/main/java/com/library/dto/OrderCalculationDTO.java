@@ -20,6 +20,8 @@ public class OrderCalculationDTO {
     private BigDecimal taxAmount;
     private BigDecimal totalAmount;
     private Integer totalItems;
+    private Integer totalQuantity;
+    private String promoCode;
     private List<CartItemDTO> cartItems;
     private boolean canProceedToCheckout;
     private List<String> validationErrors;
@@ -41,6 +41,7 @@ public class OrderDTO {
     private String shippingCountry;
     private LocalDateTime shippingDate;
     private LocalDateTime deliveryDate;
+    private LocalDateTime stockHoldExpiresAt; // pay before this or the order is cancelled
 
     // Notes
     private String customerNote;
@@ -0,0 +1,33 @@
+package com.library.dto;
+
+import com.library.entity.OrderStatus;
+import com.library.entity.OrderStatusJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusJobDTO {
+
+    private Long id;
+    private OrderStatus targetStatus;
+    private OrderStatusJob.State state;
+
+    // Progress
+    private Integer totalCount;
+    private Integer processedCount;
+    private Integer updatedCount;
+    private Integer failedCount;
+    private Double progressPercent;
+
+    private String requestedBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,32 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderViewConsistencyDTO {
+
+    private long checkedOrders;
+
+    // Orders without a view
+    private long missingViews;
+
+    // Views that differ from their order
+    private long staleViews;
+
+    // Views whose order no longer exists
+    private long orphanedViews;
+
+    // Whether the differences found were repaired
+    private boolean repaired;
+
+    // First order IDs found missing, stale or orphaned
+    private List<Long> sampleOrderIds;
+}
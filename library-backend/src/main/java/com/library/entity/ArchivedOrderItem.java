@@ -0,0 +1,51 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Line of an {@link ArchivedOrder}. The book is kept as a plain id, so books can change or go
+ * away without touching the archive; the title and ISBN snapshot describe the line.
+ */
+@Entity
+@Table(name = "order_items_archive")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrderItem {
+
+    @Id
+    private Long id;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    private ArchivedOrder order;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "price_per_unit", nullable = false, precision = 12, scale = 2)
+    private BigDecimal pricePerUnit;
+
+    @Column(name = "item_total_price", nullable = false, precision = 12, scale = 2)
+    private BigDecimal itemTotalPrice;
+
+    @Column(name = "book_title", nullable = false)
+    private String bookTitle;
+
+    @Column(name = "book_isbn", nullable = false)
+    private String bookIsbn;
+}
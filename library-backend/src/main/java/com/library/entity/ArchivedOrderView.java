@@ -0,0 +1,103 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * {@link OrderView} of an archived order, moved to {@code order_views_archive} with the order.
+ * Same columns as the hot view; {@link #toView()} lets the history pages treat both alike.
+ */
+@Entity
+@Table(name = "order_views_archive")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrderView {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "order_code", nullable = false, unique = true)
+    private String orderCode;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", length = 20)
+    private PaymentStatus paymentStatus;
+
+    @Column(name = "total_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "total_items", nullable = false)
+    private Integer totalItems;
+
+    @Column(name = "total_books", nullable = false)
+    private Integer totalBooks;
+
+    @Column(name = "shipping_city")
+    private String shippingCity;
+
+    @Column(name = "shipping_address", length = 1000)
+    private String shippingAddress;
+
+    @Column(name = "shipping_date")
+    private LocalDateTime shippingDate;
+
+    @Column(name = "delivery_date")
+    private LocalDateTime deliveryDate;
+
+    @Column(name = "expected_delivery_date")
+    private LocalDateTime expectedDeliveryDate;
+
+    @Column(name = "items_preview", columnDefinition = "TEXT")
+    private String itemsPreview;
+
+    @Column(name = "timeline", columnDefinition = "TEXT")
+    private String timeline;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+
+    public OrderView toView() {
+        return OrderView.builder()
+                .orderId(orderId)
+                .userId(userId)
+                .orderCode(orderCode)
+                .orderDate(orderDate)
+                .status(status)
+                .paymentStatus(paymentStatus)
+                .totalAmount(totalAmount)
+                .totalItems(totalItems)
+                .totalBooks(totalBooks)
+                .shippingCity(shippingCity)
+                .shippingAddress(shippingAddress)
+                .shippingDate(shippingDate)
+                .deliveryDate(deliveryDate)
+                .expectedDeliveryDate(expectedDeliveryDate)
+                .itemsPreview(itemsPreview)
+                .timeline(timeline)
+                .createdAt(createdAt)
+                .refreshedAt(refreshedAt)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A patron's place in the hold queue of a lendable book. Waiting holds are served by priority,
+ * then in the order they were placed. A copy coming back is set aside for the head of the queue,
+ * which then has until {@code pickupExpiresAt} to request the loan before the copy moves on.
+ */
+@Entity
+@Table(name = "book_holds")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookHold {
+
+    public enum Status {
+        WAITING,
+        // A copy is set aside for the holder
+        READY,
+        // The holder requested the loan of the set-aside copy
+        FULFILLED,
+        // Not picked up in time
+        EXPIRED,
+        CANCELLED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.WAITING;
+
+    // Higher is served first; patrons' own holds are 0
+    @Column(name = "priority", nullable = false)
+    @Builder.Default
+    private Integer priority = 0;
+
+    @Column(name = "ready_at")
+    private LocalDateTime readyAt;
+
+    @Column(name = "pickup_expires_at")
+    private LocalDateTime pickupExpiresAt;
+
+    // The loan requested with the set-aside copy
+    @Column(name = "loan_id")
+    private Long loanId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
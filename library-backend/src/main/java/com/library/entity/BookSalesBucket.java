@@ -0,0 +1,49 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Copies of one book in paid orders placed within one hour or day.
+ */
+@Entity
+@Table(name = "book_sales_buckets")
+@IdClass(BookSalesBucket.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSalesBucket {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", length = 10)
+    private StatsGranularity granularity;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(name = "book_title", nullable = false)
+    private String bookTitle;
+
+    @Column(name = "quantity", nullable = false)
+    private Long quantity;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private StatsGranularity granularity;
+        private LocalDateTime bucketStart;
+        private Long bookId;
+    }
+}
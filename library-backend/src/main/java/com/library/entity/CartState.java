@@ -0,0 +1,34 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Write-behind state of one user's cart. The write-behind locks the row while it copies the
+ * cart from Redis, and {@code stale} marks a cart changed in {@code cart_items} while Redis was
+ * down, so every node drops the Redis copy rather than writing it back.
+ */
+@Entity
+@Table(name = "cart_states")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartState {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "stale", nullable = false)
+    @Builder.Default
+    private Boolean stale = false;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,68 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A reminder due for a loan at {@code fireAt}. Triggers are registered when the due date is set
+ * and fire once: the PENDING to FIRED update is the claim, so only one poller sends the reminder.
+ */
+@Entity
+@Table(name = "loan_due_triggers")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanDueTrigger {
+
+    public enum TriggerType {
+        // The day before the due date
+        DUE_SOON,
+        // Each overdue reminder; firing one registers the next
+        OVERDUE
+    }
+
+    public enum Status {
+        PENDING,
+        FIRED,
+        // The loan ended before the trigger fired
+        CANCELLED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "loan_id", nullable = false)
+    private Long loanId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "trigger_type", nullable = false, length = 20)
+    private TriggerType triggerType;
+
+    @Column(name = "fire_at", nullable = false)
+    private LocalDateTime fireAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Column(name = "fired_at")
+    private LocalDateTime firedAt;
+
+    // Failed attempts to fire; each one puts fireAt further back
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
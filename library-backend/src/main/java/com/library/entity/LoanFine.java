@@ -0,0 +1,65 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of a change to a loan's fine. {@code amount} is the change and {@code balance}
+ * the loan's fine after it, so the entries of a loan add up to its {@code fineAmount}.
+ */
+@Entity
+@Table(name = "loan_fines")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanFine {
+
+    public enum EntryType {
+        // Nightly accrual or the overdue sweep
+        ACCRUAL,
+        // Fine recalculated on request by a librarian
+        RECALCULATION,
+        // Final fine set when the book came back
+        RETURN
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "loan_id", nullable = false)
+    private Long loanId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 20)
+    private EntryType entryType;
+
+    // Days overdue the fine was worked out for, when it follows the fine rules
+    @Column(name = "fine_days")
+    private Integer fineDays;
+
+    @Column(name = "amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "balance", nullable = false, precision = 10, scale = 2)
+    private BigDecimal balance;
+
+    // Moment the fine was worked out as of
+    @Column(name = "accrued_at", nullable = false)
+    private LocalDateTime accruedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,62 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a loan sweep. Loans are swept in id order as of {@code asOf}, and {@code lastLoanId}
+ * records how far the run got, so a run cut short resumes there with the same cutoff.
+ */
+@Entity
+@Table(name = "loan_sweep_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanSweepCheckpoint {
+
+    public enum State {
+        RUNNING,
+        COMPLETED
+    }
+
+    @Id
+    @Column(name = "sweep", length = 50)
+    private String sweep;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false, length = 20)
+    private State state;
+
+    // Cutoff of the run: loans due before it are swept
+    @Column(name = "as_of", nullable = false)
+    private LocalDateTime asOf;
+
+    @Column(name = "last_loan_id", nullable = false)
+    @Builder.Default
+    private Long lastLoanId = 0L;
+
+    @Column(name = "processed_count", nullable = false)
+    @Builder.Default
+    private Long processedCount = 0L;
+
+    @Column(name = "updated_count", nullable = false)
+    @Builder.Default
+    private Long updatedCount = 0L;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
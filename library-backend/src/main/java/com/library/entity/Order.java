@@ -100,6 +100,10 @@ public class Order {
     @Column(name = "delivery_date")
     private LocalDateTime deliveryDate;
 
+    // End of the payment window; the reserved stock is released if the order is still unpaid then
+    @Column(name = "stock_hold_expires_at")
+    private LocalDateTime stockHoldExpiresAt;
+
     // Notes
     @Column(name = "customer_note", columnDefinition = "TEXT")
     private String customerNote;
@@ -0,0 +1,25 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Order code counter of one month. {@code nextValue} is the highest number leased to any node so
+ * far; numbers inside a lease are handed out in memory by the node that holds it.
+ */
+@Entity
+@Table(name = "order_code_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCodeSequence {
+
+    @Id
+    @Column(name = "period", length = 6)
+    private String period;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
@@ -0,0 +1,68 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Orders placed within one hour or day that currently have a given status and payment status.
+ * An order stays in the bucket of its order date; status changes move it between cells.
+ */
+@Entity
+@Table(name = "order_stats_buckets")
+@IdClass(OrderStatsBucket.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatsBucket {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", length = 10)
+    private StatsGranularity granularity;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    private OrderStatus status;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", length = 20)
+    private PaymentStatus paymentStatus;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Column(name = "item_count", nullable = false)
+    private Long itemCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 16, scale = 2)
+    private BigDecimal totalAmount;
+
+    // Orders with a shipping date, and their hours from order to shipping
+    @Column(name = "shipped_count", nullable = false)
+    private Long shippedCount;
+
+    @Column(name = "processing_hours", nullable = false)
+    private Long processingHours;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private StatsGranularity granularity;
+        private LocalDateTime bucketStart;
+        private OrderStatus status;
+        private PaymentStatus paymentStatus;
+    }
+}
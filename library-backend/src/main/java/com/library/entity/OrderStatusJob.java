@@ -0,0 +1,84 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Background change of many orders to one status. Orders are processed in id order, and
+ * {@code lastOrderId} records how far the job got, so any node can resume it after the owner's
+ * lease runs out.
+ */
+@Entity
+@Table(name = "order_status_jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusJob {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_status", nullable = false, length = 20)
+    private OrderStatus targetStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false, length = 20)
+    @Builder.Default
+    private State state = State.QUEUED;
+
+    @Column(name = "total_count", nullable = false)
+    private Integer totalCount;
+
+    @Column(name = "processed_count", nullable = false)
+    @Builder.Default
+    private Integer processedCount = 0;
+
+    @Column(name = "updated_count", nullable = false)
+    @Builder.Default
+    private Integer updatedCount = 0;
+
+    @Column(name = "failed_count", nullable = false)
+    @Builder.Default
+    private Integer failedCount = 0;
+
+    @Column(name = "last_order_id", nullable = false)
+    @Builder.Default
+    private Long lastOrderId = 0L;
+
+    @Column(name = "requested_by", length = 100)
+    private String requestedBy;
+
+    // Node running the job, and until when it may do so without renewing
+    @Column(name = "owner", length = 64)
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,49 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * One order of an {@link OrderStatusJob}, with the outcome once its chunk has run.
+ */
+@Entity
+@Table(name = "order_status_job_items")
+@IdClass(OrderStatusJobItem.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusJobItem {
+
+    public enum State {
+        PENDING,
+        UPDATED,
+        FAILED
+    }
+
+    @Id
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false, length = 10)
+    private State state;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long jobId;
+        private Long orderId;
+    }
+}
@@ -0,0 +1,88 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model of one order for the customer history and tracking pages. It is rewritten from the
+ * order in the transaction of every order change, so a listing reads these rows alone, without
+ * touching order items or books. Dates are kept to the second, like the order columns.
+ */
+@Entity
+@Table(name = "order_views")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderView {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "order_code", nullable = false, unique = true)
+    private String orderCode;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", length = 20)
+    private PaymentStatus paymentStatus;
+
+    @Column(name = "total_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalAmount;
+
+    // Order lines
+    @Column(name = "total_items", nullable = false)
+    private Integer totalItems;
+
+    // Copies over all lines
+    @Column(name = "total_books", nullable = false)
+    private Integer totalBooks;
+
+    @Column(name = "shipping_city")
+    private String shippingCity;
+
+    @Column(name = "shipping_address", length = 1000)
+    private String shippingAddress;
+
+    @Column(name = "shipping_date")
+    private LocalDateTime shippingDate;
+
+    @Column(name = "delivery_date")
+    private LocalDateTime deliveryDate;
+
+    @Column(name = "expected_delivery_date")
+    private LocalDateTime expectedDeliveryDate;
+
+    // JSON array of the first order lines, as OrderItemDTO
+    @Column(name = "items_preview", columnDefinition = "TEXT")
+    private String itemsPreview;
+
+    // JSON array of the completed tracking steps, as OrderTrackingDTO.OrderTrackingEvent
+    @Column(name = "timeline", columnDefinition = "TEXT")
+    private String timeline;
+
+    // Creation time of the order, the sort key of the history listings
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @EqualsAndHashCode.Exclude
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,36 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A loan that is still requested or out, by user and book, so "does this user hold this book"
+ * is an index lookup. Rows leave when their loan is returned or cancelled.
+ */
+@Entity
+@Table(name = "user_loan_books", indexes = {
+        @Index(name = "idx_user_loan_books_user_book", columnList = "user_id, book_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserLoanBook {
+
+    @Id
+    @Column(name = "loan_id")
+    private Long loanId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private LoanStatus status;
+}
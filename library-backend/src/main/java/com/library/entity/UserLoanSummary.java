@@ -0,0 +1,35 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Loan summary of one user, kept up to date in the transaction of every loan status change so
+ * borrowing eligibility is a primary key lookup. The books the user currently holds are kept
+ * alongside in {@link UserLoanBook}.
+ */
+@Entity
+@Table(name = "user_loan_summaries")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserLoanSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // REQUESTED, APPROVED or BORROWED; what the per-user loan limit counts
+    @Column(name = "active_loans", nullable = false)
+    @Builder.Default
+    private Integer activeLoans = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
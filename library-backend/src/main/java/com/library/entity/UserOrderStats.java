@@ -0,0 +1,67 @@
+package com.library.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Order statistics of one user, kept up to date in the transaction of every order change so
+ * reading them is a primary key lookup. Counts follow the order status; spending and books
+ * purchased count orders whose payment status is PAID.
+ */
+@Entity
+@Table(name = "user_order_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserOrderStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "total_orders", nullable = false)
+    @Builder.Default
+    private Long totalOrders = 0L;
+
+    // DELIVERED
+    @Column(name = "completed_orders", nullable = false)
+    @Builder.Default
+    private Long completedOrders = 0L;
+
+    @Column(name = "cancelled_orders", nullable = false)
+    @Builder.Default
+    private Long cancelledOrders = 0L;
+
+    // PENDING_PAYMENT, PAID or PROCESSING
+    @Column(name = "pending_orders", nullable = false)
+    @Builder.Default
+    private Long pendingOrders = 0L;
+
+    @Column(name = "total_spent", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal totalSpent = BigDecimal.ZERO;
+
+    @Column(name = "largest_order_value", nullable = false, precision = 12, scale = 2)
+    @Builder.Default
+    private BigDecimal largestOrderValue = BigDecimal.ZERO;
+
+    @Column(name = "books_purchased", nullable = false)
+    @Builder.Default
+    private Long booksPurchased = 0L;
+
+    @Column(name = "first_order_date")
+    private LocalDateTime firstOrderDate;
+
+    @Column(name = "last_order_date")
+    private LocalDateTime lastOrderDate;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -6,6 +6,8 @@ public enum NotificationType {
     LOAN_DUE_SOON("Loan Due Soon", "Your borrowed book is due soon"),
     LOAN_OVERDUE("Loan Overdue", "Your borrowed book is overdue"),
     LOAN_RETURNED("Book Returned", "Book has been successfully returned"),
+    HOLD_READY("Reserved Book Ready", "A book you reserved is ready for pickup"),
+    HOLD_EXPIRED("Reservation Expired", "A book you reserved was not picked up in time"),
     
     ORDER_CONFIRMED("Order Confirmed", "Your order has been confirmed"),
     ORDER_SHIPPED("Order Shipped", "Your order has been shipped"),
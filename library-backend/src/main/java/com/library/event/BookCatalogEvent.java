@@ -0,0 +1,27 @@
+package com.library.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class BookCatalogEvent extends ApplicationEvent {
+
+    public enum BookCatalogEventType {
+        BOOK_CREATED,
+        BOOK_UPDATED,
+        BOOK_DELETED
+    }
+
+    private final BookCatalogEventType eventType;
+    private final Long bookId;
+    private final LocalDateTime eventTime;
+
+    public BookCatalogEvent(Object source, BookCatalogEventType eventType, Long bookId) {
+        super(source);
+        this.eventType = eventType;
+        this.bookId = bookId;
+        this.eventTime = LocalDateTime.now();
+    }
+}
@@ -14,7 +14,10 @@ public class LoanEvent extends ApplicationEvent {
         LOAN_DUE_SOON,
         LOAN_OVERDUE,
         LOAN_RETURNED,
-        LOAN_RENEWED
+        LOAN_RENEWED,
+        // A copy is set aside for a hold; dueDate carries the pickup deadline
+        HOLD_READY,
+        HOLD_EXPIRED
     }
     
     private final LoanEventType eventType;
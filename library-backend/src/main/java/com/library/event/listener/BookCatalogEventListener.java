@@ -0,0 +1,52 @@
+package com.library.event.listener;
+
+import com.library.event.BookCatalogEvent;
+import com.library.service.BookSearchEngine;
+import com.library.service.BookSuggester;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookCatalogEventListener {
+
+    private final BookSearchEngine bookSearchEngine;
+    private final BookSuggester bookSuggester;
+
+    // Runs after commit so the index never sees a book that was rolled back
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Async("eventTaskExecutor")
+    public void handleBookCatalogEvent(BookCatalogEvent event) {
+        try {
+            log.debug("Processing catalog event: {} for book: {}", event.getEventType(), event.getBookId());
+
+            switch (event.getEventType()) {
+                case BOOK_CREATED, BOOK_UPDATED -> bookSearchEngine.indexBook(event.getBookId());
+                case BOOK_DELETED -> bookSearchEngine.removeBook(event.getBookId());
+            }
+
+        } catch (Exception e) {
+            log.error("Failed to process catalog event {} for book: {}", event.getEventType(), event.getBookId(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Async("eventTaskExecutor")
+    public void updateSuggestions(BookCatalogEvent event) {
+        try {
+            switch (event.getEventType()) {
+                case BOOK_CREATED, BOOK_UPDATED -> bookSuggester.indexBook(event.getBookId());
+                case BOOK_DELETED -> bookSuggester.removeBook(event.getBookId());
+            }
+
+        } catch (Exception e) {
+            log.error("Failed to update suggestions for catalog event {} on book: {}",
+                    event.getEventType(), event.getBookId(), e);
+        }
+    }
+}
@@ -76,6 +76,20 @@ public class NotificationEventListener {
                     String message = String.format("Your loan for '%s' has been renewed successfully.", event.getBookTitle());
                     notificationService.createNotification(event.getUserId(), NotificationType.LOAN_APPROVED, title, message);
                 }
+                
+                case HOLD_READY -> {
+                    String title = "Reserved Book Ready";
+                    String message = String.format("A copy of '%s' is set aside for you. Request the loan before %s.",
+                            event.getBookTitle(), event.getDueDate());
+                    notificationService.createNotification(event.getUserId(), NotificationType.HOLD_READY, title, message);
+                }
+                
+                case HOLD_EXPIRED -> {
+                    String title = "Reservation Expired";
+                    String message = String.format("Your reserved copy of '%s' was not picked up in time and has passed to the next reader.",
+                            event.getBookTitle());
+                    notificationService.createNotification(event.getUserId(), NotificationType.HOLD_EXPIRED, title, message);
+                }
             }
             
             log.info("Loan notification processed successfully for user: {}", event.getUserId());
@@ -34,7 +34,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<BaseResponse<Object>> handleInsufficientStockException(InsufficientStockException ex) {
         log.error("Insufficient stock: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                .body(BaseResponse.error("INSUFFICIENT_STOCK"));
+                .body(BaseResponse.error("INSUFFICIENT_STOCK", ex.getMessage()));
     }
     
     @ExceptionHandler(MaxLoansExceededException.class)
@@ -58,6 +58,13 @@ public class GlobalExceptionHandler {
                 .body(BaseResponse.error("DUPLICATE_LOAN_REQUEST"));
     }
     
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<BaseResponse<Object>> handleIdempotencyConflictException(IdempotencyConflictException ex) {
+        log.warn("Idempotency conflict: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(BaseResponse.error("IDEMPOTENCY_CONFLICT", ex.getMessage()));
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<BaseResponse<Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
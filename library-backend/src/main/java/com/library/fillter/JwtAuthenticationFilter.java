@@ -3,6 +3,7 @@ package com.library.fillter;
 import com.library.util.JwtVerifier;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -11,6 +12,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
@@ -35,11 +37,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
               try {
                   if (jwtVerifier.validateToken(token)) {
                       String username = jwtVerifier.extractUsername(token);
+                      String role = jwtVerifier.extractRole(token);
 
                       if (username != null) {
-                          // Create authentication object
+                          // Create authentication object, with the role for role-restricted endpoints
+                          List<SimpleGrantedAuthority> authorities = role != null
+                                  ? List.of(new SimpleGrantedAuthority("ROLE_" + role))
+                                  : Collections.emptyList();
                           UsernamePasswordAuthenticationToken authentication =
-                              new UsernamePasswordAuthenticationToken(username, null, Collections.emptyList());
+                              new UsernamePasswordAuthenticationToken(username, null, authorities);
                           SecurityContextHolder.getContext().setAuthentication(authentication);
 
                       }
@@ -55,8 +61,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       @Override
       protected boolean shouldNotFilter(HttpServletRequest request) {
           String path = request.getRequestURI();
-          // Skip JWT validation for public endpoints
+          // Skip JWT validation for public endpoints; other actuator endpoints need an admin token
           return path.startsWith("/api/v1/books/public") ||
-                 path.startsWith("/actuator/");
+                 path.equals("/actuator/health") || path.startsWith("/actuator/health/") ||
+                 path.equals("/actuator/info");
       }
   }
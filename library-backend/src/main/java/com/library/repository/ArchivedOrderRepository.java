@@ -0,0 +1,92 @@
+package com.library.repository;
+
+import com.library.entity.ArchivedOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    String ORDER_COLUMNS = "id, user_id, order_code, order_date, sub_total_amount, shipping_fee, discount_amount, " +
+            "tax_amount, total_amount, status, payment_status, payment_method, payment_transaction_id, " +
+            "shipping_address_line1, shipping_address_line2, shipping_city, shipping_postal_code, shipping_country, " +
+            "shipping_date, delivery_date, customer_note, admin_notes, created_at, updated_at";
+
+    String ITEM_COLUMNS = "id, order_id, book_id, quantity, price_per_unit, item_total_price, book_title, book_isbn";
+
+    String VIEW_COLUMNS = "order_id, user_id, order_code, order_date, status, payment_status, total_amount, " +
+            "total_items, total_books, shipping_city, shipping_address, shipping_date, delivery_date, " +
+            "expected_delivery_date, items_preview, timeline, created_at, refreshed_at";
+
+    // Archival batch: finished orders last changed before the cutoff, locked until the batch commits.
+    // Orders still missing their view stay hot until the view check creates it.
+    @Query(value = "SELECT id FROM orders WHERE id > :afterOrderId " +
+                   "AND status IN ('DELIVERED', 'CANCELLED', 'REFUNDED') " +
+                   "AND COALESCE(updated_at, created_at) < :cutoff " +
+                   "AND EXISTS (SELECT 1 FROM order_views v WHERE v.order_id = orders.id) " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockArchivableOrderIds(@Param("afterOrderId") Long afterOrderId,
+                                      @Param("cutoff") LocalDateTime cutoff,
+                                      @Param("limit") int limit);
+
+    // Copies of the batch, column for column, then the deletes from the hot tables
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive (" + ORDER_COLUMNS + ", archived_at) " +
+                   "SELECT " + ORDER_COLUMNS + ", :archivedAt FROM orders WHERE id IN :orderIds",
+           nativeQuery = true)
+    int copyOrders(@Param("orderIds") Collection<Long> orderIds, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_items_archive (" + ITEM_COLUMNS + ") " +
+                   "SELECT " + ITEM_COLUMNS + " FROM order_items WHERE order_id IN :orderIds",
+           nativeQuery = true)
+    int copyOrderItems(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_views_archive (" + VIEW_COLUMNS + ") " +
+                   "SELECT " + VIEW_COLUMNS + " FROM order_views WHERE order_id IN :orderIds",
+           nativeQuery = true)
+    int copyOrderViews(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_items WHERE order_id IN :orderIds", nativeQuery = true)
+    int deleteHotOrderItems(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE id IN :orderIds", nativeQuery = true)
+    int deleteHotOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    // Order detail of an archived order
+    @Query("SELECT DISTINCT o FROM ArchivedOrder o LEFT JOIN FETCH o.orderItems " +
+           "WHERE o.orderCode = :orderCode AND o.userId = :userId")
+    Optional<ArchivedOrder> findWithItemsByOrderCodeAndUserId(@Param("orderCode") String orderCode,
+                                                              @Param("userId") Long userId);
+
+    // Rebuild of the user_order_stats rollup, added to the totals of the hot orders
+    @Query("SELECT COUNT(o) AS totalOrders, " +
+           "SUM(CASE WHEN o.status = 'DELIVERED' THEN 1 ELSE 0 END) AS completedOrders, " +
+           "SUM(CASE WHEN o.status = 'CANCELLED' THEN 1 ELSE 0 END) AS cancelledOrders, " +
+           "SUM(CASE WHEN o.status IN ('PENDING_PAYMENT', 'PAID', 'PROCESSING') THEN 1 ELSE 0 END) AS pendingOrders, " +
+           "SUM(CASE WHEN o.paymentStatus = 'PAID' THEN o.totalAmount ELSE 0 END) AS totalSpent, " +
+           "MAX(o.totalAmount) AS largestOrderValue, " +
+           "MIN(o.orderDate) AS firstOrderDate, MAX(o.orderDate) AS lastOrderDate " +
+           "FROM ArchivedOrder o WHERE o.userId = :userId")
+    OrderRepository.UserOrderTotals sumOrdersByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(SUM(i.quantity), 0) FROM ArchivedOrderItem i " +
+           "WHERE i.order.userId = :userId AND i.order.paymentStatus = 'PAID'")
+    Long sumPaidQuantityByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT DISTINCT o.userId FROM ArchivedOrder o WHERE o.userId > :afterUserId ORDER BY o.userId")
+    List<Long> findUserIdsAfter(@Param("afterUserId") Long afterUserId, Pageable pageable);
+}
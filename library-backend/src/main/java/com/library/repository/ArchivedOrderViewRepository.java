@@ -0,0 +1,34 @@
+package com.library.repository;
+
+import com.library.entity.ArchivedOrderView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderViewRepository extends JpaRepository<ArchivedOrderView, Long> {
+
+    long countByUserId(Long userId);
+
+    // History pages past the hot orders, at any offset into the archive
+    @Query("SELECT v FROM ArchivedOrderView v WHERE v.userId = :userId ORDER BY v.createdAt DESC, v.orderId DESC " +
+           "LIMIT :limit OFFSET :offset")
+    List<ArchivedOrderView> findByUserIdAt(@Param("userId") Long userId, @Param("offset") long offset,
+                                           @Param("limit") int limit);
+
+    // Keyset continuation, with the same cursor as the hot views
+    List<ArchivedOrderView> findByUserIdOrderByCreatedAtDescOrderIdDesc(Long userId, Pageable pageable);
+
+    @Query("SELECT v FROM ArchivedOrderView v WHERE v.userId = :userId AND (v.createdAt < :createdAt " +
+           "OR (v.createdAt = :createdAt AND v.orderId < :orderId)) ORDER BY v.createdAt DESC, v.orderId DESC")
+    List<ArchivedOrderView> findByUserIdBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("orderId") Long orderId, Pageable pageable);
+
+    Optional<ArchivedOrderView> findByOrderCodeAndUserId(String orderCode, Long userId);
+}
@@ -30,6 +30,9 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
     @Query("SELECT COUNT(ba) FROM BookAuthor ba WHERE ba.author.id = :authorId")
     Long countBooksByAuthorId(@Param("authorId") Long authorId);
     
+    @Query("SELECT ba.book.id FROM BookAuthor ba WHERE ba.author.id = :authorId")
+    List<Long> findBookIdsByAuthorId(@Param("authorId") Long authorId);
+    
     @Query("SELECT DISTINCT a.nationality FROM Author a WHERE a.nationality IS NOT NULL")
     List<String> findAllNationalities();
     
@@ -0,0 +1,66 @@
+package com.library.repository;
+
+import com.library.entity.BookHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookHoldRepository extends JpaRepository<BookHold, Long> {
+
+    // Head of a book's queue, locked so two copies coming back at once go to different holders
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM BookHold h WHERE h.bookId = :bookId AND h.status = 'WAITING' " +
+           "ORDER BY h.priority DESC, h.id")
+    List<BookHold> findQueueHeadForUpdate(@Param("bookId") Long bookId, Pageable pageable);
+
+    @Query("SELECT COUNT(h) FROM BookHold h WHERE h.bookId = :bookId AND h.status = 'WAITING' " +
+           "AND (h.priority > :priority OR (h.priority = :priority AND h.id < :id))")
+    long countAhead(@Param("bookId") Long bookId, @Param("priority") int priority, @Param("id") Long id);
+
+    boolean existsByUserIdAndBookIdAndStatusIn(Long userId, Long bookId, Collection<BookHold.Status> statuses);
+
+    boolean existsByLoanId(Long loanId);
+
+    List<BookHold> findByUserIdAndStatusInOrderByIdDesc(Long userId, Collection<BookHold.Status> statuses);
+
+    // The pickup: only a holder whose copy is still set aside gets it
+    @Modifying
+    @Query("UPDATE BookHold h SET h.status = 'FULFILLED', h.loanId = :loanId, h.updatedAt = :now " +
+           "WHERE h.userId = :userId AND h.bookId = :bookId AND h.status = 'READY' AND h.pickupExpiresAt > :now")
+    int fulfill(@Param("userId") Long userId, @Param("bookId") Long bookId, @Param("loanId") Long loanId,
+                @Param("now") LocalDateTime now);
+
+    // Set-aside copies past their pickup time, oldest first
+    @Query("SELECT h.id AS id, h.bookId AS bookId, h.userId AS userId, b.title AS bookTitle " +
+           "FROM BookHold h JOIN Book b ON b.id = h.bookId " +
+           "WHERE h.status = 'READY' AND h.pickupExpiresAt <= :now ORDER BY h.pickupExpiresAt, h.id")
+    List<ExpiredHold> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // The claim: only one caller expires a hold, and a hold picked up meanwhile is left alone
+    @Modifying
+    @Query("UPDATE BookHold h SET h.status = 'EXPIRED', h.updatedAt = :now " +
+           "WHERE h.id = :id AND h.status = 'READY' AND h.pickupExpiresAt <= :now")
+    int expire(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Books with copies on the shelf while holders wait, e.g. a copy returned as a hold was placed
+    @Query("SELECT DISTINCT h.bookId FROM BookHold h JOIN Book b ON b.id = h.bookId " +
+           "WHERE h.status = 'WAITING' AND b.availableCopiesForLoan > 0")
+    List<Long> findBooksWithStrandedCopies(Pageable pageable);
+
+    interface ExpiredHold {
+        Long getId();
+        Long getBookId();
+        Long getUserId();
+        String getBookTitle();
+    }
+}
@@ -6,15 +6,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>, BookRepositoryCustom {
     
     Optional<Book> findByIsbn(String isbn);
     
@@ -26,6 +29,14 @@ public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificat
     @Query("SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.bookAuthors ba LEFT JOIN FETCH ba.author WHERE b.id = :id")
     Optional<Book> findByIdWithAuthors(@Param("id") Long id);
     
+    @Query("SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.category LEFT JOIN FETCH b.publisher " +
+           "LEFT JOIN FETCH b.bookAuthors ba LEFT JOIN FETCH ba.author WHERE b.id IN :ids")
+    List<Book> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Keyset scan over primary keys, used to load the catalog in batches
+    @Query("SELECT b.id FROM Book b WHERE b.id > :afterId ORDER BY b.id ASC")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
     List<Book> findByCategoryId(Long categoryId);
     
     List<Book> findByPublisherId(Long publisherId);
@@ -147,4 +158,42 @@ public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificat
         @Param("isLendable") Boolean isLendable,
         @Param("isSellable") Boolean isSellable,
         Pageable pageable);
+    
+    // Conditional stock updates: the check and the change are one statement, so concurrent
+    // reservations cannot both pass the check. They return the number of rows updated (0 or 1).
+    @Modifying
+    @Query("UPDATE Book b SET b.stockForSale = b.stockForSale - :quantity, b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.id = :bookId AND b.isSellable = true AND b.stockForSale >= :quantity")
+    int decrementStockForSale(@Param("bookId") Long bookId, @Param("quantity") int quantity);
+    
+    @Modifying
+    @Query("UPDATE Book b SET b.stockForSale = b.stockForSale + :quantity, b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.id = :bookId")
+    int incrementStockForSale(@Param("bookId") Long bookId, @Param("quantity") int quantity);
+    
+    @Modifying
+    @Query("UPDATE Book b SET b.availableCopiesForLoan = b.availableCopiesForLoan - 1, b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.id = :bookId AND b.isLendable = true AND b.availableCopiesForLoan > 0")
+    int decrementAvailableCopiesForLoan(@Param("bookId") Long bookId);
+    
+    @Modifying
+    @Query("UPDATE Book b SET b.availableCopiesForLoan = b.availableCopiesForLoan + 1, b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.id = :bookId AND b.availableCopiesForLoan < b.totalCopiesForLoan")
+    int incrementAvailableCopiesForLoan(@Param("bookId") Long bookId);
+    
+    @Query("SELECT b.stockForSale FROM Book b WHERE b.id = :bookId")
+    Optional<Integer> findStockForSaleById(@Param("bookId") Long bookId);
+    
+    // What cart revalidation checks lines against, for many books in one query
+    @Query("SELECT b.id AS id, b.title AS title, b.price AS price, b.stockForSale AS stockForSale, " +
+           "b.isSellable AS isSellable FROM Book b WHERE b.id IN :ids")
+    List<SaleState> findSaleStatesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    interface SaleState {
+        Long getId();
+        String getTitle();
+        BigDecimal getPrice();
+        Integer getStockForSale();
+        Boolean getIsSellable();
+    }
 }
\ No newline at end of file
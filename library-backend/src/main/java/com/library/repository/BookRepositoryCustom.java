@@ -0,0 +1,65 @@
+package com.library.repository;
+
+import com.library.entity.Book;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public interface BookRepositoryCustom {
+
+    /**
+     * Number of books matching the specification per combination of category, publisher, language,
+     * publication year and price bucket, counted by one grouped query. Each matching book falls in
+     * exactly one combination, so summing the counts per value of one facet counts that facet, and
+     * summing them all counts the matches. A book matched through several joined rows (e.g.
+     * multiple authors) is counted once.
+     *
+     * @param priceUpperBounds Ascending exclusive upper bounds of the price buckets; the last
+     *                         bucket is open-ended
+     */
+    List<FacetCombinationCount> countByFacetCombination(Specification<Book> spec, BigDecimal[] priceUpperBounds);
+
+    /**
+     * The books of the page without the count query {@code findAll(spec, pageable)} runs, for
+     * callers that already know the total
+     */
+    List<Book> findPageContent(Specification<Book> spec, Pageable pageable);
+
+    /**
+     * Takes the quantities off stock_for_sale with one conditional update per book, sent as a
+     * single JDBC batch. A book is only updated while it is sellable and has enough stock.
+     *
+     * @param quantities Quantity to reserve by book id
+     * @return ids of the books whose update did not report exactly one row, i.e. that lacked stock
+     *         or whose result the driver did not report; empty when all were reserved. The caller
+     *         must roll back when any is returned.
+     */
+    List<Long> reserveStockForSale(Map<Long, Integer> quantities);
+
+    /**
+     * Puts the quantities back on stock_for_sale in a single JDBC batch
+     */
+    void restoreStockForSale(Map<Long, Integer> quantities);
+
+    /**
+     * Books sharing one combination of facet values; null where the books have no value. The price
+     * bucket is the index of the first upper bound above the price, or null without a price.
+     */
+    @Getter
+    @AllArgsConstructor
+    class FacetCombinationCount {
+        private final Long categoryId;
+        private final String categoryName;
+        private final Long publisherId;
+        private final String publisherName;
+        private final String language;
+        private final Integer publicationYear;
+        private final Integer priceBucket;
+        private final long count;
+    }
+}
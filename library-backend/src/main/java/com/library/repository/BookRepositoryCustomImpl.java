@@ -0,0 +1,174 @@
+package com.library.repository;
+
+import com.library.entity.Book;
+import com.library.entity.Category;
+import com.library.entity.Publisher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Slf4j
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    private static final String RESERVE_STOCK_SQL =
+            "UPDATE books SET stock_for_sale = stock_for_sale - ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ? AND is_sellable = TRUE AND stock_for_sale >= ?";
+
+    private static final String RESTORE_STOCK_SQL =
+            "UPDATE books SET stock_for_sale = stock_for_sale + ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<FacetCombinationCount> countByFacetCombination(Specification<Book> spec,
+                                                               BigDecimal[] priceUpperBounds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+        Join<Book, Category> category = root.join("category", JoinType.LEFT);
+        Join<Book, Publisher> publisher = root.join("publisher", JoinType.LEFT);
+        Path<BigDecimal> price = root.get("price");
+
+        // Bounds and bucket numbers as literals, so PostgreSQL sees the same CASE in SELECT and GROUP BY
+        CriteriaBuilder.Case<Integer> bucket = cb.selectCase();
+        for (int i = 0; i < priceUpperBounds.length; i++) {
+            bucket = bucket.when(cb.lessThan(price, cb.literal(priceUpperBounds[i])), cb.literal(i));
+        }
+        Expression<Integer> priceBucket = bucket
+                .when(cb.isNotNull(price), cb.literal(priceUpperBounds.length))
+                .otherwise(cb.nullLiteral(Integer.class));
+
+        List<Expression<?>> values = List.of(category.get("id"), category.get("name"), publisher.get("id"),
+                publisher.get("name"), root.get("language"), root.get("publicationYear"), priceBucket);
+        List<Selection<?>> selections = new ArrayList<>(values);
+        // Distinct ids, since specifications joining authors repeat a book once per author
+        selections.add(cb.countDistinct(root.get("id")));
+        query.multiselect(selections);
+        query.where(matching(spec, root, query, cb));
+        query.groupBy(values);
+        query.distinct(false);
+
+        List<FacetCombinationCount> counts = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            counts.add(new FacetCombinationCount(
+                    tuple.get(0, Long.class),
+                    tuple.get(1, String.class),
+                    tuple.get(2, Long.class),
+                    tuple.get(3, String.class),
+                    tuple.get(4, String.class),
+                    tuple.get(5, Integer.class),
+                    tuple.get(6, Integer.class),
+                    tuple.get(7, Long.class)));
+        }
+        return counts;
+    }
+
+    @Override
+    public List<Book> findPageContent(Specification<Book> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(root);
+        query.where(matching(spec, root, query, cb));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Book> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public List<Long> reserveStockForSale(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Rows are locked in id order so two multi-line checkouts cannot deadlock each other
+        Map<Long, Integer> ordered = new TreeMap<>(quantities);
+        int[] updated = executeBatch(RESERVE_STOCK_SQL, ordered, true);
+
+        // Only a count of exactly 1 proves the stock check passed; SUCCESS_NO_INFO from a driver
+        // that rewrote the batch says nothing, so the line fails and the checkout rolls back
+        List<Long> insufficient = new ArrayList<>();
+        int line = 0;
+        for (Long bookId : ordered.keySet()) {
+            int count = updated[line++];
+            if (count != 1) {
+                if (count == Statement.SUCCESS_NO_INFO) {
+                    log.error("Stock reservation for book {} returned no update count; "
+                            + "disable JDBC batch rewriting for reservations to be checked", bookId);
+                }
+                insufficient.add(bookId);
+            }
+        }
+        return insufficient;
+    }
+
+    @Override
+    public void restoreStockForSale(Map<Long, Integer> quantities) {
+        if (!quantities.isEmpty()) {
+            executeBatch(RESTORE_STOCK_SQL, new TreeMap<>(quantities), false);
+        }
+    }
+
+    // Private helper methods
+
+    private static Predicate[] matching(Specification<Book> spec, Root<Book> root, CriteriaQuery<?> query,
+                                        CriteriaBuilder cb, Predicate... extra) {
+        List<Predicate> predicates = new ArrayList<>(List.of(extra));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            predicates.add(predicate);
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    /**
+     * Runs the statement once per book on the transaction's connection. Bulk updates bypass the
+     * persistence context: Book entities already loaded keep their old stock values.
+     */
+    private int[] executeBatch(String sql, Map<Long, Integer> quantities, boolean conditional) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                    statement.setInt(1, line.getValue());
+                    statement.setLong(2, line.getKey());
+                    if (conditional) {
+                        statement.setInt(3, line.getValue());
+                    }
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+    }
+}
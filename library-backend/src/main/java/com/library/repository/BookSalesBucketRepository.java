@@ -0,0 +1,37 @@
+package com.library.repository;
+
+import com.library.entity.BookSalesBucket;
+import com.library.entity.StatsGranularity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookSalesBucketRepository extends JpaRepository<BookSalesBucket, BookSalesBucket.Key>,
+        BookSalesBucketRepositoryCustom {
+
+    @Modifying
+    @Query("UPDATE BookSalesBucket b SET b.quantity = b.quantity + :quantity " +
+           "WHERE b.granularity = :granularity AND b.bucketStart = :bucketStart AND b.bookId = :bookId")
+    int addQuantity(@Param("granularity") StatsGranularity granularity, @Param("bucketStart") LocalDateTime bucketStart,
+                    @Param("bookId") Long bookId, @Param("quantity") long quantity);
+
+    @Query("SELECT b.bookId AS bookId, MAX(b.bookTitle) AS bookTitle, SUM(b.quantity) AS quantity " +
+           "FROM BookSalesBucket b WHERE " + OrderStatsBucketRepository.IN_RANGE +
+           " GROUP BY b.bookId HAVING SUM(b.quantity) > 0 ORDER BY SUM(b.quantity) DESC")
+    List<BookTotals> findTopSelling(@Param("from") LocalDateTime from, @Param("dayFrom") LocalDateTime dayFrom,
+                                    @Param("dayTo") LocalDateTime dayTo, @Param("to") LocalDateTime to,
+                                    Pageable pageable);
+
+    interface BookTotals {
+        Long getBookId();
+        String getBookTitle();
+        Long getQuantity();
+    }
+}
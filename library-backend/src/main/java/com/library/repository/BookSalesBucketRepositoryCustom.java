@@ -0,0 +1,11 @@
+package com.library.repository;
+
+import java.time.LocalDateTime;
+
+public interface BookSalesBucketRepositoryCustom {
+
+    /**
+     * Empty bucket for the book's first sale in the hour or day; one already there keeps its quantity and title
+     */
+    void createIfAbsent(String granularity, LocalDateTime bucketStart, Long bookId, String bookTitle);
+}
@@ -0,0 +1,28 @@
+package com.library.repository;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+
+public class BookSalesBucketRepositoryCustomImpl implements BookSalesBucketRepositoryCustom {
+
+    private final EntityManager entityManager;
+    private final String createIfAbsentSql;
+
+    public BookSalesBucketRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.createIfAbsentSql = InsertIfAbsent.sql(entityManager,
+                "INSERT INTO book_sales_buckets (granularity, bucket_start, book_id, book_title, quantity) " +
+                "VALUES (:granularity, :bucketStart, :bookId, :bookTitle, 0)", "quantity");
+    }
+
+    @Override
+    public void createIfAbsent(String granularity, LocalDateTime bucketStart, Long bookId, String bookTitle) {
+        entityManager.createNativeQuery(createIfAbsentSql)
+                .setParameter("granularity", granularity)
+                .setParameter("bucketStart", bucketStart)
+                .setParameter("bookId", bookId)
+                .setParameter("bookTitle", bookTitle)
+                .executeUpdate();
+    }
+}
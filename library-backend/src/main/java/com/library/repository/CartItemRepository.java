@@ -1,20 +1,29 @@
 package com.library.repository;
 
 import com.library.entity.CartItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+public interface CartItemRepository extends JpaRepository<CartItem, Long>, CartItemRepositoryCustom {
     
     List<CartItem> findByUserId(Long userId);
     
+    @Query("SELECT c FROM CartItem c WHERE c.userId IN :userIds")
+    List<CartItem> findByUserIdIn(@Param("userIds") Collection<Long> userIds);
+    
+    @Query("SELECT DISTINCT c.userId FROM CartItem c WHERE c.userId > :afterUserId ORDER BY c.userId")
+    List<Long> findUserIdsAfter(@Param("afterUserId") Long afterUserId, Pageable pageable);
+    
     Optional<CartItem> findByUserIdAndBookId(Long userId, Long bookId);
     
     boolean existsByUserIdAndBookId(Long userId, Long bookId);
@@ -35,12 +44,41 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     @Query("SELECT c FROM CartItem c JOIN FETCH c.book WHERE c.userId = :userId ORDER BY c.createdAt DESC")
     List<CartItem> findByUserIdWithBooks(@Param("userId") Long userId);
     
+    /**
+     * Cart lines with everything checkout prices and shows, in one query
+     */
+    @Query("SELECT DISTINCT c FROM CartItem c JOIN FETCH c.book b LEFT JOIN FETCH b.publisher " +
+           "LEFT JOIN FETCH b.bookAuthors ba LEFT JOIN FETCH ba.author WHERE c.userId = :userId ORDER BY c.createdAt DESC")
+    List<CartItem> findCheckoutLinesByUserId(@Param("userId") Long userId);
+    
     @Query("SELECT c FROM CartItem c JOIN FETCH c.book b WHERE c.userId = :userId AND b.isSellable = true AND b.stockForSale >= c.quantity")
     List<CartItem> findValidCartItemsByUserId(@Param("userId") Long userId);
     
     @Query("SELECT c FROM CartItem c JOIN c.book b WHERE c.userId = :userId AND (b.isSellable = false OR b.stockForSale < c.quantity)")
     List<CartItem> findInvalidCartItemsByUserId(@Param("userId") Long userId);
     
+    // Write-behind of the Redis cart: the user's rows are replaced by the cart's lines as they are
+    // (see insertLines). Bulk statements skip the entity checks, which judge a line against today's
+    // stock and price.
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.userId = :userId")
+    int deleteLinesByUserId(@Param("userId") Long userId);
+    
+    // Revalidation of carts not in Redis. Both apply only while the line is as it was checked.
+    @Modifying
+    @Query("UPDATE CartItem c SET c.quantity = :quantity, c.unitPrice = :unitPrice, c.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE c.userId = :userId AND c.book.id = :bookId " +
+           "AND c.quantity = :expectedQuantity AND c.unitPrice = :expectedUnitPrice")
+    int correctLine(@Param("userId") Long userId, @Param("bookId") Long bookId,
+                    @Param("expectedQuantity") int expectedQuantity, @Param("expectedUnitPrice") BigDecimal expectedUnitPrice,
+                    @Param("quantity") int quantity, @Param("unitPrice") BigDecimal unitPrice);
+    
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.userId = :userId AND c.book.id = :bookId " +
+           "AND c.quantity = :expectedQuantity AND c.unitPrice = :expectedUnitPrice")
+    int removeLine(@Param("userId") Long userId, @Param("bookId") Long bookId,
+                   @Param("expectedQuantity") int expectedQuantity, @Param("expectedUnitPrice") BigDecimal expectedUnitPrice);
+    
     @Query("SELECT c FROM CartItem c WHERE c.userId = :userId AND c.book.id = :bookId")
     Optional<CartItem> findByUserIdAndBookIdWithBook(@Param("userId") Long userId, @Param("bookId") Long bookId);
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.library.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface CartItemRepositoryCustom {
+
+    /**
+     * Inserts the user's cart lines as they are, as one JDBC batch. Lines of books deleted since are
+     * dropped.
+     */
+    void insertLines(Long userId, Collection<NewLine> lines);
+
+    @Getter
+    @AllArgsConstructor
+    class NewLine {
+        private final Long bookId;
+        private final int quantity;
+        private final BigDecimal unitPrice;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+    }
+}
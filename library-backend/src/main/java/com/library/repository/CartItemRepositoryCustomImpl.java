@@ -0,0 +1,40 @@
+package com.library.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Collection;
+
+public class CartItemRepositoryCustomImpl implements CartItemRepositoryCustom {
+
+    private static final String INSERT_LINE_SQL =
+            "INSERT INTO cart_items (user_id, book_id, quantity, unit_price, created_at, updated_at) " +
+            "SELECT ?, b.id, ?, ?, ?, ? FROM books b WHERE b.id = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertLines(Long userId, Collection<NewLine> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_LINE_SQL)) {
+                for (NewLine line : lines) {
+                    statement.setLong(1, userId);
+                    statement.setInt(2, line.getQuantity());
+                    statement.setBigDecimal(3, line.getUnitPrice());
+                    statement.setTimestamp(4, Timestamp.valueOf(line.getCreatedAt()));
+                    statement.setTimestamp(5, Timestamp.valueOf(line.getUpdatedAt()));
+                    statement.setLong(6, line.getBookId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
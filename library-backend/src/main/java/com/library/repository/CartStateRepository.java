@@ -0,0 +1,31 @@
+package com.library.repository;
+
+import com.library.entity.CartState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CartStateRepository extends JpaRepository<CartState, Long>, CartStateRepositoryCustom {
+
+    // Locks the row, so write-backs of the same cart from other nodes run one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CartState s WHERE s.userId = :userId")
+    Optional<CartState> findByIdForUpdate(@Param("userId") Long userId);
+
+    boolean existsByUserIdAndStaleTrue(Long userId);
+
+    @Query("SELECT s.userId FROM CartState s WHERE s.stale = TRUE")
+    List<Long> findStaleUserIds();
+
+    @Modifying
+    @Query("UPDATE CartState s SET s.stale = FALSE, s.updatedAt = CURRENT_TIMESTAMP WHERE s.userId = :userId")
+    int clearStale(@Param("userId") Long userId);
+}
@@ -0,0 +1,14 @@
+package com.library.repository;
+
+public interface CartStateRepositoryCustom {
+
+    /**
+     * Row of a cart written back for the first time; an existing row keeps its stale mark
+     */
+    void createIfAbsent(Long userId);
+
+    /**
+     * Marks the cart stale, creating its row if needed
+     */
+    void markStale(Long userId);
+}
@@ -0,0 +1,32 @@
+package com.library.repository;
+
+import jakarta.persistence.EntityManager;
+
+public class CartStateRepositoryCustomImpl implements CartStateRepositoryCustom {
+
+    private final EntityManager entityManager;
+    private final String createIfAbsentSql;
+
+    public CartStateRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.createIfAbsentSql = InsertIfAbsent.sql(entityManager,
+                "INSERT INTO cart_states (user_id, stale, updated_at) VALUES (:userId, FALSE, CURRENT_TIMESTAMP)",
+                "stale");
+    }
+
+    @Override
+    public void createIfAbsent(Long userId) {
+        entityManager.createNativeQuery(createIfAbsentSql)
+                .setParameter("userId", userId)
+                .executeUpdate();
+    }
+
+    @Override
+    public void markStale(Long userId) {
+        createIfAbsent(userId);
+        entityManager.createQuery("UPDATE CartState s SET s.stale = TRUE, s.updatedAt = CURRENT_TIMESTAMP " +
+                        "WHERE s.userId = :userId")
+                .setParameter("userId", userId)
+                .executeUpdate();
+    }
+}
@@ -34,4 +34,7 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     
     @Query("SELECT COUNT(b) FROM Book b WHERE b.category.id = :categoryId")
     Long countBooksByCategoryId(@Param("categoryId") Long categoryId);
+    
+    @Query("SELECT b.id FROM Book b WHERE b.category.id = :categoryId")
+    List<Long> findBookIdsByCategoryId(@Param("categoryId") Long categoryId);
 }
\ No newline at end of file
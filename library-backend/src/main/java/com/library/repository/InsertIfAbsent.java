@@ -0,0 +1,38 @@
+package com.library.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * Native INSERTs that leave an existing row with the same key as it is, for rows created on first
+ * use from several nodes at once. A concurrent insert of the same key waits for the first one and
+ * then does nothing, so the caller's transaction never fails on the key. The conflict clause is
+ * picked once per statement from the Hibernate dialect: ON CONFLICT DO NOTHING on PostgreSQL,
+ * ON DUPLICATE KEY UPDATE on MySQL and on H2 in MySQL mode.
+ */
+final class InsertIfAbsent {
+
+    private InsertIfAbsent() {
+    }
+
+    /**
+     * @param insert    INSERT INTO ... VALUES (...) statement without a conflict clause
+     * @param anyColumn Column MySQL sets to itself when the row exists
+     */
+    static String sql(EntityManager entityManager, String insert, String anyColumn) {
+        Dialect dialect = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+        return sql(dialect, insert, anyColumn);
+    }
+
+    static String sql(Dialect dialect, String insert, String anyColumn) {
+        if (dialect instanceof PostgreSQLDialect) {
+            return insert + " ON CONFLICT DO NOTHING";
+        }
+        return insert + " ON DUPLICATE KEY UPDATE " + anyColumn + " = " + anyColumn;
+    }
+}
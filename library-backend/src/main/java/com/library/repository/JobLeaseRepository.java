@@ -0,0 +1,41 @@
+package com.library.repository;
+
+import com.library.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String>, JobLeaseRepositoryCustom {
+
+    // First lease on a key; a concurrent first taker fails on the primary key
+    @Modifying
+    @Query(value = "INSERT INTO job_leases (lease_key, owner, fencing_token, acquired_at, lease_until) " +
+                   "VALUES (:leaseKey, :owner, 1, :now, :leaseUntil)", nativeQuery = true)
+    int insert(@Param("leaseKey") String leaseKey, @Param("owner") String owner, @Param("now") LocalDateTime now,
+               @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Takes a lapsed lease unless it was last taken after :notBefore, i.e. already ran for this firing
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.fencingToken = l.fencingToken + 1, l.acquiredAt = :now, " +
+           "l.leaseUntil = :leaseUntil WHERE l.leaseKey = :leaseKey AND l.leaseUntil < :now " +
+           "AND l.acquiredAt < :notBefore")
+    int acquire(@Param("leaseKey") String leaseKey, @Param("owner") String owner, @Param("now") LocalDateTime now,
+                @Param("notBefore") LocalDateTime notBefore, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE JobLease l SET l.leaseUntil = :leaseUntil WHERE l.leaseKey = :leaseKey " +
+           "AND l.owner = :owner AND l.fencingToken = :fencingToken")
+    int renew(@Param("leaseKey") String leaseKey, @Param("owner") String owner,
+              @Param("fencingToken") Long fencingToken, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE JobLease l SET l.leaseUntil = CURRENT_TIMESTAMP WHERE l.leaseKey = :leaseKey " +
+           "AND l.owner = :owner AND l.fencingToken = :fencingToken")
+    int release(@Param("leaseKey") String leaseKey, @Param("owner") String owner,
+                @Param("fencingToken") Long fencingToken);
+}
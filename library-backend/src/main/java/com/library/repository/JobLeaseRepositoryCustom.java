@@ -0,0 +1,12 @@
+package com.library.repository;
+
+import java.time.LocalDateTime;
+
+public interface JobLeaseRepositoryCustom {
+
+    /**
+     * The database's current time. Lease times are all computed from it, so nodes whose clocks
+     * disagree still agree on when a lease lapses.
+     */
+    LocalDateTime currentTime();
+}
@@ -0,0 +1,18 @@
+package com.library.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDateTime;
+
+public class JobLeaseRepositoryCustomImpl implements JobLeaseRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public LocalDateTime currentTime() {
+        // HQL needs no FROM clause; Hibernate renders LOCALTIMESTAMP for the dialect
+        return entityManager.createQuery("SELECT LOCAL DATETIME", LocalDateTime.class).getSingleResult();
+    }
+}
@@ -0,0 +1,68 @@
+package com.library.repository;
+
+import com.library.entity.LoanDueTrigger;
+import com.library.entity.LoanStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LoanDueTriggerRepository extends JpaRepository<LoanDueTrigger, Long> {
+
+    // Head of the pending queue, with what firing needs of each loan; reads only the triggers due
+    @Query("SELECT t.id AS id, t.triggerType AS triggerType, t.fireAt AS fireAt, t.attempts AS attempts, l.id AS loanId, " +
+           "l.userId AS userId, l.dueDate AS dueDate, l.status AS loanStatus, b.title AS bookTitle " +
+           "FROM LoanDueTrigger t JOIN Loan l ON l.id = t.loanId JOIN l.book b " +
+           "WHERE t.status = 'PENDING' AND t.fireAt <= :now ORDER BY t.fireAt, t.id")
+    List<DueTrigger> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // The claim: only one caller moves a pending trigger on
+    @Modifying
+    @Query("UPDATE LoanDueTrigger t SET t.status = 'FIRED', t.firedAt = :firedAt " +
+           "WHERE t.id = :id AND t.status = 'PENDING'")
+    int markFired(@Param("id") Long id, @Param("firedAt") LocalDateTime firedAt);
+
+    @Modifying
+    @Query("UPDATE LoanDueTrigger t SET t.status = 'CANCELLED' WHERE t.id = :id AND t.status = 'PENDING'")
+    int cancel(@Param("id") Long id);
+
+    // Moves a trigger that failed to fire off the head of the queue until retryAt
+    @Modifying
+    @Query("UPDATE LoanDueTrigger t SET t.attempts = t.attempts + 1, t.fireAt = :retryAt " +
+           "WHERE t.id = :id AND t.status = 'PENDING'")
+    int deferFailed(@Param("id") Long id, @Param("retryAt") LocalDateTime retryAt);
+
+    @Modifying
+    @Query("UPDATE LoanDueTrigger t SET t.status = 'CANCELLED' WHERE t.loanId = :loanId AND t.status = 'PENDING'")
+    int cancelPendingForLoan(@Param("loanId") Long loanId);
+
+    // Loans out on loan with nothing pending, e.g. approved before triggers existed
+    @Query("SELECT l.id AS id, l.dueDate AS dueDate FROM Loan l WHERE l.status IN :statuses " +
+           "AND l.dueDate IS NOT NULL AND l.id > :afterId AND NOT EXISTS (SELECT t.id FROM LoanDueTrigger t " +
+           "WHERE t.loanId = l.id AND t.status = 'PENDING') ORDER BY l.id")
+    List<UnscheduledLoan> findUnscheduledLoans(@Param("statuses") List<LoanStatus> statuses,
+                                               @Param("afterId") Long afterId, Pageable pageable);
+
+    interface DueTrigger {
+        Long getId();
+        LoanDueTrigger.TriggerType getTriggerType();
+        LocalDateTime getFireAt();
+        Integer getAttempts();
+        Long getLoanId();
+        Long getUserId();
+        LocalDateTime getDueDate();
+        LoanStatus getLoanStatus();
+        String getBookTitle();
+    }
+
+    interface UnscheduledLoan {
+        Long getId();
+        LocalDateTime getDueDate();
+    }
+}
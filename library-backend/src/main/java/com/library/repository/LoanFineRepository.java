@@ -0,0 +1,34 @@
+package com.library.repository;
+
+import com.library.entity.LoanFine;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LoanFineRepository extends JpaRepository<LoanFine, Long> {
+
+    List<LoanFine> findByLoanIdOrderByIdAsc(Long loanId);
+
+    // Ledger entries for loans whose fine is about to become :fine; run before the loans are updated
+    @Modifying
+    @Query(value = "INSERT INTO loan_fines (loan_id, user_id, entry_type, fine_days, amount, balance, accrued_at, created_at) " +
+                   "SELECT l.id, l.user_id, 'ACCRUAL', :fineDays, :fine - COALESCE(l.fine_amount, 0), :fine, :accruedAt, CURRENT_TIMESTAMP " +
+                   "FROM loans l WHERE l.id IN (:ids) AND l.status IN ('BORROWED', 'OVERDUE') " +
+                   "AND COALESCE(l.fine_amount, 0) <> :fine", nativeQuery = true)
+    int recordAccruals(@Param("ids") Collection<Long> ids, @Param("fineDays") int fineDays,
+                       @Param("fine") BigDecimal fine, @Param("accruedAt") LocalDateTime accruedAt);
+
+    @Query("SELECT COALESCE(SUM(f.amount), 0) FROM LoanFine f WHERE f.accruedAt >= :from AND f.accruedAt < :to")
+    BigDecimal sumAmountBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT COUNT(DISTINCT f.loanId) FROM LoanFine f WHERE f.accruedAt >= :from AND f.accruedAt < :to")
+    long countLoansBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
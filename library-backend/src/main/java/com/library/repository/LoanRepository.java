@@ -5,11 +5,14 @@ import com.library.entity.LoanStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +21,16 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
     
     Page<Loan> findByUserId(Long userId, Pageable pageable);
     
+    // Keyset pagination, newest first with the id breaking timestamp ties
+    List<Loan> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+    
+    @Query("SELECT l FROM Loan l WHERE l.userId = :userId AND (l.createdAt < :createdAt " +
+           "OR (l.createdAt = :createdAt AND l.id < :id)) ORDER BY l.createdAt DESC, l.id DESC")
+    List<Loan> findByUserIdBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") Long id, Pageable pageable);
+    
+    long countByUserId(Long userId);
+    
     Page<Loan> findByUserIdAndStatus(Long userId, LoanStatus status, Pageable pageable);
     
     List<Loan> findByUserIdAndStatusIn(Long userId, List<LoanStatus> statuses);
@@ -28,6 +41,39 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
     @Query("SELECT l FROM Loan l WHERE l.status = :status AND l.dueDate < :currentDate")
     List<Loan> findOverdueLoans(@Param("status") LoanStatus status, @Param("currentDate") LocalDateTime currentDate);
     
+    // Keyset chunk of a loan sweep: what the sweeps need of each loan, in id order, within one id-hash partition
+    @Query("SELECT l.id AS id, l.userId AS userId, l.dueDate AS dueDate, b.title AS bookTitle " +
+           "FROM Loan l JOIN l.book b WHERE l.status IN :statuses AND l.dueDate < :asOf AND l.id > :afterId " +
+           "AND MOD(l.id, :partitions) = :partition ORDER BY l.id")
+    List<OverdueLoan> findOverdueAfter(@Param("statuses") Collection<LoanStatus> statuses,
+                                       @Param("asOf") LocalDateTime asOf, @Param("afterId") Long afterId,
+                                       @Param("partition") int partition, @Param("partitions") int partitions,
+                                       Pageable pageable);
+    
+    // Set-based status flip; loans returned meanwhile are left alone
+    @Modifying
+    @Query("UPDATE Loan l SET l.status = 'OVERDUE', l.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE l.id IN :ids AND l.status = 'BORROWED'")
+    int markOverdue(@Param("ids") Collection<Long> ids);
+    
+    // Set-based fine accrual for loans sharing a fine; pairs with LoanFineRepository.recordAccruals
+    @Modifying
+    @Query("UPDATE Loan l SET l.fineAmount = :fine, l.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE l.id IN :ids AND l.status IN ('BORROWED', 'OVERDUE') AND COALESCE(l.fineAmount, 0) <> :fine")
+    int accrueFine(@Param("ids") Collection<Long> ids, @Param("fine") BigDecimal fine);
+    
+    @Query("SELECT l FROM Loan l JOIN FETCH l.book WHERE l.finePaid = false AND l.fineAmount > 0 " +
+           "ORDER BY l.fineAmount DESC, l.id")
+    List<Loan> findWithUnpaidFines();
+    
+    @Query("SELECT COUNT(l) AS loans, COUNT(DISTINCT l.userId) AS users, COALESCE(SUM(l.fineAmount), 0) AS amount " +
+           "FROM Loan l WHERE l.finePaid = false AND l.fineAmount > 0")
+    UnpaidFineTotals summarizeUnpaidFines();
+    
+    @Query("SELECT COALESCE(SUM(l.fineAmount), 0) FROM Loan l " +
+           "WHERE l.userId = :userId AND l.finePaid = false AND l.fineAmount > 0")
+    BigDecimal sumUnpaidFinesByUserId(@Param("userId") Long userId);
+    
     Optional<Loan> findByUserIdAndBookIdAndStatusIn(Long userId, Long bookId, List<LoanStatus> statuses);
     
     @Query("SELECT COUNT(l) FROM Loan l WHERE l.book.id = :bookId AND l.status IN :statuses")
@@ -45,13 +91,19 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
         @Param("status") LoanStatus status
     );
     
-    // Check if loan exists by string userId and book ID for specified statuses
-    @Query(value = "SELECT CASE WHEN COUNT(l.id) > 0 THEN true ELSE false END FROM loans l " +
-           "WHERE CAST(l.user_id AS VARCHAR) = :userId AND l.book_id = :bookId " +
-           "AND l.status IN (:statuses)", nativeQuery = true)
-    boolean existsByUserIdAndBookIdAndStatusIn(
-        @Param("userId") String userId, 
-        @Param("bookId") Long bookId, 
-        @Param("statuses") java.util.List<String> statuses
-    );
+    @Query("SELECT DISTINCT l.userId FROM Loan l WHERE l.userId > :afterUserId ORDER BY l.userId")
+    List<Long> findUserIdsAfter(@Param("afterUserId") Long afterUserId, Pageable pageable);
+    
+    interface OverdueLoan {
+        Long getId();
+        Long getUserId();
+        LocalDateTime getDueDate();
+        String getBookTitle();
+    }
+    
+    interface UnpaidFineTotals {
+        Long getLoans();
+        Long getUsers();
+        BigDecimal getAmount();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.library.repository;
+
+import com.library.entity.LoanSweepCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface LoanSweepCheckpointRepository extends JpaRepository<LoanSweepCheckpoint, String> {
+
+    // Moves the resume point past a wave of chunks that all committed
+    @Modifying
+    @Query("UPDATE LoanSweepCheckpoint c SET c.lastLoanId = :lastLoanId, " +
+           "c.processedCount = c.processedCount + :processed, c.updatedCount = c.updatedCount + :updated, " +
+           "c.updatedAt = CURRENT_TIMESTAMP WHERE c.sweep = :sweep AND c.state = 'RUNNING'")
+    int advance(@Param("sweep") String sweep, @Param("lastLoanId") Long lastLoanId,
+                @Param("processed") long processed, @Param("updated") long updated);
+
+    @Modifying
+    @Query("UPDATE LoanSweepCheckpoint c SET c.state = 'COMPLETED', c.completedAt = :completedAt, " +
+           "c.updatedAt = CURRENT_TIMESTAMP WHERE c.sweep = :sweep AND c.state = 'RUNNING'")
+    int complete(@Param("sweep") String sweep, @Param("completedAt") LocalDateTime completedAt);
+}
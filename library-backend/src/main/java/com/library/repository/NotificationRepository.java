@@ -22,6 +22,14 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     Page<Notification> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
     
     List<Notification> findByUserIdOrderByCreatedAtDesc(String userId);
+    
+    // Keyset pagination, newest first with the id breaking timestamp ties
+    List<Notification> findByUserIdOrderByCreatedAtDescIdDesc(String userId, Pageable pageable);
+    
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND (n.createdAt < :createdAt " +
+           "OR (n.createdAt = :createdAt AND n.id < :id)) ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findByUserIdBefore(@Param("userId") String userId, @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id, Pageable pageable);
 
     // Find notifications by user and status
     Page<Notification> findByUserIdAndStatusOrderByCreatedAtDesc(
@@ -0,0 +1,28 @@
+package com.library.repository;
+
+import com.library.entity.OrderCodeSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OrderCodeSequenceRepository extends JpaRepository<OrderCodeSequence, String> {
+
+    // Lease a block; the row lock is held until the leasing transaction commits
+    @Modifying
+    @Query("UPDATE OrderCodeSequence s SET s.nextValue = s.nextValue + :blockSize WHERE s.period = :period")
+    int advance(@Param("period") String period, @Param("blockSize") long blockSize);
+
+    // Plain insert, so a node losing the race fails rather than overwriting the winner's row
+    @Modifying
+    @Query(value = "INSERT INTO order_code_sequences (period, next_value) VALUES (:period, :nextValue)",
+           nativeQuery = true)
+    void create(@Param("period") String period, @Param("nextValue") long nextValue);
+
+    @Query("SELECT s.nextValue FROM OrderCodeSequence s WHERE s.period = :period")
+    Optional<Long> findNextValue(@Param("period") String period);
+}
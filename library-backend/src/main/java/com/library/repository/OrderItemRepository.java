@@ -23,6 +23,11 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     @Query("SELECT SUM(oi.quantity) FROM OrderItem oi JOIN oi.order o WHERE oi.book.id = :bookId AND o.paymentStatus = 'PAID'")
     Long getTotalSoldQuantityByBookId(@Param("bookId") Long bookId);
 
+    // Books bought in a user's paid orders, for the user_order_stats rollup
+    @Query("SELECT COALESCE(SUM(oi.quantity), 0) FROM OrderItem oi " +
+           "WHERE oi.order.userId = :userId AND oi.order.paymentStatus = 'PAID'")
+    Long sumPaidQuantityByUserId(@Param("userId") Long userId);
+
     @Query("SELECT oi.book.id, SUM(oi.quantity) as totalSold FROM OrderItem oi JOIN oi.order o " +
            "WHERE o.paymentStatus = 'PAID' AND o.orderDate BETWEEN :startDate AND :endDate " +
            "GROUP BY oi.book.id ORDER BY totalSold DESC")
@@ -35,11 +40,11 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     // Check if user has purchased a book with specific order statuses
     @Query(value = "SELECT CASE WHEN COUNT(oi.id) > 0 THEN true ELSE false END FROM order_items oi " +
            "JOIN orders o ON oi.order_id = o.id " +
-           "WHERE oi.book_id = :bookId AND CAST(o.user_id AS VARCHAR) = :userId " +
+           "WHERE oi.book_id = :bookId AND o.user_id = :userId " +
            "AND o.status IN (:statuses)", nativeQuery = true)
     boolean existsByBookIdAndOrderUserIdAndOrderStatusIn(
         @Param("bookId") Long bookId,
-        @Param("userId") String userId,
+        @Param("userId") Long userId,
         @Param("statuses") java.util.List<String> statuses
     );
 }
\ No newline at end of file
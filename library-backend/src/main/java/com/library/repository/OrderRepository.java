@@ -3,15 +3,19 @@ package com.library.repository;
 import com.library.entity.Order;
 import com.library.entity.OrderStatus;
 import com.library.entity.PaymentStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +25,14 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // Find by user
     Page<Order> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
     
+    // Keyset pagination, newest first with the id breaking timestamp ties
+    List<Order> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId AND (o.createdAt < :createdAt " +
+           "OR (o.createdAt = :createdAt AND o.id < :id)) ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findByUserIdBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id, Pageable pageable);
+    
     List<Order> findByUserIdAndStatusOrderByCreatedAtDesc(Long userId, OrderStatus status);
 
     // Find by order code
@@ -28,6 +40,11 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     Optional<Order> findByOrderCodeAndUserId(String orderCode, Long userId);
 
+    // Codes with the given prefix, highest number first: numbers past the zero padding are longer
+    @Query("SELECT o.orderCode FROM Order o WHERE o.orderCode LIKE CONCAT(:prefix, '%') " +
+           "ORDER BY LENGTH(o.orderCode) DESC, o.orderCode DESC")
+    List<String> findHighestOrderCodesWithPrefix(@Param("prefix") String prefix, Pageable pageable);
+
     // Find by status
     Page<Order> findByStatusOrderByCreatedAtDesc(OrderStatus status, Pageable pageable);
     
@@ -61,4 +78,74 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // Orders that need admin attention
     @Query("SELECT o FROM Order o WHERE o.status IN ('PAID', 'PROCESSING') ORDER BY o.orderDate ASC")
     List<Order> findOrdersNeedingAttention(Pageable pageable);
+    
+    // Stock holds of PENDING_PAYMENT orders. Each transition is a conditional update, so a payment,
+    // a cancellation and the expiry job racing on one order cannot both take effect.
+    @Modifying
+    @Query("UPDATE Order o SET o.stockHoldExpiresAt = NULL WHERE o.id = :orderId " +
+           "AND o.status = 'PENDING_PAYMENT' AND o.stockHoldExpiresAt IS NOT NULL")
+    int confirmStockHold(@Param("orderId") Long orderId);
+    
+    @Modifying
+    @Query("UPDATE Order o SET o.status = 'CANCELLED', o.stockHoldExpiresAt = NULL, o.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE o.id = :orderId AND o.status = :expectedStatus")
+    int cancelIfStatus(@Param("orderId") Long orderId, @Param("expectedStatus") OrderStatus expectedStatus);
+    
+    @Modifying
+    @Query("UPDATE Order o SET o.status = 'CANCELLED', o.stockHoldExpiresAt = NULL, o.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE o.id = :orderId AND o.status = 'PENDING_PAYMENT' AND o.paymentStatus = 'UNPAID' " +
+           "AND o.stockHoldExpiresAt <= :now")
+    int expireStockHold(@Param("orderId") Long orderId, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT o.id FROM Order o WHERE o.status = 'PENDING_PAYMENT' AND o.stockHoldExpiresAt <= :now " +
+           "ORDER BY o.stockHoldExpiresAt")
+    List<Long> findExpiredStockHoldIds(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Bulk status jobs: a chunk of orders with their items, locked until the chunk commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id IN :orderIds ORDER BY o.id")
+    List<Order> findAllWithItemsForUpdate(@Param("orderIds") Collection<Long> orderIds);
+    
+    // Loaded orders are detached, so they cannot write the old values back over this update
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.shippingDate = COALESCE(o.shippingDate, :shippingDate), " +
+           "o.deliveryDate = COALESCE(o.deliveryDate, :deliveryDate), o.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE o.id IN :orderIds AND o.status IN :fromStatuses")
+    int updateStatusIn(@Param("orderIds") Collection<Long> orderIds, @Param("status") OrderStatus status,
+                       @Param("fromStatuses") Collection<OrderStatus> fromStatuses,
+                       @Param("shippingDate") LocalDateTime shippingDate,
+                       @Param("deliveryDate") LocalDateTime deliveryDate);
+    
+    // Order view projection: rebuild and consistency check, in id order
+    @Query("SELECT o.id FROM Order o WHERE o.id > :afterOrderId ORDER BY o.id")
+    List<Long> findIdsAfter(@Param("afterOrderId") Long afterOrderId, Pageable pageable);
+    
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems i LEFT JOIN FETCH i.book " +
+           "WHERE o.id IN :orderIds ORDER BY o.id")
+    List<Order> findAllWithItemsAndBooks(@Param("orderIds") Collection<Long> orderIds);
+    
+    // Rebuild of the user_order_stats rollup
+    @Query("SELECT COUNT(o) AS totalOrders, " +
+           "SUM(CASE WHEN o.status = 'DELIVERED' THEN 1 ELSE 0 END) AS completedOrders, " +
+           "SUM(CASE WHEN o.status = 'CANCELLED' THEN 1 ELSE 0 END) AS cancelledOrders, " +
+           "SUM(CASE WHEN o.status IN ('PENDING_PAYMENT', 'PAID', 'PROCESSING') THEN 1 ELSE 0 END) AS pendingOrders, " +
+           "SUM(CASE WHEN o.paymentStatus = 'PAID' THEN o.totalAmount ELSE 0 END) AS totalSpent, " +
+           "MAX(o.totalAmount) AS largestOrderValue, " +
+           "MIN(o.orderDate) AS firstOrderDate, MAX(o.orderDate) AS lastOrderDate " +
+           "FROM Order o WHERE o.userId = :userId")
+    UserOrderTotals sumOrdersByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT DISTINCT o.userId FROM Order o WHERE o.userId > :afterUserId ORDER BY o.userId")
+    List<Long> findUserIdsAfter(@Param("afterUserId") Long afterUserId, Pageable pageable);
+    
+    interface UserOrderTotals {
+        Long getTotalOrders();
+        Long getCompletedOrders();
+        Long getCancelledOrders();
+        Long getPendingOrders();
+        BigDecimal getTotalSpent();
+        BigDecimal getLargestOrderValue();
+        LocalDateTime getFirstOrderDate();
+        LocalDateTime getLastOrderDate();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.library.repository;
+
+import com.library.entity.OrderStatsBucket;
+import com.library.entity.OrderStatus;
+import com.library.entity.PaymentStatus;
+import com.library.entity.StatsGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderStatsBucketRepository extends JpaRepository<OrderStatsBucket, OrderStatsBucket.Key>,
+        OrderStatsBucketRepositoryCustom {
+
+    /**
+     * Day buckets in [dayFrom, dayTo) plus hour buckets for the partial days in [from, dayFrom)
+     * and [dayTo, to)
+     */
+    String IN_RANGE = "((b.granularity = 'DAY' AND b.bucketStart >= :dayFrom AND b.bucketStart < :dayTo) " +
+            "OR (b.granularity = 'HOUR' AND ((b.bucketStart >= :from AND b.bucketStart < :dayFrom) " +
+            "OR (b.bucketStart >= :dayTo AND b.bucketStart < :to))))";
+
+    @Modifying
+    @Query("UPDATE OrderStatsBucket b SET b.orderCount = b.orderCount + :orders, " +
+           "b.itemCount = b.itemCount + :items, b.totalAmount = b.totalAmount + :amount, " +
+           "b.shippedCount = b.shippedCount + :shipped, b.processingHours = b.processingHours + :hours " +
+           "WHERE b.granularity = :granularity AND b.bucketStart = :bucketStart " +
+           "AND b.status = :status AND b.paymentStatus = :paymentStatus")
+    int applyDelta(@Param("granularity") StatsGranularity granularity, @Param("bucketStart") LocalDateTime bucketStart,
+                   @Param("status") OrderStatus status, @Param("paymentStatus") PaymentStatus paymentStatus,
+                   @Param("orders") long orders, @Param("items") long items, @Param("amount") BigDecimal amount,
+                   @Param("shipped") long shipped, @Param("hours") long hours);
+
+    @Query("SELECT b.status AS status, b.paymentStatus AS paymentStatus, SUM(b.orderCount) AS orderCount, " +
+           "SUM(b.totalAmount) AS totalAmount, SUM(b.shippedCount) AS shippedCount, " +
+           "SUM(b.processingHours) AS processingHours FROM OrderStatsBucket b WHERE " + IN_RANGE +
+           " GROUP BY b.status, b.paymentStatus")
+    List<StatusTotals> sumByStatus(@Param("from") LocalDateTime from, @Param("dayFrom") LocalDateTime dayFrom,
+                                   @Param("dayTo") LocalDateTime dayTo, @Param("to") LocalDateTime to);
+
+    interface StatusTotals {
+        OrderStatus getStatus();
+        PaymentStatus getPaymentStatus();
+        Long getOrderCount();
+        BigDecimal getTotalAmount();
+        Long getShippedCount();
+        Long getProcessingHours();
+    }
+}
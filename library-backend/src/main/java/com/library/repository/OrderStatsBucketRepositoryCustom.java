@@ -0,0 +1,11 @@
+package com.library.repository;
+
+import java.time.LocalDateTime;
+
+public interface OrderStatsBucketRepositoryCustom {
+
+    /**
+     * Empty cell for the first order of the hour or day in this status; an existing cell keeps its sums
+     */
+    void createIfAbsent(String granularity, LocalDateTime bucketStart, String status, String paymentStatus);
+}
@@ -0,0 +1,29 @@
+package com.library.repository;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+
+public class OrderStatsBucketRepositoryCustomImpl implements OrderStatsBucketRepositoryCustom {
+
+    private final EntityManager entityManager;
+    private final String createIfAbsentSql;
+
+    public OrderStatsBucketRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.createIfAbsentSql = InsertIfAbsent.sql(entityManager,
+                "INSERT INTO order_stats_buckets (granularity, bucket_start, status, payment_status, " +
+                "order_count, item_count, total_amount, shipped_count, processing_hours) " +
+                "VALUES (:granularity, :bucketStart, :status, :paymentStatus, 0, 0, 0, 0, 0)", "order_count");
+    }
+
+    @Override
+    public void createIfAbsent(String granularity, LocalDateTime bucketStart, String status, String paymentStatus) {
+        entityManager.createNativeQuery(createIfAbsentSql)
+                .setParameter("granularity", granularity)
+                .setParameter("bucketStart", bucketStart)
+                .setParameter("status", status)
+                .setParameter("paymentStatus", paymentStatus)
+                .executeUpdate();
+    }
+}
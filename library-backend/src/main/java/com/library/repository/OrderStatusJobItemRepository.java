@@ -0,0 +1,33 @@
+package com.library.repository;
+
+import com.library.entity.OrderStatusJobItem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderStatusJobItemRepository
+        extends JpaRepository<OrderStatusJobItem, OrderStatusJobItem.Key>, OrderStatusJobItemRepositoryCustom {
+
+    // Next chunk after the job's cursor, a range read of the primary key
+    @Query("SELECT i.orderId FROM OrderStatusJobItem i WHERE i.jobId = :jobId AND i.orderId > :afterOrderId " +
+           "ORDER BY i.orderId")
+    List<Long> findNextOrderIds(@Param("jobId") Long jobId, @Param("afterOrderId") Long afterOrderId,
+                                Pageable pageable);
+
+    Page<OrderStatusJobItem> findByJobIdAndStateOrderByOrderId(Long jobId, OrderStatusJobItem.State state,
+                                                              Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OrderStatusJobItem i SET i.state = :state, i.failureReason = :failureReason " +
+           "WHERE i.jobId = :jobId AND i.orderId IN :orderIds")
+    int markAll(@Param("jobId") Long jobId, @Param("orderIds") Collection<Long> orderIds,
+                @Param("state") OrderStatusJobItem.State state, @Param("failureReason") String failureReason);
+}
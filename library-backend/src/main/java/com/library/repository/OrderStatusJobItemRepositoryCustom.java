@@ -0,0 +1,11 @@
+package com.library.repository;
+
+import java.util.Collection;
+
+public interface OrderStatusJobItemRepositoryCustom {
+
+    /**
+     * Add the orders of a job as PENDING items, as one JDBC batch
+     */
+    void insertPending(Long jobId, Collection<Long> orderIds);
+}
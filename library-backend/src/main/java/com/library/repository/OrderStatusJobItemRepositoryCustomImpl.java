@@ -0,0 +1,31 @@
+package com.library.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+
+public class OrderStatusJobItemRepositoryCustomImpl implements OrderStatusJobItemRepositoryCustom {
+
+    private static final String INSERT_PENDING_SQL =
+            "INSERT INTO order_status_job_items (job_id, order_id, state) VALUES (?, ?, 'PENDING')";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertPending(Long jobId, Collection<Long> orderIds) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_PENDING_SQL)) {
+                for (Long orderId : orderIds) {
+                    statement.setLong(1, jobId);
+                    statement.setLong(2, orderId);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.library.repository;
+
+import com.library.entity.OrderStatusJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderStatusJobRepository extends JpaRepository<OrderStatusJob, Long> {
+
+    // Queued jobs, and running jobs whose owner stopped renewing its lease
+    @Query("SELECT j.id FROM OrderStatusJob j WHERE j.state = 'QUEUED' " +
+           "OR (j.state = 'RUNNING' AND j.leaseUntil < :now) ORDER BY j.id")
+    List<Long> findRunnableIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OrderStatusJob j SET j.state = 'RUNNING', j.owner = :owner, j.leaseUntil = :leaseUntil, " +
+           "j.updatedAt = CURRENT_TIMESTAMP WHERE j.id = :jobId " +
+           "AND (j.state = 'QUEUED' OR (j.state = 'RUNNING' AND j.leaseUntil < :now))")
+    int claim(@Param("jobId") Long jobId, @Param("owner") String owner, @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Commits with the chunk's order updates, and only while the caller still owns the job
+    @Modifying
+    @Query("UPDATE OrderStatusJob j SET j.lastOrderId = :lastOrderId, " +
+           "j.processedCount = j.processedCount + :updated + :failed, " +
+           "j.updatedCount = j.updatedCount + :updated, j.failedCount = j.failedCount + :failed, " +
+           "j.leaseUntil = :leaseUntil, j.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE j.id = :jobId AND j.owner = :owner AND j.state = 'RUNNING'")
+    int recordChunk(@Param("jobId") Long jobId, @Param("owner") String owner,
+                    @Param("lastOrderId") Long lastOrderId, @Param("updated") int updated,
+                    @Param("failed") int failed, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE OrderStatusJob j SET j.state = 'COMPLETED', j.owner = NULL, j.leaseUntil = NULL, " +
+           "j.completedAt = :now, j.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE j.id = :jobId AND j.owner = :owner AND j.state = 'RUNNING'")
+    int complete(@Param("jobId") Long jobId, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
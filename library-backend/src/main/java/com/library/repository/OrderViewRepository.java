@@ -0,0 +1,47 @@
+package com.library.repository;
+
+import com.library.entity.OrderStatus;
+import com.library.entity.OrderView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderViewRepository extends JpaRepository<OrderView, Long> {
+
+    // History listings, served by the (user_id, created_at, order_id) index
+    Page<OrderView> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+
+    List<OrderView> findByUserIdOrderByCreatedAtDescOrderIdDesc(Long userId, Pageable pageable);
+
+    @Query("SELECT v FROM OrderView v WHERE v.userId = :userId AND (v.createdAt < :createdAt " +
+           "OR (v.createdAt = :createdAt AND v.orderId < :orderId)) ORDER BY v.createdAt DESC, v.orderId DESC")
+    List<OrderView> findByUserIdBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("orderId") Long orderId, Pageable pageable);
+
+    List<OrderView> findByUserIdAndStatusInOrderByCreatedAtDesc(Long userId, Collection<OrderStatus> statuses);
+
+    Optional<OrderView> findByOrderCodeAndUserId(String orderCode, Long userId);
+
+    // Consistency check: orders without a view, and views whose order is gone
+    @Query("SELECT o.id FROM Order o WHERE o.id > :afterOrderId " +
+           "AND NOT EXISTS (SELECT v.orderId FROM OrderView v WHERE v.orderId = o.id) ORDER BY o.id")
+    List<Long> findOrderIdsWithoutView(@Param("afterOrderId") Long afterOrderId, Pageable pageable);
+
+    @Query("SELECT v.orderId FROM OrderView v WHERE v.orderId > :afterOrderId " +
+           "AND NOT EXISTS (SELECT o.id FROM Order o WHERE o.id = v.orderId) ORDER BY v.orderId")
+    List<Long> findOrphanedOrderIds(@Param("afterOrderId") Long afterOrderId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM OrderView v WHERE v.orderId IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+}
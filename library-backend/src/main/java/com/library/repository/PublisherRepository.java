@@ -28,6 +28,9 @@ public interface PublisherRepository extends JpaRepository<Publisher, Long> {
     @Query("SELECT COUNT(b) FROM Book b WHERE b.publisher.id = :publisherId")
     Long countBooksByPublisherId(@Param("publisherId") Long publisherId);
     
+    @Query("SELECT b.id FROM Book b WHERE b.publisher.id = :publisherId")
+    List<Long> findBookIdsByPublisherId(@Param("publisherId") Long publisherId);
+    
     @Query("SELECT p FROM Publisher p WHERE p.establishedYear BETWEEN :startYear AND :endYear")
     List<Publisher> findByEstablishedYearBetween(@Param("startYear") Integer startYear, 
                                                   @Param("endYear") Integer endYear);
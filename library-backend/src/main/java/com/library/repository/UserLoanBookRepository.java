@@ -0,0 +1,36 @@
+package com.library.repository;
+
+import com.library.entity.LoanStatus;
+import com.library.entity.UserLoanBook;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface UserLoanBookRepository extends JpaRepository<UserLoanBook, Long> {
+
+    boolean existsByUserIdAndBookIdAndStatusIn(Long userId, Long bookId, Collection<LoanStatus> statuses);
+
+    @Modifying
+    @Query("UPDATE UserLoanBook b SET b.status = 'OVERDUE' WHERE b.loanId IN :loanIds AND b.status = 'BORROWED'")
+    int markOverdue(@Param("loanIds") Collection<Long> loanIds);
+
+    @Modifying
+    @Query("DELETE FROM UserLoanBook b WHERE b.loanId = :loanId")
+    int release(@Param("loanId") Long loanId);
+
+    @Modifying
+    @Query("DELETE FROM UserLoanBook b WHERE b.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_loan_books (loan_id, user_id, book_id, status) " +
+                   "SELECT l.id, l.user_id, l.book_id, l.status FROM loans l " +
+                   "WHERE l.user_id = :userId AND l.status IN ('REQUESTED', 'APPROVED', 'BORROWED', 'OVERDUE')",
+           nativeQuery = true)
+    int copyFromLoans(@Param("userId") Long userId);
+}
@@ -0,0 +1,47 @@
+package com.library.repository;
+
+import com.library.entity.UserLoanSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserLoanSummaryRepository extends JpaRepository<UserLoanSummary, Long>, UserLoanSummaryRepositoryCustom {
+
+    // Locks the row, so live changes wait for a reconciliation of the same user
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserLoanSummary s WHERE s.userId = :userId")
+    Optional<UserLoanSummary> findByIdForUpdate(@Param("userId") Long userId);
+
+    // Takes a loan slot only while the user is under the limit; the check and the count are one update
+    @Modifying
+    @Query("UPDATE UserLoanSummary s SET s.activeLoans = s.activeLoans + 1, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.userId = :userId AND s.activeLoans < :maxActiveLoans")
+    int claimSlot(@Param("userId") Long userId, @Param("maxActiveLoans") int maxActiveLoans);
+
+    @Modifying
+    @Query("UPDATE UserLoanSummary s SET s.activeLoans = s.activeLoans + :delta, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.userId = :userId")
+    int applyDelta(@Param("userId") Long userId, @Param("delta") int delta);
+
+    // Borrowed loans turning overdue stop counting; run before their held rows are flipped
+    @Modifying
+    @Query(value = "UPDATE user_loan_summaries SET active_loans = active_loans - " +
+                   "(SELECT COUNT(*) FROM user_loan_books b WHERE b.user_id = user_loan_summaries.user_id " +
+                   "AND b.loan_id IN (:loanIds) AND b.status = 'BORROWED'), updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE user_id IN (SELECT b.user_id FROM user_loan_books b " +
+                   "WHERE b.loan_id IN (:loanIds) AND b.status = 'BORROWED')", nativeQuery = true)
+    int releaseOverdue(@Param("loanIds") Collection<Long> loanIds);
+
+    @Query("SELECT s.userId FROM UserLoanSummary s WHERE s.userId > :afterUserId ORDER BY s.userId")
+    List<Long> findUserIdsAfter(@Param("afterUserId") Long afterUserId, Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package com.library.repository;
+
+public interface UserLoanSummaryRepositoryCustom {
+
+    /**
+     * Zeroed summary for the user's first loan request; an existing one keeps its count, so no slot is freed
+     */
+    void createIfAbsent(Long userId);
+}
@@ -0,0 +1,23 @@
+package com.library.repository;
+
+import jakarta.persistence.EntityManager;
+
+public class UserLoanSummaryRepositoryCustomImpl implements UserLoanSummaryRepositoryCustom {
+
+    private final EntityManager entityManager;
+    private final String createIfAbsentSql;
+
+    public UserLoanSummaryRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.createIfAbsentSql = InsertIfAbsent.sql(entityManager,
+                "INSERT INTO user_loan_summaries (user_id, active_loans, updated_at) " +
+                "VALUES (:userId, 0, CURRENT_TIMESTAMP)", "active_loans");
+    }
+
+    @Override
+    public void createIfAbsent(Long userId) {
+        entityManager.createNativeQuery(createIfAbsentSql)
+                .setParameter("userId", userId)
+                .executeUpdate();
+    }
+}
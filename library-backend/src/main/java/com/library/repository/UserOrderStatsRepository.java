@@ -0,0 +1,40 @@
+package com.library.repository;
+
+import com.library.entity.UserOrderStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface UserOrderStatsRepository extends JpaRepository<UserOrderStats, Long>, UserOrderStatsRepositoryCustom {
+
+    // Locks the row, so live deltas wait for a rebuild of the same user
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserOrderStats s WHERE s.userId = :userId")
+    Optional<UserOrderStats> findByIdForUpdate(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE UserOrderStats s SET s.totalOrders = s.totalOrders + 1, " +
+           "s.largestOrderValue = CASE WHEN s.largestOrderValue < :totalAmount THEN :totalAmount ELSE s.largestOrderValue END, " +
+           "s.firstOrderDate = COALESCE(s.firstOrderDate, :orderDate), s.lastOrderDate = :orderDate, " +
+           "s.updatedAt = CURRENT_TIMESTAMP WHERE s.userId = :userId")
+    int addOrder(@Param("userId") Long userId, @Param("totalAmount") BigDecimal totalAmount,
+                 @Param("orderDate") LocalDateTime orderDate);
+
+    @Modifying
+    @Query("UPDATE UserOrderStats s SET s.completedOrders = s.completedOrders + :completed, " +
+           "s.cancelledOrders = s.cancelledOrders + :cancelled, s.pendingOrders = s.pendingOrders + :pending, " +
+           "s.totalSpent = s.totalSpent + :spent, s.booksPurchased = s.booksPurchased + :books, " +
+           "s.updatedAt = CURRENT_TIMESTAMP WHERE s.userId = :userId")
+    int applyDelta(@Param("userId") Long userId, @Param("completed") long completed,
+                   @Param("cancelled") long cancelled, @Param("pending") long pending,
+                   @Param("spent") BigDecimal spent, @Param("books") long books);
+}
@@ -0,0 +1,9 @@
+package com.library.repository;
+
+public interface UserOrderStatsRepositoryCustom {
+
+    /**
+     * Zeroed row for the user's first order; the same user's concurrent first order keeps the existing counts
+     */
+    void createIfAbsent(Long userId);
+}
@@ -0,0 +1,24 @@
+package com.library.repository;
+
+import jakarta.persistence.EntityManager;
+
+public class UserOrderStatsRepositoryCustomImpl implements UserOrderStatsRepositoryCustom {
+
+    private final EntityManager entityManager;
+    private final String createIfAbsentSql;
+
+    public UserOrderStatsRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.createIfAbsentSql = InsertIfAbsent.sql(entityManager,
+                "INSERT INTO user_order_stats (user_id, total_orders, completed_orders, cancelled_orders, " +
+                "pending_orders, total_spent, largest_order_value, books_purchased, updated_at) " +
+                "VALUES (:userId, 0, 0, 0, 0, 0, 0, 0, CURRENT_TIMESTAMP)", "user_id");
+    }
+
+    @Override
+    public void createIfAbsent(Long userId) {
+        entityManager.createNativeQuery(createIfAbsentSql)
+                .setParameter("userId", userId)
+                .executeUpdate();
+    }
+}
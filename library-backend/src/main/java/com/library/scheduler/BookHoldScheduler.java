@@ -0,0 +1,37 @@
+package com.library.scheduler;
+
+import com.library.service.BookHoldService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookHoldScheduler {
+
+    private final BookHoldService bookHoldService;
+
+    @Value("${library.loan.holds.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * Expire set-aside copies not picked up in time, passing each to the next holder, then set
+     * aside shelf copies of books whose holders still wait
+     * Runs every minute by default on every node; each hold is claimed by a conditional update
+     */
+    @Scheduled(fixedDelayString = "${library.loan.holds.poll-ms:60000}", initialDelay = 60000)
+    public void serveHoldQueues() {
+        try {
+            int expired;
+            do {
+                expired = bookHoldService.expireReadyHolds(batchSize);
+            } while (expired == batchSize);
+            bookHoldService.assignStrandedCopies(batchSize);
+        } catch (Exception e) {
+            log.error("Failed to serve book hold queues", e);
+        }
+    }
+}
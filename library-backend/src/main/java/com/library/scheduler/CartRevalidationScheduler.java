@@ -0,0 +1,30 @@
+package com.library.scheduler;
+
+import com.library.service.CartService;
+import com.library.service.impl.JobCoordinator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CartRevalidationScheduler {
+
+    private final CartService cartService;
+    private final JobCoordinator jobCoordinator;
+
+    /**
+     * Correct every cart against current stock, prices and sale flags
+     * Runs nightly by default on one node; "-" as the cron disables it
+     */
+    @Scheduled(cron = "${library.cart.revalidation.cron:0 0 4 * * *}")
+    public void revalidateCarts() {
+        try {
+            jobCoordinator.runExclusive("cart-revalidation", cartService::revalidateAllCarts);
+        } catch (Exception e) {
+            log.error("Failed to revalidate carts", e);
+        }
+    }
+}
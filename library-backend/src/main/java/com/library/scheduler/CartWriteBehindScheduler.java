@@ -0,0 +1,35 @@
+package com.library.scheduler;
+
+import com.library.service.impl.CartStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CartWriteBehindScheduler {
+
+    private final CartStore cartStore;
+
+    @Value("${library.cart.write-behind-batch-size:200}")
+    private int batchSize;
+
+    /**
+     * Copy carts changed in Redis to cart_items
+     * Runs every couple of seconds; an idle poll is a Redis set read and an indexed read of stale marks
+     */
+    @Scheduled(fixedDelayString = "${library.cart.write-behind-ms:2000}", initialDelay = 10000)
+    public void writeBehindCarts() {
+        try {
+            int flushed;
+            do {
+                flushed = cartStore.flushDirty(batchSize);
+            } while (flushed == batchSize);
+        } catch (Exception e) {
+            log.error("Failed to write carts to the database", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.library.scheduler;
+
+import com.library.service.impl.JobCoordinator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JobHistoryScheduler {
+
+    private final JobCoordinator jobCoordinator;
+
+    @Value("${library.jobs.history-days:30}")
+    private int historyDays;
+
+    /**
+     * Delete job run history past the retention
+     * Runs nightly by default on one node; "-" as the cron disables it
+     */
+    @Scheduled(cron = "${library.jobs.history-purge-cron:0 50 2 * * *}")
+    public void purgeJobHistory() {
+        try {
+            jobCoordinator.runExclusive("job-history-purge",
+                    () -> jobCoordinator.purgeRunsBefore(LocalDateTime.now().minusDays(historyDays)));
+        } catch (Exception e) {
+            log.error("Failed to purge job run history", e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.library.scheduler;
+
+import com.library.service.LoanDueScheduleService;
+import com.library.service.impl.JobCoordinator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoanDueScheduler {
+
+    private final LoanDueScheduleService loanDueScheduleService;
+    private final JobCoordinator jobCoordinator;
+
+    @Value("${library.loan.due-triggers.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * Send due-soon and overdue reminders whose time has come, as registered at approval
+     * Runs every minute by default; an idle poll is one indexed read of the queue head
+     * Drains while full batches leave the head, whether fired, cancelled or deferred after failing
+     */
+    @Scheduled(fixedDelayString = "${library.loan.due-triggers.poll-ms:60000}", initialDelay = 60000)
+    public void fireDueTriggers() {
+        try {
+            int taken;
+            do {
+                taken = loanDueScheduleService.fireDueTriggers(batchSize);
+            } while (taken == batchSize);
+        } catch (Exception e) {
+            log.error("Failed to fire loan reminders", e);
+        }
+    }
+
+    /**
+     * Register reminders for loans out with none pending, e.g. approved before triggers existed
+     * Runs nightly by default on one node; "-" as the cron disables it
+     */
+    @Scheduled(cron = "${library.loan.due-triggers.backfill-cron:0 45 0 * * *}")
+    public void scheduleUnscheduledLoans() {
+        try {
+            jobCoordinator.runExclusive("loan-reminder-backfill", loanDueScheduleService::scheduleUnscheduledLoans);
+        } catch (Exception e) {
+            log.error("Failed to register missing loan reminders", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.library.scheduler;
+
+import com.library.service.UserLoanSummaryService;
+import com.library.service.impl.JobCoordinator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoanSummaryScheduler {
+
+    private final UserLoanSummaryService userLoanSummaryService;
+    private final JobCoordinator jobCoordinator;
+
+    /**
+     * Correct per-user loan counters and held books against the loans table
+     * Runs nightly by default on one node; "-" as the cron disables it
+     */
+    @Scheduled(cron = "${library.loan.summary.reconcile-cron:0 20 3 * * *}")
+    public void reconcileLoanSummaries() {
+        try {
+            jobCoordinator.runExclusive("loan-summary-reconcile", userLoanSummaryService::reconcileAll);
+        } catch (Exception e) {
+            log.error("Failed to reconcile loan summaries", e);
+        }
+    }
+}
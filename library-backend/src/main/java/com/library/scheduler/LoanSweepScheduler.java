@@ -0,0 +1,49 @@
+package com.library.scheduler;
+
+import com.library.service.LoanSweepService;
+import com.library.service.impl.JobCoordinator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoanSweepScheduler {
+
+    private final LoanSweepService loanSweepService;
+    private final JobCoordinator jobCoordinator;
+
+    @Value("${library.loan.sweep.partitions:4}")
+    private int partitions;
+
+    /**
+     * Mark borrowed loans past their due date as overdue, resuming a sweep that was cut short
+     * Runs hourly by default, each id partition on whichever node claims it; "-" as the cron disables it
+     */
+    @Scheduled(cron = "${library.loan.sweep.overdue-cron:0 0 * * * *}")
+    public void markOverdueLoans() {
+        try {
+            jobCoordinator.runPartitioned("loan-overdue-status", partitions,
+                    (partition, count) -> loanSweepService.markOverdueLoans(partition, count).getProcessedLoans());
+        } catch (Exception e) {
+            log.error("Failed to mark overdue loans", e);
+        }
+    }
+
+    /**
+     * Bring fines of borrowed and overdue loans up to date, one ledger entry per change
+     * Runs nightly by default, each id partition on whichever node claims it; "-" as the cron disables it
+     */
+    @Scheduled(cron = "${library.loan.fines.accrual-cron:0 15 0 * * *}")
+    public void accrueFines() {
+        try {
+            jobCoordinator.runPartitioned("loan-fine-accrual", partitions,
+                    (partition, count) -> loanSweepService.accrueFines(partition, count).getProcessedLoans());
+        } catch (Exception e) {
+            log.error("Failed to accrue loan fines", e);
+        }
+    }
+}
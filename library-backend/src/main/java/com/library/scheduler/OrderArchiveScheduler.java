@@ -0,0 +1,30 @@
+package com.library.scheduler;
+
+import com.library.service.OrderArchiveService;
+import com.library.service.impl.JobCoordinator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiveScheduler {
+
+    private final OrderArchiveService orderArchiveService;
+    private final JobCoordinator jobCoordinator;
+
+    /**
+     * Move finished orders past the archive age out of the hot tables
+     * Runs nightly by default on one node; "-" as the cron disables it
+     */
+    @Scheduled(cron = "${library.order.archive.cron:0 30 3 * * *}")
+    public void archiveFinishedOrders() {
+        try {
+            jobCoordinator.runExclusive("order-archive", orderArchiveService::archiveFinishedOrders);
+        } catch (Exception e) {
+            log.error("Failed to archive finished orders", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.library.scheduler;
+
+import com.library.service.OrderHoldService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderHoldScheduler {
+
+    private final OrderHoldService orderHoldService;
+
+    @Value("${library.order.stock-hold-batch-size:100}")
+    private int batchSize;
+
+    /**
+     * Release holds whose payment window has ended, as queued at checkout
+     * Runs every few seconds; an idle poll is a single Redis range read
+     */
+    @Scheduled(fixedDelayString = "${library.order.stock-hold-poll-ms:5000}", initialDelay = 30000)
+    public void releaseExpiredHolds() {
+        List<Long> orderIds;
+        do {
+            orderIds = orderHoldService.claimExpiredHolds(batchSize);
+            expire(orderIds);
+        } while (orderIds.size() == batchSize);
+    }
+
+    /**
+     * Release expired holds the queue missed, e.g. after a Redis outage
+     * Runs every 15 minutes by default
+     */
+    @Scheduled(fixedDelayString = "${library.order.stock-hold-sweep-ms:900000}", initialDelay = 60000)
+    public void sweepExpiredHolds() {
+        try {
+            List<Long> orderIds = orderHoldService.findExpiredHolds(batchSize);
+            if (!orderIds.isEmpty()) {
+                log.info("Found {} expired stock holds outside the expiry queue", orderIds.size());
+            }
+            expire(orderIds);
+        } catch (Exception e) {
+            log.error("Failed to sweep expired stock holds", e);
+        }
+    }
+
+    private void expire(List<Long> orderIds) {
+        for (Long orderId : orderIds) {
+            try {
+                orderHoldService.expireHold(orderId);
+            } catch (Exception e) {
+                // Left for the sweep, which finds it through the order row
+                log.error("Failed to release stock hold of order: {}", orderId, e);
+            }
+        }
+    }
+}
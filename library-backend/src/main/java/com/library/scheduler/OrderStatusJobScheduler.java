@@ -0,0 +1,31 @@
+package com.library.scheduler;
+
+import com.library.service.OrderStatusJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderStatusJobScheduler {
+
+    private final OrderStatusJobService orderStatusJobService;
+
+    /**
+     * Run queued bulk status jobs, and resume jobs of nodes that stopped mid-way
+     * Runs every 2 seconds by default
+     */
+    @Scheduled(fixedDelayString = "${library.order.bulk-status.poll-ms:2000}", initialDelay = 15000)
+    public void runPendingJobs() {
+        try {
+            int completed = orderStatusJobService.runPendingJobs();
+            if (completed > 0) {
+                log.info("Completed {} order status jobs", completed);
+            }
+        } catch (Exception e) {
+            log.error("Failed to run order status jobs", e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.library.scheduler;
+
+import com.library.entity.JobRun;
+import com.library.repository.JobLeaseRepository;
+import com.library.repository.JobRunRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator view of cluster jobs at /actuator/jobs: who holds each lease, and recent runs with their
+ * duration, rows processed and outcome; /actuator/jobs/{name} lists the runs of one job
+ */
+@Component
+@Endpoint(id = "jobs")
+@RequiredArgsConstructor
+public class ScheduledJobsEndpoint {
+
+    private static final int RECENT_RUNS = 50;
+
+    private final JobLeaseRepository leaseRepository;
+    private final JobRunRepository runRepository;
+
+    @ReadOperation
+    public Map<String, Object> jobs() {
+        Map<String, Object> jobs = new LinkedHashMap<>();
+        jobs.put("leases", leaseRepository.findAll());
+        jobs.put("recentRuns", runRepository.findByOrderByIdDesc(PageRequest.ofSize(RECENT_RUNS)));
+        return jobs;
+    }
+
+    @ReadOperation
+    public List<JobRun> job(@Selector String name) {
+        return runRepository.findByJobNameOrderByIdDesc(name, PageRequest.ofSize(RECENT_RUNS));
+    }
+}
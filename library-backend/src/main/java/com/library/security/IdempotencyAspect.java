@@ -0,0 +1,187 @@
+package com.library.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.exception.IdempotencyConflictException;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Runs {@link Idempotent} methods once per {@code Idempotency-Key}. The first request claims the
+ * key in Redis with an in-flight marker; repeats arriving meanwhile poll until the response is
+ * stored and then replay it, so a duplicate costs one key read once the first has finished.
+ * Keys are scoped to the caller and method, and bound to a fingerprint of the arguments. A failed
+ * execution releases its key, so the client can retry it. Without Redis, requests run unguarded.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyAspect {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotency-Replayed";
+
+    private static final String KEY_PREFIX = "library:idempotency:";
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${library.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${library.idempotency.lock-seconds:30}")
+    private long lockSeconds;
+
+    @Value("${library.idempotency.wait-ms:10000}")
+    private long waitMillis;
+
+    @Value("${library.idempotency.poll-ms:50}")
+    private long pollMillis;
+
+    @Around("@annotation(com.library.security.Idempotent)")
+    public Object idempotent(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        String idempotencyKey = attributes != null ? attributes.getRequest().getHeader(IDEMPOTENCY_KEY_HEADER) : null;
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return joinPoint.proceed();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String key = KEY_PREFIX + currentUser() + ":" + joinPoint.getSignature().getName() + ":" + idempotencyKey;
+        String fingerprint = fingerprint(joinPoint.getArgs());
+        long deadline = System.currentTimeMillis() + waitMillis;
+
+        while (true) {
+            StoredResponse stored;
+            boolean claimed;
+            try {
+                stored = (StoredResponse) redisTemplate.opsForValue().get(key);
+                claimed = stored == null && Boolean.TRUE.equals(redisTemplate.opsForValue()
+                        .setIfAbsent(key, StoredResponse.inFlight(fingerprint), Duration.ofSeconds(lockSeconds)));
+            } catch (DataAccessException e) {
+                log.warn("Idempotency store unavailable, running {} unguarded: {}",
+                        joinPoint.getSignature().getName(), e.getMessage());
+                return joinPoint.proceed();
+            }
+
+            if (claimed) {
+                return execute(joinPoint, key, fingerprint);
+            }
+            if (stored != null) {
+                if (!fingerprint.equals(stored.getFingerprint())) {
+                    throw new IdempotencyConflictException("Idempotency-Key was already used for a different request");
+                }
+                if (stored.isCompleted()) {
+                    markReplayed(attributes);
+                    return stored.getResponse();
+                }
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+            }
+            // In flight on another request, or released by a failure just now and free to claim
+            Thread.sleep(pollMillis);
+        }
+    }
+
+    private Object execute(ProceedingJoinPoint joinPoint, String key, String fingerprint) throws Throwable {
+        Object response;
+        try {
+            response = joinPoint.proceed();
+        } catch (Throwable e) {
+            release(key);
+            throw e;
+        }
+
+        try {
+            redisTemplate.opsForValue().set(key, StoredResponse.completed(fingerprint, response),
+                    Duration.ofHours(ttlHours));
+        } catch (DataAccessException e) {
+            // The in-flight marker expires, after which a repeat runs again
+            log.warn("Could not store idempotent response of {}: {}", key, e.getMessage());
+        }
+        return response;
+    }
+
+    private void release(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (DataAccessException e) {
+            log.warn("Could not release idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static void markReplayed(ServletRequestAttributes attributes) {
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null) {
+            response.setHeader(REPLAYED_HEADER, "true");
+        }
+    }
+
+    private String fingerprint(Object[] args) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(args);
+        } catch (JsonProcessingException e) {
+            payload = Arrays.deepToString(args).getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(payload);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+
+    /**
+     * Redis entry of one idempotency key: in flight until the first execution stores its response
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StoredResponse {
+
+        private String fingerprint;
+        private boolean completed;
+        private Object response;
+
+        static StoredResponse inFlight(String fingerprint) {
+            return new StoredResponse(fingerprint, false, null);
+        }
+
+        static StoredResponse completed(String fingerprint, Object response) {
+            return new StoredResponse(fingerprint, true, response);
+        }
+    }
+}
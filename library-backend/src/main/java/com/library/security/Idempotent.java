@@ -0,0 +1,15 @@
+package com.library.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Makes a controller method replay-safe: a request carrying an {@code Idempotency-Key} header is
+ * executed once per key, and repeats receive the stored response instead of running it again.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+}
@@ -57,11 +57,6 @@ public interface AdminOrderService {
      */
     AdminOrderStatsDTO getOrderStatistics(LocalDateTime startDate, LocalDateTime endDate);
 
-    /**
-     * Bulk update order status
-     */
-    List<AdminOrderDTO> bulkUpdateOrderStatus(List<Long> orderIds, OrderStatus newStatus);
-
     /**
      * Add admin notes to order
      */
@@ -0,0 +1,90 @@
+package com.library.service;
+
+import com.library.dto.BookHoldDTO;
+import com.library.entity.Book;
+
+import java.util.List;
+
+/**
+ * Service interface for the per-book hold queues.
+ * <p>
+ * A copy of a book with holders waiting never goes back on the shelf: it is set aside for the
+ * head of the queue, who is notified and has a pickup window to request the loan. Patrons wait
+ * for that notification instead of polling availability.
+ */
+public interface BookHoldService {
+
+    /**
+     * Join the hold queue of a lendable book; a copy on the shelf is set aside at once
+     * @param userId User ID
+     * @param bookId Book ID
+     * @return The hold, with its queue position
+     */
+    BookHoldDTO placeHold(Long userId, Long bookId);
+
+    /**
+     * Leave a hold queue; a copy set aside for the hold moves on to the next holder
+     * @param userId User ID of the holder
+     * @param holdId Hold ID
+     */
+    void cancelHold(Long userId, Long holdId);
+
+    /**
+     * Get a user's waiting and ready holds
+     * @param userId User ID
+     * @return Holds, newest first
+     */
+    List<BookHoldDTO> getUserHolds(Long userId);
+
+    /**
+     * Move a waiting hold up or down its queue
+     * @param holdId Hold ID
+     * @param priority Higher is served first; patrons' own holds are 0
+     * @return The hold, with its new queue position
+     */
+    BookHoldDTO updatePriority(Long holdId, int priority);
+
+    /**
+     * Check whether a copy of the book is set aside for the user
+     * @param userId User ID
+     * @param bookId Book ID
+     * @return true if the user's hold is ready for pickup
+     */
+    boolean hasReadyHold(Long userId, Long bookId);
+
+    /**
+     * Hand the copy set aside for the user to their loan request
+     * @param userId User ID
+     * @param bookId Book ID
+     * @param loanId Requested loan
+     * @return Whether the hold was still ready; false if it expired meanwhile
+     */
+    boolean fulfillHold(Long userId, Long bookId, Long loanId);
+
+    /**
+     * Check whether a loan was requested with a set-aside copy, which is already off the shelf
+     * @param loanId Loan ID
+     * @return true if the loan holds a set-aside copy
+     */
+    boolean isHeldCopy(Long loanId);
+
+    /**
+     * Give a copy coming back to the next holder, or put it back on the shelf if nobody waits
+     * @param book Book of the copy
+     */
+    void releaseCopy(Book book);
+
+    /**
+     * Expire ready holds past their pickup time and pass their copies on
+     * @param limit Maximum number of holds to expire
+     * @return Number of holds expired
+     */
+    int expireReadyHolds(int limit);
+
+    /**
+     * Set aside shelf copies of books whose holders are still waiting
+     * @param limit Maximum number of books to look at
+     * @return Number of holds made ready
+     */
+    int assignStrandedCopies(int limit);
+}
@@ -0,0 +1,66 @@
+package com.library.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Keyword search engine over the book catalog.
+ * Implementations keep their own index and are kept current through catalog events.
+ */
+public interface BookSearchEngine {
+
+    /**
+     * Rebuild the whole index from the database
+     */
+    void rebuildIndex();
+
+    /**
+     * Add or refresh a single book in the index
+     * @param bookId ID of the book to (re)index
+     */
+    void indexBook(Long bookId);
+
+    /**
+     * Remove a book from the index
+     * @param bookId ID of the book to remove
+     */
+    void removeBook(Long bookId);
+
+    /**
+     * Whether the index has been built and can answer queries
+     */
+    boolean isReady();
+
+    /**
+     * Ranked keyword search. Every query term must match; the last term also matches as a prefix.
+     * @param query Raw user query
+     * @param offset Number of top hits to skip
+     * @param limit Maximum number of hits to return
+     * @return Book IDs for the requested window in relevance order plus the total hit count
+     */
+    SearchHits search(String query, int offset, int limit);
+
+    /**
+     * Book IDs matching the query, best first, capped at {@code maxResults}.
+     * Used to narrow database filters down to an indexed primary-key lookup.
+     */
+    List<Long> findMatchingIds(String query, int maxResults);
+
+    /**
+     * Number of indexed books
+     */
+    int getIndexedBookCount();
+
+    @Getter
+    @AllArgsConstructor
+    class SearchHits {
+        private final List<Long> bookIds;
+        private final long totalHits;
+
+        public static SearchHits empty() {
+            return new SearchHits(List.of(), 0);
+        }
+    }
+}
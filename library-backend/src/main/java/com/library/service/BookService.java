@@ -26,6 +26,10 @@ public interface BookService {
     
     Page<BookDTO> searchBooksWithCriteria(BookSearchCriteria criteria, Pageable pageable);
     
+    CursorPage<BookDTO> scrollBooks(String title, String author, Long categoryId,
+                                   Boolean isLendable, Boolean isSellable, String language,
+                                   String sortBy, String sortDir, String cursor, int size, boolean includeTotal);
+    
     Page<BookDTO> getAllBooks(Pageable pageable);
     
     List<BookDTO> getPopularBooks(int limit);
@@ -0,0 +1,46 @@
+package com.library.service;
+
+import java.util.List;
+
+/**
+ * Type-ahead completions over book titles, author names, categories and publishers.
+ * Implementations answer from memory and are kept current through catalog events.
+ */
+public interface BookSuggester {
+
+    /**
+     * Rebuild the whole suggestion dictionary from the database
+     */
+    void rebuild();
+
+    /**
+     * Add or refresh the suggestions contributed by a single book
+     * @param bookId ID of the book to (re)index
+     */
+    void indexBook(Long bookId);
+
+    /**
+     * Drop the suggestions contributed by a book
+     * @param bookId ID of the book to remove
+     */
+    void removeBook(Long bookId);
+
+    /**
+     * Whether the dictionary has been built and can answer queries
+     */
+    boolean isReady();
+
+    /**
+     * Top completions for a prefix, most referenced first, shorter text on ties.
+     * Matching ignores case, accents and punctuation.
+     * @param prefix Text typed so far
+     * @param limit Maximum number of suggestions
+     * @return Suggestions in display form
+     */
+    List<String> suggest(String prefix, int limit);
+
+    /**
+     * Number of distinct suggestions in the dictionary
+     */
+    int getSuggestionCount();
+}
@@ -0,0 +1,29 @@
+package com.library.service;
+
+import com.library.dto.CacheStatsDTO;
+
+import java.util.List;
+
+/**
+ * Service interface for cache hit/miss statistics
+ */
+public interface CacheStatsService {
+    
+    /**
+     * Get hit/miss statistics of every cache since startup or the last reset
+     * @return Statistics per cache, ordered by cache name
+     */
+    List<CacheStatsDTO> getCacheStats();
+    
+    /**
+     * Get hit/miss statistics of one cache
+     * @param cacheName Cache name
+     * @return Statistics of the cache
+     */
+    CacheStatsDTO getCacheStats(String cacheName);
+    
+    /**
+     * Reset the statistics of every cache, e.g. before measuring a load test
+     */
+    void resetCacheStats();
+}
@@ -1,6 +1,7 @@
 package com.library.service;
 
 import com.library.dto.CartItemDTO;
+import com.library.dto.CartRevalidationDTO;
 import com.library.dto.CartSummaryDTO;
 import com.library.dto.AddToCartRequestDTO;
 import com.library.dto.UpdateCartItemRequestDTO;
@@ -41,4 +42,9 @@ public interface CartService {
     void validateCartItem(Long userId, Long bookId, int quantity);
     
     void syncCartWithInventory(Long userId);
+    
+    // Inventory Revalidation
+    CartRevalidationDTO revalidateCart(Long userId);
+    
+    int revalidateAllCarts();
 }
\ No newline at end of file
@@ -1,8 +1,8 @@
 package com.library.service;
 
 import com.library.entity.Document;
+import com.library.entity.LoanStatus;
 import com.library.entity.enums.AccessLevel;
-import com.library.repository.LoanRepository;
 import com.library.repository.OrderItemRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
@@ -16,12 +16,12 @@ import java.util.Collection;
 @Slf4j
 public class DocumentAccessControlService {
     
-    private final LoanRepository loanRepository;
+    private final UserLoanSummaryService userLoanSummaryService;
     private final OrderItemRepository orderItemRepository;
     
-    public DocumentAccessControlService(LoanRepository loanRepository, 
+    public DocumentAccessControlService(UserLoanSummaryService userLoanSummaryService, 
                                       OrderItemRepository orderItemRepository) {
-        this.loanRepository = loanRepository;
+        this.userLoanSummaryService = userLoanSummaryService;
         this.orderItemRepository = orderItemRepository;
     }
     
@@ -136,11 +136,16 @@ public class DocumentAccessControlService {
         }
         
         Long bookId = document.getBook().getId();
+        Long numericUserId = parseUserId(userId);
+        if (numericUserId == null) {
+            // Loans and orders are keyed by numeric user IDs
+            return false;
+        }
         
         // Check if user has an active loan for the book
-        boolean hasActiveLoan = loanRepository.existsByUserIdAndBookIdAndStatusIn(
-            userId, bookId, 
-            java.util.List.of("BORROWED", "APPROVED")
+        boolean hasActiveLoan = userLoanSummaryService.holdsBook(
+            numericUserId, bookId, 
+            java.util.List.of(LoanStatus.BORROWED, LoanStatus.APPROVED)
         );
         
         if (hasActiveLoan) {
@@ -150,7 +155,7 @@ public class DocumentAccessControlService {
         
         // Check if user has purchased the book
         boolean hasPurchased = orderItemRepository.existsByBookIdAndOrderUserIdAndOrderStatusIn(
-            bookId, userId,
+            bookId, numericUserId,
             java.util.List.of("DELIVERED", "SHIPPED", "PROCESSING", "PAID")
         );
         
@@ -162,6 +167,19 @@ public class DocumentAccessControlService {
         return false;
     }
     
+    /**
+     * Parse the authenticated user ID
+     * @param userId The user ID as authenticated
+     * @return Numeric user ID, or null if it is not numeric
+     */
+    private static Long parseUserId(String userId) {
+        try {
+            return Long.valueOf(userId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
     /**
      * Get current authenticated user ID
      * @return User ID or null if not authenticated
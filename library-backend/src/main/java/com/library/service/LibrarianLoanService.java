@@ -2,12 +2,14 @@ package com.library.service;
 
 import com.library.dto.AdminLoanDTO;
 import com.library.dto.ApproveLoanRequestDTO;
+import com.library.dto.FineReportDTO;
 import com.library.dto.LoanDTO;
 import com.library.dto.ProcessReturnRequestDTO;
 import com.library.dto.RejectLoanRequestDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface LibrarianLoanService {
@@ -36,4 +38,7 @@ public interface LibrarianLoanService {
     LoanDTO calculateAndUpdateFine(Long loanId);
     
     List<AdminLoanDTO> getLoansWithUnpaidFines();
+    
+    // Outstanding fines plus fine ledger activity in [from, to)
+    FineReportDTO getFineReport(LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.library.service;
+
+import com.library.entity.Loan;
+
+public interface LoanDueScheduleService {
+
+    // Registers the due-soon reminder and the first overdue reminder for the loan's due date
+    void scheduleLoan(Loan loan);
+
+    // Drops the loan's pending reminders, e.g. once the book is back
+    void cancelLoan(Long loanId);
+
+    // Takes up to limit due reminders off the queue head, firing, cancelling or deferring each;
+    // returns how many left the head, so a caller drains the queue while this equals limit
+    int fireDueTriggers(int limit);
+
+    // Registers reminders for loans out without any pending, returning how many loans it scheduled
+    int scheduleUnscheduledLoans();
+}
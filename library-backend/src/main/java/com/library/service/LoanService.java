@@ -4,15 +4,21 @@ import com.library.dto.CreateLoanRequestDTO;
 import com.library.dto.LoanDTO;
 import com.library.dto.LoanHistoryDTO;
 import com.library.dto.CurrentLoanDTO;
+import com.library.dto.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.math.BigDecimal;
+
 public interface LoanService {
     
     LoanDTO createLoanRequest(Long userId, CreateLoanRequestDTO request);
     
     Page<LoanDTO> getUserLoans(Long userId, Pageable pageable);
     
+    // Keyset pagination, newest first; totals only when includeTotal is set
+    CursorPage<LoanDTO> scrollUserLoans(Long userId, String cursor, int size, boolean includeTotal);
+    
     Page<LoanDTO> getUserLoansByStatus(Long userId, String status, Pageable pageable);
     
     LoanDTO getLoanDetails(Long loanId);
@@ -21,6 +27,8 @@ public interface LoanService {
     
     boolean canUserBorrowMoreBooks(Long userId);
     
+    BigDecimal getUserUnpaidFineTotal(Long userId);
+    
     // LOAN-002: History & Current Loans methods
     Page<LoanHistoryDTO> getUserLoanHistory(Long userId, Pageable pageable);
     
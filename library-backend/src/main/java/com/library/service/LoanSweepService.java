@@ -0,0 +1,17 @@
+package com.library.service;
+
+import com.library.dto.LoanSweepResultDTO;
+
+public interface LoanSweepService {
+
+    // Borrowed loans past their due date become OVERDUE, with their fine
+    LoanSweepResultDTO markOverdueLoans();
+
+    // The same for loans whose id falls in one of the given number of hash partitions
+    LoanSweepResultDTO markOverdueLoans(int partition, int partitions);
+
+    // Fines of borrowed and overdue loans brought up to date, with a ledger entry per change
+    LoanSweepResultDTO accrueFines();
+
+    LoanSweepResultDTO accrueFines(int partition, int partitions);
+}
@@ -1,6 +1,7 @@
 package com.library.service;
 
 import com.library.dto.CreateNotificationRequestDTO;
+import com.library.dto.CursorPage;
 import com.library.dto.NotificationDTO;
 import com.library.dto.NotificationSummaryDTO;
 import com.library.entity.enums.NotificationStatus;
@@ -24,6 +25,7 @@ public interface NotificationService {
     // Get notifications
     Page<NotificationDTO> getUserNotifications(String userId, Pageable pageable);
     Page<NotificationDTO> getUserNotificationsByStatus(String userId, NotificationStatus status, Pageable pageable);
+    CursorPage<NotificationDTO> scrollUserNotifications(String userId, String cursor, int size, boolean includeTotal);
     List<NotificationDTO> getRecentNotifications(String userId, int hours);
     List<NotificationDTO> getHighPriorityUnreadNotifications(String userId);
     NotificationDTO getNotificationById(Long id, String userId);
@@ -0,0 +1,42 @@
+package com.library.service;
+
+import com.library.dto.AdminOrderStatsDTO;
+import com.library.entity.Order;
+import com.library.entity.OrderStatus;
+import com.library.entity.PaymentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Service interface for the hourly and daily order analytics rollups.
+ * <p>
+ * Each order counts in the hour and day bucket of its order date. Changes are applied as deltas
+ * in the transaction that makes them, so a date range is answered by summing bucket rows: whole
+ * days from the daily buckets and the partial days at either end from the hourly ones.
+ */
+public interface OrderAnalyticsService {
+
+    /**
+     * Count a newly saved order
+     * @param order Saved order
+     */
+    void recordOrderPlaced(Order order);
+
+    /**
+     * Apply a change of an order's status, payment status or shipping date
+     * @param order Order after the change
+     * @param previousStatus Status before the change
+     * @param previousPaymentStatus Payment status before the change
+     * @param previousShippingDate Shipping date before the change
+     */
+    void recordOrderChange(Order order, OrderStatus previousStatus, PaymentStatus previousPaymentStatus,
+                           LocalDateTime previousShippingDate);
+
+    /**
+     * Order statistics of the orders placed in [fromHour, toHour)
+     * @param fromHour Start of the range, at the start of an hour
+     * @param toHour End of the range (exclusive), at the start of an hour
+     * @return Statistics without the live {@code ordersNeedingAttention} count
+     */
+    AdminOrderStatsDTO getOrderStatistics(LocalDateTime fromHour, LocalDateTime toHour);
+}
@@ -0,0 +1,27 @@
+package com.library.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Service interface for archiving finished orders.
+ * <p>
+ * Delivered, cancelled and refunded orders that have not changed for a configured number of days
+ * move with their items and views from the hot tables into {@code orders_archive},
+ * {@code order_items_archive} and {@code order_views_archive}. Each batch moves in one transaction,
+ * so an interrupted run leaves every order in exactly one place and the next run carries on.
+ */
+public interface OrderArchiveService {
+
+    /**
+     * Move finished orders past the archive age, batch by batch
+     * @return Number of orders archived
+     */
+    int archiveFinishedOrders();
+
+    /**
+     * Start of the hot window. Orders created since are never in the archive, so history pages
+     * that stay inside the window are answered by the hot views alone.
+     * @return Creation time from which orders are hot
+     */
+    LocalDateTime hotWindowStart();
+}
@@ -0,0 +1,60 @@
+package com.library.service;
+
+import com.library.entity.Order;
+import com.library.entity.OrderStatus;
+
+import java.util.List;
+
+/**
+ * Service interface for the stock holds of unpaid orders.
+ * <p>
+ * Checkout takes the ordered quantities off {@code stock_for_sale} right away, so carts and search
+ * already show stock net of every hold. The hold gives the order a payment window: paying makes
+ * the decrement permanent, and an order still unpaid when the window ends is cancelled and its
+ * stock put back.
+ */
+public interface OrderHoldService {
+
+    /**
+     * Start the payment window of a new PENDING_PAYMENT order whose stock was just reserved
+     * @param order Saved order
+     */
+    void placeHold(Order order);
+
+    /**
+     * Keep the order's stock for good, e.g. once it is paid
+     * @param order Order leaving PENDING_PAYMENT
+     * @throws IllegalStateException if the payment window already ended and the stock was released
+     */
+    void confirmHold(Order order);
+
+    /**
+     * Cancel the order and put its stock back, unless its status changed concurrently
+     * @param order Order to cancel
+     * @param expectedStatus Status the order was read with
+     * @return false if the order no longer had the expected status and nothing was changed
+     */
+    boolean cancelAndRestoreStock(Order order, OrderStatus expectedStatus);
+
+    /**
+     * Take holds whose payment window has ended off the expiry queue. Each hold is handed to
+     * exactly one caller, even with several instances polling.
+     * @param limit Maximum number of holds to claim
+     * @return Ids of the claimed orders
+     */
+    List<Long> claimExpiredHolds(int limit);
+
+    /**
+     * Find expired holds in the database, for holds the expiry queue lost or never received
+     * @param limit Maximum number of orders to return
+     * @return Ids of orders whose hold has expired, oldest first
+     */
+    List<Long> findExpiredHolds(int limit);
+
+    /**
+     * Cancel an order whose payment window ended and put its stock back
+     * @param orderId Order id
+     * @return false if the order was paid, cancelled or already released in the meantime
+     */
+    boolean expireHold(Long orderId);
+}
@@ -18,6 +18,11 @@ public interface OrderService {
      */
     Page<OrderSummaryDTO> getUserOrderHistory(Long userId, Pageable pageable);
 
+    /**
+     * Get user's order history with keyset pagination, newest first
+     */
+    CursorPage<OrderSummaryDTO> scrollUserOrderHistory(Long userId, String cursor, int size, boolean includeTotal);
+
     /**
      * Get order details by order code
      */
@@ -39,9 +44,9 @@ public interface OrderService {
     boolean canUserPlaceOrder(Long userId);
 
     /**
-     * Calculate order totals before creating order
+     * Calculate order totals before creating order, with an optional promo code
      */
-    OrderCalculationDTO calculateOrderTotals(Long userId);
+    OrderCalculationDTO calculateOrderTotals(Long userId, String promoCode);
 
     /**
      * Get detailed order history with enhanced information
@@ -0,0 +1,50 @@
+package com.library.service;
+
+import com.library.dto.OrderStatusJobDTO;
+import com.library.dto.OrderStatusJobFailureDTO;
+import com.library.entity.OrderStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Service interface for bulk order status changes, which run as background jobs.
+ * <p>
+ * A job changes its orders in chunks, each a single set-based update committed on its own, so
+ * no request waits for the whole job and no transaction locks more than one chunk of orders.
+ * Only fulfilment steps are supported: cancellations and refunds restore stock and go through
+ * the single-order endpoints.
+ */
+public interface OrderStatusJobService {
+
+    /**
+     * Queue a status change of many orders
+     * @param orderIds Order IDs, duplicates ignored
+     * @param targetStatus PROCESSING, SHIPPED or DELIVERED
+     * @return The queued job
+     * @throws IllegalArgumentException if the status is not supported or the order list is empty or too long
+     */
+    OrderStatusJobDTO submit(List<Long> orderIds, OrderStatus targetStatus);
+
+    /**
+     * Get a job with its progress
+     * @param jobId Job ID
+     * @return The job
+     */
+    OrderStatusJobDTO getJob(Long jobId);
+
+    /**
+     * Get the orders a job could not change, with the reason
+     * @param jobId Job ID
+     * @param pageable Pagination information
+     * @return Page of failed orders, by order ID
+     */
+    Page<OrderStatusJobFailureDTO> getFailures(Long jobId, Pageable pageable);
+
+    /**
+     * Run queued jobs, and jobs whose node stopped while running them
+     * @return Number of jobs run to completion
+     */
+    int runPendingJobs();
+}
@@ -0,0 +1,52 @@
+package com.library.service;
+
+import com.library.dto.OrderItemDTO;
+import com.library.dto.OrderTrackingDTO;
+import com.library.dto.OrderViewConsistencyDTO;
+import com.library.entity.Order;
+import com.library.entity.OrderView;
+
+import java.util.List;
+
+/**
+ * Service interface for the {@code order_views} read model.
+ * <p>
+ * Every order change rewrites the order's view in the transaction that makes it, next to the
+ * statistics rollups, so the history and tracking pages are answered by indexed reads of the
+ * views alone. The consistency check compares the views against the orders and can repair them.
+ */
+public interface OrderViewService {
+
+    /**
+     * Rewrite the view of an order from its current state
+     * @param order Saved order, after the change
+     */
+    void refresh(Order order);
+
+    /**
+     * Line previews stored in a view
+     * @param view Order view
+     * @return First order lines
+     */
+    List<OrderItemDTO> readItemsPreview(OrderView view);
+
+    /**
+     * Tracking timeline stored in a view
+     * @param view Order view
+     * @return Completed steps, oldest first
+     */
+    List<OrderTrackingDTO.OrderTrackingEvent> readTimeline(OrderView view);
+
+    /**
+     * Create the views of orders that have none, e.g. orders placed before the read model existed
+     * @return Number of views created
+     */
+    int createMissingViews();
+
+    /**
+     * Compare every view against its order
+     * @param repair Rewrite missing and stale views and delete orphaned ones
+     * @return Differences found
+     */
+    OrderViewConsistencyDTO checkConsistency(boolean repair);
+}
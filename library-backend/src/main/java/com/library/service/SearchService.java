@@ -2,6 +2,8 @@ package com.library.service;
 
 import com.library.dto.BookDTO;
 import com.library.dto.BookSearchCriteria;
+import com.library.dto.BookSearchResultDTO;
+import com.library.dto.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -21,9 +23,9 @@ public interface SearchService {
     Page<BookDTO> searchBooks(BookSearchCriteria criteria, Pageable pageable);
     
     /**
-     * Full-text search in book title and description
+     * Full-text search in book title, description, ISBN, authors and publisher
      * @param searchText Text to search for
-     * @param pageable Pagination information
+     * @param pageable Pagination information; an unsorted request returns results by relevance
      * @return Page of books matching the search text
      */
     Page<BookDTO> fullTextSearch(String searchText, Pageable pageable);
@@ -88,4 +90,23 @@ public interface SearchService {
      * @return Page of books matching all criteria
      */
     Page<BookDTO> advancedSearch(BookSearchCriteria criteria, Pageable pageable);
+    
+    /**
+     * Advanced search that also returns category, publisher, language, decade and price facet counts.
+     * Facets are counted by grouped queries over the same filter as the page, so they cover all matches.
+     * @param criteria Comprehensive search criteria
+     * @param pageable Pagination and sorting information
+     * @return Page of books matching all criteria with facet counts over all matches
+     */
+    BookSearchResultDTO advancedSearchWithFacets(BookSearchCriteria criteria, Pageable pageable);
+    
+    /**
+     * Advanced search with keyset pagination, ordered by the criteria's sort field
+     * @param criteria Comprehensive search criteria; sortBy must be title, createdAt or id
+     * @param cursor Cursor from the previous slice, or null for the first slice
+     * @param size Slice size
+     * @param includeTotal Whether to run a count query for the total number of matches
+     * @return Slice of books with the cursor for the next one
+     */
+    CursorPage<BookDTO> scrollAdvancedSearch(BookSearchCriteria criteria, String cursor, int size, boolean includeTotal);
 }
\ No newline at end of file
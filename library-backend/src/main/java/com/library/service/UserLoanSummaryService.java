@@ -0,0 +1,66 @@
+package com.library.service;
+
+import com.library.entity.Loan;
+import com.library.entity.LoanStatus;
+
+import java.util.Collection;
+
+/**
+ * Service interface for the {@code user_loan_summaries} counters and {@code user_loan_books} set.
+ * <p>
+ * Every loan status change is applied in the transaction that makes it, so the summary commits or
+ * rolls back together with the loan, and eligibility checks never read the loans table. The
+ * reconcile methods recompute users from their loans, for backfills and repairs.
+ */
+public interface UserLoanSummaryService {
+
+    /**
+     * Count a newly saved loan request, unless the user is already at the limit
+     * @param loan Saved loan in REQUESTED
+     * @param maxActiveLoans Per-user limit of active loans
+     * @return Whether the request fit under the limit; the caller rolls back if not
+     */
+    boolean recordLoanRequested(Loan loan, int maxActiveLoans);
+
+    /**
+     * Apply a status change of a loan
+     * @param loan Loan with its new status
+     * @param previousStatus Status before the change
+     */
+    void recordLoanChange(Loan loan, LoanStatus previousStatus);
+
+    /**
+     * Apply a set-based BORROWED to OVERDUE flip of the given loans
+     * @param loanIds Loans the sweep flipped or tried to flip
+     */
+    void recordLoansOverdue(Collection<Long> loanIds);
+
+    /**
+     * Get a user's number of active loans, as counted by the loan limit
+     * @param userId User ID
+     * @return REQUESTED, APPROVED and BORROWED loans of the user
+     */
+    long getActiveLoanCount(Long userId);
+
+    /**
+     * Check whether a user has a loan of a book in one of the given statuses
+     * @param userId User ID
+     * @param bookId Book ID
+     * @param statuses Loan statuses that count
+     * @return true if such a loan exists
+     */
+    boolean holdsBook(Long userId, Long bookId, Collection<LoanStatus> statuses);
+
+    /**
+     * Recompute one user's summary from their loans
+     * @param userId User ID
+     * @return Whether the stored active count was off
+     */
+    boolean reconcile(Long userId);
+
+    /**
+     * Recompute the summary of every user with a summary or a loan
+     * @return Number of users whose stored active count was off
+     */
+    int reconcileAll();
+}
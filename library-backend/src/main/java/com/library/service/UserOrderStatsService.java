@@ -0,0 +1,41 @@
+package com.library.service;
+
+import com.library.entity.Order;
+import com.library.entity.OrderStatus;
+import com.library.entity.PaymentStatus;
+
+/**
+ * Service interface for the {@code user_order_stats} rollup.
+ * <p>
+ * Every order change is applied as a delta in the transaction that makes it, so the rollup
+ * commits or rolls back together with the order. The rebuild methods recompute rows from the
+ * orders themselves, for backfills and repairs.
+ */
+public interface UserOrderStatsService {
+
+    /**
+     * Count a newly saved order
+     * @param order Saved order
+     */
+    void recordOrderPlaced(Order order);
+
+    /**
+     * Apply a status and/or payment status change of an order
+     * @param order Order with its new statuses
+     * @param previousStatus Status before the change
+     * @param previousPaymentStatus Payment status before the change
+     */
+    void recordOrderChange(Order order, OrderStatus previousStatus, PaymentStatus previousPaymentStatus);
+
+    /**
+     * Recompute one user's statistics from their orders
+     * @param userId User ID
+     */
+    void rebuild(Long userId);
+
+    /**
+     * Recompute the statistics of every user who has orders
+     * @return Number of users rebuilt
+     */
+    int rebuildAll();
+}
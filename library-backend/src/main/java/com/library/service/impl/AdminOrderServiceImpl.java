@@ -4,6 +4,10 @@ import com.library.dto.*;
 import com.library.entity.*;
 import com.library.repository.*;
 import com.library.service.AdminOrderService;
+import com.library.service.OrderAnalyticsService;
+import com.library.service.OrderHoldService;
+import com.library.service.OrderViewService;
+import com.library.service.UserOrderStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -12,8 +16,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -27,6 +29,11 @@ public class AdminOrderServiceImpl implements AdminOrderService {
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final BookRepository bookRepository;
+    private final CatalogCacheEvictor catalogCacheEvictor;
+    private final OrderHoldService orderHoldService;
+    private final UserOrderStatsService userOrderStatsService;
+    private final OrderAnalyticsService orderAnalyticsService;
+    private final OrderViewService orderViewService;
 
     @Override
     public Page<AdminOrderDTO> getAllOrders(Pageable pageable) {
@@ -60,6 +67,17 @@ public class AdminOrderServiceImpl implements AdminOrderService {
                 .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
 
         OrderStatus oldStatus = order.getStatus();
+        PaymentStatus oldPaymentStatus = order.getPaymentStatus();
+        LocalDateTime oldShippingDate = order.getShippingDate();
+        if (request.getNewStatus() == OrderStatus.CANCELLED) {
+            // Restore stock once: not for an order that is already cancelled or refunded
+            if (oldStatus != OrderStatus.CANCELLED && oldStatus != OrderStatus.REFUNDED
+                    && !orderHoldService.cancelAndRestoreStock(order, oldStatus)) {
+                throw new IllegalStateException("Order was updated concurrently, please retry: " + order.getOrderCode());
+            }
+        } else if (oldStatus == OrderStatus.PENDING_PAYMENT && request.getNewStatus() != OrderStatus.PENDING_PAYMENT) {
+            orderHoldService.confirmHold(order);
+        }
         order.setStatus(request.getNewStatus());
 
         // Update specific fields based on new status
@@ -78,10 +96,6 @@ public class AdminOrderServiceImpl implements AdminOrderService {
                     order.setDeliveryDate(LocalDateTime.now());
                 }
                 break;
-            case CANCELLED:
-                // Restore stock if order is cancelled
-                restoreStockForOrder(order);
-                break;
         }
 
         // Add admin notes
@@ -92,7 +106,10 @@ public class AdminOrderServiceImpl implements AdminOrderService {
             order.setAdminNotes(existingNotes.isEmpty() ? newNotes : existingNotes + "\n" + newNotes);
         }
 
+        userOrderStatsService.recordOrderChange(order, oldStatus, oldPaymentStatus);
+        orderAnalyticsService.recordOrderChange(order, oldStatus, oldPaymentStatus, oldShippingDate);
         order = orderRepository.save(order);
+        orderViewService.refresh(order);
         log.info("Order status updated: {} from {} to {}", order.getOrderCode(), oldStatus, request.getNewStatus());
         
         return convertToAdminDTO(order);
@@ -105,6 +122,11 @@ public class AdminOrderServiceImpl implements AdminOrderService {
                 .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
 
         PaymentStatus oldStatus = order.getPaymentStatus();
+        OrderStatus oldOrderStatus = order.getStatus();
+        if (request.getNewPaymentStatus() == PaymentStatus.PAID && order.getStatus() == OrderStatus.PENDING_PAYMENT) {
+            // Paid in time: the stock decrement becomes permanent
+            orderHoldService.confirmHold(order);
+        }
         order.setPaymentStatus(request.getNewPaymentStatus());
 
         if (request.getTransactionId() != null) {
@@ -124,7 +146,10 @@ public class AdminOrderServiceImpl implements AdminOrderService {
             order.setAdminNotes(existingNotes.isEmpty() ? newNotes : existingNotes + "\n" + newNotes);
         }
 
+        userOrderStatsService.recordOrderChange(order, oldOrderStatus, oldStatus);
+        orderAnalyticsService.recordOrderChange(order, oldOrderStatus, oldStatus, order.getShippingDate());
         order = orderRepository.save(order);
+        orderViewService.refresh(order);
         log.info("Payment status updated: {} from {} to {}", order.getOrderCode(), oldStatus, request.getNewPaymentStatus());
         
         return convertToAdminDTO(order);
@@ -139,6 +164,7 @@ public class AdminOrderServiceImpl implements AdminOrderService {
         if (order.getPaymentStatus() != PaymentStatus.PAID) {
             throw new IllegalStateException("Cannot refund order that is not paid");
         }
+        OrderStatus oldStatus = order.getStatus();
 
         // Update payment status
         if (request.getRefundAmount().compareTo(order.getTotalAmount()) >= 0) {
@@ -159,7 +185,10 @@ public class AdminOrderServiceImpl implements AdminOrderService {
         String existingNotes = order.getAdminNotes() != null ? order.getAdminNotes() : "";
         order.setAdminNotes(existingNotes.isEmpty() ? refundNotes : existingNotes + "\n" + refundNotes);
 
+        userOrderStatsService.recordOrderChange(order, oldStatus, PaymentStatus.PAID);
+        orderAnalyticsService.recordOrderChange(order, oldStatus, PaymentStatus.PAID, order.getShippingDate());
         order = orderRepository.save(order);
+        orderViewService.refresh(order);
         log.info("Refund processed for order: {} amount: {}", order.getOrderCode(), request.getRefundAmount());
         
         return convertToAdminDTO(order);
@@ -181,83 +210,15 @@ public class AdminOrderServiceImpl implements AdminOrderService {
 
     @Override
     public AdminOrderStatsDTO getOrderStatistics(LocalDateTime startDate, LocalDateTime endDate) {
-        List<Order> ordersInPeriod = orderRepository.findByOrderDateBetweenOrderByCreatedAtDesc(
-                startDate, endDate, Pageable.unpaged()).getContent();
-
-        Map<OrderStatus, Long> statusCounts = ordersInPeriod.stream()
-                .collect(Collectors.groupingBy(Order::getStatus, Collectors.counting()));
-
-        BigDecimal totalRevenue = ordersInPeriod.stream()
-                .filter(o -> o.getPaymentStatus() == PaymentStatus.PAID)
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalRefunds = ordersInPeriod.stream()
-                .filter(o -> o.getPaymentStatus() == PaymentStatus.REFUNDED || 
-                           o.getPaymentStatus() == PaymentStatus.PARTIALLY_REFUNDED)
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        long paidOrdersCount = statusCounts.getOrDefault(OrderStatus.DELIVERED, 0L) + 
-                              statusCounts.getOrDefault(OrderStatus.SHIPPED, 0L) +
-                              statusCounts.getOrDefault(OrderStatus.PROCESSING, 0L);
-
-        BigDecimal avgOrderValue = paidOrdersCount > 0 ? 
-                totalRevenue.divide(BigDecimal.valueOf(paidOrdersCount), 2, RoundingMode.HALF_UP) : 
-                BigDecimal.ZERO;
-
-        // Calculate processing metrics
-        double avgProcessingTime = ordersInPeriod.stream()
-                .filter(o -> o.getShippingDate() != null)
-                .mapToDouble(o -> ChronoUnit.HOURS.between(o.getOrderDate(), o.getShippingDate()))
-                .average()
-                .orElse(0.0);
-
-        // Top selling books
-        Map<String, Integer> topSellingBooks = getTopSellingBooks(ordersInPeriod, 10);
-
-        return AdminOrderStatsDTO.builder()
-                .totalOrders((long) ordersInPeriod.size())
-                .pendingPaymentOrders(statusCounts.getOrDefault(OrderStatus.PENDING_PAYMENT, 0L))
-                .paidOrders(statusCounts.getOrDefault(OrderStatus.PAID, 0L))
-                .processingOrders(statusCounts.getOrDefault(OrderStatus.PROCESSING, 0L))
-                .shippedOrders(statusCounts.getOrDefault(OrderStatus.SHIPPED, 0L))
-                .deliveredOrders(statusCounts.getOrDefault(OrderStatus.DELIVERED, 0L))
-                .cancelledOrders(statusCounts.getOrDefault(OrderStatus.CANCELLED, 0L))
-                .refundedOrders(statusCounts.getOrDefault(OrderStatus.REFUNDED, 0L))
-                .totalRevenue(totalRevenue)
-                .totalRefunds(totalRefunds)
-                .netRevenue(totalRevenue.subtract(totalRefunds))
-                .averageOrderValue(avgOrderValue)
-                .averageProcessingTimeHours(avgProcessingTime)
-                .topSellingBooks(topSellingBooks)
+        // Served from the analytics buckets, so the range is widened to whole hours
+        LocalDateTime fromHour = StatsGranularity.HOUR.bucketStart(startDate);
+        LocalDateTime toHour = StatsGranularity.HOUR.bucketStart(endDate).plusHours(1);
+
+        return orderAnalyticsService.getOrderStatistics(fromHour, toHour).toBuilder()
                 .ordersNeedingAttention((long) getOrdersNeedingAttention().size())
                 .build();
     }
 
-    @Override
-    @Transactional
-    public List<AdminOrderDTO> bulkUpdateOrderStatus(List<Long> orderIds, OrderStatus newStatus) {
-        List<Order> orders = orderRepository.findAllById(orderIds);
-        
-        for (Order order : orders) {
-            order.setStatus(newStatus);
-            if (newStatus == OrderStatus.SHIPPED && order.getShippingDate() == null) {
-                order.setShippingDate(LocalDateTime.now());
-            }
-            if (newStatus == OrderStatus.DELIVERED && order.getDeliveryDate() == null) {
-                order.setDeliveryDate(LocalDateTime.now());
-            }
-        }
-        
-        List<Order> updatedOrders = orderRepository.saveAll(orders);
-        log.info("Bulk updated {} orders to status {}", updatedOrders.size(), newStatus);
-        
-        return updatedOrders.stream()
-                .map(this::convertToAdminDTO)
-                .collect(Collectors.toList());
-    }
-
     @Override
     @Transactional
     public AdminOrderDTO addAdminNotes(Long orderId, String notes) {
@@ -273,33 +234,12 @@ public class AdminOrderServiceImpl implements AdminOrderService {
     }
 
     private void restoreStockForOrder(Order order) {
-        for (OrderItem item : order.getOrderItems()) {
-            Book book = item.getBook();
-            book.setStockForSale(book.getStockForSale() + item.getQuantity());
-            bookRepository.save(book);
-        }
+        bookRepository.restoreStockForSale(order.getOrderItems().stream()
+                .collect(Collectors.toMap(item -> item.getBook().getId(), OrderItem::getQuantity, Integer::sum)));
+        order.getOrderItems().forEach(item -> catalogCacheEvictor.evictBook(item.getBook()));
         log.info("Stock restored for cancelled/refunded order: {}", order.getOrderCode());
     }
 
-    private Map<String, Integer> getTopSellingBooks(List<Order> orders, int limit) {
-        return orders.stream()
-                .filter(o -> o.getPaymentStatus() == PaymentStatus.PAID)
-                .flatMap(o -> o.getOrderItems().stream())
-                .collect(Collectors.groupingBy(
-                        item -> item.getBookTitle(),
-                        Collectors.summingInt(OrderItem::getQuantity)
-                ))
-                .entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(limit)
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        LinkedHashMap::new
-                ));
-    }
-
     private AdminOrderDTO convertToAdminDTO(Order order) {
         long daysSinceOrder = ChronoUnit.DAYS.between(order.getOrderDate(), LocalDateTime.now());
         
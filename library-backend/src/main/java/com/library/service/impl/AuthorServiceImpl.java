@@ -7,6 +7,7 @@ import com.library.dto.CreateAuthorRequestDTO;
 import com.library.dto.UpdateAuthorRequestDTO;
 import com.library.entity.Author;
 import com.library.entity.BookAuthor;
+import com.library.event.BookCatalogEvent;
 import com.library.exception.BookNotFoundException;
 import com.library.mapper.AuthorMapper;
 import com.library.mapper.BookMapper;
@@ -14,6 +15,10 @@ import com.library.repository.AuthorRepository;
 import com.library.service.AuthorService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -23,6 +28,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -33,9 +39,12 @@ public class AuthorServiceImpl implements AuthorService {
     private final AuthorRepository authorRepository;
     private final AuthorMapper authorMapper;
     private final BookMapper bookMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogCacheEvictor catalogCacheEvictor;
     
     @Override
     @Transactional
+    @CacheEvict(value = "authors", key = "'nationalities'")
     public AuthorDetailDTO createAuthor(CreateAuthorRequestDTO createRequest) {
         log.info("Creating new author with name: {}", createRequest.getName());
         
@@ -53,6 +62,7 @@ public class AuthorServiceImpl implements AuthorService {
     }
     
     @Override
+    @Cacheable(value = "authors", key = "#id", sync = true)
     public AuthorDetailDTO getAuthorById(Long id) {
         log.debug("Fetching author by id: {}", id);
         Author author = authorRepository.findById(id)
@@ -81,6 +91,10 @@ public class AuthorServiceImpl implements AuthorService {
     
     @Override
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(value = "authors", key = "#id"),
+        @CacheEvict(value = "authors", key = "'nationalities'")
+    })
     public AuthorDetailDTO updateAuthor(Long id, UpdateAuthorRequestDTO updateRequest) {
         log.info("Updating author with id: {}", id);
         
@@ -95,15 +109,30 @@ public class AuthorServiceImpl implements AuthorService {
             throw new IllegalArgumentException("Death date cannot be before birth date");
         }
         
+        String previousName = author.getName();
         authorMapper.updateEntityFromDTO(updateRequest, author);
         author = authorRepository.save(author);
         
+        // Search index and suggestions carry the author's name for every book
+        if (!Objects.equals(previousName, author.getName())) {
+            publishCatalogUpdates(authorRepository.findBookIdsByAuthorId(id));
+        }
+        
+        // Book details embed their authors
+        if (authorRepository.countBooksByAuthorId(id) > 0) {
+            catalogCacheEvictor.evictAllBooks();
+        }
+        
         log.info("Successfully updated author with id: {}", id);
         return enrichAuthorDetailDTO(authorMapper.toDetailDTO(author));
     }
     
     @Override
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(value = "authors", key = "#id"),
+        @CacheEvict(value = "authors", key = "'nationalities'")
+    })
     public void deleteAuthor(Long id) {
         log.info("Deleting author with id: {}", id);
         
@@ -168,6 +197,7 @@ public class AuthorServiceImpl implements AuthorService {
     }
     
     @Override
+    @Cacheable(value = "authors", key = "'nationalities'", sync = true)
     public List<String> getAllNationalities() {
         log.debug("Fetching all nationalities");
         return authorRepository.findAllNationalities();
@@ -198,4 +228,9 @@ public class AuthorServiceImpl implements AuthorService {
         LocalDate endDate = deathDate != null ? deathDate : LocalDate.now();
         return Period.between(birthDate, endDate).getYears();
     }
+    
+    private void publishCatalogUpdates(List<Long> bookIds) {
+        bookIds.forEach(bookId -> eventPublisher.publishEvent(new BookCatalogEvent(this,
+                BookCatalogEvent.BookCatalogEventType.BOOK_UPDATED, bookId)));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.library.service.impl;
+
+import com.library.dto.BookDTO;
+import com.library.dto.CursorPage;
+import com.library.entity.Book;
+import com.library.mapper.BookMapper;
+import com.library.repository.BookRepository;
+import com.library.specification.BookSpecification;
+import com.library.util.PageCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keyset pagination over filtered book listings. Each slice seeks past the last row of the
+ * previous one, so every slice costs the same as the first and no count query is issued
+ * unless totals are requested.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookCursorPager {
+
+    private static final Set<String> SORT_FIELDS = Set.of("title", "createdAt", "id");
+
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+
+    /**
+     * @param filter Book filter, never null
+     * @param sortBy One of title, createdAt or id; the book id always breaks ties
+     */
+    public CursorPage<BookDTO> page(Specification<Book> filter, String sortBy, String sortDirection,
+                                    String cursor, int size, boolean includeTotal) {
+        if (!SORT_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Cursor pagination does not support sorting by: " + sortBy);
+        }
+        boolean ascending = !"desc".equalsIgnoreCase(sortDirection);
+        String sortOrder = sortBy + "," + (ascending ? "asc" : "desc");
+        int pageSize = PageCursor.pageSize(size);
+
+        // Every slice, the first included, leaves nulls out so slices agree on any database
+        Specification<Book> spec = filter.and(BookSpecification.hasSortValue(sortBy));
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(seekAfter(sortBy, PageCursor.decode(cursor, sortOrder), ascending));
+        }
+
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = "id".equals(sortBy) ? Sort.by(direction, "id") : Sort.by(direction, sortBy, "id");
+        List<Book> rows = bookRepository.findBy(spec, query -> query.sortBy(sort).limit(pageSize + 1).all());
+
+        CursorPage<BookDTO> slice = CursorPage.of(rows, pageSize,
+                book -> PageCursor.encode(sortOrder, sortValue(book, sortBy), book.getId()))
+                .map(bookMapper::toDTO);
+        if (includeTotal) {
+            slice.setTotalElements(bookRepository.count(filter));
+        }
+        return slice;
+    }
+
+    private static Specification<Book> seekAfter(String sortBy, PageCursor position, boolean ascending) {
+        return switch (sortBy) {
+            case "title" -> BookSpecification.seekAfter("title", position.getValue(), position.getId(), ascending);
+            case "createdAt" -> BookSpecification.seekAfter("createdAt", position.dateTimeValue(), position.getId(), ascending);
+            default -> BookSpecification.seekAfter("id", position.getId(), position.getId(), ascending);
+        };
+    }
+
+    private static Object sortValue(Book book, String sortBy) {
+        return switch (sortBy) {
+            case "title" -> book.getTitle();
+            case "createdAt" -> book.getCreatedAt();
+            default -> book.getId();
+        };
+    }
+}
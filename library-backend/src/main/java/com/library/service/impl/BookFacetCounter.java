@@ -0,0 +1,146 @@
+package com.library.service.impl;
+
+import com.library.dto.FacetCountDTO;
+import com.library.entity.Book;
+import com.library.repository.BookRepository;
+import com.library.repository.BookRepositoryCustom.FacetCombinationCount;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Counts search facets with one grouped query over the combinations of facet values, then folds
+ * the combinations into each facet here. Only distinct combinations leave the database, at most
+ * one row per matching book and usually far fewer, and their sum is the number of matches.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookFacetCounter {
+
+    public static final String CATEGORY = "category";
+    public static final String PUBLISHER = "publisher";
+    public static final String LANGUAGE = "language";
+    public static final String DECADE = "decade";
+    public static final String PRICE = "price";
+
+    private final BookRepository bookRepository;
+
+    // Ascending upper bounds (exclusive) of the price buckets; the last bucket is open-ended
+    @Value("${library.search.facets.price-buckets:10,25,50,100}")
+    private BigDecimal[] priceBuckets;
+
+    @Value("${library.search.facets.max-values:20}")
+    private int maxValues;
+
+    /**
+     * Facet counts over every book matching the filter, keyed by facet name, and the number of
+     * books matching it
+     */
+    public FacetCounts count(Specification<Book> filter) {
+        List<FacetCombinationCount> combinations = bookRepository.countByFacetCombination(filter, priceBuckets);
+
+        Map<String, List<FacetCountDTO>> facets = new LinkedHashMap<>();
+        facets.put(CATEGORY, mostFrequent(fold(combinations, FacetCombinationCount::getCategoryId,
+                FacetCombinationCount::getCategoryName)));
+        facets.put(PUBLISHER, mostFrequent(fold(combinations, FacetCombinationCount::getPublisherId,
+                FacetCombinationCount::getPublisherName)));
+        facets.put(LANGUAGE, mostFrequent(fold(combinations, FacetCombinationCount::getLanguage,
+                FacetCombinationCount::getLanguage)));
+        facets.put(DECADE, decadeFacet(combinations));
+        facets.put(PRICE, priceFacet(combinations));
+
+        long total = combinations.stream().mapToLong(FacetCombinationCount::getCount).sum();
+        return new FacetCounts(total, facets);
+    }
+
+    public Map<String, List<FacetCountDTO>> empty() {
+        Map<String, List<FacetCountDTO>> facets = new LinkedHashMap<>();
+        for (String facet : List.of(CATEGORY, PUBLISHER, LANGUAGE, DECADE, PRICE)) {
+            facets.put(facet, List.of());
+        }
+        return facets;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class FacetCounts {
+        private final long total;
+        private final Map<String, List<FacetCountDTO>> facets;
+    }
+
+    // Private helper methods
+
+    // Books per value of one facet; combinations without a value are left out
+    private static List<FacetCountDTO> fold(List<FacetCombinationCount> combinations,
+                                            Function<FacetCombinationCount, ?> value,
+                                            Function<FacetCombinationCount, String> label) {
+        Map<Object, FacetCountDTO> counts = new HashMap<>();
+        for (FacetCombinationCount combination : combinations) {
+            Object key = value.apply(combination);
+            if (key == null) {
+                continue;
+            }
+            FacetCountDTO count = counts.computeIfAbsent(key,
+                    k -> new FacetCountDTO(String.valueOf(k), label.apply(combination), 0));
+            count.setCount(count.getCount() + combination.getCount());
+        }
+        return new ArrayList<>(counts.values());
+    }
+
+    private List<FacetCountDTO> decadeFacet(List<FacetCombinationCount> combinations) {
+        Map<Integer, Long> decades = new TreeMap<>();
+        for (FacetCombinationCount combination : combinations) {
+            if (combination.getPublicationYear() != null) {
+                int decade = Math.floorDiv(combination.getPublicationYear(), 10) * 10;
+                decades.merge(decade, combination.getCount(), Long::sum);
+            }
+        }
+        return decades.entrySet().stream()
+                .map(entry -> new FacetCountDTO(String.valueOf(entry.getKey()), entry.getKey() + "s", entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    private List<FacetCountDTO> priceFacet(List<FacetCombinationCount> combinations) {
+        long[] counts = new long[priceBuckets.length + 1];
+        for (FacetCombinationCount combination : combinations) {
+            if (combination.getPriceBucket() != null) {
+                counts[combination.getPriceBucket()] += combination.getCount();
+            }
+        }
+
+        List<FacetCountDTO> facet = new ArrayList<>();
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            if (counts[bucket] == 0) {
+                continue;
+            }
+            String lower = bucket == 0 ? "*" : priceBuckets[bucket - 1].toPlainString();
+            String upper = bucket == priceBuckets.length ? "*" : priceBuckets[bucket].toPlainString();
+            String label = bucket == 0 ? "Under " + upper
+                    : bucket == priceBuckets.length ? lower + "+" : lower + " - " + upper;
+            facet.add(new FacetCountDTO(lower + "-" + upper, label, counts[bucket]));
+        }
+        return facet;
+    }
+
+    private List<FacetCountDTO> mostFrequent(List<FacetCountDTO> counts) {
+        return counts.stream()
+                .sorted(Comparator.comparingLong((FacetCountDTO count) -> -count.getCount())
+                        .thenComparing(FacetCountDTO::getLabel, Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(maxValues)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,259 @@
+package com.library.service.impl;
+
+import com.library.dto.BookHoldDTO;
+import com.library.entity.Book;
+import com.library.entity.BookHold;
+import com.library.event.LoanEvent;
+import com.library.exception.BookNotAvailableException;
+import com.library.exception.BookNotFoundException;
+import com.library.exception.DuplicateLoanRequestException;
+import com.library.exception.ResourceNotFoundException;
+import com.library.repository.BookHoldRepository;
+import com.library.repository.BookRepository;
+import com.library.service.BookHoldService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Hold queues in a table indexed by book, status and queue order, so serving the head of a
+ * book's queue is one index seek however long the queue is. The head is read with a row lock:
+ * copies of one book coming back at once are set aside for different holders, and the shelf
+ * count only goes up once nobody is waiting.
+ */
+@Service
+@Slf4j
+public class BookHoldServiceImpl implements BookHoldService {
+
+    // Holds that still have a place in the queue or a copy set aside
+    private static final List<BookHold.Status> OPEN_STATUSES = List.of(BookHold.Status.WAITING, BookHold.Status.READY);
+
+    private final BookHoldRepository holdRepository;
+    private final BookRepository bookRepository;
+    private final CatalogCacheEvictor catalogCacheEvictor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final long pickupHours;
+
+    public BookHoldServiceImpl(BookHoldRepository holdRepository,
+                               BookRepository bookRepository,
+                               CatalogCacheEvictor catalogCacheEvictor,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${library.loan.holds.pickup-hours:48}") long pickupHours) {
+        this.holdRepository = holdRepository;
+        this.bookRepository = bookRepository;
+        this.catalogCacheEvictor = catalogCacheEvictor;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.pickupHours = pickupHours;
+    }
+
+    @Override
+    @Transactional
+    public BookHoldDTO placeHold(Long userId, Long bookId) {
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new BookNotFoundException("Book not found with id: " + bookId));
+        if (!book.getIsLendable()) {
+            throw new BookNotAvailableException("Book is not available for loan");
+        }
+        if (holdRepository.existsByUserIdAndBookIdAndStatusIn(userId, bookId, OPEN_STATUSES)) {
+            throw new DuplicateLoanRequestException("User already has a hold on this book");
+        }
+
+        BookHold hold = holdRepository.save(BookHold.builder().bookId(bookId).userId(userId).build());
+
+        // A copy still on the shelf is set aside straight away, with the same check-and-take as
+        // approval; it goes to the head of the queue, which is this hold unless others wait already
+        if (bookRepository.decrementAvailableCopiesForLoan(bookId) > 0) {
+            catalogCacheEvictor.evictBook(book);
+            List<BookHold> head = holdRepository.findQueueHeadForUpdate(bookId, PageRequest.ofSize(1));
+            markReady(head.get(0), book.getTitle(), LocalDateTime.now());
+        }
+        log.info("User {} placed hold {} on book {} ({})", userId, hold.getId(), bookId, hold.getStatus());
+        return mapToDTO(hold, book.getTitle());
+    }
+
+    @Override
+    @Transactional
+    public void cancelHold(Long userId, Long holdId) {
+        BookHold hold = holdRepository.findById(holdId)
+                .filter(found -> found.getUserId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Hold", "id", holdId));
+        if (!OPEN_STATUSES.contains(hold.getStatus())) {
+            throw new IllegalStateException("Only waiting or ready holds can be cancelled");
+        }
+
+        boolean hadCopy = hold.getStatus() == BookHold.Status.READY;
+        hold.setStatus(BookHold.Status.CANCELLED);
+        hold.setUpdatedAt(LocalDateTime.now());
+        holdRepository.save(hold);
+
+        if (hadCopy) {
+            bookRepository.findById(hold.getBookId()).ifPresent(this::releaseCopy);
+        }
+        log.info("User {} cancelled hold {} on book {}", userId, holdId, hold.getBookId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookHoldDTO> getUserHolds(Long userId) {
+        List<BookHold> holds = holdRepository.findByUserIdAndStatusInOrderByIdDesc(userId, OPEN_STATUSES);
+        Map<Long, String> titles = bookRepository.findAllById(holds.stream().map(BookHold::getBookId).toList())
+                .stream()
+                .collect(Collectors.toMap(Book::getId, Book::getTitle));
+        return holds.stream()
+                .map(hold -> mapToDTO(hold, titles.get(hold.getBookId())))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public BookHoldDTO updatePriority(Long holdId, int priority) {
+        BookHold hold = holdRepository.findById(holdId)
+                .orElseThrow(() -> new ResourceNotFoundException("Hold", "id", holdId));
+        if (hold.getStatus() != BookHold.Status.WAITING) {
+            throw new IllegalStateException("Only waiting holds can be reprioritised");
+        }
+
+        hold.setPriority(priority);
+        hold.setUpdatedAt(LocalDateTime.now());
+        holdRepository.save(hold);
+        return mapToDTO(hold, bookRepository.findById(hold.getBookId()).map(Book::getTitle).orElse(null));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasReadyHold(Long userId, Long bookId) {
+        return holdRepository.existsByUserIdAndBookIdAndStatusIn(userId, bookId, List.of(BookHold.Status.READY));
+    }
+
+    @Override
+    @Transactional
+    public boolean fulfillHold(Long userId, Long bookId, Long loanId) {
+        return holdRepository.fulfill(userId, bookId, loanId, LocalDateTime.now()) > 0;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isHeldCopy(Long loanId) {
+        return holdRepository.existsByLoanId(loanId);
+    }
+
+    @Override
+    @Transactional
+    public void releaseCopy(Book book) {
+        List<BookHold> head = holdRepository.findQueueHeadForUpdate(book.getId(), PageRequest.ofSize(1));
+        if (!head.isEmpty()) {
+            markReady(head.get(0), book.getTitle(), LocalDateTime.now());
+            return;
+        }
+
+        if (bookRepository.incrementAvailableCopiesForLoan(book.getId()) == 0) {
+            log.warn("Returned copy of book {} exceeds its total copies; available count left unchanged", book.getId());
+        }
+        catalogCacheEvictor.evictBook(book);
+    }
+
+    @Override
+    public int expireReadyHolds(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookHoldRepository.ExpiredHold> expired = holdRepository.findExpired(now, PageRequest.ofSize(limit));
+
+        int count = 0;
+        for (BookHoldRepository.ExpiredHold hold : expired) {
+            try {
+                if (Boolean.TRUE.equals(transaction.execute(status -> expire(hold, now)))) {
+                    count++;
+                }
+            } catch (Exception e) {
+                // Rolled back to READY, so the next poll retries it
+                log.error("Failed to expire hold {} on book {}", hold.getId(), hold.getBookId(), e);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int assignStrandedCopies(int limit) {
+        int assigned = 0;
+        for (Long bookId : holdRepository.findBooksWithStrandedCopies(PageRequest.ofSize(limit))) {
+            try {
+                if (Boolean.TRUE.equals(transaction.execute(status -> assignShelfCopy(bookId)))) {
+                    assigned++;
+                }
+            } catch (Exception e) {
+                log.error("Failed to set aside a shelf copy of book {} for its holders", bookId, e);
+            }
+        }
+        return assigned;
+    }
+
+    // Private helper methods
+
+    private boolean expire(BookHoldRepository.ExpiredHold hold, LocalDateTime now) {
+        if (holdRepository.expire(hold.getId(), now) == 0) {
+            // Picked up, cancelled or expired by another poller meanwhile
+            return false;
+        }
+        eventPublisher.publishEvent(new LoanEvent(this, LoanEvent.LoanEventType.HOLD_EXPIRED,
+                hold.getUserId().toString(), null, hold.getBookTitle()));
+        bookRepository.findById(hold.getBookId()).ifPresent(this::releaseCopy);
+        log.debug("Expired hold {} on book {}", hold.getId(), hold.getBookId());
+        return true;
+    }
+
+    private boolean assignShelfCopy(Long bookId) {
+        List<BookHold> head = holdRepository.findQueueHeadForUpdate(bookId, PageRequest.ofSize(1));
+        if (head.isEmpty() || bookRepository.decrementAvailableCopiesForLoan(bookId) == 0) {
+            return false;
+        }
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new BookNotFoundException("Book not found with id: " + bookId));
+        catalogCacheEvictor.evictBook(book);
+        markReady(head.get(0), book.getTitle(), LocalDateTime.now());
+        return true;
+    }
+
+    private void markReady(BookHold hold, String bookTitle, LocalDateTime now) {
+        hold.setStatus(BookHold.Status.READY);
+        hold.setReadyAt(now);
+        hold.setPickupExpiresAt(now.plusHours(pickupHours));
+        hold.setUpdatedAt(now);
+        holdRepository.save(hold);
+
+        eventPublisher.publishEvent(new LoanEvent(this, LoanEvent.LoanEventType.HOLD_READY,
+                hold.getUserId().toString(), null, bookTitle, hold.getPickupExpiresAt()));
+        log.info("Copy of book {} set aside for hold {} until {}", hold.getBookId(), hold.getId(),
+                hold.getPickupExpiresAt());
+    }
+
+    private BookHoldDTO mapToDTO(BookHold hold, String bookTitle) {
+        Long queuePosition = hold.getStatus() == BookHold.Status.WAITING
+                ? holdRepository.countAhead(hold.getBookId(), hold.getPriority(), hold.getId()) + 1
+                : null;
+        return BookHoldDTO.builder()
+                .id(hold.getId())
+                .bookId(hold.getBookId())
+                .bookTitle(bookTitle)
+                .userId(hold.getUserId())
+                .status(hold.getStatus())
+                .priority(hold.getPriority())
+                .queuePosition(queuePosition)
+                .readyAt(hold.getReadyAt())
+                .pickupExpiresAt(hold.getPickupExpiresAt())
+                .loanId(hold.getLoanId())
+                .createdAt(hold.getCreatedAt())
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.library.service.impl;
 
 import com.library.dto.*;
 import com.library.entity.*;
+import com.library.event.BookCatalogEvent;
 import com.library.exception.*;
 import com.library.mapper.BookMapper;
 import com.library.repository.*;
@@ -9,13 +10,19 @@ import com.library.service.BookService;
 import com.library.specification.BookSpecification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -29,6 +36,9 @@ public class BookServiceImpl implements BookService {
     private final PublisherRepository publisherRepository;
     private final BookAuthorRepository bookAuthorRepository;
     private final BookMapper bookMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookCursorPager bookCursorPager;
+    private final CatalogCacheEvictor catalogCacheEvictor;
     
     @Override
     public BookDetailDTO createBook(CreateBookRequestDTO request) {
@@ -52,12 +62,17 @@ public class BookServiceImpl implements BookService {
         Book bookWithRelations = bookRepository.findById(savedBook.getId())
             .orElseThrow(() -> new BookNotFoundException(savedBook.getId()));
         
+        eventPublisher.publishEvent(new BookCatalogEvent(this, 
+            BookCatalogEvent.BookCatalogEventType.BOOK_CREATED, bookWithRelations.getId()));
+        catalogCacheEvictor.evictBookCounts(request.getCategoryId(), request.getPublisherId(), request.getAuthorIds());
+        
         log.info("Book created successfully with ID: {}", bookWithRelations.getId());
         return bookMapper.toDetailDTO(bookWithRelations);
     }
     
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "books", key = "#id", sync = true)
     public BookDetailDTO getBookById(Long id) {
         log.debug("Fetching book by ID: {}", id);
         Book book = bookRepository.findById(id)
@@ -67,6 +82,7 @@ public class BookServiceImpl implements BookService {
     
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "books", key = "'isbn:' + #isbn", sync = true)
     public BookDetailDTO getBookByIsbn(String isbn) {
         log.debug("Fetching book by ISBN: {}", isbn);
         Book book = bookRepository.findByIsbn(isbn)
@@ -84,6 +100,11 @@ public class BookServiceImpl implements BookService {
         validateBookData(request);
         checkIsbnUniqueness(request.getIsbn(), id);
         
+        String previousIsbn = existingBook.getIsbn();
+        Long previousCategoryId = existingBook.getCategory() != null ? existingBook.getCategory().getId() : null;
+        Long previousPublisherId = existingBook.getPublisher() != null ? existingBook.getPublisher().getId() : null;
+        Set<Long> previousAuthorIds = authorIdsOf(existingBook);
+        
         // Update book fields
         bookMapper.updateEntityFromDTO(request, existingBook);
         
@@ -95,6 +116,15 @@ public class BookServiceImpl implements BookService {
         
         Book updatedBook = bookRepository.save(existingBook);
         
+        eventPublisher.publishEvent(new BookCatalogEvent(this, 
+            BookCatalogEvent.BookCatalogEventType.BOOK_UPDATED, updatedBook.getId()));
+        
+        catalogCacheEvictor.evictBook(updatedBook);
+        if (!Objects.equals(previousIsbn, updatedBook.getIsbn())) {
+            catalogCacheEvictor.evictBook(id, previousIsbn);
+        }
+        evictMovedBookCounts(previousCategoryId, previousPublisherId, previousAuthorIds, request);
+        
         log.info("Book updated successfully with ID: {}", updatedBook.getId());
         return bookMapper.toDetailDTO(updatedBook);
     }
@@ -109,7 +139,16 @@ public class BookServiceImpl implements BookService {
         // Check if book can be deleted (no active loans or orders)
         validateBookDeletion(book);
         
+        catalogCacheEvictor.evictBook(book);
+        catalogCacheEvictor.evictBookCounts(
+            book.getCategory() != null ? book.getCategory().getId() : null,
+            book.getPublisher() != null ? book.getPublisher().getId() : null,
+            authorIdsOf(book));
+        
         bookRepository.delete(book);
+        
+        eventPublisher.publishEvent(new BookCatalogEvent(this, 
+            BookCatalogEvent.BookCatalogEventType.BOOK_DELETED, id));
         log.info("Book deleted successfully with ID: {}", id);
     }
     
@@ -140,6 +179,20 @@ public class BookServiceImpl implements BookService {
         return books.map(bookMapper::toDTO);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookDTO> scrollBooks(String title, String author, Long categoryId,
+                                          Boolean isLendable, Boolean isSellable, String language,
+                                          String sortBy, String sortDir, String cursor, int size,
+                                          boolean includeTotal) {
+        log.debug("Scrolling books with filters - title: {}, author: {}, categoryId: {}", 
+                 title, author, categoryId);
+        
+        Specification<Book> spec = buildBookSearchSpecification(title, author, categoryId, 
+                                                               isLendable, isSellable, language);
+        return bookCursorPager.page(spec, sortBy, sortDir, cursor, size, includeTotal);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public Page<BookDTO> getAllBooks(Pageable pageable) {
@@ -191,6 +244,7 @@ public class BookServiceImpl implements BookService {
         
         book.setStockForSale(newStockForSale);
         bookRepository.save(book);
+        catalogCacheEvictor.evictBook(book);
         
         log.info("Stock updated successfully for book ID: {}", bookId);
     }
@@ -214,6 +268,7 @@ public class BookServiceImpl implements BookService {
         book.setTotalCopiesForLoan(totalCopies);
         book.setAvailableCopiesForLoan(availableCopies);
         bookRepository.save(book);
+        catalogCacheEvictor.evictBook(book);
         
         log.info("Loan copies updated successfully for book ID: {}", bookId);
     }
@@ -237,12 +292,10 @@ public class BookServiceImpl implements BookService {
         Book book = bookRepository.findById(bookId)
             .orElseThrow(() -> new BookNotFoundException(bookId));
         
-        if (!canLendBook(bookId)) {
+        if (bookRepository.decrementAvailableCopiesForLoan(bookId) == 0) {
             throw new InsufficientStockException("No copies available for loan");
         }
-        
-        book.setAvailableCopiesForLoan(book.getAvailableCopiesForLoan() - 1);
-        bookRepository.save(book);
+        catalogCacheEvictor.evictBook(book);
         
         log.info("Book reserved for loan successfully: {}", bookId);
     }
@@ -254,13 +307,10 @@ public class BookServiceImpl implements BookService {
         Book book = bookRepository.findById(bookId)
             .orElseThrow(() -> new BookNotFoundException(bookId));
         
-        int newAvailable = book.getAvailableCopiesForLoan() + 1;
-        if (newAvailable > book.getTotalCopiesForLoan()) {
+        if (bookRepository.incrementAvailableCopiesForLoan(bookId) == 0) {
             throw new IllegalStateException("Cannot release more copies than total available");
         }
-        
-        book.setAvailableCopiesForLoan(newAvailable);
-        bookRepository.save(book);
+        catalogCacheEvictor.evictBook(book);
         
         log.info("Book released from loan successfully: {}", bookId);
     }
@@ -269,15 +319,19 @@ public class BookServiceImpl implements BookService {
     public void reserveForSale(Long bookId, int quantity) {
         log.info("Reserving {} units for sale: {}", quantity, bookId);
         
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        
         Book book = bookRepository.findById(bookId)
             .orElseThrow(() -> new BookNotFoundException(bookId));
         
-        if (!canSellBook(bookId, quantity)) {
-            throw new InsufficientStockException(bookId, quantity, book.getStockForSale());
+        if (bookRepository.decrementStockForSale(bookId, quantity) == 0) {
+            int available = book.getIsSellable()
+                ? bookRepository.findStockForSaleById(bookId).orElse(0) : 0;
+            throw new InsufficientStockException(bookId, quantity, available);
         }
-        
-        book.setStockForSale(book.getStockForSale() - quantity);
-        bookRepository.save(book);
+        catalogCacheEvictor.evictBook(book);
         
         log.info("Book reserved for sale successfully: {} units of book {}", quantity, bookId);
     }
@@ -286,11 +340,15 @@ public class BookServiceImpl implements BookService {
     public void releaseFromSale(Long bookId, int quantity) {
         log.info("Releasing {} units from sale: {}", quantity, bookId);
         
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        
         Book book = bookRepository.findById(bookId)
             .orElseThrow(() -> new BookNotFoundException(bookId));
         
-        book.setStockForSale(book.getStockForSale() + quantity);
-        bookRepository.save(book);
+        bookRepository.incrementStockForSale(bookId, quantity);
+        catalogCacheEvictor.evictBook(book);
         
         log.info("Book released from sale successfully: {} units of book {}", quantity, bookId);
     }
@@ -451,6 +509,32 @@ public class BookServiceImpl implements BookService {
         createBookAuthorRelationships(book, newAuthorIds);
     }
     
+    private Set<Long> authorIdsOf(Book book) {
+        return book.getBookAuthors().stream()
+            .map(bookAuthor -> bookAuthor.getAuthor().getId())
+            .collect(Collectors.toSet());
+    }
+    
+    /**
+     * Book counts cached on categories, publishers and authors only change for the ones the book left or joined
+     */
+    private void evictMovedBookCounts(Long previousCategoryId, Long previousPublisherId, 
+                                      Set<Long> previousAuthorIds, UpdateBookRequestDTO request) {
+        boolean categoryMoved = !Objects.equals(previousCategoryId, request.getCategoryId());
+        boolean publisherMoved = !Objects.equals(previousPublisherId, request.getPublisherId());
+        
+        Set<Long> currentAuthorIds = new HashSet<>(request.getAuthorIds());
+        Set<Long> removedAuthorIds = new HashSet<>(previousAuthorIds);
+        removedAuthorIds.removeAll(currentAuthorIds);
+        Set<Long> addedAuthorIds = new HashSet<>(currentAuthorIds);
+        addedAuthorIds.removeAll(previousAuthorIds);
+        
+        catalogCacheEvictor.evictBookCounts(categoryMoved ? previousCategoryId : null, 
+            publisherMoved ? previousPublisherId : null, removedAuthorIds);
+        catalogCacheEvictor.evictBookCounts(categoryMoved ? request.getCategoryId() : null, 
+            publisherMoved ? request.getPublisherId() : null, addedAuthorIds);
+    }
+    
     private void validateBookDeletion(Book book) {
         // Add validation logic for checking active loans, orders, etc.
         // This will be implemented when loan and order entities are available
@@ -0,0 +1,105 @@
+package com.library.service.impl;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.library.config.TwoLevelCache;
+import com.library.dto.CacheStatsDTO;
+import com.library.service.CacheStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheStatsServiceImpl implements CacheStatsService {
+    
+    private final CacheManager cacheManager;
+    
+    @Override
+    public List<CacheStatsDTO> getCacheStats() {
+        return cacheManager.getCacheNames().stream()
+                .sorted()
+                .map(this::targetCache)
+                .filter(cache -> redisCache(cache) != null)
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public CacheStatsDTO getCacheStats(String cacheName) {
+        Cache cache = cacheManager.getCacheNames().contains(cacheName) ? targetCache(cacheName) : null;
+        if (redisCache(cache) == null) {
+            throw new IllegalArgumentException("Unknown cache: " + cacheName);
+        }
+        return toDTO(cache);
+    }
+    
+    @Override
+    public void resetCacheStats() {
+        log.info("Resetting cache statistics");
+        cacheManager.getCacheNames().stream()
+                .map(this::targetCache)
+                .filter(Objects::nonNull)
+                .forEach(cache -> {
+                    RedisCache redisCache = redisCache(cache);
+                    if (redisCache != null) {
+                        redisCache.clearStatistics();
+                    }
+                    if (cache instanceof TwoLevelCache twoLevelCache) {
+                        twoLevelCache.clearLocalStatistics();
+                    }
+                });
+    }
+    
+    // Helper methods
+    
+    private Cache targetCache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        return cache;
+    }
+    
+    private RedisCache redisCache(Cache cache) {
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            cache = twoLevelCache.getRemoteCache();
+        }
+        return cache instanceof RedisCache redisCache ? redisCache : null;
+    }
+    
+    /**
+     * Redis counts of a two-level cache only include reads that missed the local level
+     */
+    private CacheStatsDTO toDTO(Cache cache) {
+        CacheStatistics statistics = redisCache(cache).getStatistics();
+        long gets = statistics.getGets();
+        CacheStatsDTO.CacheStatsDTOBuilder builder = CacheStatsDTO.builder()
+                .cacheName(statistics.getCacheName())
+                .gets(gets)
+                .hits(statistics.getHits())
+                .misses(statistics.getMisses())
+                .hitRatio(gets > 0 ? (double) statistics.getHits() / gets : null)
+                .puts(statistics.getPuts())
+                .evictions(statistics.getDeletes())
+                .since(statistics.getLastReset() != null ? statistics.getLastReset() : statistics.getSince());
+        
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            CacheStats local = twoLevelCache.getLocalStats();
+            builder.localHits(local.hitCount())
+                    .localMisses(local.missCount())
+                    .localHitRatio(local.requestCount() > 0 ? local.hitRate() : null)
+                    .localSize(twoLevelCache.getLocalCache().estimatedSize());
+        }
+        return builder.build();
+    }
+}
@@ -7,63 +7,57 @@ import com.library.exception.BookNotFoundException;
 import com.library.exception.BookNotAvailableException;
 import com.library.exception.InsufficientStockException;
 import com.library.repository.BookRepository;
-import com.library.repository.CartItemRepository;
-import com.library.service.BookService;
 import com.library.service.CartService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Cart operations over the {@link CartStore}, which keeps carts in Redis and writes them behind to
+ * {@code cart_items}. Books are read from the database for validation and display.
+ */
 @Service
 @Transactional
 @RequiredArgsConstructor
 @Slf4j
 public class CartServiceImpl implements CartService {
     
-    private final CartItemRepository cartItemRepository;
+    private static final int MAX_LINE_QUANTITY = 50; // Business rule: max 50 books per item
+    
+    private final CartStore cartStore;
     private final BookRepository bookRepository;
-    private final BookService bookService;
+    
+    @Value("${library.cart.revalidation.batch-size:200}")
+    private int revalidationBatchSize;
     
     @Override
     public CartItemDTO addToCart(Long userId, AddToCartRequestDTO request) {
         log.info("Adding item to cart for user: {}, bookId: {}, quantity: {}", 
                 userId, request.getBookId(), request.getQuantity());
         
-        validateCartItem(userId, request.getBookId(), request.getQuantity());
-        
         Book book = getBookById(request.getBookId());
+        validateCartItem(userId, book, request.getQuantity());
         
-        Optional<CartItem> existingItem = cartItemRepository.findByUserIdAndBookId(userId, request.getBookId());
-        
-        CartItem cartItem;
-        if (existingItem.isPresent()) {
-            cartItem = existingItem.get();
-            int newQuantity = cartItem.getQuantity() + request.getQuantity();
-            
-            if (newQuantity > book.getStockForSale()) {
-                throw new InsufficientStockException("Not enough stock available. Available: " + book.getStockForSale());
-            }
-            
-            cartItem.setQuantity(newQuantity);
-            log.info("Updated existing cart item quantity to: {}", newQuantity);
-        } else {
-            cartItem = new CartItem();
-            cartItem.setUserId(userId);
-            cartItem.setBook(book);
-            cartItem.setQuantity(request.getQuantity());
-            cartItem.setUnitPrice(book.getPrice());
-            log.info("Created new cart item");
+        // The quantity is checked again atomically, against lines added concurrently
+        int newQuantity = cartStore.addLine(userId, book, request.getQuantity(), maxLineQuantity(book));
+        if (newQuantity == 0) {
+            throw quantityTooHigh(book);
         }
         
-        CartItem savedItem = cartItemRepository.save(cartItem);
-        return toCartItemDTO(savedItem);
+        log.info("Cart line quantity is now: {}", newQuantity);
+        return toCartItemDTO(line(userId, book, newQuantity));
     }
     
     @Override
@@ -71,32 +65,32 @@ public class CartServiceImpl implements CartService {
         log.info("Updating cart item for user: {}, bookId: {}, new quantity: {}", 
                 userId, bookId, request.getQuantity());
         
-        CartItem cartItem = cartItemRepository.findByUserIdAndBookId(userId, bookId)
-                .orElseThrow(() -> new BookNotFoundException("Cart item not found"));
-        
-        validateCartItem(userId, bookId, request.getQuantity());
+        Book book = getBookById(bookId);
+        checkAvailable(book);
+        if (request.getQuantity() > maxLineQuantity(book)) {
+            throw quantityTooHigh(book);
+        }
         
-        cartItem.setQuantity(request.getQuantity());
-        CartItem savedItem = cartItemRepository.save(cartItem);
+        if (!cartStore.updateLine(userId, book, request.getQuantity())) {
+            throw new BookNotFoundException("Cart item not found");
+        }
         
-        return toCartItemDTO(savedItem);
+        return toCartItemDTO(line(userId, book, request.getQuantity()));
     }
     
     @Override
     public void removeFromCart(Long userId, Long bookId) {
         log.info("Removing item from cart for user: {}, bookId: {}", userId, bookId);
         
-        if (!cartItemRepository.existsByUserIdAndBookId(userId, bookId)) {
+        if (!cartStore.removeLine(userId, bookId)) {
             throw new BookNotFoundException("Cart item not found");
         }
-        
-        cartItemRepository.deleteByUserIdAndBookId(userId, bookId);
     }
     
     @Override
     public void clearCart(Long userId) {
         log.info("Clearing cart for user: {}", userId);
-        cartItemRepository.deleteByUserId(userId);
+        cartStore.clear(userId);
     }
     
     @Override
@@ -104,9 +98,9 @@ public class CartServiceImpl implements CartService {
     public List<CartItemDTO> getCartItems(Long userId) {
         log.info("Getting cart items for user: {}", userId);
         
-        List<CartItem> cartItems = cartItemRepository.findByUserIdWithBooks(userId);
+        List<CartItem> cartItems = cartStore.findLines(userId);
         return cartItems.stream()
-                .map(this::toCartItemDTO)
+                .map(CartServiceImpl::toCartItemDTO)
                 .collect(Collectors.toList());
     }
     
@@ -153,9 +147,8 @@ public class CartServiceImpl implements CartService {
     public List<CartItemDTO> getValidCartItems(Long userId) {
         log.info("Getting valid cart items for user: {}", userId);
         
-        List<CartItem> cartItems = cartItemRepository.findValidCartItemsByUserId(userId);
-        return cartItems.stream()
-                .map(this::toCartItemDTO)
+        return getCartItems(userId).stream()
+                .filter(CartItemDTO::getIsValid)
                 .collect(Collectors.toList());
     }
     
@@ -164,9 +157,8 @@ public class CartServiceImpl implements CartService {
     public List<CartItemDTO> getInvalidCartItems(Long userId) {
         log.info("Getting invalid cart items for user: {}", userId);
         
-        List<CartItem> cartItems = cartItemRepository.findInvalidCartItemsByUserId(userId);
-        return cartItems.stream()
-                .map(this::toCartItemDTO)
+        return getCartItems(userId).stream()
+                .filter(item -> !item.getIsValid())
                 .collect(Collectors.toList());
     }
     
@@ -175,21 +167,19 @@ public class CartServiceImpl implements CartService {
     public boolean validateCartForCheckout(Long userId) {
         log.info("Validating cart for checkout for user: {}", userId);
         
-        List<CartItem> invalidItems = cartItemRepository.findInvalidCartItemsByUserId(userId);
-        return invalidItems.isEmpty();
+        return getInvalidCartItems(userId).isEmpty();
     }
     
     @Override
     @Transactional(readOnly = true)
     public int getCartItemCount(Long userId) {
-        return cartItemRepository.countByUserId(userId);
+        return cartStore.totals(userId).getLines();
     }
     
     @Override
     @Transactional(readOnly = true)
     public int getTotalQuantity(Long userId) {
-        Integer total = cartItemRepository.getTotalQuantityByUserId(userId);
-        return total != null ? total : 0;
+        return cartStore.totals(userId).getQuantity();
     }
     
     @Override
@@ -205,19 +195,65 @@ public class CartServiceImpl implements CartService {
     
     @Override
     public void validateCartItem(Long userId, Long bookId, int quantity) {
-        Book book = getBookById(bookId);
-        
-        if (!book.getIsSellable()) {
-            throw new BookNotAvailableException("Book is not available for sale");
-        }
+        validateCartItem(userId, getBookById(bookId), quantity);
+    }
+    
+    @Override
+    public void syncCartWithInventory(Long userId) {
+        log.info("Syncing cart with inventory for user: {}", userId);
+        revalidateCart(userId);
+    }
+    
+    @Override
+    public CartRevalidationDTO revalidateCart(Long userId) {
+        Map<Long, CartStore.Line> lines = cartStore.snapshots(List.of(userId)).get(userId);
+        return revalidate(userId, lines, findSaleStates(lines.keySet()));
+    }
+    
+    /**
+     * Revalidates carts in batches of users, with one read of their carts and one book query per batch
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int revalidateAllCarts() {
+        int checked = 0;
+        int corrected = 0;
+        Long afterUserId = 0L;
+        List<Long> userIds;
+        do {
+            userIds = cartStore.findCartOwnersAfter(afterUserId, revalidationBatchSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            
+            Map<Long, Map<Long, CartStore.Line>> carts = cartStore.snapshots(userIds);
+            Set<Long> bookIds = carts.values().stream()
+                    .flatMap(lines -> lines.keySet().stream())
+                    .collect(Collectors.toSet());
+            Map<Long, BookRepository.SaleState> books = findSaleStates(bookIds);
+            
+            for (Long userId : userIds) {
+                try {
+                    if (!revalidate(userId, carts.get(userId), books).getChanges().isEmpty()) {
+                        corrected++;
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to revalidate cart of user: {}", userId, e);
+                }
+            }
+            checked += userIds.size();
+            afterUserId = userIds.get(userIds.size() - 1);
+        } while (userIds.size() == revalidationBatchSize);
         
-        if (book.getStockForSale() <= 0) {
-            throw new InsufficientStockException("Book is out of stock");
-        }
+        log.info("Revalidated {} carts against inventory, {} corrected", checked, corrected);
+        return corrected;
+    }
+    
+    private void validateCartItem(Long userId, Book book, int quantity) {
+        checkAvailable(book);
         
         // Check existing cart item quantity
-        Optional<CartItem> existingItem = cartItemRepository.findByUserIdAndBookId(userId, bookId);
-        int existingQuantity = existingItem.map(CartItem::getQuantity).orElse(0);
+        int existingQuantity = cartStore.quantityOf(userId, book.getId());
         int totalQuantity = existingQuantity + quantity;
         
         if (totalQuantity > book.getStockForSale()) {
@@ -226,36 +262,76 @@ public class CartServiceImpl implements CartService {
                     book.getStockForSale(), totalQuantity));
         }
         
-        if (quantity > 50) { // Business rule: max 50 books per item
-            throw new IllegalArgumentException("Cannot add more than 50 books per item");
+        if (totalQuantity > MAX_LINE_QUANTITY) {
+            throw new IllegalArgumentException("Cannot add more than " + MAX_LINE_QUANTITY + " books per item");
         }
     }
     
-    @Override
-    public void syncCartWithInventory(Long userId) {
-        log.info("Syncing cart with inventory for user: {}", userId);
+    /**
+     * Checks every line against its book: unavailable books are removed, quantities clamped to stock
+     * and prices refreshed. All corrections are applied in one write.
+     */
+    private CartRevalidationDTO revalidate(Long userId, Map<Long, CartStore.Line> lines,
+                                           Map<Long, BookRepository.SaleState> books) {
+        List<CartRevalidationDTO.LineChange> changes = new ArrayList<>();
+        List<CartStore.LineCorrection> corrections = new ArrayList<>();
         
-        List<CartItem> cartItems = cartItemRepository.findByUserIdWithBooks(userId);
-        
-        for (CartItem item : cartItems) {
-            Book book = item.getBook();
+        lines.forEach((bookId, line) -> {
+            BookRepository.SaleState book = books.get(bookId);
+            CartRevalidationDTO.LineChange.LineChangeBuilder change = CartRevalidationDTO.LineChange.builder()
+                    .bookId(bookId)
+                    .bookTitle(book != null ? book.getTitle() : null)
+                    .oldQuantity(line.getQuantity())
+                    .oldUnitPrice(line.getUnitPrice());
             
-            if (!book.getIsSellable() || book.getStockForSale() <= 0) {
+            if (book == null || !Boolean.TRUE.equals(book.getIsSellable()) || book.getStockForSale() <= 0) {
                 // Remove unavailable items
-                cartItemRepository.delete(item);
-                log.info("Removed unavailable item from cart: {}", book.getTitle());
-            } else if (item.getQuantity() > book.getStockForSale()) {
-                // Adjust quantity to available stock
-                item.setQuantity(book.getStockForSale());
-                cartItemRepository.save(item);
-                log.info("Adjusted quantity for item: {} to {}", book.getTitle(), book.getStockForSale());
-            } else if (!item.getUnitPrice().equals(book.getPrice())) {
-                // Update price if changed
-                item.setUnitPrice(book.getPrice());
-                cartItemRepository.save(item);
-                log.info("Updated price for item: {} to {}", book.getTitle(), book.getPrice());
+                corrections.add(new CartStore.LineCorrection(bookId, line, 0, line.getUnitPrice()));
+                changes.add(change.type(CartRevalidationDTO.ChangeType.REMOVED)
+                        .reason(book == null ? "Book no longer exists"
+                                : !Boolean.TRUE.equals(book.getIsSellable()) ? "Book is not available for sale"
+                                : "Book is out of stock")
+                        .newQuantity(0)
+                        .build());
+                return;
+            }
+            
+            // Adjust quantity to available stock and update price if changed
+            int quantity = Math.min(line.getQuantity(), book.getStockForSale());
+            boolean repriced = line.getUnitPrice().compareTo(book.getPrice()) != 0;
+            if (quantity < line.getQuantity() || repriced) {
+                corrections.add(new CartStore.LineCorrection(bookId, line, quantity, book.getPrice()));
+                changes.add(change.type(quantity < line.getQuantity()
+                                ? CartRevalidationDTO.ChangeType.QUANTITY_REDUCED
+                                : CartRevalidationDTO.ChangeType.PRICE_CHANGED)
+                        .reason(quantity < line.getQuantity()
+                                ? "Only " + book.getStockForSale() + " left in stock"
+                                : "Price changed")
+                        .newQuantity(quantity)
+                        .newUnitPrice(book.getPrice())
+                        .build());
             }
+        });
+        
+        int applied = corrections.isEmpty() ? 0 : cartStore.applyCorrections(userId, corrections);
+        if (!changes.isEmpty()) {
+            log.info("Revalidated cart of user {}: {} of {} corrections applied", userId, applied, corrections.size());
         }
+        
+        return CartRevalidationDTO.builder()
+                .userId(userId)
+                .checkedItems(lines.size())
+                .changes(changes)
+                .valid(applied == corrections.size())
+                .build();
+    }
+    
+    private Map<Long, BookRepository.SaleState> findSaleStates(Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return Map.of();
+        }
+        return bookRepository.findSaleStatesByIdIn(bookIds).stream()
+                .collect(Collectors.toMap(BookRepository.SaleState::getId, Function.identity()));
     }
     
     private Book getBookById(Long bookId) {
@@ -263,7 +339,37 @@ public class CartServiceImpl implements CartService {
                 .orElseThrow(() -> new BookNotFoundException("Book not found with id: " + bookId));
     }
     
-    private CartItemDTO toCartItemDTO(CartItem cartItem) {
+    private static void checkAvailable(Book book) {
+        if (!book.getIsSellable()) {
+            throw new BookNotAvailableException("Book is not available for sale");
+        }
+        
+        if (book.getStockForSale() <= 0) {
+            throw new InsufficientStockException("Book is out of stock");
+        }
+    }
+    
+    private static int maxLineQuantity(Book book) {
+        return Math.min(book.getStockForSale(), MAX_LINE_QUANTITY);
+    }
+    
+    private static RuntimeException quantityTooHigh(Book book) {
+        if (book.getStockForSale() < MAX_LINE_QUANTITY) {
+            return new InsufficientStockException("Not enough stock available. Available: " + book.getStockForSale());
+        }
+        return new IllegalArgumentException("Cannot add more than " + MAX_LINE_QUANTITY + " books per item");
+    }
+    
+    private static CartItem line(Long userId, Book book, int quantity) {
+        return CartItem.builder()
+                .userId(userId)
+                .book(book)
+                .quantity(quantity)
+                .unitPrice(book.getPrice())
+                .build();
+    }
+    
+    static CartItemDTO toCartItemDTO(CartItem cartItem) {
         Book book = cartItem.getBook();
         
         // Get authors string
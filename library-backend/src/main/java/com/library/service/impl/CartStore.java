@@ -0,0 +1,738 @@
+package com.library.service.impl;
+
+import com.library.entity.Book;
+import com.library.entity.CartItem;
+import com.library.entity.CartState;
+import com.library.repository.BookRepository;
+import com.library.repository.CartItemRepository;
+import com.library.repository.CartItemRepositoryCustom;
+import com.library.repository.CartStateRepository;
+import io.lettuce.core.RedisException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Shopping carts kept in one Redis hash per user. Each line is a field holding its quantity and a
+ * price snapshot, next to running {@code lines}, {@code qty} and {@code total} counters, so counts
+ * and totals are a single field read. Every change is a Lua script that updates the line and the
+ * counters together and marks the cart dirty; {@link #flushDirty(int)} then copies dirty carts to
+ * {@code cart_items} in the background, which keeps the table as the durable copy used for
+ * analytics and for loading carts that are not in Redis.
+ * <p>
+ * When Redis cannot be reached the store works on {@code cart_items} directly. Carts changed that
+ * way are marked stale in {@code cart_states}. Every node checks the mark before it reads or changes
+ * a cart in Redis and drops a stale copy first, so the cart is loaded again from the table.
+ */
+@Component
+@Slf4j
+public class CartStore {
+
+    static final String KEY_PREFIX = "library:cart:";
+    static final String DIRTY_KEY = "library:cart-dirty";
+    static final String CLAIMED_KEY = "library:cart-dirty-claimed";
+
+    // A cart claimed longer ago than this was left by a node that stopped mid-flush
+    private static final Duration CLAIM_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final String LINES = "lines";
+    private static final String QUANTITY = "qty";
+    private static final String TOTAL = "total";
+    private static final String LINE_PREFIX = "b:";
+
+    // Script results
+    private static final long NOT_LOADED = -1;
+    private static final long NO_LINE = -2;
+    private static final long OVER_LIMIT = -3;
+
+    // KEYS: cart, dirty set; ARGV: mode (add|set), book id, quantity, unit price in cents, max quantity,
+    // now, ttl seconds, user id. Returns the new quantity of the line or one of the codes above.
+    private static final RedisScript<Long> PUT_LINE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "local field = 'b:' .. ARGV[2] " +
+            "local line = redis.call('HGET', KEYS[1], field) " +
+            "local oldQty, oldPrice, added = 0, 0, ARGV[6] " +
+            "if line then " +
+            "  local q, p, a = string.match(line, '^(%d+):(%d+):(%d+)') " +
+            "  oldQty, oldPrice, added = tonumber(q), tonumber(p), a " +
+            "elseif ARGV[1] == 'set' then return -2 end " +
+            "local qty = tonumber(ARGV[3]) " +
+            "if ARGV[1] == 'add' then qty = oldQty + qty end " +
+            "if qty > tonumber(ARGV[5]) then return -3 end " +
+            "local price = tonumber(ARGV[4]) " +
+            "redis.call('HSET', KEYS[1], field, qty .. ':' .. price .. ':' .. added .. ':' .. ARGV[6]) " +
+            "if not line then redis.call('HINCRBY', KEYS[1], 'lines', 1) end " +
+            "redis.call('HINCRBY', KEYS[1], 'qty', qty - oldQty) " +
+            "redis.call('HINCRBY', KEYS[1], 'total', qty * price - oldQty * oldPrice) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[7]) " +
+            "redis.call('SADD', KEYS[2], ARGV[8]) " +
+            "return qty",
+            Long.class);
+
+    // KEYS: cart, dirty set; ARGV: book id, ttl seconds, user id. Returns 1, 0 without the line, -1 if not loaded.
+    private static final RedisScript<Long> REMOVE_LINE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "local field = 'b:' .. ARGV[1] " +
+            "local line = redis.call('HGET', KEYS[1], field) " +
+            "if not line then return 0 end " +
+            "local q, p = string.match(line, '^(%d+):(%d+):') " +
+            "redis.call('HDEL', KEYS[1], field) " +
+            "redis.call('HINCRBY', KEYS[1], 'lines', -1) " +
+            "redis.call('HINCRBY', KEYS[1], 'qty', -tonumber(q)) " +
+            "redis.call('HINCRBY', KEYS[1], 'total', -tonumber(q) * tonumber(p)) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[2]) " +
+            "redis.call('SADD', KEYS[2], ARGV[3]) " +
+            "return 1",
+            Long.class);
+
+    // KEYS: cart, dirty set; ARGV: ttl seconds, user id. Leaves an empty cart rather than no cart,
+    // so the write-behind copies the emptiness instead of skipping it.
+    private static final RedisScript<Long> CLEAR = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1]) " +
+            "redis.call('HSET', KEYS[1], 'lines', 0, 'qty', 0, 'total', 0) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+            "redis.call('SADD', KEYS[2], ARGV[2]) " +
+            "return 1",
+            Long.class);
+
+    // KEYS: cart, dirty set; ARGV: ttl seconds, user id, now, then per line: book id, expected quantity,
+    // expected price in cents, quantity (0 removes the line), price in cents. A line changed since it was
+    // checked is left alone. Returns the number of corrections applied, or -1 if not loaded.
+    private static final RedisScript<Long> CORRECT_LINES = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "local applied = 0 " +
+            "for i = 4, #ARGV, 5 do " +
+            "  local field = 'b:' .. ARGV[i] " +
+            "  local line = redis.call('HGET', KEYS[1], field) " +
+            "  if line then " +
+            "    local q, p, a = string.match(line, '^(%d+):(%d+):(%d+)') " +
+            "    if q == ARGV[i + 1] and p == ARGV[i + 2] then " +
+            "      local qty, price = tonumber(ARGV[i + 3]), tonumber(ARGV[i + 4]) " +
+            "      if qty == 0 then " +
+            "        redis.call('HDEL', KEYS[1], field) " +
+            "        redis.call('HINCRBY', KEYS[1], 'lines', -1) " +
+            "      else " +
+            "        redis.call('HSET', KEYS[1], field, qty .. ':' .. price .. ':' .. a .. ':' .. ARGV[3]) " +
+            "      end " +
+            "      redis.call('HINCRBY', KEYS[1], 'qty', qty - tonumber(q)) " +
+            "      redis.call('HINCRBY', KEYS[1], 'total', qty * price - tonumber(q) * tonumber(p)) " +
+            "      applied = applied + 1 " +
+            "    end " +
+            "  end " +
+            "end " +
+            "if applied > 0 then " +
+            "  redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+            "  redis.call('SADD', KEYS[2], ARGV[2]) " +
+            "end " +
+            "return applied",
+            Long.class);
+
+    // KEYS: dirty set, claimed zset; ARGV: count, now, claimed-before. Requeues carts claimed before
+    // claimed-before, then moves up to count dirty carts to the claimed zset, scored by now.
+    @SuppressWarnings("unchecked")
+    private static final RedisScript<List<String>> CLAIM_DIRTY = new DefaultRedisScript<>(
+            "for _, id in ipairs(redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[3])) do " +
+            "  redis.call('SADD', KEYS[1], id) " +
+            "  redis.call('ZREM', KEYS[2], id) " +
+            "end " +
+            "local ids = redis.call('SPOP', KEYS[1], ARGV[1]) " +
+            "for _, id in ipairs(ids) do redis.call('ZADD', KEYS[2], ARGV[2], id) end " +
+            "return ids",
+            (Class<List<String>>) (Class<?>) List.class);
+
+    // KEYS: cart; ARGV: ttl seconds, then field/value pairs. Loads only a cart that is not there yet.
+    private static final RedisScript<Long> LOAD = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "redis.call('HSET', KEYS[1], unpack(ARGV, 2)) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+            "return 1",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final CartItemRepository cartItemRepository;
+    private final CartStateRepository cartStateRepository;
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlSeconds;
+
+    // Carts this node changed in the table while Redis was down, dropped without asking the table.
+    // The marks in cart_states are the durable copy, seen by every node.
+    private final Set<Long> staleCarts = ConcurrentHashMap.newKeySet();
+
+    public CartStore(StringRedisTemplate redisTemplate,
+                     CartItemRepository cartItemRepository,
+                     CartStateRepository cartStateRepository,
+                     BookRepository bookRepository,
+                     PlatformTransactionManager transactionManager,
+                     @Value("${library.cart.ttl-days:30}") long ttlDays) {
+        this.redisTemplate = redisTemplate;
+        this.cartItemRepository = cartItemRepository;
+        this.cartStateRepository = cartStateRepository;
+        this.bookRepository = bookRepository;
+        // Also used after the checkout transaction has committed, so it never joins the caller's
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttlSeconds = ttlDays * 24 * 60 * 60;
+    }
+
+    /**
+     * The user's cart lines with their books, publishers and authors, newest first. The lines are
+     * detached: changes go through this store, not through the entities.
+     */
+    public List<CartItem> findLines(Long userId) {
+        Map<Long, Line> lines = redis(userId, key -> readLines(userId, key), () -> null);
+        if (lines == null) {
+            return cartItemRepository.findCheckoutLinesByUserId(userId);
+        }
+        if (lines.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Book> books = bookRepository.findAllWithDetailsByIdIn(lines.keySet()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return lines.entrySet().stream()
+                .filter(entry -> books.containsKey(entry.getKey()))
+                .map(entry -> entry.getValue().toCartItem(userId, books.get(entry.getKey())))
+                .sorted(Comparator.comparing(CartItem::getCreatedAt).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Lines of many carts by book id, without their books: one pipelined read for the carts in Redis,
+     * one query for the others. Carts read from the table are not loaded into Redis.
+     */
+    public Map<Long, Map<Long, Line>> snapshots(List<Long> userIds) {
+        Map<Long, Map<Long, Line>> carts = new HashMap<>();
+        List<Long> notInRedis = new ArrayList<>(userIds);
+        try {
+            dropStaleCarts();
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long userId : userIds) {
+                    connection.hashCommands().hGetAll((KEY_PREFIX + userId).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+            notInRedis.clear();
+            for (int i = 0; i < userIds.size(); i++) {
+                Map<?, ?> fields = (Map<?, ?>) results.get(i);
+                if (fields == null || fields.isEmpty()) {
+                    notInRedis.add(userIds.get(i));
+                } else {
+                    carts.put(userIds.get(i), parseLines(fields));
+                }
+            }
+        } catch (DataAccessException e) {
+            if (!isRedisFailure(e)) {
+                throw e;
+            }
+            log.warn("Cart store unavailable, reading {} carts from the database: {}", userIds.size(), e.getMessage());
+        }
+
+        if (!notInRedis.isEmpty()) {
+            for (CartItem item : cartItemRepository.findByUserIdIn(notInRedis)) {
+                carts.computeIfAbsent(item.getUserId(), userId -> new HashMap<>())
+                        .put(item.getBook().getId(), Line.of(item));
+            }
+        }
+        userIds.forEach(userId -> carts.putIfAbsent(userId, new HashMap<>()));
+        return carts;
+    }
+
+    /**
+     * Users with a cart in {@code cart_items}, in id order after {@code afterUserId}
+     */
+    public List<Long> findCartOwnersAfter(Long afterUserId, int limit) {
+        return cartItemRepository.findUserIdsAfter(afterUserId, PageRequest.ofSize(limit));
+    }
+
+    /**
+     * Applies a cart's revalidation corrections in one write. A correction whose line changed since
+     * it was read is skipped. Returns the number applied.
+     */
+    public int applyCorrections(Long userId, List<LineCorrection> corrections) {
+        Long applied = redis(userId, key -> {
+            List<String> args = new ArrayList<>(List.of(String.valueOf(ttlSeconds), userId.toString(),
+                    String.valueOf(System.currentTimeMillis())));
+            for (LineCorrection correction : corrections) {
+                args.add(correction.getBookId().toString());
+                args.add(String.valueOf(correction.getExpected().getQuantity()));
+                args.add(String.valueOf(toCents(correction.getExpected().getUnitPrice())));
+                args.add(String.valueOf(correction.getQuantity()));
+                args.add(String.valueOf(toCents(correction.getUnitPrice())));
+            }
+            return redisTemplate.execute(CORRECT_LINES, List.of(key, DIRTY_KEY), args.toArray());
+        }, () -> null);
+        if (applied != null && applied != NOT_LOADED) {
+            return applied.intValue();
+        }
+
+        // Not in Redis: the table holds the cart
+        if (applied == null) {
+            markStale(userId);
+        }
+        return transactionTemplate.execute(status -> {
+            int count = 0;
+            for (LineCorrection correction : corrections) {
+                Line expected = correction.getExpected();
+                count += correction.getQuantity() == 0
+                        ? cartItemRepository.removeLine(userId, correction.getBookId(),
+                                expected.getQuantity(), expected.getUnitPrice())
+                        : cartItemRepository.correctLine(userId, correction.getBookId(),
+                                expected.getQuantity(), expected.getUnitPrice(),
+                                correction.getQuantity(), correction.getUnitPrice());
+            }
+            return count;
+        });
+    }
+
+    /**
+     * Quantity of one book in the cart, 0 when it is not there
+     */
+    public int quantityOf(Long userId, Long bookId) {
+        return redis(userId, key -> {
+            Object line = redisTemplate.opsForHash().get(key, LINE_PREFIX + bookId);
+            if (line == null && !Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+                line = load(userId, key).get(LINE_PREFIX + bookId);
+            }
+            return line != null ? Line.parse((String) line).getQuantity() : 0;
+        }, () -> cartItemRepository.findByUserIdAndBookId(userId, bookId).map(CartItem::getQuantity).orElse(0));
+    }
+
+    /**
+     * Line count, total quantity and total price of the cart, read from its counters
+     */
+    public CartTotals totals(Long userId) {
+        return redis(userId, key -> {
+            List<Object> values = redisTemplate.opsForHash().multiGet(key, List.of(LINES, QUANTITY, TOTAL));
+            if (values.get(0) == null) {
+                Map<String, String> fields = load(userId, key);
+                values = List.of(fields.get(LINES), fields.get(QUANTITY), fields.get(TOTAL));
+            }
+            return new CartTotals(Integer.parseInt((String) values.get(0)), Integer.parseInt((String) values.get(1)),
+                    fromCents(Long.parseLong((String) values.get(2))));
+        }, () -> {
+            Integer quantity = cartItemRepository.getTotalQuantityByUserId(userId);
+            BigDecimal total = cartItemRepository.getTotalPriceByUserId(userId);
+            return new CartTotals(cartItemRepository.countByUserId(userId), quantity != null ? quantity : 0,
+                    total != null ? total : BigDecimal.ZERO);
+        });
+    }
+
+    /**
+     * Adds copies of a book at its current price. Returns the new quantity of the line, or 0 without
+     * changing anything when it would exceed {@code maxQuantity}.
+     */
+    public int addLine(Long userId, Book book, int quantity, int maxQuantity) {
+        return putLine("add", userId, book, quantity, maxQuantity, () -> {
+            CartItem item = cartItemRepository.findByUserIdAndBookId(userId, book.getId())
+                    .orElseGet(() -> CartItem.builder().userId(userId).book(book).quantity(0).build());
+            int newQuantity = item.getQuantity() + quantity;
+            if (newQuantity > maxQuantity) {
+                return 0;
+            }
+            item.setQuantity(newQuantity);
+            item.setUnitPrice(book.getPrice());
+            cartItemRepository.save(item);
+            return newQuantity;
+        });
+    }
+
+    /**
+     * Sets the quantity of a line already in the cart and refreshes its price. Returns false when the
+     * book is not in the cart.
+     */
+    public boolean updateLine(Long userId, Book book, int quantity) {
+        return putLine("set", userId, book, quantity, Integer.MAX_VALUE, () -> {
+            CartItem item = cartItemRepository.findByUserIdAndBookId(userId, book.getId()).orElse(null);
+            if (item == null) {
+                return 0;
+            }
+            item.setQuantity(quantity);
+            item.setUnitPrice(book.getPrice());
+            cartItemRepository.save(item);
+            return quantity;
+        }) > 0;
+    }
+
+    /**
+     * Removes a book from the cart. Returns false when it was not there.
+     */
+    public boolean removeLine(Long userId, Long bookId) {
+        Long result = redis(userId, key -> {
+            Long removed = redisTemplate.execute(REMOVE_LINE, List.of(key, DIRTY_KEY),
+                    bookId.toString(), String.valueOf(ttlSeconds), userId.toString());
+            if (removed != null && removed == NOT_LOADED) {
+                load(userId, key);
+                removed = redisTemplate.execute(REMOVE_LINE, List.of(key, DIRTY_KEY),
+                        bookId.toString(), String.valueOf(ttlSeconds), userId.toString());
+            }
+            return removed;
+        }, () -> null);
+        if (result != null) {
+            return result > 0;
+        }
+
+        markStale(userId);
+        if (!cartItemRepository.existsByUserIdAndBookId(userId, bookId)) {
+            return false;
+        }
+        cartItemRepository.deleteByUserIdAndBookId(userId, bookId);
+        return true;
+    }
+
+    public void clear(Long userId) {
+        Boolean cleared = redis(userId, key -> {
+            redisTemplate.execute(CLEAR, List.of(key, DIRTY_KEY), String.valueOf(ttlSeconds), userId.toString());
+            return true;
+        }, () -> false);
+        if (!cleared) {
+            markStale(userId);
+            transactionTemplate.executeWithoutResult(status -> cartItemRepository.deleteByUserId(userId));
+        }
+    }
+
+    /**
+     * Clears the cart once the surrounding transaction commits, so a failed checkout keeps it
+     */
+    public void clearAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            clear(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                clear(userId);
+            }
+        });
+    }
+
+    /**
+     * Copies up to {@code limit} dirty carts to {@code cart_items}, each replacing the user's rows in
+     * its own transaction. The cart is read from Redis only once its {@code cart_states} row is
+     * locked, so when two nodes write back the same cart the later write carries the later lines.
+     * Carts stay claimed until their write-back commits; a cart whose node stopped first is claimed
+     * again after five minutes. Returns the number of carts taken off the dirty set.
+     */
+    public int flushDirty(int limit) {
+        dropStaleCarts();
+
+        List<String> userIds;
+        try {
+            long now = System.currentTimeMillis();
+            userIds = redisTemplate.execute(CLAIM_DIRTY, List.of(DIRTY_KEY, CLAIMED_KEY), String.valueOf(limit),
+                    String.valueOf(now), String.valueOf(now - CLAIM_TIMEOUT.toMillis()));
+        } catch (DataAccessException e) {
+            log.warn("Could not read dirty carts: {}", e.getMessage());
+            return 0;
+        }
+        if (userIds == null) {
+            return 0;
+        }
+
+        for (String id : userIds) {
+            Long userId = Long.valueOf(id);
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeBack(userId));
+            } catch (RuntimeException e) {
+                log.error("Failed to write cart of user {} to the database", userId, e);
+                markDirty(id);
+                continue;
+            }
+            unclaim(id);
+        }
+        return userIds.size();
+    }
+
+    // Private helper methods
+
+    private void writeBack(Long userId) {
+        cartStateRepository.createIfAbsent(userId);
+        CartState state = cartStateRepository.findByIdForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("Cart state row missing for user: " + userId));
+        if (state.getStale()) {
+            // Changed in the table while Redis was down; the Redis copy is dropped instead
+            return;
+        }
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(KEY_PREFIX + userId);
+        if (fields.isEmpty()) {
+            // Expired or dropped as stale; the table already holds the cart
+            return;
+        }
+        cartItemRepository.deleteLinesByUserId(userId);
+        cartItemRepository.insertLines(userId, parseLines(fields).entrySet().stream()
+                .map(entry -> entry.getValue().toNewLine(entry.getKey()))
+                .toList());
+    }
+
+    private int putLine(String mode, Long userId, Book book, int quantity, int maxQuantity, Supplier<Integer> fallback) {
+        Long result = redis(userId, key -> {
+            Object[] args = {mode, book.getId().toString(), String.valueOf(quantity),
+                    String.valueOf(toCents(book.getPrice())), String.valueOf(maxQuantity),
+                    String.valueOf(System.currentTimeMillis()), String.valueOf(ttlSeconds), userId.toString()};
+            Long put = redisTemplate.execute(PUT_LINE, List.of(key, DIRTY_KEY), args);
+            if (put != null && put == NOT_LOADED) {
+                load(userId, key);
+                put = redisTemplate.execute(PUT_LINE, List.of(key, DIRTY_KEY), args);
+            }
+            return put;
+        }, () -> null);
+        if (result == null) {
+            markStale(userId);
+            return fallback.get();
+        }
+        return result == NO_LINE || result == OVER_LIMIT ? 0 : result.intValue();
+    }
+
+    private Map<Long, Line> readLines(Long userId, String key) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(key);
+        if (fields.isEmpty()) {
+            return parseLines(new HashMap<>(load(userId, key)));
+        }
+        return parseLines(fields);
+    }
+
+    /**
+     * Loads the user's cart from {@code cart_items} unless another request already did, and returns
+     * the fields now in Redis
+     */
+    private Map<String, String> load(Long userId, String key) {
+        List<CartItem> items = cartItemRepository.findByUserIdWithBooks(userId);
+        Map<String, String> fields = new HashMap<>();
+        long total = 0;
+        int quantity = 0;
+        for (CartItem item : items) {
+            long price = toCents(item.getUnitPrice());
+            fields.put(LINE_PREFIX + item.getBook().getId(), new Line(item.getQuantity(), fromCents(price),
+                    item.getCreatedAt(), item.getUpdatedAt()).format());
+            total += price * item.getQuantity();
+            quantity += item.getQuantity();
+        }
+        fields.put(LINES, String.valueOf(items.size()));
+        fields.put(QUANTITY, String.valueOf(quantity));
+        fields.put(TOTAL, String.valueOf(total));
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(ttlSeconds));
+        fields.forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        Long loaded = redisTemplate.execute(LOAD, List.of(key), args.toArray());
+        if (loaded != null && loaded == 0) {
+            Map<Object, Object> current = redisTemplate.opsForHash().entries(key);
+            Map<String, String> values = new HashMap<>();
+            current.forEach((field, value) -> values.put((String) field, (String) value));
+            return values;
+        }
+        return fields;
+    }
+
+    /**
+     * Runs a Redis operation on the user's cart, or returns the fallback's result when Redis is
+     * unavailable. A cart since changed in the table, by this node or another, is dropped from Redis
+     * first, to be loaded again: a change made to the stale copy would be dropped with it.
+     */
+    private <T> T redis(Long userId, Function<String, T> operation, Supplier<T> fallback) {
+        String key = KEY_PREFIX + userId;
+        try {
+            if (staleCarts.contains(userId) || cartStateRepository.existsByUserIdAndStaleTrue(userId)) {
+                dropStaleCart(userId);
+            }
+            return operation.apply(key);
+        } catch (DataAccessException e) {
+            if (!isRedisFailure(e)) {
+                throw e;
+            }
+            log.warn("Cart store unavailable, using the database for user {}: {}", userId, e.getMessage());
+            return fallback.get();
+        }
+    }
+
+    // Stale carts of every node, including marks left from before a restart
+    private void dropStaleCarts() {
+        Set<Long> userIds = new HashSet<>(staleCarts);
+        userIds.addAll(cartStateRepository.findStaleUserIds());
+        for (Long userId : userIds) {
+            try {
+                dropStaleCart(userId);
+            } catch (DataAccessException e) {
+                if (!isRedisFailure(e)) {
+                    throw e;
+                }
+                return;
+            }
+        }
+    }
+
+    // The Redis copy goes before the mark, so a failure leaves the cart marked for the next attempt
+    private void dropStaleCart(Long userId) {
+        redisTemplate.delete(KEY_PREFIX + userId);
+        transactionTemplate.executeWithoutResult(status -> cartStateRepository.clearStale(userId));
+        staleCarts.remove(userId);
+    }
+
+    // Committed on its own ahead of the table change, so the mark is never lost when the change is kept
+    private void markStale(Long userId) {
+        staleCarts.add(userId);
+        transactionTemplate.executeWithoutResult(status -> cartStateRepository.markStale(userId));
+    }
+
+    // Left claimed when Redis fails here, so it is requeued after the claim timeout
+    private void markDirty(String userId) {
+        try {
+            redisTemplate.opsForSet().add(DIRTY_KEY, userId);
+            redisTemplate.opsForZSet().remove(CLAIMED_KEY, userId);
+        } catch (DataAccessException e) {
+            log.warn("Could not requeue cart of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    // A change since the claim is back in the dirty set, so only the claim goes
+    private void unclaim(String userId) {
+        try {
+            redisTemplate.opsForZSet().remove(CLAIMED_KEY, userId);
+        } catch (DataAccessException e) {
+            log.warn("Could not release written cart of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    // Redis errors arrive as DataAccessExceptions, but so do those of the queries that load a cart.
+    // Redis timeouts are translated to the generic QueryTimeoutException, so the Lettuce cause decides.
+    private static boolean isRedisFailure(DataAccessException e) {
+        if (e instanceof RedisConnectionFailureException || e instanceof RedisSystemException) {
+            return true;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof RedisException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<Long, Line> parseLines(Map<?, ?> fields) {
+        Map<Long, Line> lines = new HashMap<>();
+        fields.forEach((field, value) -> {
+            String name = (String) field;
+            if (name.startsWith(LINE_PREFIX)) {
+                lines.put(Long.valueOf(name.substring(LINE_PREFIX.length())), Line.parse((String) value));
+            }
+        });
+        return lines;
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Change revalidation makes to one line; a quantity of 0 removes it
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class LineCorrection {
+        private final Long bookId;
+        private final Line expected;
+        private final int quantity;
+        private final BigDecimal unitPrice;
+    }
+
+    /**
+     * Counters of a cart
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class CartTotals {
+        private final int lines;
+        private final int quantity;
+        private final BigDecimal totalPrice;
+    }
+
+    /**
+     * One cart line as stored in its hash field: {@code quantity:priceInCents:addedAt:updatedAt}
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Line {
+        private final int quantity;
+        private final BigDecimal unitPrice;
+        private final LocalDateTime addedAt;
+        private final LocalDateTime updatedAt;
+
+        static Line of(CartItem item) {
+            return new Line(item.getQuantity(), item.getUnitPrice(), item.getCreatedAt(), item.getUpdatedAt());
+        }
+
+        static Line parse(String value) {
+            String[] parts = value.split(":");
+            return new Line(Integer.parseInt(parts[0]), fromCents(Long.parseLong(parts[1])),
+                    toDateTime(Long.parseLong(parts[2])), toDateTime(Long.parseLong(parts[3])));
+        }
+
+        String format() {
+            return quantity + ":" + toCents(unitPrice) + ":" + toEpochMillis(addedAt) + ":" + toEpochMillis(updatedAt);
+        }
+
+        CartItem toCartItem(Long userId, Book book) {
+            return CartItem.builder()
+                    .userId(userId)
+                    .book(book)
+                    .quantity(quantity)
+                    .unitPrice(unitPrice)
+                    .createdAt(addedAt)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
+
+        CartItemRepositoryCustom.NewLine toNewLine(Long bookId) {
+            return new CartItemRepositoryCustom.NewLine(bookId, quantity, unitPrice, addedAt, updatedAt);
+        }
+
+        private static LocalDateTime toDateTime(long epochMillis) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+        }
+
+        private static long toEpochMillis(LocalDateTime dateTime) {
+            return (dateTime != null ? dateTime : LocalDateTime.now()).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.library.service.impl;
+
+import com.library.entity.Book;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Evicts catalog cache entries whose keys cannot be written on the changing method itself: books
+ * changed by order and loan processing, old ISBN keys, and the book counts shown on categories,
+ * authors and publishers. The cache manager is transaction-aware, so evictions requested inside
+ * a transaction are applied after it commits.
+ * <p>
+ * Keys: {@code books} by id and {@code isbn:<isbn>}; {@code authors} and {@code publishers} by id;
+ * {@code categories} holds trees and lists with book counts and is always cleared as a whole.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogCacheEvictor {
+
+    private static final String BOOKS = "books";
+    private static final String CATEGORIES = "categories";
+    private static final String AUTHORS = "authors";
+    private static final String PUBLISHERS = "publishers";
+
+    private final CacheManager cacheManager;
+
+    public void evictBook(Book book) {
+        evictBook(book.getId(), book.getIsbn());
+    }
+
+    public void evictBook(Long bookId, String isbn) {
+        evict(BOOKS, bookId);
+        if (isbn != null) {
+            evict(BOOKS, "isbn:" + isbn);
+        }
+    }
+
+    /**
+     * Book details embed their category, publisher and authors, so changing one of those
+     * invalidates every book that references it
+     */
+    public void evictAllBooks() {
+        clear(BOOKS);
+    }
+
+    /**
+     * Drops cached book counts after a book was added to, removed from or moved between
+     * the given category, publisher and authors
+     */
+    public void evictBookCounts(Long categoryId, Long publisherId, Collection<Long> authorIds) {
+        if (categoryId != null) {
+            clear(CATEGORIES);
+        }
+        if (publisherId != null) {
+            evict(PUBLISHERS, publisherId);
+        }
+        if (authorIds != null) {
+            authorIds.stream().filter(Objects::nonNull).forEach(authorId -> evict(AUTHORS, authorId));
+        }
+    }
+
+    // Private helper methods
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+            log.debug("Evicted {}::{}", cacheName, key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+            log.debug("Cleared cache {}", cacheName);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.library.dto.CategoryDetailDTO;
 import com.library.dto.CreateCategoryRequestDTO;
 import com.library.dto.UpdateCategoryRequestDTO;
 import com.library.entity.Category;
+import com.library.event.BookCatalogEvent;
 import com.library.exception.BookNotFoundException;
 import com.library.exception.DuplicateBookException;
 import com.library.mapper.CategoryMapper;
@@ -12,6 +13,9 @@ import com.library.repository.CategoryRepository;
 import com.library.service.CategoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -19,6 +23,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -28,9 +34,15 @@ public class CategoryServiceImpl implements CategoryService {
     
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogCacheEvictor catalogCacheEvictor;
+    
+    // The categories cache holds trees and lists that embed each other, so every write clears it.
+    // Cached lists are collected into mutable lists, which the Redis serializer can restore.
     
     @Override
     @Transactional
+    @CacheEvict(value = "categories", allEntries = true)
     public CategoryDetailDTO createCategory(CreateCategoryRequestDTO createRequest) {
         log.info("Creating new category with name: {}", createRequest.getName());
         
@@ -60,6 +72,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
     
     @Override
+    @Cacheable(value = "categories", key = "#id", sync = true)
     public CategoryDetailDTO getCategoryById(Long id) {
         log.debug("Fetching category by id: {}", id);
         Category category = categoryRepository.findByIdWithSubcategories(id)
@@ -69,6 +82,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
     
     @Override
+    @Cacheable(value = "categories", key = "'slug:' + #slug", sync = true)
     public CategoryDetailDTO getCategoryBySlug(String slug) {
         log.debug("Fetching category by slug: {}", slug);
         Category category = categoryRepository.findBySlug(slug)
@@ -80,6 +94,7 @@ public class CategoryServiceImpl implements CategoryService {
     
     @Override
     @Transactional
+    @CacheEvict(value = "categories", allEntries = true)
     public CategoryDetailDTO updateCategory(Long id, UpdateCategoryRequestDTO updateRequest) {
         log.info("Updating category with id: {}", id);
         
@@ -115,6 +130,7 @@ public class CategoryServiceImpl implements CategoryService {
             }
         }
         
+        String previousName = category.getName();
         categoryMapper.updateEntityFromDTO(updateRequest, category);
         
         // Set parent category if provided
@@ -126,11 +142,22 @@ public class CategoryServiceImpl implements CategoryService {
         category = categoryRepository.save(category);
         log.info("Successfully updated category with id: {}", id);
         
+        // Book details embed their category
+        if (categoryRepository.countBooksByCategoryId(id) > 0) {
+            catalogCacheEvictor.evictAllBooks();
+        }
+        
+        // Suggestions list category names by the books filed under them
+        if (!Objects.equals(previousName, category.getName())) {
+            publishCatalogUpdates(categoryRepository.findBookIdsByCategoryId(id));
+        }
+        
         return enrichCategoryDetailDTO(categoryMapper.toDetailDTO(category));
     }
     
     @Override
     @Transactional
+    @CacheEvict(value = "categories", allEntries = true)
     public void deleteCategory(Long id) {
         log.info("Deleting category with id: {}", id);
         
@@ -161,24 +188,27 @@ public class CategoryServiceImpl implements CategoryService {
     }
     
     @Override
+    @Cacheable(value = "categories", key = "'active'", sync = true)
     public List<CategoryDTO> getActiveCategories() {
         log.debug("Fetching active categories");
         List<Category> categories = categoryRepository.findByIsActiveTrue();
         return categories.stream()
                 .map(this::enrichCategoryDTO)
-                .toList();
+                .collect(Collectors.toList());
     }
     
     @Override
+    @Cacheable(value = "categories", key = "'roots'", sync = true)
     public List<CategoryDTO> getRootCategories() {
         log.debug("Fetching root categories");
         List<Category> categories = categoryRepository.findByParentCategoryIsNull();
         return categories.stream()
                 .map(this::enrichCategoryDTO)
-                .toList();
+                .collect(Collectors.toList());
     }
     
     @Override
+    @Cacheable(value = "categories", key = "'children:' + #parentId", sync = true)
     public List<CategoryDTO> getSubcategories(Long parentId) {
         log.debug("Fetching subcategories for parent id: {}", parentId);
         
@@ -190,16 +220,18 @@ public class CategoryServiceImpl implements CategoryService {
         List<Category> categories = categoryRepository.findByParentCategoryId(parentId);
         return categories.stream()
                 .map(this::enrichCategoryDTO)
-                .toList();
+                .collect(Collectors.toList());
     }
     
     @Override
+    @Cacheable(value = "categories", key = "#id", sync = true)
     public CategoryDetailDTO getCategoryWithSubcategories(Long id) {
         log.debug("Fetching category with subcategories for id: {}", id);
         return getCategoryById(id);
     }
     
     @Override
+    @Cacheable(value = "categories", key = "'hierarchy:' + #id", sync = true)
     public List<CategoryDTO> getCategoryHierarchy(Long id) {
         log.debug("Fetching category hierarchy for id: {}", id);
         
@@ -292,4 +324,9 @@ public class CategoryServiceImpl implements CategoryService {
         
         return false;
     }
+    
+    private void publishCatalogUpdates(List<Long> bookIds) {
+        bookIds.forEach(bookId -> eventPublisher.publishEvent(new BookCatalogEvent(this,
+                BookCatalogEvent.BookCatalogEventType.BOOK_UPDATED, bookId)));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,239 @@
+package com.library.service.impl;
+
+import com.library.dto.CartItemDTO;
+import com.library.dto.OrderCalculationDTO;
+import com.library.entity.Book;
+import com.library.entity.CartItem;
+import com.library.exception.BookNotAvailableException;
+import com.library.exception.InsufficientStockException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Prices a cart for checkout in one pass. The cart lines are loaded once with their books, validated
+ * and summed together, then run through an ordered list of pricing rules built at startup from
+ * {@code library.order.pricing.*}: tiered discounts, promo codes, shipping and VAT. The resulting
+ * {@link CheckoutQuote} is both the quote shown to the user and the input of order creation.
+ */
+@Component
+@Slf4j
+public class CheckoutPricingEngine {
+
+    private final CartStore cartStore;
+    private final List<PricingRule> rules;
+
+    public CheckoutPricingEngine(CartStore cartStore,
+                                 @Value("${library.order.pricing.free-shipping-threshold:500000}") BigDecimal freeShippingThreshold,
+                                 @Value("${library.order.pricing.shipping-fee:30000}") BigDecimal shippingFee,
+                                 @Value("${library.order.pricing.vat-rate:0.10}") BigDecimal vatRate,
+                                 @Value("${library.order.pricing.discount-tiers:1000000:0.05}") String discountTiers,
+                                 @Value("${library.order.pricing.promo-codes:}") String promoCodes) {
+        this.cartStore = cartStore;
+        Map<String, BigDecimal> promoRates = parseRates(promoCodes);
+        this.rules = List.of(
+                tieredDiscount(parseRates(discountTiers)),
+                promoCode(promoRates),
+                shipping(freeShippingThreshold, shippingFee),
+                vat(vatRate)
+        );
+        log.info("Checkout pricing: free shipping from {}, shipping fee {}, VAT {}, discount tiers [{}], {} promo codes",
+                freeShippingThreshold, shippingFee, vatRate, discountTiers, promoRates.size());
+    }
+
+    /**
+     * Loads the user's cart, then its books and authors in one query, and prices it
+     */
+    public CheckoutQuote quote(Long userId, String promoCode) {
+        return price(cartStore.findLines(userId), promoCode);
+    }
+
+    /**
+     * Validates and prices already loaded cart lines; issues no queries
+     */
+    public CheckoutQuote price(List<CartItem> lines, String promoCode) {
+        Pricing pricing = new Pricing(normalize(promoCode));
+        RuntimeException rejection = null;
+        int totalQuantity = 0;
+
+        for (CartItem line : lines) {
+            Book book = line.getBook();
+            if (!Boolean.TRUE.equals(book.getIsSellable())) {
+                pricing.errors.add("Book not available for sale: " + book.getTitle());
+                if (rejection == null) {
+                    rejection = new BookNotAvailableException("Book not available for sale: " + book.getTitle());
+                }
+            } else if (book.getStockForSale() < line.getQuantity()) {
+                pricing.errors.add("Insufficient stock for: " + book.getTitle());
+                if (rejection == null) {
+                    rejection = new InsufficientStockException("Insufficient stock for book: " + book.getTitle());
+                }
+            }
+            // Priced like the order item that records it
+            pricing.subTotal = pricing.subTotal.add(book.getPrice().multiply(BigDecimal.valueOf(line.getQuantity())));
+            totalQuantity += line.getQuantity();
+        }
+
+        if (lines.isEmpty()) {
+            pricing.errors.add("Cart is empty");
+        } else {
+            for (PricingRule rule : rules) {
+                rule.apply(pricing);
+            }
+        }
+        if (rejection == null && !pricing.errors.isEmpty()) {
+            rejection = new IllegalStateException("Cannot proceed to checkout: " + String.join(", ", pricing.errors));
+        }
+
+        return new CheckoutQuote(lines, pricing, totalQuantity, rejection);
+    }
+
+    /**
+     * One step of the pricing pipeline. Rules run in order, each reading what the earlier ones set.
+     */
+    @FunctionalInterface
+    interface PricingRule {
+        void apply(Pricing pricing);
+    }
+
+    /**
+     * Running totals of one quote, passed through the rules
+     */
+    static final class Pricing {
+
+        private final String promoCode;
+        private final List<String> errors = new ArrayList<>();
+        private BigDecimal subTotal = BigDecimal.ZERO;
+        private BigDecimal discount = BigDecimal.ZERO;
+        private BigDecimal shippingFee = BigDecimal.ZERO;
+        private BigDecimal tax = BigDecimal.ZERO;
+
+        private Pricing(String promoCode) {
+            this.promoCode = promoCode;
+        }
+
+        private void addDiscount(BigDecimal amount) {
+            discount = discount.add(amount).min(subTotal);
+        }
+    }
+
+    /**
+     * Rate of the highest tier the subtotal reaches
+     */
+    private static PricingRule tieredDiscount(Map<String, BigDecimal> tiers) {
+        List<Map.Entry<BigDecimal, BigDecimal>> descending = tiers.entrySet().stream()
+                .map(tier -> Map.entry(new BigDecimal(tier.getKey()), tier.getValue()))
+                .sorted(Map.Entry.<BigDecimal, BigDecimal>comparingByKey(Comparator.reverseOrder()))
+                .toList();
+        return pricing -> {
+            for (Map.Entry<BigDecimal, BigDecimal> tier : descending) {
+                if (pricing.subTotal.compareTo(tier.getKey()) >= 0) {
+                    pricing.addDiscount(percentOf(pricing.subTotal, tier.getValue()));
+                    return;
+                }
+            }
+        };
+    }
+
+    private static PricingRule promoCode(Map<String, BigDecimal> promoRates) {
+        return pricing -> {
+            if (pricing.promoCode == null) {
+                return;
+            }
+            BigDecimal rate = promoRates.get(pricing.promoCode);
+            if (rate == null) {
+                pricing.errors.add("Unknown promo code: " + pricing.promoCode);
+                return;
+            }
+            pricing.addDiscount(percentOf(pricing.subTotal, rate));
+        };
+    }
+
+    private static PricingRule shipping(BigDecimal freeShippingThreshold, BigDecimal shippingFee) {
+        return pricing -> pricing.shippingFee = pricing.subTotal.compareTo(freeShippingThreshold) >= 0
+                ? BigDecimal.ZERO
+                : shippingFee;
+    }
+
+    private static PricingRule vat(BigDecimal vatRate) {
+        return pricing -> pricing.tax = percentOf(pricing.subTotal, vatRate);
+    }
+
+    private static BigDecimal percentOf(BigDecimal amount, BigDecimal rate) {
+        return amount.multiply(rate).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static String normalize(String promoCode) {
+        return promoCode == null || promoCode.isBlank() ? null : promoCode.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses {@code KEY:RATE} pairs separated by commas, such as {@code 1000000:0.05,2000000:0.08}
+     */
+    private static Map<String, BigDecimal> parseRates(String value) {
+        Map<String, BigDecimal> rates = new TreeMap<>();
+        for (String pair : value.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            String[] parts = pair.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid pricing entry, expected KEY:RATE: " + pair);
+            }
+            rates.put(parts[0].trim().toUpperCase(Locale.ROOT), new BigDecimal(parts[1].trim()));
+        }
+        return rates;
+    }
+
+    /**
+     * Priced cart: the quote returned to the user and the lines an order is created from
+     */
+    @Getter
+    public static final class CheckoutQuote {
+
+        private final List<CartItem> lines;
+        private final OrderCalculationDTO calculation;
+        private final RuntimeException rejection;
+
+        private CheckoutQuote(List<CartItem> lines, Pricing pricing, int totalQuantity, RuntimeException rejection) {
+            this.lines = lines;
+            this.rejection = rejection;
+            this.calculation = OrderCalculationDTO.builder()
+                    .subTotalAmount(pricing.subTotal)
+                    .shippingFee(pricing.shippingFee)
+                    .taxAmount(pricing.tax)
+                    .discountAmount(pricing.discount)
+                    .totalAmount(pricing.subTotal.add(pricing.shippingFee).add(pricing.tax).subtract(pricing.discount))
+                    .totalItems(lines.size())
+                    .totalQuantity(totalQuantity)
+                    .promoCode(pricing.promoCode)
+                    .canProceedToCheckout(pricing.errors.isEmpty())
+                    .validationErrors(pricing.errors)
+                    .build();
+        }
+
+        public boolean isEmpty() {
+            return lines.isEmpty();
+        }
+
+        /**
+         * Cart lines as shown in the quote; only needed when the quote is returned
+         */
+        public List<CartItemDTO> toCartItemDTOs() {
+            return lines.stream()
+                    .map(CartServiceImpl::toCartItemDTO)
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -63,12 +63,12 @@ public class FineCalculationServiceImpl implements FineCalculationService {
         
         // Apply maximum fine limit
         if (totalFine.compareTo(maxFineAmount) > 0) {
-            log.info("Fine amount {} exceeds maximum {}. Capping at maximum.", 
+            log.debug("Fine amount {} exceeds maximum {}. Capping at maximum.", 
                     totalFine, maxFineAmount);
             totalFine = maxFineAmount;
         }
         
-        log.info("Calculated fine: {} VND for {} overdue days (grace period: {} days)", 
+        log.debug("Calculated fine: {} VND for {} overdue days (grace period: {} days)", 
                 totalFine, overdueDays, gracePeriodDays);
         
         return totalFine;
@@ -0,0 +1,537 @@
+package com.library.service.impl;
+
+import com.library.entity.Book;
+import com.library.entity.BookAuthor;
+import com.library.repository.BookRepository;
+import com.library.service.BookSearchEngine;
+import com.library.util.SearchTokenizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index over title, ISBN, author names, publisher and description,
+ * ranked with BM25 using per-field weights.
+ * <p>
+ * Posting lists are immutable sorted arrays that are swapped on write, so queries never lock.
+ * Writes are serialized and only happen on catalog changes or a full rebuild.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryBookSearchEngine implements BookSearchEngine {
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float ISBN_WEIGHT = 3.0f;
+    private static final float AUTHOR_WEIGHT = 2.0f;
+    private static final float PUBLISHER_WEIGHT = 1.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // The last query term also matches longer terms ("prog" -> "programming") at a lower weight
+    private static final double PREFIX_MATCH_BOOST = 0.5;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final BookRepository bookRepository;
+
+    @Value("${library.search.engine.enabled:true}")
+    private boolean enabled;
+
+    @Value("${library.search.engine.batch-size:1000}")
+    private int batchSize;
+
+    private final Object writeLock = new Object();
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private volatile Index index = new Index();
+    private volatile boolean ready = false;
+    private volatile boolean rebuilding = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Async("eventTaskExecutor")
+    public void buildIndexOnStartup() {
+        if (!enabled) {
+            log.info("Book search engine disabled, keyword search will use database queries");
+            return;
+        }
+        try {
+            rebuildIndex();
+        } catch (Exception e) {
+            log.error("Failed to build book search index, keyword search will use database queries", e);
+        }
+    }
+
+    @Override
+    public void rebuildIndex() {
+        long startTime = System.currentTimeMillis();
+        log.info("Rebuilding book search index");
+
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        try {
+            Index fresh = new Index();
+            Map<String, PostingListBuilder> builders = new HashMap<>();
+
+            // Ids come back in ascending order, so every posting list is built by appending
+            Long lastId = 0L;
+            while (true) {
+                List<Long> ids = bookRepository.findIdsAfter(lastId, PageRequest.ofSize(batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                List<Book> books = new ArrayList<>(bookRepository.findAllWithDetailsByIdIn(ids));
+                books.sort(Comparator.comparing(Book::getId));
+
+                for (Book book : books) {
+                    Map<String, Float> termWeights = analyze(book);
+                    float length = documentLength(termWeights);
+                    termWeights.forEach((term, weight) -> builders
+                            .computeIfAbsent(term, t -> new PostingListBuilder())
+                            .add(book.getId(), weight, length));
+                    fresh.books.put(book.getId(), new IndexedBook(termWeights.keySet().toArray(new String[0]), length));
+                    fresh.totalLength += length;
+                }
+
+                lastId = ids.get(ids.size() - 1);
+            }
+
+            builders.forEach((term, builder) -> fresh.postings.put(term, builder.build()));
+
+            synchronized (writeLock) {
+                index = fresh;
+                ready = true;
+            }
+
+            log.info("Book search index rebuilt: {} books, {} terms in {} ms",
+                    fresh.books.size(), fresh.postings.size(), System.currentTimeMillis() - startTime);
+        } finally {
+            rebuilding = false;
+        }
+
+        // Replay catalog changes that raced with the rebuild against the new index
+        List<Long> changedIds = new ArrayList<>(changedDuringRebuild);
+        changedDuringRebuild.clear();
+        changedIds.forEach(this::indexBook);
+    }
+
+    @Override
+    public void indexBook(Long bookId) {
+        if (!ready && !rebuilding) {
+            return;
+        }
+        if (rebuilding) {
+            changedDuringRebuild.add(bookId);
+        }
+
+        List<Book> books = bookRepository.findAllWithDetailsByIdIn(List.of(bookId));
+        if (books.isEmpty()) {
+            removeBook(bookId);
+            return;
+        }
+
+        Book book = books.get(0);
+        Map<String, Float> termWeights = analyze(book);
+        float length = documentLength(termWeights);
+
+        synchronized (writeLock) {
+            Index current = index;
+            removeFromIndex(current, bookId);
+            termWeights.forEach((term, weight) -> current.postings.compute(term, (t, existing) ->
+                    (existing == null ? PostingList.EMPTY : existing).with(bookId, weight, length)));
+            current.books.put(bookId, new IndexedBook(termWeights.keySet().toArray(new String[0]), length));
+            current.totalLength += length;
+        }
+        log.debug("Indexed book {} with {} terms", bookId, termWeights.size());
+    }
+
+    @Override
+    public void removeBook(Long bookId) {
+        if (!ready && !rebuilding) {
+            return;
+        }
+        if (rebuilding) {
+            changedDuringRebuild.add(bookId);
+        }
+
+        synchronized (writeLock) {
+            removeFromIndex(index, bookId);
+        }
+        log.debug("Removed book {} from search index", bookId);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public SearchHits search(String query, int offset, int limit) {
+        Map<Long, Double> scores = score(query);
+        if (scores.isEmpty() || offset >= scores.size() || limit <= 0) {
+            return new SearchHits(List.of(), scores.size());
+        }
+
+        List<Long> ranked = topK(scores, offset + limit);
+        return new SearchHits(ranked.subList(Math.min(offset, ranked.size()), ranked.size()), scores.size());
+    }
+
+    @Override
+    public List<Long> findMatchingIds(String query, int maxResults) {
+        Map<Long, Double> scores = score(query);
+        if (scores.isEmpty()) {
+            return List.of();
+        }
+        return topK(scores, maxResults);
+    }
+
+    @Override
+    public int getIndexedBookCount() {
+        return index.books.size();
+    }
+
+    // Private helper methods
+
+    private Map<Long, Double> score(String query) {
+        List<String> queryTerms = SearchTokenizer.tokenizeQuery(query);
+        Index current = index;
+        if (queryTerms.isEmpty() || current.books.isEmpty()) {
+            return Map.of();
+        }
+
+        int bookCount = current.books.size();
+        double averageLength = Math.max(current.totalLength / bookCount, 1.0);
+
+        List<List<WeightedPostings>> groups = new ArrayList<>(queryTerms.size());
+        for (int i = 0; i < queryTerms.size(); i++) {
+            List<WeightedPostings> group = expand(current, queryTerms.get(i), i == queryTerms.size() - 1, bookCount);
+            if (group.isEmpty()) {
+                return Map.of(); // every term must match
+            }
+            groups.add(group);
+        }
+
+        // Evaluate the most selective term first so later terms only probe surviving candidates
+        groups.sort(Comparator.comparingLong(InMemoryBookSearchEngine::postingCount));
+
+        Map<Long, Double> scores = null;
+        for (List<WeightedPostings> group : groups) {
+            scores = scores == null
+                    ? scoreGroup(group, averageLength)
+                    : intersectGroup(scores, group, averageLength);
+            if (scores.isEmpty()) {
+                return Map.of();
+            }
+        }
+        return scores;
+    }
+
+    private List<WeightedPostings> expand(Index current, String term, boolean allowPrefix, int bookCount) {
+        List<WeightedPostings> group = new ArrayList<>();
+
+        PostingList exact = current.postings.get(term);
+        if (exact != null && exact.size() > 0) {
+            group.add(new WeightedPostings(exact, idf(exact.size(), bookCount)));
+        }
+
+        if (allowPrefix && term.length() >= MIN_PREFIX_LENGTH) {
+            for (PostingList postings : current.postings
+                    .subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+                if (group.size() >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                if (postings.size() > 0) {
+                    group.add(new WeightedPostings(postings, idf(postings.size(), bookCount) * PREFIX_MATCH_BOOST));
+                }
+            }
+        }
+        return group;
+    }
+
+    private Map<Long, Double> scoreGroup(List<WeightedPostings> group, double averageLength) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (WeightedPostings weighted : group) {
+            PostingList postings = weighted.postings;
+            for (int i = 0; i < postings.size(); i++) {
+                double score = bm25(weighted.idf, postings.weights[i], postings.lengths[i], averageLength);
+                scores.merge(postings.bookIds[i], score, Double::sum);
+            }
+        }
+        return scores;
+    }
+
+    private Map<Long, Double> intersectGroup(Map<Long, Double> candidates, List<WeightedPostings> group,
+                                             double averageLength) {
+        Map<Long, Double> next = new HashMap<>();
+
+        if (candidates.size() < postingCount(group)) {
+            // Few candidates left: binary-search each of them in the term's posting lists
+            for (Map.Entry<Long, Double> candidate : candidates.entrySet()) {
+                double termScore = 0;
+                boolean matched = false;
+                for (WeightedPostings weighted : group) {
+                    int position = weighted.postings.indexOf(candidate.getKey());
+                    if (position >= 0) {
+                        matched = true;
+                        termScore += bm25(weighted.idf, weighted.postings.weights[position],
+                                weighted.postings.lengths[position], averageLength);
+                    }
+                }
+                if (matched) {
+                    next.put(candidate.getKey(), candidate.getValue() + termScore);
+                }
+            }
+            return next;
+        }
+
+        for (WeightedPostings weighted : group) {
+            PostingList postings = weighted.postings;
+            for (int i = 0; i < postings.size(); i++) {
+                if (candidates.containsKey(postings.bookIds[i])) {
+                    double score = bm25(weighted.idf, postings.weights[i], postings.lengths[i], averageLength);
+                    next.merge(postings.bookIds[i], score, Double::sum);
+                }
+            }
+        }
+        next.replaceAll((bookId, termScore) -> termScore + candidates.get(bookId));
+        return next;
+    }
+
+    private static List<Long> topK(Map<Long, Double> scores, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+
+        Comparator<Map.Entry<Long, Double>> byRelevance = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+
+        // Min-heap of the best k hits seen so far
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(Math.min(k, scores.size()) + 1, byRelevance);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (heap.size() < k) {
+                heap.offer(entry);
+            } else if (byRelevance.compare(entry, heap.peek()) > 0) {
+                heap.poll();
+                heap.offer(entry);
+            }
+        }
+
+        List<Map.Entry<Long, Double>> best = new ArrayList<>(heap);
+        best.sort(byRelevance.reversed());
+
+        List<Long> ids = new ArrayList<>(best.size());
+        best.forEach(entry -> ids.add(entry.getKey()));
+        return ids;
+    }
+
+    private static double idf(int documentFrequency, int bookCount) {
+        return Math.log(1.0 + (bookCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static double bm25(double idf, float termFrequency, float length, double averageLength) {
+        double norm = K1 * (1.0 - B + B * length / averageLength);
+        return idf * termFrequency * (K1 + 1.0) / (termFrequency + norm);
+    }
+
+    private static long postingCount(List<WeightedPostings> group) {
+        long count = 0;
+        for (WeightedPostings weighted : group) {
+            count += weighted.postings.size();
+        }
+        return count;
+    }
+
+    private void removeFromIndex(Index current, Long bookId) {
+        IndexedBook existing = current.books.remove(bookId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms) {
+            current.postings.computeIfPresent(term, (t, postings) -> {
+                PostingList remaining = postings.without(bookId);
+                return remaining.size() == 0 ? null : remaining;
+            });
+        }
+        current.totalLength -= existing.length;
+    }
+
+    private Map<String, Float> analyze(Book book) {
+        Map<String, Float> termWeights = new HashMap<>();
+        addField(termWeights, SearchTokenizer.tokenize(book.getTitle()), TITLE_WEIGHT);
+        addField(termWeights, SearchTokenizer.tokenizeIsbn(book.getIsbn()), ISBN_WEIGHT);
+
+        if (book.getBookAuthors() != null) {
+            for (BookAuthor bookAuthor : book.getBookAuthors()) {
+                if (bookAuthor.getAuthor() != null) {
+                    addField(termWeights, SearchTokenizer.tokenize(bookAuthor.getAuthor().getName()), AUTHOR_WEIGHT);
+                }
+            }
+        }
+
+        if (book.getPublisher() != null) {
+            addField(termWeights, SearchTokenizer.tokenize(book.getPublisher().getName()), PUBLISHER_WEIGHT);
+        }
+
+        addField(termWeights, SearchTokenizer.tokenize(book.getDescription()), DESCRIPTION_WEIGHT);
+        return termWeights;
+    }
+
+    private static void addField(Map<String, Float> termWeights, List<String> tokens, float weight) {
+        for (String token : tokens) {
+            termWeights.merge(token, weight, Float::sum);
+        }
+    }
+
+    private static float documentLength(Map<String, Float> termWeights) {
+        float length = 0;
+        for (float weight : termWeights.values()) {
+            length += weight;
+        }
+        return length;
+    }
+
+    // Index structures
+
+    private static final class Index {
+        private final ConcurrentSkipListMap<String, PostingList> postings = new ConcurrentSkipListMap<>();
+        private final Map<Long, IndexedBook> books = new ConcurrentHashMap<>();
+        private volatile double totalLength;
+    }
+
+    private static final class IndexedBook {
+        private final String[] terms;
+        private final float length;
+
+        IndexedBook(String[] terms, float length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+
+    private static final class WeightedPostings {
+        private final PostingList postings;
+        private final double idf;
+
+        WeightedPostings(PostingList postings, double idf) {
+            this.postings = postings;
+            this.idf = idf;
+        }
+    }
+
+    /**
+     * Immutable posting list sorted by book ID. Field-weighted term frequency and
+     * document length are stored inline so scoring needs no extra lookups.
+     */
+    static final class PostingList {
+        static final PostingList EMPTY = new PostingList(new long[0], new float[0], new float[0]);
+
+        private final long[] bookIds;
+        private final float[] weights;
+        private final float[] lengths;
+
+        PostingList(long[] bookIds, float[] weights, float[] lengths) {
+            this.bookIds = bookIds;
+            this.weights = weights;
+            this.lengths = lengths;
+        }
+
+        int size() {
+            return bookIds.length;
+        }
+
+        int indexOf(long bookId) {
+            return Arrays.binarySearch(bookIds, bookId);
+        }
+
+        PostingList with(long bookId, float weight, float length) {
+            int position = indexOf(bookId);
+            if (position >= 0) {
+                float[] newWeights = weights.clone();
+                float[] newLengths = lengths.clone();
+                newWeights[position] = weight;
+                newLengths[position] = length;
+                return new PostingList(bookIds, newWeights, newLengths);
+            }
+
+            int insertAt = -position - 1;
+            int size = size();
+            long[] newIds = new long[size + 1];
+            float[] newWeights = new float[size + 1];
+            float[] newLengths = new float[size + 1];
+            System.arraycopy(bookIds, 0, newIds, 0, insertAt);
+            System.arraycopy(weights, 0, newWeights, 0, insertAt);
+            System.arraycopy(lengths, 0, newLengths, 0, insertAt);
+            newIds[insertAt] = bookId;
+            newWeights[insertAt] = weight;
+            newLengths[insertAt] = length;
+            System.arraycopy(bookIds, insertAt, newIds, insertAt + 1, size - insertAt);
+            System.arraycopy(weights, insertAt, newWeights, insertAt + 1, size - insertAt);
+            System.arraycopy(lengths, insertAt, newLengths, insertAt + 1, size - insertAt);
+            return new PostingList(newIds, newWeights, newLengths);
+        }
+
+        PostingList without(long bookId) {
+            int position = indexOf(bookId);
+            if (position < 0) {
+                return this;
+            }
+
+            int size = size();
+            long[] newIds = new long[size - 1];
+            float[] newWeights = new float[size - 1];
+            float[] newLengths = new float[size - 1];
+            System.arraycopy(bookIds, 0, newIds, 0, position);
+            System.arraycopy(weights, 0, newWeights, 0, position);
+            System.arraycopy(lengths, 0, newLengths, 0, position);
+            System.arraycopy(bookIds, position + 1, newIds, position, size - position - 1);
+            System.arraycopy(weights, position + 1, newWeights, position, size - position - 1);
+            System.arraycopy(lengths, position + 1, newLengths, position, size - position - 1);
+            return new PostingList(newIds, newWeights, newLengths);
+        }
+    }
+
+    private static final class PostingListBuilder {
+        private long[] bookIds = new long[4];
+        private float[] weights = new float[4];
+        private float[] lengths = new float[4];
+        private int size;
+
+        void add(long bookId, float weight, float length) {
+            if (size == bookIds.length) {
+                int capacity = size * 2;
+                bookIds = Arrays.copyOf(bookIds, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            bookIds[size] = bookId;
+            weights[size] = weight;
+            lengths[size] = length;
+            size++;
+        }
+
+        PostingList build() {
+            return new PostingList(Arrays.copyOf(bookIds, size), Arrays.copyOf(weights, size),
+                    Arrays.copyOf(lengths, size));
+        }
+    }
+}
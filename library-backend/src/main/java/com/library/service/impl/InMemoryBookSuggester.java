@@ -0,0 +1,530 @@
+package com.library.service.impl;
+
+import com.library.entity.Book;
+import com.library.entity.BookAuthor;
+import com.library.repository.BookRepository;
+import com.library.service.BookSuggester;
+import com.library.util.SearchTokenizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory completion dictionary over book titles, author names, categories and publishers.
+ * A suggestion is weighted by the number of books that reference it.
+ * <p>
+ * Suggestions are kept in one sorted array, so every prefix maps to a contiguous range, and a
+ * segment tree over the weights returns the top k of any range in O(k log n) without storing
+ * per-prefix lists. Catalog changes land in a small sorted overlay that is merged into a fresh
+ * array once it grows past the compaction threshold.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryBookSuggester implements BookSuggester {
+
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private final BookRepository bookRepository;
+
+    @Value("${library.search.suggest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${library.search.engine.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${library.search.suggest.compaction-threshold:1024}")
+    private int compactionThreshold;
+
+    private final Object writeLock = new Object();
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private volatile Dictionary dictionary = new Dictionary(Snapshot.EMPTY, new ConcurrentHashMap<>());
+    private volatile boolean ready = false;
+    private volatile boolean rebuilding = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Async("eventTaskExecutor")
+    public void buildOnStartup() {
+        if (!enabled) {
+            log.info("Book suggester disabled, suggestions will use database queries");
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Failed to build suggestion dictionary, suggestions will use database queries", e);
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        long startTime = System.currentTimeMillis();
+        log.info("Rebuilding suggestion dictionary");
+
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        try {
+            Map<String, Counter> counters = new HashMap<>();
+            Map<Long, String[]> books = new ConcurrentHashMap<>();
+
+            Long lastId = 0L;
+            while (true) {
+                List<Long> ids = bookRepository.findIdsAfter(lastId, PageRequest.ofSize(batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                for (Book book : bookRepository.findAllWithDetailsByIdIn(ids)) {
+                    Map<String, String> suggestions = collectSuggestions(book);
+                    String[] keys = new String[suggestions.size()];
+                    int i = 0;
+                    for (Map.Entry<String, String> suggestion : suggestions.entrySet()) {
+                        Counter counter = counters.computeIfAbsent(suggestion.getKey(),
+                                key -> new Counter(key, suggestion.getValue()));
+                        counter.weight++;
+                        keys[i++] = counter.key; // share one key instance per suggestion
+                    }
+                    books.put(book.getId(), keys);
+                }
+
+                lastId = ids.get(ids.size() - 1);
+            }
+
+            List<Suggestion> entries = new ArrayList<>(counters.size());
+            counters.values().forEach(counter -> entries.add(new Suggestion(counter.key, counter.text, counter.weight)));
+            Snapshot base = Snapshot.of(entries);
+
+            synchronized (writeLock) {
+                dictionary = new Dictionary(base, books);
+                ready = true;
+            }
+
+            log.info("Suggestion dictionary rebuilt: {} suggestions from {} books in {} ms",
+                    base.size(), books.size(), System.currentTimeMillis() - startTime);
+        } finally {
+            rebuilding = false;
+        }
+
+        // Replay catalog changes that raced with the rebuild against the new dictionary
+        List<Long> changedIds = new ArrayList<>(changedDuringRebuild);
+        changedDuringRebuild.clear();
+        changedIds.forEach(this::indexBook);
+    }
+
+    @Override
+    public void indexBook(Long bookId) {
+        if (!ready && !rebuilding) {
+            return;
+        }
+        if (rebuilding) {
+            changedDuringRebuild.add(bookId);
+        }
+
+        List<Book> books = bookRepository.findAllWithDetailsByIdIn(List.of(bookId));
+        if (books.isEmpty()) {
+            removeBook(bookId);
+            return;
+        }
+        Map<String, String> suggestions = collectSuggestions(books.get(0));
+
+        synchronized (writeLock) {
+            Dictionary current = dictionary;
+
+            // Most updates leave titles and names alone; only touch the suggestions that changed
+            Map<String, String> retained = new HashMap<>();
+            String[] previous = current.books.remove(bookId);
+            if (previous != null) {
+                for (String key : previous) {
+                    if (suggestions.containsKey(key)) {
+                        retained.put(key, key);
+                    } else {
+                        current.adjust(key, null, -1);
+                    }
+                }
+            }
+
+            String[] keys = new String[suggestions.size()];
+            int i = 0;
+            for (Map.Entry<String, String> suggestion : suggestions.entrySet()) {
+                String key = retained.get(suggestion.getKey());
+                keys[i++] = key != null ? key : current.adjust(suggestion.getKey(), suggestion.getValue(), 1);
+            }
+            current.books.put(bookId, keys);
+            compactIfNeeded(current);
+        }
+        log.debug("Indexed {} suggestions for book {}", suggestions.size(), bookId);
+    }
+
+    @Override
+    public void removeBook(Long bookId) {
+        if (!ready && !rebuilding) {
+            return;
+        }
+        if (rebuilding) {
+            changedDuringRebuild.add(bookId);
+        }
+
+        synchronized (writeLock) {
+            Dictionary current = dictionary;
+            release(current, bookId);
+            compactIfNeeded(current);
+        }
+        log.debug("Removed suggestions for book {}", bookId);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        String key = suggestionKey(prefix);
+        int maxResults = Math.min(limit, MAX_SUGGESTIONS);
+        if (key.isEmpty() || maxResults <= 0) {
+            return List.of();
+        }
+
+        Dictionary current = dictionary;
+        String upperBound = key + Character.MAX_VALUE;
+
+        // Overlay entries replace their base counterparts, so both sides feed one candidate list
+        List<Suggestion> candidates = new ArrayList<>();
+        for (Suggestion suggestion : current.overlay.subMap(key, upperBound).values()) {
+            if (suggestion.weight > 0) {
+                candidates.add(suggestion);
+            }
+        }
+
+        Snapshot base = current.base;
+        int from = base.lowerBound(key);
+        int to = base.lowerBound(upperBound);
+        if (from < to) {
+            // Best-first walk: take the range maximum, then split the range around it
+            PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> base.compare(a[0], b[0]));
+            ranges.add(new int[]{base.best(from, to), from, to});
+            int taken = 0;
+            while (!ranges.isEmpty() && taken < maxResults) {
+                int[] range = ranges.poll();
+                int position = range[0];
+                if (!current.overlay.containsKey(base.keys[position])) {
+                    candidates.add(base.suggestionAt(position));
+                    taken++;
+                }
+                if (range[1] < position) {
+                    ranges.add(new int[]{base.best(range[1], position), range[1], position});
+                }
+                if (position + 1 < range[2]) {
+                    ranges.add(new int[]{base.best(position + 1, range[2]), position + 1, range[2]});
+                }
+            }
+        }
+
+        return candidates.stream()
+                .sorted(Suggestion.BY_RANK)
+                .limit(maxResults)
+                .map(suggestion -> suggestion.text)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int getSuggestionCount() {
+        Dictionary current = dictionary;
+        int count = current.base.size();
+        for (Suggestion suggestion : current.overlay.values()) {
+            boolean inBase = current.base.indexOf(suggestion.key) >= 0;
+            if (inBase && suggestion.weight == 0) {
+                count--;
+            } else if (!inBase && suggestion.weight > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Private helper methods
+
+    private void release(Dictionary current, Long bookId) {
+        String[] previous = current.books.remove(bookId);
+        if (previous != null) {
+            for (String key : previous) {
+                current.adjust(key, null, -1);
+            }
+        }
+    }
+
+    private void compactIfNeeded(Dictionary current) {
+        if (current.overlay.size() < compactionThreshold) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        Snapshot merged = current.base.merge(current.overlay.values());
+        dictionary = new Dictionary(merged, current.books);
+        log.debug("Compacted {} suggestion changes into {} suggestions in {} ms",
+                current.overlay.size(), merged.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Suggestions of one book keyed by their normalized form, in display form.
+     */
+    private static Map<String, String> collectSuggestions(Book book) {
+        Map<String, String> suggestions = new LinkedHashMap<>();
+        addSuggestion(suggestions, book.getTitle());
+
+        if (book.getBookAuthors() != null) {
+            for (BookAuthor bookAuthor : book.getBookAuthors()) {
+                if (bookAuthor.getAuthor() != null) {
+                    addSuggestion(suggestions, bookAuthor.getAuthor().getName());
+                }
+            }
+        }
+
+        if (book.getCategory() != null) {
+            addSuggestion(suggestions, book.getCategory().getName());
+        }
+
+        if (book.getPublisher() != null) {
+            addSuggestion(suggestions, book.getPublisher().getName());
+        }
+        return suggestions;
+    }
+
+    private static void addSuggestion(Map<String, String> suggestions, String text) {
+        String key = suggestionKey(text);
+        if (!key.isEmpty()) {
+            suggestions.putIfAbsent(key, text.trim());
+        }
+    }
+
+    /**
+     * Lower-case, unaccented tokens joined by single spaces, so "Lập  trình" and "lap trinh" share a key.
+     */
+    static String suggestionKey(String text) {
+        return String.join(" ", SearchTokenizer.tokenize(text));
+    }
+
+    // Dictionary structures
+
+    private static final class Dictionary {
+        private final Snapshot base;
+        private final ConcurrentSkipListMap<String, Suggestion> overlay = new ConcurrentSkipListMap<>();
+        private final Map<Long, String[]> books;
+
+        Dictionary(Snapshot base, Map<Long, String[]> books) {
+            this.base = base;
+            this.books = books;
+        }
+
+        /**
+         * Changes the weight of a suggestion through the overlay and returns its canonical key.
+         * A weight of zero is kept as a tombstone while the base array still holds the key.
+         */
+        String adjust(String key, String text, int delta) {
+            Suggestion existing = overlay.get(key);
+            int position = existing == null ? base.indexOf(key) : -1;
+            if (position >= 0) {
+                existing = base.suggestionAt(position);
+            }
+            if (existing == null && delta <= 0) {
+                return key;
+            }
+
+            int weight = Math.max((existing == null ? 0 : existing.weight) + delta, 0);
+            String canonicalKey = existing == null ? key : existing.key;
+            String display = existing != null && existing.weight > 0 ? existing.text : text;
+
+            if (weight == 0 && base.indexOf(canonicalKey) < 0) {
+                overlay.remove(canonicalKey);
+            } else {
+                overlay.put(canonicalKey, new Suggestion(canonicalKey, display, weight));
+            }
+            return canonicalKey;
+        }
+    }
+
+    private static final class Suggestion {
+        // Most referenced first, then the shorter completion, then alphabetical
+        static final Comparator<Suggestion> BY_RANK = Comparator.<Suggestion>comparingInt(s -> -s.weight)
+                .thenComparingInt(s -> s.text.length())
+                .thenComparing(s -> s.key);
+
+        private final String key;
+        private final String text;
+        private final int weight;
+
+        Suggestion(String key, String text, int weight) {
+            this.key = key;
+            this.text = text;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Counter {
+        private final String key;
+        private final String text;
+        private int weight;
+
+        Counter(String key, String text) {
+            this.key = key;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Immutable suggestion array sorted by key, with a segment tree holding the position of
+     * the best-ranked suggestion of every node. Display text shares the key instance when equal.
+     */
+    static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new String[0], new String[0], new int[0]);
+
+        private final String[] keys;
+        private final String[] texts;
+        private final int[] weights;
+        private final int[] tree;
+
+        private Snapshot(String[] keys, String[] texts, int[] weights) {
+            this.keys = keys;
+            this.texts = texts;
+            this.weights = weights;
+
+            int size = keys.length;
+            this.tree = new int[2 * size];
+            for (int i = 0; i < size; i++) {
+                tree[size + i] = i;
+            }
+            for (int node = size - 1; node > 0; node--) {
+                tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        static Snapshot of(List<Suggestion> suggestions) {
+            suggestions.sort(Comparator.comparing(s -> s.key));
+            return build(suggestions);
+        }
+
+        private static Snapshot build(List<Suggestion> sorted) {
+            int size = sorted.size();
+            String[] keys = new String[size];
+            String[] texts = new String[size];
+            int[] weights = new int[size];
+            for (int i = 0; i < size; i++) {
+                Suggestion suggestion = sorted.get(i);
+                keys[i] = suggestion.key;
+                texts[i] = suggestion.text.equals(suggestion.key) ? suggestion.key : suggestion.text;
+                weights[i] = suggestion.weight;
+            }
+            return new Snapshot(keys, texts, weights);
+        }
+
+        /**
+         * Merges overlay entries (sorted by key) into a new snapshot, dropping tombstones.
+         */
+        Snapshot merge(Collection<Suggestion> overlay) {
+            int capacity = keys.length + overlay.size();
+            String[] mergedKeys = new String[capacity];
+            String[] mergedTexts = new String[capacity];
+            int[] mergedWeights = new int[capacity];
+
+            int i = 0;
+            int size = 0;
+            for (Suggestion change : overlay) {
+                int end = lowerBound(change.key);
+                int copied = end - i;
+                System.arraycopy(keys, i, mergedKeys, size, copied);
+                System.arraycopy(texts, i, mergedTexts, size, copied);
+                System.arraycopy(weights, i, mergedWeights, size, copied);
+                size += copied;
+                i = end < keys.length && keys[end].equals(change.key) ? end + 1 : end;
+
+                if (change.weight > 0) {
+                    mergedKeys[size] = change.key;
+                    mergedTexts[size] = change.text.equals(change.key) ? change.key : change.text;
+                    mergedWeights[size] = change.weight;
+                    size++;
+                }
+            }
+            int remaining = keys.length - i;
+            System.arraycopy(keys, i, mergedKeys, size, remaining);
+            System.arraycopy(texts, i, mergedTexts, size, remaining);
+            System.arraycopy(weights, i, mergedWeights, size, remaining);
+            size += remaining;
+
+            return new Snapshot(Arrays.copyOf(mergedKeys, size), Arrays.copyOf(mergedTexts, size),
+                    Arrays.copyOf(mergedWeights, size));
+        }
+
+        int size() {
+            return keys.length;
+        }
+
+        int indexOf(String key) {
+            return Arrays.binarySearch(keys, key);
+        }
+
+        int lowerBound(String key) {
+            int position = indexOf(key);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        Suggestion suggestionAt(int position) {
+            return new Suggestion(keys[position], texts[position], weights[position]);
+        }
+
+        /**
+         * Position of the best-ranked suggestion in [from, to)
+         */
+        int best(int from, int to) {
+            int size = keys.length;
+            int result = -1;
+            for (int left = from + size, right = to + size; left < right; left >>= 1, right >>= 1) {
+                if ((left & 1) == 1) {
+                    result = better(result, tree[left++]);
+                }
+                if ((right & 1) == 1) {
+                    result = better(result, tree[--right]);
+                }
+            }
+            return result;
+        }
+
+        int compare(int a, int b) {
+            if (weights[a] != weights[b]) {
+                return Integer.compare(weights[b], weights[a]);
+            }
+            if (texts[a].length() != texts[b].length()) {
+                return Integer.compare(texts[a].length(), texts[b].length());
+            }
+            return Integer.compare(a, b); // keys are sorted, so position order is key order
+        }
+
+        private int better(int a, int b) {
+            if (a < 0) {
+                return b;
+            }
+            if (b < 0) {
+                return a;
+            }
+            return compare(a, b) <= 0 ? a : b;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.library.service.impl;
+
+import com.library.entity.JobLease;
+import com.library.entity.JobRun;
+import com.library.repository.JobLeaseRepository;
+import com.library.repository.JobRunRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs scheduled jobs once per cluster. Every node fires the same schedules; the node that takes
+ * the job's lease in job_leases runs it, and the others skip it. A lease taken within the minimum
+ * gap means the job already ran for this firing, so nodes whose clocks fire a little later skip it
+ * too. Lease times come from the database clock. Leases are renewed while the job runs and released
+ * when it ends. A node that dies leaves a lease that lapses after the lease time. A job whose lease
+ * was taken over or not renewed in time is stopped at its next transaction by {@link JobLeaseGuard},
+ * so two nodes do not keep running it side by side. Each run is kept in job_runs and timed in
+ * Micrometer.
+ */
+@Component
+@Slf4j
+public class JobCoordinator {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final JobLeaseRepository leaseRepository;
+    private final JobRunRepository runRepository;
+    private final TaskScheduler taskScheduler;
+    private final MeterRegistry meterRegistry;
+    private final JobLeaseGuard leaseGuard;
+    private final TransactionTemplate transaction;
+    private final Duration leaseDuration;
+    private final Duration minGap;
+    private final String owner = UUID.randomUUID().toString();
+
+    public JobCoordinator(JobLeaseRepository leaseRepository,
+                          JobRunRepository runRepository,
+                          TaskScheduler taskScheduler,
+                          MeterRegistry meterRegistry,
+                          JobLeaseGuard leaseGuard,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${library.jobs.lease-seconds:300}") long leaseSeconds,
+                          @Value("${library.jobs.min-gap-seconds:300}") long minGapSeconds) {
+        this.leaseRepository = leaseRepository;
+        this.runRepository = runRepository;
+        this.taskScheduler = taskScheduler;
+        this.meterRegistry = meterRegistry;
+        this.leaseGuard = leaseGuard;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+        this.minGap = Duration.ofSeconds(minGapSeconds);
+    }
+
+    /**
+     * A job run under a lease; returns the rows it processed
+     */
+    @FunctionalInterface
+    public interface ClusterJob {
+        long run();
+    }
+
+    /**
+     * One hash partition of a job; returns the rows it processed
+     */
+    @FunctionalInterface
+    public interface PartitionJob {
+        long run(int partition, int partitions);
+    }
+
+    /**
+     * Runs the job here unless another node holds or recently took its lease
+     * @return Whether this node ran it; a failure of the job itself is rethrown
+     */
+    public boolean runExclusive(String job, ClusterJob task) {
+        return runLeased(job, job, null, task);
+    }
+
+    /**
+     * Runs each partition of the job that no other node holds or recently took, starting at a
+     * random partition so nodes firing together spread over the partitions
+     * @return Number of partitions this node ran
+     */
+    public int runPartitioned(String job, int partitions, PartitionJob task) {
+        int ran = 0;
+        int offset = ThreadLocalRandom.current().nextInt(partitions);
+        for (int i = 0; i < partitions; i++) {
+            int partition = (offset + i) % partitions;
+            try {
+                if (runLeased(job, job + "#" + partition + "/" + partitions, partition,
+                        () -> task.run(partition, partitions))) {
+                    ran++;
+                }
+            } catch (RuntimeException e) {
+                // Recorded as a failed run; the other partitions still go ahead
+                log.error("Partition {}/{} of job {} failed", partition, partitions, job, e);
+            }
+        }
+        return ran;
+    }
+
+    /**
+     * Deletes the run history of all jobs started before the cutoff
+     * @return Number of runs deleted
+     */
+    public int purgeRunsBefore(LocalDateTime cutoff) {
+        Integer purged = transaction.execute(status -> runRepository.deleteStartedBefore(cutoff));
+        return purged == null ? 0 : purged;
+    }
+
+    private boolean runLeased(String job, String leaseKey, Integer partition, ClusterJob task) {
+        long requestedAt = System.nanoTime();
+        Long fencingToken = acquire(leaseKey);
+        if (fencingToken == null) {
+            log.debug("Job lease {} is held or was taken recently; skipping", leaseKey);
+            return false;
+        }
+
+        JobLeaseGuard.HeldLease lease = leaseGuard.bind(leaseKey, fencingToken, requestedAt, leaseDuration);
+        Duration renewEvery = leaseDuration.dividedBy(3);
+        ScheduledFuture<?> heartbeat = taskScheduler.scheduleAtFixedRate(() -> renew(leaseKey, fencingToken, lease),
+                Instant.now().plus(renewEvery), renewEvery);
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        long rows = 0;
+        RuntimeException failure = null;
+        try {
+            rows = task.run();
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            heartbeat.cancel(false);
+            leaseGuard.unbind();
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        finish(job, leaseKey, partition, fencingToken, startedAt, elapsed, rows, failure);
+        if (failure != null) {
+            throw failure;
+        }
+        return true;
+    }
+
+    /**
+     * Takes the lease, creating it on first use
+     * @return The fencing token of the lease taken, or null if it was not available
+     */
+    private Long acquire(String leaseKey) {
+        try {
+            return transaction.execute(status -> {
+                LocalDateTime now = leaseRepository.currentTime();
+                LocalDateTime leaseUntil = now.plus(leaseDuration);
+                if (leaseRepository.acquire(leaseKey, owner, now, now.minus(minGap), leaseUntil) > 0) {
+                    return leaseRepository.findById(leaseKey).map(JobLease::getFencingToken).orElse(null);
+                }
+                if (leaseRepository.existsById(leaseKey)) {
+                    return null;
+                }
+                leaseRepository.insert(leaseKey, owner, now, leaseUntil);
+                return 1L;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lease first
+            return null;
+        }
+    }
+
+    private void renew(String leaseKey, Long fencingToken, JobLeaseGuard.HeldLease lease) {
+        long requestedAt = System.nanoTime();
+        try {
+            Integer renewed = transaction.execute(status -> leaseRepository.renew(leaseKey, owner, fencingToken,
+                    leaseRepository.currentTime().plus(leaseDuration)));
+            if (renewed == null || renewed == 0) {
+                lease.lose();
+                log.warn("Lost job lease {} (token {}) to another node; stopping the job", leaseKey, fencingToken);
+            } else {
+                lease.renewed(requestedAt);
+            }
+        } catch (Exception e) {
+            // The job keeps running until the lease time it last got runs out
+            log.warn("Could not renew job lease {}: {}", leaseKey, e.getMessage());
+        }
+    }
+
+    private void finish(String job, String leaseKey, Integer partition, Long fencingToken, LocalDateTime startedAt,
+                        Duration elapsed, long rows, RuntimeException failure) {
+        JobRun.Outcome outcome = failure == null ? JobRun.Outcome.SUCCEEDED : JobRun.Outcome.FAILED;
+        meterRegistry.timer("library.jobs.duration", "job", job, "outcome", outcome.name()).record(elapsed);
+        meterRegistry.counter("library.jobs.rows", "job", job).increment(rows);
+        log.info("Job {} {} in {} ms, {} rows", leaseKey, outcome, elapsed.toMillis(), rows);
+
+        try {
+            transaction.executeWithoutResult(status -> {
+                runRepository.save(JobRun.builder()
+                        .jobName(job)
+                        .partition(partition)
+                        .owner(owner)
+                        .fencingToken(fencingToken)
+                        .startedAt(startedAt)
+                        .finishedAt(LocalDateTime.now())
+                        .durationMs(elapsed.toMillis())
+                        .rowsProcessed(rows)
+                        .outcome(outcome)
+                        .errorMessage(failure == null ? null : truncate(String.valueOf(failure.getMessage())))
+                        .build());
+                // Frees the lease early; the minimum gap still keeps this firing from running twice
+                leaseRepository.release(leaseKey, owner, fencingToken);
+            });
+        } catch (Exception e) {
+            // The lease lapses by itself
+            log.warn("Could not record run of job {}: {}", leaseKey, e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,77 @@
+package com.library.service.impl;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+
+/**
+ * Stops a job that lost its lease at the next transaction it begins. JobCoordinator binds the lease
+ * to the thread running the job; a lease another node took, or one not renewed within the lease
+ * time, fails that transaction before it touches the database. Registered with the transaction
+ * manager as an execution listener.
+ */
+@Component
+public class JobLeaseGuard implements TransactionExecutionListener {
+
+    private final ThreadLocal<HeldLease> heldLease = new ThreadLocal<>();
+
+    @Override
+    public void beforeBegin(TransactionExecution transaction) {
+        checkLeaseHeld();
+    }
+
+    /**
+     * Throws if the calling thread runs a job whose lease is no longer held; a no-op on other threads
+     */
+    public void checkLeaseHeld() {
+        HeldLease lease = heldLease.get();
+        if (lease != null && !lease.isHeld()) {
+            throw new IllegalStateException("Lost job lease " + lease.leaseKey
+                    + " (token " + lease.fencingToken + "); stopping the job");
+        }
+    }
+
+    HeldLease bind(String leaseKey, Long fencingToken, long requestedAtNanos, Duration leaseDuration) {
+        HeldLease lease = new HeldLease(leaseKey, fencingToken, leaseDuration);
+        lease.renewed(requestedAtNanos);
+        heldLease.set(lease);
+        return lease;
+    }
+
+    void unbind() {
+        heldLease.remove();
+    }
+
+    /**
+     * A lease as this node knows it. Its local deadline counts from when the taking or renewing query
+     * was sent, so it never runs past the lease_until the database set.
+     */
+    static final class HeldLease {
+
+        private final String leaseKey;
+        private final Long fencingToken;
+        private final long leaseNanos;
+        private volatile long validUntilNanos;
+        private volatile boolean lost;
+
+        private HeldLease(String leaseKey, Long fencingToken, Duration leaseDuration) {
+            this.leaseKey = leaseKey;
+            this.fencingToken = fencingToken;
+            this.leaseNanos = leaseDuration.toNanos();
+        }
+
+        void renewed(long requestedAtNanos) {
+            validUntilNanos = requestedAtNanos + leaseNanos;
+        }
+
+        void lose() {
+            lost = true;
+        }
+
+        boolean isHeld() {
+            return !lost && System.nanoTime() - validUntilNanos < 0;
+        }
+    }
+}
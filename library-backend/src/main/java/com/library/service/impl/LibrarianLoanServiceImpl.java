@@ -2,18 +2,26 @@ package com.library.service.impl;
 
 import com.library.dto.AdminLoanDTO;
 import com.library.dto.ApproveLoanRequestDTO;
+import com.library.dto.FineReportDTO;
 import com.library.dto.LoanDTO;
+import com.library.dto.LoanSweepResultDTO;
 import com.library.dto.ProcessReturnRequestDTO;
 import com.library.dto.RejectLoanRequestDTO;
 import com.library.entity.Book;
 import com.library.entity.Loan;
+import com.library.entity.LoanFine;
 import com.library.entity.LoanStatus;
 import com.library.exception.BookNotAvailableException;
 import com.library.mapper.BookMapper;
 import com.library.repository.BookRepository;
+import com.library.repository.LoanFineRepository;
 import com.library.repository.LoanRepository;
+import com.library.service.BookHoldService;
 import com.library.service.FineCalculationService;
 import com.library.service.LibrarianLoanService;
+import com.library.service.LoanDueScheduleService;
+import com.library.service.LoanSweepService;
+import com.library.service.UserLoanSummaryService;
 import com.library.util.LoanStatusMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +29,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -38,6 +47,12 @@ public class LibrarianLoanServiceImpl implements LibrarianLoanService {
     private final BookRepository bookRepository;
     private final FineCalculationService fineCalculationService;
     private final BookMapper bookMapper;
+    private final LoanSweepService loanSweepService;
+    private final LoanFineRepository loanFineRepository;
+    private final LoanDueScheduleService loanDueScheduleService;
+    private final CatalogCacheEvictor catalogCacheEvictor;
+    private final UserLoanSummaryService userLoanSummaryService;
+    private final BookHoldService bookHoldService;
     
     @Value("${library.loan.default-loan-period-days:14}")
     private int defaultLoanPeriodDays;
@@ -53,10 +68,14 @@ public class LibrarianLoanServiceImpl implements LibrarianLoanService {
             throw new IllegalStateException("Only requested loans can be approved");
         }
         
-        // Check book availability
+        // Take a copy off the shelf unless one was already set aside for the borrower's hold;
+        // the check and the decrement are one conditional update
         Book book = loan.getBook();
-        if (!book.getIsLendable() || book.getAvailableCopiesForLoan() <= 0) {
-            throw new BookNotAvailableException("Book is no longer available for loan");
+        if (!bookHoldService.isHeldCopy(loanId)) {
+            if (bookRepository.decrementAvailableCopiesForLoan(book.getId()) == 0) {
+                throw new BookNotAvailableException("Book is no longer available for loan");
+            }
+            catalogCacheEvictor.evictBook(book);
         }
         
         // Update loan
@@ -72,11 +91,9 @@ public class LibrarianLoanServiceImpl implements LibrarianLoanService {
             loan.setDueDate(LocalDateTime.now().plusDays(defaultLoanPeriodDays));
         }
         
-        // Update book inventory
-        book.setAvailableCopiesForLoan(book.getAvailableCopiesForLoan() - 1);
-        bookRepository.save(book);
-        
         Loan savedLoan = loanRepository.save(loan);
+        userLoanSummaryService.recordLoanChange(savedLoan, LoanStatus.REQUESTED);
+        loanDueScheduleService.scheduleLoan(savedLoan);
         log.info("Loan {} approved successfully by librarian {}", loanId, librarianId);
         
         return mapToLoanDTO(savedLoan);
@@ -100,6 +117,11 @@ public class LibrarianLoanServiceImpl implements LibrarianLoanService {
         loan.setNotesByLibrarian(request.getRejectionReason());
         
         Loan savedLoan = loanRepository.save(loan);
+        userLoanSummaryService.recordLoanChange(savedLoan, LoanStatus.REQUESTED);
+        // A copy set aside for the borrower's hold passes on to the next holder
+        if (bookHoldService.isHeldCopy(loanId)) {
+            bookHoldService.releaseCopy(loan.getBook());
+        }
         log.info("Loan {} rejected by librarian {}", loanId, librarianId);
         
         return mapToLoanDTO(savedLoan);
@@ -117,6 +139,7 @@ public class LibrarianLoanServiceImpl implements LibrarianLoanService {
         }
         
         LocalDateTime returnDate = LocalDateTime.now();
+        LoanStatus previousStatus = loan.getStatus();
         
         // Update loan
         loan.setStatus(LoanStatus.RETURNED);
@@ -142,15 +165,16 @@ public class LibrarianLoanServiceImpl implements LibrarianLoanService {
         BigDecimal finalFine = request.getCustomFineAmount() != null ? 
             request.getCustomFineAmount() : calculatedFine;
         
+        recordFine(loan, finalFine, LoanFine.EntryType.RETURN);
         loan.setFineAmount(finalFine);
         loan.setFinePaid(false);
         
-        // Update book inventory
-        Book book = loan.getBook();
-        book.setAvailableCopiesForLoan(book.getAvailableCopiesForLoan() + 1);
-        bookRepository.save(book);
+        // Update book inventory: the copy goes to the next holder in the queue, or back on the shelf
+        bookHoldService.releaseCopy(loan.getBook());
         
         Loan savedLoan = loanRepository.save(loan);
+        userLoanSummaryService.recordLoanChange(savedLoan, previousStatus);
+        loanDueScheduleService.cancelLoan(loanId);
         log.info("Book return processed for loan {}. Fine: {} VND", loanId, finalFine);
         
         return mapToLoanDTO(savedLoan);
@@ -186,20 +210,12 @@ public class LibrarianLoanServiceImpl implements LibrarianLoanService {
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void updateOverdueLoans() {
         log.info("Updating overdue loan statuses");
         
-        List<Loan> overdueLoans = loanRepository.findOverdueLoans(
-            LoanStatus.BORROWED, LocalDateTime.now());
-        
-        for (Loan loan : overdueLoans) {
-            loan.setStatus(LoanStatus.OVERDUE);
-            BigDecimal fine = fineCalculationService.calculateFine(loan);
-            loan.setFineAmount(fine);
-        }
-        
-        loanRepository.saveAll(overdueLoans);
-        log.info("Updated {} loans to overdue status", overdueLoans.size());
+        LoanSweepResultDTO result = loanSweepService.markOverdueLoans();
+        log.info("Updated {} loans to overdue status", result.getUpdatedLoans());
     }
     
     @Override
@@ -208,6 +224,7 @@ public class LibrarianLoanServiceImpl implements LibrarianLoanService {
             .orElseThrow(() -> new RuntimeException("Loan not found with id: " + loanId));
         
         BigDecimal fine = fineCalculationService.calculateFine(loan);
+        recordFine(loan, fine, LoanFine.EntryType.RECALCULATION);
         loan.setFineAmount(fine);
         
         Loan savedLoan = loanRepository.save(loan);
@@ -217,18 +234,46 @@ public class LibrarianLoanServiceImpl implements LibrarianLoanService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<AdminLoanDTO> getLoansWithUnpaidFines() {
-        // This would need a custom query in the repository
-        // For now, we'll get all loans and filter
-        List<Loan> allLoans = loanRepository.findAll();
-        return allLoans.stream()
-            .filter(loan -> loan.getFineAmount() != null && 
-                          loan.getFineAmount().compareTo(BigDecimal.ZERO) > 0 &&
-                          !loan.getFinePaid())
+        return loanRepository.findWithUnpaidFines().stream()
             .map(this::mapToAdminLoanDTO)
             .collect(Collectors.toList());
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public FineReportDTO getFineReport(LocalDateTime from, LocalDateTime to) {
+        LoanRepository.UnpaidFineTotals unpaid = loanRepository.summarizeUnpaidFines();
+        return FineReportDTO.builder()
+            .loansWithUnpaidFines(unpaid.getLoans())
+            .usersWithUnpaidFines(unpaid.getUsers())
+            .unpaidFineAmount(unpaid.getAmount())
+            .from(from)
+            .to(to)
+            .loansFined(loanFineRepository.countLoansBetween(from, to))
+            .finedAmount(loanFineRepository.sumAmountBetween(from, to))
+            .build();
+    }
+    
+    // Ledger entry for a fine set outside the accrual sweep; unchanged fines leave no entry
+    private void recordFine(Loan loan, BigDecimal fine, LoanFine.EntryType entryType) {
+        BigDecimal previous = loan.getFineAmount() != null ? loan.getFineAmount() : BigDecimal.ZERO;
+        if (previous.compareTo(fine) == 0) {
+            return;
+        }
+        
+        LoanFine entry = LoanFine.builder()
+            .loanId(loan.getId())
+            .userId(loan.getUserId())
+            .entryType(entryType)
+            .amount(fine.subtract(previous))
+            .balance(fine)
+            .accruedAt(LocalDateTime.now())
+            .build();
+        loanFineRepository.save(entry);
+    }
+    
     private LoanDTO mapToLoanDTO(Loan loan) {
         LoanDTO dto = LoanDTO.builder()
             .id(loan.getId())
@@ -0,0 +1,201 @@
+package com.library.service.impl;
+
+import com.library.entity.Loan;
+import com.library.entity.LoanDueTrigger;
+import com.library.entity.LoanStatus;
+import com.library.event.LoanEvent;
+import com.library.repository.LoanDueTriggerRepository;
+import com.library.service.LoanDueScheduleService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loan reminders as triggers in a table indexed by fire time. Polling reads only the head of the
+ * pending queue, so its cost follows the reminders due rather than the loans out. Overdue reminders
+ * go daily for the first week and weekly after that; each one fired registers the next, and the
+ * book coming back cancels whatever is pending. A trigger that fails to fire is retried later with
+ * a growing delay, so it never holds up the ones behind it.
+ */
+@Service
+@Slf4j
+public class LoanDueScheduleServiceImpl implements LoanDueScheduleService {
+
+    // Loans whose copy is off the shelf
+    static final List<LoanStatus> OUT_STATUSES = List.of(LoanStatus.APPROVED, LoanStatus.BORROWED, LoanStatus.OVERDUE);
+
+    // Retry delay after the first failure, doubling with each one up to the cap
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofHours(6);
+
+    private final LoanDueTriggerRepository triggerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final long dueSoonHours;
+    private final int batchSize;
+
+    public LoanDueScheduleServiceImpl(LoanDueTriggerRepository triggerRepository,
+                                      ApplicationEventPublisher eventPublisher,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${library.loan.due-triggers.due-soon-hours:24}") long dueSoonHours,
+                                      @Value("${library.loan.due-triggers.batch-size:200}") int batchSize) {
+        this.triggerRepository = triggerRepository;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.dueSoonHours = dueSoonHours;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional
+    public void scheduleLoan(Loan loan) {
+        triggerRepository.saveAll(triggersFor(loan.getId(), loan.getDueDate(), LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional
+    public void cancelLoan(Long loanId) {
+        int cancelled = triggerRepository.cancelPendingForLoan(loanId);
+        log.debug("Cancelled {} pending reminders of loan {}", cancelled, loanId);
+    }
+
+    @Override
+    public int fireDueTriggers(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<LoanDueTriggerRepository.DueTrigger> due = triggerRepository.findDue(now, PageRequest.ofSize(limit));
+
+        int taken = 0;
+        for (LoanDueTriggerRepository.DueTrigger trigger : due) {
+            try {
+                transaction.executeWithoutResult(status -> fire(trigger, now));
+                taken++;
+            } catch (Exception e) {
+                // Rolled back to PENDING; retried once its delay has passed
+                log.error("Failed to fire {} reminder {} of loan {} (attempt {})", trigger.getTriggerType(),
+                        trigger.getId(), trigger.getLoanId(), trigger.getAttempts() + 1, e);
+                if (deferFailed(trigger, now)) {
+                    taken++;
+                }
+            }
+        }
+        return taken;
+    }
+
+    @Override
+    public int scheduleUnscheduledLoans() {
+        int scheduled = 0;
+        long afterId = 0;
+        List<LoanDueTriggerRepository.UnscheduledLoan> loans;
+        do {
+            loans = triggerRepository.findUnscheduledLoans(OUT_STATUSES, afterId, PageRequest.ofSize(batchSize));
+            if (loans.isEmpty()) {
+                break;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            List<LoanDueTrigger> triggers = new ArrayList<>();
+            for (LoanDueTriggerRepository.UnscheduledLoan loan : loans) {
+                triggers.addAll(triggersFor(loan.getId(), loan.getDueDate(), now));
+            }
+            transaction.executeWithoutResult(status -> triggerRepository.saveAll(triggers));
+            scheduled += loans.size();
+            afterId = loans.get(loans.size() - 1).getId();
+        } while (loans.size() == batchSize);
+
+        if (scheduled > 0) {
+            log.info("Registered reminders for {} loans that had none pending", scheduled);
+        }
+        return scheduled;
+    }
+
+    private void fire(LoanDueTriggerRepository.DueTrigger trigger, LocalDateTime now) {
+        if (!OUT_STATUSES.contains(trigger.getLoanStatus())) {
+            triggerRepository.cancel(trigger.getId());
+            return;
+        }
+        if (triggerRepository.markFired(trigger.getId(), now) == 0) {
+            // Another poller claimed it
+            return;
+        }
+
+        String userId = trigger.getUserId().toString();
+        if (trigger.getTriggerType() == LoanDueTrigger.TriggerType.DUE_SOON) {
+            publishAfterCommit(new LoanEvent(this, LoanEvent.LoanEventType.LOAN_DUE_SOON, userId,
+                    trigger.getLoanId(), trigger.getBookTitle(), trigger.getDueDate()));
+        } else {
+            int daysOverdue = (int) ChronoUnit.DAYS.between(trigger.getDueDate(), now);
+            publishAfterCommit(new LoanEvent(this, LoanEvent.LoanEventType.LOAN_OVERDUE, userId,
+                    trigger.getLoanId(), trigger.getBookTitle(), Integer.valueOf(daysOverdue)));
+            triggerRepository.save(overdueTrigger(trigger.getLoanId(), trigger.getDueDate(), now));
+        }
+        log.debug("Fired {} reminder of loan {}", trigger.getTriggerType(), trigger.getLoanId());
+    }
+
+    private boolean deferFailed(LoanDueTriggerRepository.DueTrigger trigger, LocalDateTime now) {
+        Duration delay = RETRY_DELAY.multipliedBy(1L << Math.min(trigger.getAttempts(), 10));
+        LocalDateTime retryAt = now.plus(delay.compareTo(MAX_RETRY_DELAY) < 0 ? delay : MAX_RETRY_DELAY);
+        try {
+            transaction.executeWithoutResult(status -> triggerRepository.deferFailed(trigger.getId(), retryAt));
+            return true;
+        } catch (Exception e) {
+            // Left at the head; the drain stops here and the next poll tries it again
+            log.error("Failed to defer reminder {} of loan {}", trigger.getId(), trigger.getLoanId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * The notification listener runs asynchronously, so a reminder published inside the transaction
+     * would go out even if marking the trigger fired rolled back and the next poll fired it again
+     */
+    private void publishAfterCommit(LoanEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishEvent(event);
+            }
+        });
+    }
+
+    private List<LoanDueTrigger> triggersFor(Long loanId, LocalDateTime dueDate, LocalDateTime now) {
+        List<LoanDueTrigger> triggers = new ArrayList<>();
+        if (now.isBefore(dueDate)) {
+            LocalDateTime dueSoonAt = dueDate.minusHours(dueSoonHours);
+            triggers.add(LoanDueTrigger.builder()
+                    .loanId(loanId)
+                    .triggerType(LoanDueTrigger.TriggerType.DUE_SOON)
+                    .fireAt(dueSoonAt.isAfter(now) ? dueSoonAt : now)
+                    .build());
+        }
+        triggers.add(overdueTrigger(loanId, dueDate, now));
+        return triggers;
+    }
+
+    // The next overdue reminder after now: daily for the first 7 days, then on days 14, 21, 28...
+    private static LoanDueTrigger overdueTrigger(Long loanId, LocalDateTime dueDate, LocalDateTime now) {
+        long daysOverdue = Math.max(0, ChronoUnit.DAYS.between(dueDate, now));
+        long nextDay = daysOverdue < 7 ? daysOverdue + 1 : (daysOverdue / 7 + 1) * 7;
+        return LoanDueTrigger.builder()
+                .loanId(loanId)
+                .triggerType(LoanDueTrigger.TriggerType.OVERDUE)
+                .fireAt(dueDate.plusDays(nextDay))
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import com.library.dto.CreateLoanRequestDTO;
 import com.library.dto.LoanDTO;
 import com.library.dto.LoanHistoryDTO;
 import com.library.dto.CurrentLoanDTO;
+import com.library.dto.CursorPage;
 import com.library.entity.Book;
 import com.library.entity.Loan;
 import com.library.entity.LoanStatus;
@@ -14,16 +15,21 @@ import com.library.exception.MaxLoansExceededException;
 import com.library.mapper.BookMapper;
 import com.library.repository.BookRepository;
 import com.library.repository.LoanRepository;
+import com.library.service.BookHoldService;
 import com.library.service.LoanService;
+import com.library.service.UserLoanSummaryService;
 import com.library.util.LoanStatusMapper;
+import com.library.util.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
@@ -38,6 +44,8 @@ public class LoanServiceImpl implements LoanService {
     private final LoanRepository loanRepository;
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
+    private final UserLoanSummaryService userLoanSummaryService;
+    private final BookHoldService bookHoldService;
     
     @Value("${library.loan.max-books-per-user:5}")
     private int maxBooksPerUser;
@@ -75,17 +83,18 @@ public class LoanServiceImpl implements LoanService {
         Book book = bookRepository.findById(request.getBookId())
             .orElseThrow(() -> new BookNotFoundException("Book not found with id: " + request.getBookId()));
         
-        if (!book.getIsLendable() || book.getAvailableCopiesForLoan() <= 0) {
+        // A copy set aside for the user's hold counts as available even with the shelf empty
+        boolean holdReady = bookHoldService.hasReadyHold(userId, request.getBookId());
+        if (!book.getIsLendable() || (!holdReady && book.getAvailableCopiesForLoan() <= 0)) {
             throw new BookNotAvailableException("Book is not available for loan");
         }
         
         // Check for duplicate active loan request
-        loanRepository.findByUserIdAndBookIdAndStatusIn(userId, request.getBookId(), ACTIVE_LOAN_STATUSES)
-            .ifPresent(loan -> {
-                throw new DuplicateLoanRequestException(
-                    "User already has an active loan request for this book"
-                );
-            });
+        if (userLoanSummaryService.holdsBook(userId, request.getBookId(), ACTIVE_LOAN_STATUSES)) {
+            throw new DuplicateLoanRequestException(
+                "User already has an active loan request for this book"
+            );
+        }
         
         // Create loan entity
         Loan loan = Loan.builder()
@@ -96,6 +105,19 @@ public class LoanServiceImpl implements LoanService {
             .build();
         
         Loan savedLoan = loanRepository.save(loan);
+        
+        // Takes the slot atomically, so concurrent requests cannot overshoot the limit checked above
+        if (!userLoanSummaryService.recordLoanRequested(savedLoan, maxBooksPerUser)) {
+            throw new MaxLoansExceededException(
+                String.format("User has reached the maximum loan limit of %d books", maxBooksPerUser)
+            );
+        }
+        
+        // Hands the set-aside copy to this loan; if the hold lapsed meanwhile, only a shelf copy will do
+        if (holdReady && !bookHoldService.fulfillHold(userId, book.getId(), savedLoan.getId())
+                && book.getAvailableCopiesForLoan() <= 0) {
+            throw new BookNotAvailableException("Reserved copy is no longer held for this user");
+        }
         log.info("Loan request created successfully with id: {}", savedLoan.getId());
         
         return mapToDTO(savedLoan);
@@ -107,6 +129,29 @@ public class LoanServiceImpl implements LoanService {
             .map(this::mapToDTO);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<LoanDTO> scrollUserLoans(Long userId, String cursor, int size, boolean includeTotal) {
+        int pageSize = PageCursor.pageSize(size);
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+        
+        List<Loan> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = loanRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, limit);
+        } else {
+            PageCursor position = PageCursor.decode(cursor, PageCursor.NEWEST_FIRST);
+            rows = loanRepository.findByUserIdBefore(userId, position.dateTimeValue(), position.getId(), limit);
+        }
+        
+        CursorPage<LoanDTO> loans = CursorPage.of(rows, pageSize,
+                loan -> PageCursor.encode(PageCursor.NEWEST_FIRST, loan.getCreatedAt(), loan.getId()))
+            .map(this::mapToDTO);
+        if (includeTotal) {
+            loans.setTotalElements(loanRepository.countByUserId(userId));
+        }
+        return loans;
+    }
+    
     @Override
     public Page<LoanDTO> getUserLoansByStatus(Long userId, String status, Pageable pageable) {
         LoanStatus loanStatus = LoanStatus.valueOf(status.toUpperCase());
@@ -123,7 +168,13 @@ public class LoanServiceImpl implements LoanService {
     
     @Override
     public long getUserActiveLoanCount(Long userId) {
-        return loanRepository.countByUserIdAndStatusIn(userId, ACTIVE_LOAN_STATUSES);
+        return userLoanSummaryService.getActiveLoanCount(userId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getUserUnpaidFineTotal(Long userId) {
+        return loanRepository.sumUnpaidFinesByUserId(userId);
     }
     
     @Override
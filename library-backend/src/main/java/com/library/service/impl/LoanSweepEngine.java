@@ -0,0 +1,182 @@
+package com.library.service.impl;
+
+import com.library.dto.LoanSweepResultDTO;
+import com.library.entity.LoanStatus;
+import com.library.entity.LoanSweepCheckpoint;
+import com.library.repository.LoanRepository;
+import com.library.repository.LoanSweepCheckpointRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a loan sweep over loans due before a cutoff without loading them all. Loan rows are read in
+ * keyset-ordered chunks, and a wave of up to {@code parallelism} chunks is processed at once on the
+ * sweep pool, each chunk in its own transaction. Once a whole wave has committed the checkpoint
+ * moves past it, so a run cut short resumes after the last complete wave, with the same cutoff.
+ * Chunk processors must therefore be safe to run again on a chunk that already committed.
+ */
+@Component
+@Slf4j
+public class LoanSweepEngine {
+
+    private final LoanRepository loanRepository;
+    private final LoanSweepCheckpointRepository checkpointRepository;
+    private final Executor executor;
+    private final TransactionTemplate transaction;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final int parallelism;
+
+    public LoanSweepEngine(LoanRepository loanRepository,
+                           LoanSweepCheckpointRepository checkpointRepository,
+                           @Qualifier("loanSweepExecutor") Executor executor,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${library.loan.sweep.chunk-size:1000}") int chunkSize,
+                           @Value("${library.loan.sweep.threads:4}") int parallelism) {
+        this.loanRepository = loanRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.executor = executor;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Processes one chunk inside its transaction and returns the number of loans it changed
+     */
+    @FunctionalInterface
+    public interface ChunkProcessor {
+        int process(List<LoanRepository.OverdueLoan> chunk, LocalDateTime asOf);
+    }
+
+    /**
+     * Sweeps loans with one of {@code statuses} due before the cutoff, resuming the sweep's last run
+     * if it was cut short
+     */
+    public LoanSweepResultDTO run(String sweep, Collection<LoanStatus> statuses, ChunkProcessor processor) {
+        return run(sweep, statuses, 0, 1, processor);
+    }
+
+    /**
+     * Sweeps the loans of one id-hash partition, with its own checkpoint, so nodes can sweep the
+     * partitions of one sweep side by side
+     */
+    public LoanSweepResultDTO run(String sweep, Collection<LoanStatus> statuses, int partition, int partitions,
+                                  ChunkProcessor processor) {
+        String name = partitions == 1 ? sweep : sweep + "#" + partition + "/" + partitions;
+        LoanSweepCheckpoint checkpoint = start(name);
+        boolean resumed = checkpoint.getLastLoanId() > 0;
+        LocalDateTime asOf = checkpoint.getAsOf();
+        long afterId = checkpoint.getLastLoanId();
+        if (resumed) {
+            log.info("Resuming loan sweep {} as of {} after loan {}", name, asOf, afterId);
+        }
+
+        long started = System.nanoTime();
+        long processed = 0;
+        long updated = 0;
+        int chunks = 0;
+        boolean exhausted = false;
+        while (!exhausted) {
+            List<List<LoanRepository.OverdueLoan>> wave = new ArrayList<>();
+            while (wave.size() < parallelism && !exhausted) {
+                List<LoanRepository.OverdueLoan> chunk = loanRepository.findOverdueAfter(statuses, asOf, afterId,
+                        partition, partitions, PageRequest.ofSize(chunkSize));
+                if (!chunk.isEmpty()) {
+                    wave.add(chunk);
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+                exhausted = chunk.size() < chunkSize;
+            }
+            if (wave.isEmpty()) {
+                break;
+            }
+
+            List<CompletableFuture<Integer>> results = wave.stream()
+                    .map(chunk -> CompletableFuture.supplyAsync(
+                            () -> transaction.execute(status -> processor.process(chunk, asOf)), executor))
+                    .collect(Collectors.toList());
+            int waveRows = wave.stream().mapToInt(List::size).sum();
+            int waveUpdated;
+            try {
+                CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+                waveUpdated = results.stream().mapToInt(CompletableFuture::join).sum();
+            } catch (CompletionException e) {
+                // The checkpoint still points before this wave, so the next run repeats it
+                log.error("Loan sweep {} stopped after loan {}; it resumes there", name, checkpoint.getLastLoanId());
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+
+            long lastLoanId = afterId;
+            transaction.executeWithoutResult(status ->
+                    checkpointRepository.advance(name, lastLoanId, waveRows, waveUpdated));
+            checkpoint.setLastLoanId(lastLoanId);
+            meterRegistry.counter("library.loan.sweep.rows", "sweep", sweep).increment(waveRows);
+            processed += waveRows;
+            updated += waveUpdated;
+            chunks += wave.size();
+        }
+
+        transaction.executeWithoutResult(status -> checkpointRepository.complete(name, LocalDateTime.now()));
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        meterRegistry.timer("library.loan.sweep.duration", "sweep", sweep).record(elapsed);
+        double perSecond = elapsed.toMillis() > 0 ? processed * 1000.0 / elapsed.toMillis() : processed;
+        log.info("Loan sweep {} as of {}: {} loans in {} chunks, {} updated, {} ms ({} loans/s)",
+                name, asOf, processed, chunks, updated, elapsed.toMillis(), Math.round(perSecond));
+
+        return LoanSweepResultDTO.builder()
+                .sweep(name)
+                .asOf(asOf)
+                .resumed(resumed)
+                .processedLoans(processed)
+                .updatedLoans(updated)
+                .chunks(chunks)
+                .elapsedMillis(elapsed.toMillis())
+                .loansPerSecond(perSecond)
+                .build();
+    }
+
+    /**
+     * The sweep's running checkpoint, or a new run as of now
+     */
+    private LoanSweepCheckpoint start(String sweep) {
+        return transaction.execute(status -> {
+            LoanSweepCheckpoint checkpoint = checkpointRepository.findById(sweep).orElse(null);
+            if (checkpoint != null && checkpoint.getState() == LoanSweepCheckpoint.State.RUNNING) {
+                return checkpoint;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            if (checkpoint == null) {
+                checkpoint = LoanSweepCheckpoint.builder().sweep(sweep).build();
+            }
+            checkpoint.setState(LoanSweepCheckpoint.State.RUNNING);
+            checkpoint.setAsOf(now);
+            checkpoint.setLastLoanId(0L);
+            checkpoint.setProcessedCount(0L);
+            checkpoint.setUpdatedCount(0L);
+            checkpoint.setStartedAt(now);
+            checkpoint.setCompletedAt(null);
+            return checkpointRepository.save(checkpoint);
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package com.library.service.impl;
+
+import com.library.dto.LoanSweepResultDTO;
+import com.library.entity.LoanStatus;
+import com.library.repository.LoanFineRepository;
+import com.library.repository.LoanRepository;
+import com.library.service.FineCalculationService;
+import com.library.service.LoanSweepService;
+import com.library.service.UserLoanSummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoanSweepServiceImpl implements LoanSweepService {
+
+    static final String OVERDUE_STATUS_SWEEP = "overdue-status";
+    static final String FINE_ACCRUAL_SWEEP = "fine-accrual";
+
+    private final LoanSweepEngine sweepEngine;
+    private final LoanRepository loanRepository;
+    private final LoanFineRepository loanFineRepository;
+    private final FineCalculationService fineCalculationService;
+    private final UserLoanSummaryService userLoanSummaryService;
+
+    @Override
+    public LoanSweepResultDTO markOverdueLoans() {
+        return markOverdueLoans(0, 1);
+    }
+
+    @Override
+    public LoanSweepResultDTO markOverdueLoans(int partition, int partitions) {
+        return sweepEngine.run(OVERDUE_STATUS_SWEEP, List.of(LoanStatus.BORROWED), partition, partitions,
+                this::markOverdue);
+    }
+
+    @Override
+    public LoanSweepResultDTO accrueFines() {
+        return accrueFines(0, 1);
+    }
+
+    @Override
+    public LoanSweepResultDTO accrueFines(int partition, int partitions) {
+        return sweepEngine.run(FINE_ACCRUAL_SWEEP, List.of(LoanStatus.BORROWED, LoanStatus.OVERDUE), partition,
+                partitions, this::accrue);
+    }
+
+    private int markOverdue(List<LoanRepository.OverdueLoan> chunk, LocalDateTime asOf) {
+        accrue(chunk, asOf);
+        List<Long> ids = chunk.stream().map(LoanRepository.OverdueLoan::getId).toList();
+        userLoanSummaryService.recordLoansOverdue(ids);
+        return loanRepository.markOverdue(ids);
+    }
+
+    /**
+     * Fines only depend on days overdue, so they are worked out once per distinct day count and
+     * written with one ledger insert and one update per day count. Loans already at their fine are
+     * skipped by both, which makes a repeated chunk a no-op.
+     */
+    private int accrue(List<LoanRepository.OverdueLoan> chunk, LocalDateTime asOf) {
+        Map<Long, List<LoanRepository.OverdueLoan>> loansByDays = chunk.stream()
+                .collect(Collectors.groupingBy(loan -> ChronoUnit.DAYS.between(loan.getDueDate(), asOf)));
+
+        int accrued = 0;
+        for (Map.Entry<Long, List<LoanRepository.OverdueLoan>> entry : loansByDays.entrySet()) {
+            List<LoanRepository.OverdueLoan> loans = entry.getValue();
+            BigDecimal fine = fineCalculationService.calculateFine(loans.get(0).getDueDate(), asOf);
+            List<Long> ids = loans.stream().map(LoanRepository.OverdueLoan::getId).toList();
+            loanFineRepository.recordAccruals(ids, entry.getKey().intValue(), fine, asOf);
+            accrued += loanRepository.accrueFine(ids, fine);
+        }
+        return accrued;
+    }
+}
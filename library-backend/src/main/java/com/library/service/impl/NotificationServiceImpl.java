@@ -1,6 +1,7 @@
 package com.library.service.impl;
 
 import com.library.dto.CreateNotificationRequestDTO;
+import com.library.dto.CursorPage;
 import com.library.dto.NotificationDTO;
 import com.library.dto.NotificationSummaryDTO;
 import com.library.entity.Notification;
@@ -10,12 +11,14 @@ import com.library.exception.ResourceNotFoundException;
 import com.library.mapper.NotificationMapper;
 import com.library.repository.NotificationRepository;
 import com.library.service.NotificationService;
+import com.library.util.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -96,6 +99,32 @@ public class NotificationServiceImpl implements NotificationService {
         return notifications.map(notificationMapper::toDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationDTO> scrollUserNotifications(String userId, String cursor, int size,
+                                                               boolean includeTotal) {
+        log.debug("Scrolling notifications for user: {}", userId);
+        int pageSize = PageCursor.pageSize(size);
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+
+        List<Notification> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = notificationRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, limit);
+        } else {
+            PageCursor position = PageCursor.decode(cursor, PageCursor.NEWEST_FIRST);
+            rows = notificationRepository.findByUserIdBefore(userId, position.dateTimeValue(), position.getId(), limit);
+        }
+
+        CursorPage<NotificationDTO> notifications = CursorPage.of(rows, pageSize,
+                        notification -> PageCursor.encode(PageCursor.NEWEST_FIRST, notification.getCreatedAt(),
+                                notification.getId()))
+                .map(notificationMapper::toDTO);
+        if (includeTotal) {
+            notifications.setTotalElements(notificationRepository.countTotalNotifications(userId));
+        }
+        return notifications;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<NotificationDTO> getUserNotificationsByStatus(String userId, NotificationStatus status, Pageable pageable) {
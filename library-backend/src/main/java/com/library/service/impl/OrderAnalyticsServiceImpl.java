@@ -0,0 +1,183 @@
+package com.library.service.impl;
+
+import com.library.dto.AdminOrderStatsDTO;
+import com.library.entity.BookSalesBucket;
+import com.library.entity.Order;
+import com.library.entity.OrderItem;
+import com.library.entity.OrderStatsBucket;
+import com.library.entity.OrderStatus;
+import com.library.entity.PaymentStatus;
+import com.library.entity.StatsGranularity;
+import com.library.repository.BookSalesBucketRepository;
+import com.library.repository.OrderStatsBucketRepository;
+import com.library.service.OrderAnalyticsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+public class OrderAnalyticsServiceImpl implements OrderAnalyticsService {
+
+    private final OrderStatsBucketRepository orderStatsBucketRepository;
+    private final BookSalesBucketRepository bookSalesBucketRepository;
+
+    @Value("${library.order.analytics.top-books:10}")
+    private int topBooks;
+
+    public OrderAnalyticsServiceImpl(OrderStatsBucketRepository orderStatsBucketRepository,
+                                     BookSalesBucketRepository bookSalesBucketRepository) {
+        this.orderStatsBucketRepository = orderStatsBucketRepository;
+        this.bookSalesBucketRepository = bookSalesBucketRepository;
+    }
+
+    @Override
+    @Transactional
+    public void recordOrderPlaced(Order order) {
+        recordOrderChange(order, null, null, null);
+    }
+
+    @Override
+    @Transactional
+    public void recordOrderChange(Order order, OrderStatus previousStatus, PaymentStatus previousPaymentStatus,
+                                  LocalDateTime previousShippingDate) {
+        PaymentStatus paymentStatus = paymentStatusOf(order.getPaymentStatus());
+        if (previousStatus != null) {
+            previousPaymentStatus = paymentStatusOf(previousPaymentStatus);
+        }
+        boolean statusChanged = order.getStatus() != previousStatus || paymentStatus != previousPaymentStatus;
+        boolean shippingChanged = !Objects.equals(order.getShippingDate(), previousShippingDate);
+        if (!statusChanged && !shippingChanged) {
+            return;
+        }
+
+        LocalDateTime orderDate = order.getOrderDate() != null ? order.getOrderDate() : LocalDateTime.now();
+        long items = statusChanged ? order.getOrderItems().stream().mapToInt(OrderItem::getQuantity).sum() : 0;
+        long orders = statusChanged ? 1 : 0;
+        BigDecimal amount = statusChanged ? order.getTotalAmount() : BigDecimal.ZERO;
+        long shipped = (order.getShippingDate() != null ? 1 : 0) - (previousShippingDate != null ? 1 : 0);
+        long hours = processingHours(orderDate, order.getShippingDate()) - processingHours(orderDate, previousShippingDate);
+        long paid = (paymentStatus == PaymentStatus.PAID ? 1 : 0)
+                - (previousPaymentStatus == PaymentStatus.PAID ? 1 : 0);
+
+        for (StatsGranularity granularity : StatsGranularity.values()) {
+            LocalDateTime bucketStart = granularity.bucketStart(orderDate);
+            if (statusChanged && previousStatus != null) {
+                applyOrderDelta(new OrderStatsBucket.Key(granularity, bucketStart, previousStatus, previousPaymentStatus),
+                        -orders, -items, amount.negate(), 0, 0);
+            }
+            // Shipping counts wherever the order is now: ranges sum over every cell anyway
+            applyOrderDelta(new OrderStatsBucket.Key(granularity, bucketStart, order.getStatus(), paymentStatus),
+                    orders, items, amount, shipped, hours);
+
+            if (paid != 0) {
+                for (OrderItem item : order.getOrderItems()) {
+                    applyBookDelta(new BookSalesBucket.Key(granularity, bucketStart, item.getBook().getId()),
+                            item.getBookTitle(), paid * item.getQuantity());
+                }
+            }
+        }
+    }
+
+    @Override
+    @Cacheable(value = "order-stats", key = "#fromHour.toString() + '~' + #toHour.toString()")
+    @Transactional(readOnly = true)
+    public AdminOrderStatsDTO getOrderStatistics(LocalDateTime fromHour, LocalDateTime toHour) {
+        // Whole days come from the daily buckets, the partial days at either end from the hourly ones
+        LocalDateTime dayFrom = StatsGranularity.DAY.bucketStart(fromHour);
+        if (dayFrom.isBefore(fromHour)) {
+            dayFrom = dayFrom.plusDays(1);
+        }
+        LocalDateTime dayTo = StatsGranularity.DAY.bucketStart(toHour);
+        if (!dayFrom.isBefore(dayTo)) {
+            dayFrom = fromHour;
+            dayTo = fromHour;
+        }
+
+        Map<OrderStatus, Long> statusCounts = new EnumMap<>(OrderStatus.class);
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        BigDecimal totalRefunds = BigDecimal.ZERO;
+        long shippedCount = 0;
+        long processingHours = 0;
+        for (OrderStatsBucketRepository.StatusTotals totals
+                : orderStatsBucketRepository.sumByStatus(fromHour, dayFrom, dayTo, toHour)) {
+            statusCounts.merge(totals.getStatus(), totals.getOrderCount(), Long::sum);
+            if (totals.getPaymentStatus() == PaymentStatus.PAID) {
+                totalRevenue = totalRevenue.add(totals.getTotalAmount());
+            } else if (totals.getPaymentStatus() == PaymentStatus.REFUNDED
+                    || totals.getPaymentStatus() == PaymentStatus.PARTIALLY_REFUNDED) {
+                totalRefunds = totalRefunds.add(totals.getTotalAmount());
+            }
+            shippedCount += totals.getShippedCount();
+            processingHours += totals.getProcessingHours();
+        }
+
+        long paidOrdersCount = statusCounts.getOrDefault(OrderStatus.DELIVERED, 0L) +
+                              statusCounts.getOrDefault(OrderStatus.SHIPPED, 0L) +
+                              statusCounts.getOrDefault(OrderStatus.PROCESSING, 0L);
+        BigDecimal avgOrderValue = paidOrdersCount > 0 ?
+                totalRevenue.divide(BigDecimal.valueOf(paidOrdersCount), 2, RoundingMode.HALF_UP) :
+                BigDecimal.ZERO;
+
+        Map<String, Integer> topSellingBooks = new LinkedHashMap<>();
+        bookSalesBucketRepository.findTopSelling(fromHour, dayFrom, dayTo, toHour, PageRequest.ofSize(topBooks))
+                .forEach(book -> topSellingBooks.merge(book.getBookTitle(), book.getQuantity().intValue(), Integer::sum));
+
+        return AdminOrderStatsDTO.builder()
+                .totalOrders(statusCounts.values().stream().mapToLong(Long::longValue).sum())
+                .pendingPaymentOrders(statusCounts.getOrDefault(OrderStatus.PENDING_PAYMENT, 0L))
+                .paidOrders(statusCounts.getOrDefault(OrderStatus.PAID, 0L))
+                .processingOrders(statusCounts.getOrDefault(OrderStatus.PROCESSING, 0L))
+                .shippedOrders(statusCounts.getOrDefault(OrderStatus.SHIPPED, 0L))
+                .deliveredOrders(statusCounts.getOrDefault(OrderStatus.DELIVERED, 0L))
+                .cancelledOrders(statusCounts.getOrDefault(OrderStatus.CANCELLED, 0L))
+                .refundedOrders(statusCounts.getOrDefault(OrderStatus.REFUNDED, 0L))
+                .totalRevenue(totalRevenue)
+                .totalRefunds(totalRefunds)
+                .netRevenue(totalRevenue.subtract(totalRefunds))
+                .averageOrderValue(avgOrderValue)
+                .averageProcessingTimeHours(shippedCount > 0 ? (double) processingHours / shippedCount : 0.0)
+                .topSellingBooks(topSellingBooks)
+                .build();
+    }
+
+    // Private helper methods
+
+    private void applyOrderDelta(OrderStatsBucket.Key key, long orders, long items, BigDecimal amount,
+                                 long shipped, long hours) {
+        if (orders == 0 && shipped == 0 && hours == 0) {
+            return;
+        }
+        // In the order's own transaction: the delta below locks the same row anyway
+        orderStatsBucketRepository.createIfAbsent(key.getGranularity().name(), key.getBucketStart(),
+                key.getStatus().name(), key.getPaymentStatus().name());
+        orderStatsBucketRepository.applyDelta(key.getGranularity(), key.getBucketStart(), key.getStatus(),
+                key.getPaymentStatus(), orders, items, amount, shipped, hours);
+    }
+
+    private void applyBookDelta(BookSalesBucket.Key key, String bookTitle, long quantity) {
+        bookSalesBucketRepository.createIfAbsent(key.getGranularity().name(), key.getBucketStart(),
+                key.getBookId(), bookTitle);
+        bookSalesBucketRepository.addQuantity(key.getGranularity(), key.getBucketStart(), key.getBookId(), quantity);
+    }
+
+    // Orders saved before payment status was set count as unpaid, as in the bucket backfill
+    private static PaymentStatus paymentStatusOf(PaymentStatus paymentStatus) {
+        return paymentStatus != null ? paymentStatus : PaymentStatus.UNPAID;
+    }
+
+    private static long processingHours(LocalDateTime orderDate, LocalDateTime shippingDate) {
+        return shippingDate != null ? ChronoUnit.HOURS.between(orderDate, shippingDate) : 0;
+    }
+}
@@ -0,0 +1,96 @@
+package com.library.service.impl;
+
+import com.library.repository.ArchivedOrderRepository;
+import com.library.repository.OrderViewRepository;
+import com.library.service.OrderArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Service
+@Slf4j
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    private final ArchivedOrderRepository archiveRepository;
+    private final OrderViewRepository viewRepository;
+    private final TransactionTemplate transaction;
+
+    @Value("${library.order.archive.after-days:180}")
+    private int afterDays;
+
+    @Value("${library.order.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${library.order.archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    public OrderArchiveServiceImpl(ArchivedOrderRepository archiveRepository,
+                                   OrderViewRepository viewRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.archiveRepository = archiveRepository;
+        this.viewRepository = viewRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public int archiveFinishedOrders() {
+        LocalDateTime cutoff = hotWindowStart();
+        int archived = 0;
+        Long afterOrderId = 0L;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Long from = afterOrderId;
+            List<Long> orderIds;
+            try {
+                orderIds = transaction.execute(status -> archiveBatch(from, cutoff));
+            } catch (DataAccessException e) {
+                // The batch rolled back whole; the next run starts over from the hot tables
+                log.error("Failed to archive orders after {}", from, e);
+                break;
+            }
+            if (orderIds == null || orderIds.isEmpty()) {
+                break;
+            }
+            archived += orderIds.size();
+            afterOrderId = orderIds.get(orderIds.size() - 1);
+            if (orderIds.size() < batchSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} orders last changed before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    @Override
+    public LocalDateTime hotWindowStart() {
+        return LocalDateTime.now().minusDays(afterDays).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private List<Long> archiveBatch(Long afterOrderId, LocalDateTime cutoff) {
+        List<Long> orderIds = archiveRepository.lockArchivableOrderIds(afterOrderId, cutoff, batchSize);
+        if (orderIds.isEmpty()) {
+            return orderIds;
+        }
+
+        LocalDateTime archivedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        archiveRepository.copyOrders(orderIds, archivedAt);
+        archiveRepository.copyOrderItems(orderIds);
+        archiveRepository.copyOrderViews(orderIds);
+
+        viewRepository.deleteByOrderIdIn(orderIds);
+        archiveRepository.deleteHotOrderItems(orderIds);
+        int deleted = archiveRepository.deleteHotOrders(orderIds);
+        if (deleted != orderIds.size()) {
+            throw new IllegalStateException("Archived " + orderIds.size() + " orders but deleted " + deleted);
+        }
+        return orderIds;
+    }
+}
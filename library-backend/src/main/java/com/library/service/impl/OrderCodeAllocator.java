@@ -0,0 +1,202 @@
+package com.library.service.impl;
+
+import com.library.repository.OrderCodeSequenceRepository;
+import com.library.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Allocates order codes of the form {@code ORD-yyyyMM-NNNNNN}, numbered from 1 each month.
+ * <p>
+ * Numbers are leased from the month's {@code order_code_sequences} row in blocks (hi/lo), so
+ * nodes never hand out the same number and only one code in {@code blockSize} touches the
+ * database. The rest of a block is lost when a node restarts: codes are unique, not gapless.
+ * <p>
+ * Callers take numbers from the current block with an atomic increment and never hold a lock.
+ * Leases run on a dedicated thread: halfway through a block it starts leasing the next one, so
+ * a checkout holding a pooled connection does not wait for a second connection unless half a
+ * block is used up within one lease round trip.
+ */
+@Component
+@Slf4j
+public class OrderCodeAllocator {
+
+    private static final String CODE_PREFIX = "ORD-";
+    private static final DateTimeFormatter PERIOD_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final OrderCodeSequenceRepository sequenceRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate leaseTransaction;
+    private final Executor leaseExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "OrderCodeLease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${library.order.code-block-size:50}")
+    private int blockSize;
+
+    private final AtomicReference<Block> currentBlock = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Block>> nextBlock = new AtomicReference<>();
+
+    public OrderCodeAllocator(OrderCodeSequenceRepository sequenceRepository,
+                              OrderRepository orderRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.sequenceRepository = sequenceRepository;
+        this.orderRepository = orderRepository;
+        // Leases commit on their own, so the row lock is never held for the length of a checkout
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Allocate the next order code of the current month
+     * @return Order code unique across all nodes
+     */
+    public String nextOrderCode() {
+        String period = YearMonth.now().format(PERIOD_FORMAT);
+        while (true) {
+            Block block = currentBlock.get();
+            if (block != null && block.period.equals(period)) {
+                long value = block.next.getAndIncrement();
+                if (value == block.prefetchAt) {
+                    leaseNextBlock(period);
+                }
+                if (value <= block.end) {
+                    return CODE_PREFIX + period + "-" + String.format("%06d", value);
+                }
+            }
+            if (block != currentBlock.get()) {
+                continue;
+            }
+            // Block used up or of last month: wait for the next one, then race to install it
+            CompletableFuture<Block> lease = leaseNextBlock(period);
+            Block leased = await(lease);
+            if (currentBlock.compareAndSet(block, leased)) {
+                nextBlock.compareAndSet(lease, null);
+            }
+        }
+    }
+
+    // Private helper methods
+
+    // The lease of the next block, started on the lease thread unless one is already usable
+    private CompletableFuture<Block> leaseNextBlock(String period) {
+        while (true) {
+            CompletableFuture<Block> pending = nextBlock.get();
+            if (pending != null && !isStale(pending, period)) {
+                return pending;
+            }
+            CompletableFuture<Block> lease = new CompletableFuture<>();
+            if (nextBlock.compareAndSet(pending, lease)) {
+                leaseExecutor.execute(() -> {
+                    try {
+                        lease.complete(leaseBlock(period));
+                    } catch (Throwable e) {
+                        lease.completeExceptionally(e);
+                    }
+                });
+                return lease;
+            }
+        }
+    }
+
+    // A finished lease that failed, is of another month or was already installed
+    private boolean isStale(CompletableFuture<Block> lease, String period) {
+        if (!lease.isDone()) {
+            return false;
+        }
+        if (lease.isCompletedExceptionally()) {
+            return true;
+        }
+        Block block = lease.join();
+        return !block.period.equals(period) || block == currentBlock.get();
+    }
+
+    private static Block await(CompletableFuture<Block> lease) {
+        try {
+            return lease.join();
+        } catch (CompletionException e) {
+            // Callers get the lease's own exception; the next call starts a new lease
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Block leaseBlock(String period) {
+        Long leasedEnd = leaseTransaction.execute(status -> advance(period));
+        if (leasedEnd == null) {
+            createSequence(period);
+            leasedEnd = leaseTransaction.execute(status -> advance(period));
+        }
+        if (leasedEnd == null) {
+            throw new IllegalStateException("Order code sequence of " + period + " could not be created");
+        }
+        log.debug("Leased order codes {} to {} of {}", leasedEnd - blockSize + 1, leasedEnd, period);
+        return new Block(period, leasedEnd - blockSize + 1, leasedEnd);
+    }
+
+    private Long advance(String period) {
+        if (sequenceRepository.advance(period, blockSize) == 0) {
+            return null;
+        }
+        return sequenceRepository.findNextValue(period).orElse(null);
+    }
+
+    private void createSequence(String period) {
+        try {
+            leaseTransaction.executeWithoutResult(status ->
+                    sequenceRepository.create(period, highestIssuedNumber(period)));
+            log.info("Started order code sequence of {}", period);
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first
+            log.debug("Order code sequence of {} already exists", period);
+        }
+    }
+
+    // Continue after codes issued before the sequence existed, so they are never reused
+    private long highestIssuedNumber(String period) {
+        String prefix = CODE_PREFIX + period + "-";
+        return orderRepository.findHighestOrderCodesWithPrefix(prefix, PageRequest.ofSize(1)).stream()
+                .findFirst()
+                .map(code -> code.substring(prefix.length()))
+                .filter(suffix -> suffix.chars().allMatch(Character::isDigit) && !suffix.isEmpty())
+                .map(Long::parseLong)
+                .orElse(0L);
+    }
+
+    /**
+     * Numbers {@code next} to {@code end} of a month leased to this node
+     */
+    private static final class Block {
+
+        private final String period;
+        private final AtomicLong next;
+        private final long end;
+        private final long prefetchAt;
+
+        private Block(String period, long start, long end) {
+            this.period = period;
+            this.next = new AtomicLong(start);
+            this.end = end;
+            this.prefetchAt = start + (end - start + 1) / 2;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.library.service.impl;
+
+import com.library.entity.Order;
+import com.library.entity.OrderItem;
+import com.library.entity.OrderStatus;
+import com.library.event.OrderEvent;
+import com.library.repository.BookRepository;
+import com.library.repository.OrderRepository;
+import com.library.service.OrderAnalyticsService;
+import com.library.service.OrderHoldService;
+import com.library.service.OrderViewService;
+import com.library.service.UserOrderStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Pending holds are queued in a Redis sorted set scored by expiry time, so finding the expired
+ * ones is a range read of the set's head rather than a query over orders. The order row stays
+ * the source of truth: a hold the queue lost is still found by {@link #findExpiredHolds(int)}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderHoldServiceImpl implements OrderHoldService {
+
+    static final String EXPIRY_QUEUE_KEY = "library:order-holds";
+
+    private final OrderRepository orderRepository;
+    private final BookRepository bookRepository;
+    private final CatalogCacheEvictor catalogCacheEvictor;
+    private final UserOrderStatsService userOrderStatsService;
+    private final OrderAnalyticsService orderAnalyticsService;
+    private final OrderViewService orderViewService;
+    private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${library.order.stock-hold-minutes:30}")
+    private long stockHoldMinutes;
+
+    @Override
+    public void placeHold(Order order) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(stockHoldMinutes);
+        order.setStockHoldExpiresAt(expiresAt);
+
+        try {
+            redisTemplate.opsForZSet().add(EXPIRY_QUEUE_KEY, order.getId().toString(), toEpochMillis(expiresAt));
+        } catch (DataAccessException e) {
+            // The database sweep releases the hold instead
+            log.warn("Could not queue stock hold of order {}: {}", order.getOrderCode(), e.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void confirmHold(Order order) {
+        if (order.getStockHoldExpiresAt() == null) {
+            return;
+        }
+
+        if (orderRepository.confirmStockHold(order.getId()) == 0) {
+            throw new IllegalStateException("Payment window of order " + order.getOrderCode()
+                    + " has ended and its stock was released");
+        }
+        order.setStockHoldExpiresAt(null);
+        dequeue(order.getId());
+        log.info("Stock hold confirmed for order: {}", order.getOrderCode());
+    }
+
+    @Override
+    @Transactional
+    public boolean cancelAndRestoreStock(Order order, OrderStatus expectedStatus) {
+        if (orderRepository.cancelIfStatus(order.getId(), expectedStatus) == 0) {
+            return false;
+        }
+
+        order.setStatus(OrderStatus.CANCELLED);
+        if (order.getStockHoldExpiresAt() != null) {
+            order.setStockHoldExpiresAt(null);
+            dequeue(order.getId());
+        }
+        restoreStock(order);
+        return true;
+    }
+
+    @Override
+    public List<Long> claimExpiredHolds(int limit) {
+        try {
+            Set<String> due = redisTemplate.opsForZSet()
+                    .rangeByScore(EXPIRY_QUEUE_KEY, 0, System.currentTimeMillis(), 0, limit);
+            if (due == null || due.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            // Removing the member is the claim: only one instance gets a count of 1
+            List<Long> claimed = new ArrayList<>();
+            for (String orderId : due) {
+                Long removed = redisTemplate.opsForZSet().remove(EXPIRY_QUEUE_KEY, orderId);
+                if (removed != null && removed > 0) {
+                    claimed.add(Long.valueOf(orderId));
+                }
+            }
+            return claimed;
+        } catch (DataAccessException e) {
+            log.warn("Could not read the stock hold expiry queue: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findExpiredHolds(int limit) {
+        return orderRepository.findExpiredStockHoldIds(LocalDateTime.now(), PageRequest.ofSize(limit));
+    }
+
+    @Override
+    @Transactional
+    public boolean expireHold(Long orderId) {
+        if (orderRepository.expireStockHold(orderId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+        restoreStock(order);
+        userOrderStatsService.recordOrderChange(order, OrderStatus.PENDING_PAYMENT, order.getPaymentStatus());
+        orderAnalyticsService.recordOrderChange(order, OrderStatus.PENDING_PAYMENT, order.getPaymentStatus(),
+                order.getShippingDate());
+        orderViewService.refresh(order);
+
+        eventPublisher.publishEvent(new OrderEvent(this, OrderEvent.OrderEventType.ORDER_CANCELLED,
+                order.getUserId().toString(), order.getId(), order.getOrderCode(),
+                "Payment was not received within " + stockHoldMinutes + " minutes"));
+        log.info("Stock hold expired, order cancelled: {}", order.getOrderCode());
+        return true;
+    }
+
+    // Private helper methods
+
+    private void restoreStock(Order order) {
+        bookRepository.restoreStockForSale(order.getOrderItems().stream()
+                .collect(Collectors.toMap(item -> item.getBook().getId(), OrderItem::getQuantity, Integer::sum)));
+        order.getOrderItems().forEach(item -> catalogCacheEvictor.evictBook(item.getBook()));
+    }
+
+    private void dequeue(Long orderId) {
+        try {
+            redisTemplate.opsForZSet().remove(EXPIRY_QUEUE_KEY, orderId.toString());
+        } catch (DataAccessException e) {
+            // A stale entry is harmless: expiring a confirmed or cancelled order changes nothing
+            log.debug("Could not dequeue stock hold of order {}: {}", orderId, e.getMessage());
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
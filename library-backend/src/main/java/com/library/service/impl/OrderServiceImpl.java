@@ -2,23 +2,32 @@ package com.library.service.impl;
 
 import com.library.dto.*;
 import com.library.entity.*;
-import com.library.exception.BookNotAvailableException;
 import com.library.exception.InsufficientStockException;
 import com.library.repository.*;
-import com.library.service.CartService;
+import com.library.service.OrderAnalyticsService;
+import com.library.service.OrderArchiveService;
+import com.library.service.OrderHoldService;
 import com.library.service.OrderService;
+import com.library.service.OrderViewService;
+import com.library.service.UserOrderStatsService;
+import com.library.util.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,37 +35,58 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderServiceImpl implements OrderService {
 
+    private static final List<OrderStatus> CURRENT_STATUSES = List.of(
+            OrderStatus.PENDING_PAYMENT,
+            OrderStatus.PAID,
+            OrderStatus.PROCESSING,
+            OrderStatus.SHIPPED
+    );
+
+    // History order, newest first with the id breaking timestamp ties
+    private static final Comparator<OrderView> NEWEST_FIRST = Comparator.comparing(OrderView::getCreatedAt)
+            .thenComparing(OrderView::getOrderId)
+            .reversed();
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
-    private final CartItemRepository cartItemRepository;
+    private final CartStore cartStore;
     private final BookRepository bookRepository;
-    private final CartService cartService;
+    private final CheckoutPricingEngine checkoutPricingEngine;
+    private final CatalogCacheEvictor catalogCacheEvictor;
+    private final OrderHoldService orderHoldService;
+    private final OrderCodeAllocator orderCodeAllocator;
+    private final UserOrderStatsService userOrderStatsService;
+    private final OrderAnalyticsService orderAnalyticsService;
+    private final UserOrderStatsRepository userOrderStatsRepository;
+    private final OrderViewService orderViewService;
+    private final OrderViewRepository orderViewRepository;
+    private final OrderArchiveService orderArchiveService;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderViewRepository archivedOrderViewRepository;
 
     @Override
     @Transactional
     public OrderDTO createOrderFromCart(Long userId, CreateOrderRequestDTO request) {
         log.info("Creating order from cart for user: {}", userId);
 
-        // Get user's cart items
-        List<CartItem> cartItems = cartItemRepository.findByUserId(userId);
-        if (cartItems.isEmpty()) {
+        // Load, validate and price the cart in one pass
+        CheckoutPricingEngine.CheckoutQuote quote = checkoutPricingEngine.quote(userId, request.getPromoCode());
+        if (quote.isEmpty()) {
             throw new IllegalStateException("Cart is empty");
         }
-
-        // Validate cart items and stock
-        validateCartForOrder(cartItems);
-
-        // Calculate order totals
-        OrderCalculationDTO calculation = calculateOrderTotals(userId);
-        if (!calculation.isCanProceedToCheckout()) {
-            throw new IllegalStateException("Cannot proceed to checkout: " + 
-                String.join(", ", calculation.getValidationErrors()));
+        if (quote.getRejection() != null) {
+            throw quote.getRejection();
         }
+        List<CartItem> cartItems = quote.getLines();
+        OrderCalculationDTO calculation = quote.getCalculation();
+
+        // Reserve stock for all lines before anything is written
+        reserveStock(cartItems);
 
         // Create order
         Order order = Order.builder()
                 .userId(userId)
-                .orderCode(generateOrderCode())
+                .orderCode(orderCodeAllocator.nextOrderCode())
                 .subTotalAmount(calculation.getSubTotalAmount())
                 .shippingFee(calculation.getShippingFee())
                 .discountAmount(calculation.getDiscountAmount())
@@ -73,19 +103,8 @@ public class OrderServiceImpl implements OrderService {
                 .customerNote(request.getCustomerNote())
                 .build();
 
-        order = orderRepository.save(order);
-
-        // Create order items and update book stock
+        // Create order items
         for (CartItem cartItem : cartItems) {
-            // Update book stock
-            Book book = cartItem.getBook();
-            if (book.getStockForSale() < cartItem.getQuantity()) {
-                throw new InsufficientStockException("Insufficient stock for book: " + book.getTitle());
-            }
-            book.setStockForSale(book.getStockForSale() - cartItem.getQuantity());
-            bookRepository.save(book);
-
-            // Create order item
             OrderItem orderItem = OrderItem.fromCartItem(cartItem, order);
             orderItem.calculateItemTotalPrice();
             order.addOrderItem(orderItem);
@@ -93,9 +112,13 @@ public class OrderServiceImpl implements OrderService {
 
         // Save order with items
         order = orderRepository.save(order);
+        orderHoldService.placeHold(order);
+        userOrderStatsService.recordOrderPlaced(order);
+        orderAnalyticsService.recordOrderPlaced(order);
+        orderViewService.refresh(order);
 
-        // Clear user's cart
-        cartItemRepository.deleteByUserId(userId);
+        // Clear user's cart once the order is committed
+        cartStore.clearAfterCommit(userId);
 
         log.info("Order created successfully: {}", order.getOrderCode());
         return convertToDTO(order);
@@ -103,15 +126,61 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public Page<OrderSummaryDTO> getUserOrderHistory(Long userId, Pageable pageable) {
-        Page<Order> orders = orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
-        return orders.map(this::convertToSummaryDTO);
+        return historyPage(userId, pageable).map(this::convertToSummaryDTO);
+    }
+
+    @Override
+    public CursorPage<OrderSummaryDTO> scrollUserOrderHistory(Long userId, String cursor, int size,
+                                                              boolean includeTotal) {
+        int pageSize = PageCursor.pageSize(size);
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+
+        List<OrderView> rows;
+        PageCursor position = null;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderViewRepository.findByUserIdOrderByCreatedAtDescOrderIdDesc(userId, limit);
+        } else {
+            position = PageCursor.decode(cursor, PageCursor.NEWEST_FIRST);
+            rows = orderViewRepository.findByUserIdBefore(userId, position.dateTimeValue(), position.getId(), limit);
+        }
+
+        // Archived orders were created before the hot window, so only a slice reaching past it can hold any
+        boolean pastHotWindow = rows.size() <= pageSize
+                || rows.get(rows.size() - 1).getCreatedAt().isBefore(orderArchiveService.hotWindowStart());
+        if (pastHotWindow) {
+            List<ArchivedOrderView> archived = position == null
+                    ? archivedOrderViewRepository.findByUserIdOrderByCreatedAtDescOrderIdDesc(userId, limit)
+                    : archivedOrderViewRepository.findByUserIdBefore(userId, position.dateTimeValue(), position.getId(), limit);
+            if (!archived.isEmpty()) {
+                List<OrderView> merged = new ArrayList<>(rows);
+                archived.forEach(view -> merged.add(view.toView()));
+                merged.sort(NEWEST_FIRST);
+                rows = merged.subList(0, Math.min(merged.size(), pageSize + 1));
+            }
+        }
+
+        CursorPage<OrderSummaryDTO> orders = CursorPage.of(rows, pageSize,
+                        order -> PageCursor.encode(PageCursor.NEWEST_FIRST, order.getCreatedAt(), order.getOrderId()))
+                .map(this::convertToSummaryDTO);
+        if (includeTotal) {
+            // The archive is counted only when this slice reached it
+            long hotTotal = orderRepository.countByUserId(userId);
+            orders.setTotalElements(pastHotWindow
+                    ? hotTotal + archivedOrderViewRepository.countByUserId(userId)
+                    : ordersPlaced(userId, hotTotal));
+        }
+        return orders;
     }
 
     @Override
     public OrderDTO getOrderByCode(String orderCode, Long userId) {
-        Order order = orderRepository.findByOrderCodeAndUserId(orderCode, userId)
+        Order order = orderRepository.findByOrderCodeAndUserId(orderCode, userId).orElse(null);
+        if (order != null) {
+            return convertToDTO(order);
+        }
+        return archivedOrderRepository.findWithItemsByOrderCodeAndUserId(orderCode, userId)
+                .map(this::convertToDTO)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderCode));
-        return convertToDTO(order);
     }
 
     @Override
@@ -128,15 +197,19 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalStateException("Cannot cancel order that has been shipped or delivered");
         }
 
-        // Restore book stock
-        for (OrderItem item : order.getOrderItems()) {
-            Book book = item.getBook();
-            book.setStockForSale(book.getStockForSale() + item.getQuantity());
-            bookRepository.save(book);
+        if (order.getStatus() == OrderStatus.CANCELLED || order.getStatus() == OrderStatus.REFUNDED) {
+            throw new IllegalStateException("Order is already cancelled");
         }
 
-        order.setStatus(OrderStatus.CANCELLED);
+        // Cancel and restore book stock; fails if the payment window ended meanwhile
+        OrderStatus oldStatus = order.getStatus();
+        if (!orderHoldService.cancelAndRestoreStock(order, oldStatus)) {
+            throw new IllegalStateException("Order was updated concurrently, please retry: " + orderCode);
+        }
+        userOrderStatsService.recordOrderChange(order, oldStatus, order.getPaymentStatus());
+        orderAnalyticsService.recordOrderChange(order, oldStatus, order.getPaymentStatus(), order.getShippingDate());
         order = orderRepository.save(order);
+        orderViewService.refresh(order);
 
         log.info("Order cancelled: {}", orderCode);
         return convertToDTO(order);
@@ -144,19 +217,7 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public List<OrderSummaryDTO> getUserCurrentOrders(Long userId) {
-        List<OrderStatus> currentStatuses = List.of(
-                OrderStatus.PENDING_PAYMENT,
-                OrderStatus.PAID,
-                OrderStatus.PROCESSING,
-                OrderStatus.SHIPPED
-        );
-
-        List<Order> orders = new ArrayList<>();
-        for (OrderStatus status : currentStatuses) {
-            orders.addAll(orderRepository.findByUserIdAndStatusOrderByCreatedAtDesc(userId, status));
-        }
-
-        return orders.stream()
+        return orderViewRepository.findByUserIdAndStatusInOrderByCreatedAtDesc(userId, CURRENT_STATUSES).stream()
                 .map(this::convertToSummaryDTO)
                 .collect(Collectors.toList());
     }
@@ -169,89 +230,78 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    public OrderCalculationDTO calculateOrderTotals(Long userId) {
-        CartSummaryDTO cartSummary = cartService.getCartSummary(userId);
-        
-        if (cartSummary.getTotalItems() == 0) {
-            return OrderCalculationDTO.builder()
-                    .canProceedToCheckout(false)
-                    .validationErrors(List.of("Cart is empty"))
-                    .build();
-        }
-
-        List<String> validationErrors = new ArrayList<>();
-        
-        // Validate stock availability
-        for (CartItemDTO item : cartSummary.getItems()) {
-            if (item.getAvailableStock() < item.getQuantity()) {
-                validationErrors.add("Insufficient stock for: " + item.getBookTitle());
-            }
-            if (!item.getIsAvailable()) {
-                validationErrors.add("Book not available for sale: " + item.getBookTitle());
-            }
-        }
-
-        BigDecimal subTotal = cartSummary.getTotalPrice();
-        BigDecimal shippingFee = calculateShippingFee(subTotal);
-        BigDecimal tax = calculateTax(subTotal);
-        BigDecimal discount = calculateDiscount(subTotal, userId);
-        BigDecimal total = subTotal.add(shippingFee).add(tax).subtract(discount);
-
-        return OrderCalculationDTO.builder()
-                .subTotalAmount(subTotal)
-                .shippingFee(shippingFee)
-                .taxAmount(tax)
-                .discountAmount(discount)
-                .totalAmount(total)
-                .totalItems(cartSummary.getTotalItems())
-                .cartItems(cartSummary.getItems())
-                .canProceedToCheckout(validationErrors.isEmpty())
-                .validationErrors(validationErrors)
-                .build();
+    @Transactional(readOnly = true)
+    public OrderCalculationDTO calculateOrderTotals(Long userId, String promoCode) {
+        CheckoutPricingEngine.CheckoutQuote quote = checkoutPricingEngine.quote(userId, promoCode);
+        OrderCalculationDTO calculation = quote.getCalculation();
+        calculation.setCartItems(quote.toCartItemDTOs());
+        return calculation;
     }
 
-    private void validateCartForOrder(List<CartItem> cartItems) {
-        for (CartItem item : cartItems) {
-            Book book = item.getBook();
-            if (!book.getIsSellable()) {
-                throw new BookNotAvailableException("Book not available for sale: " + book.getTitle());
-            }
-            if (book.getStockForSale() < item.getQuantity()) {
-                throw new InsufficientStockException("Insufficient stock for book: " + book.getTitle());
-            }
+    /**
+     * Takes every cart line off stock in one batch of conditional updates. When a line lacks
+     * stock the exception names it and the transaction rolls back the lines already taken.
+     */
+    private void reserveStock(List<CartItem> cartItems) {
+        Map<Long, Integer> quantities = cartItems.stream()
+                .collect(Collectors.toMap(item -> item.getBook().getId(), CartItem::getQuantity, Integer::sum));
+
+        List<Long> insufficient = bookRepository.reserveStockForSale(quantities);
+        if (!insufficient.isEmpty()) {
+            Long bookId = insufficient.get(0);
+            Book book = cartItems.stream()
+                    .map(CartItem::getBook)
+                    .filter(cartBook -> cartBook.getId().equals(bookId))
+                    .findFirst()
+                    .orElseThrow();
+            int available = bookRepository.findStockForSaleById(bookId).orElse(0);
+            throw new InsufficientStockException(String.format(
+                    "Insufficient stock for book: %s. Requested: %d, Available: %d",
+                    book.getTitle(), quantities.get(bookId), available));
         }
-    }
-
-    private String generateOrderCode() {
-        String prefix = "ORD-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMM"));
-        long count = orderRepository.count() + 1;
-        return prefix + "-" + String.format("%06d", count);
-    }
 
-    private BigDecimal calculateShippingFee(BigDecimal subTotal) {
-        // Free shipping for orders over 500,000 VND
-        if (subTotal.compareTo(new BigDecimal("500000")) >= 0) {
-            return BigDecimal.ZERO;
-        }
-        return new BigDecimal("30000"); // 30,000 VND shipping fee
+        cartItems.forEach(item -> catalogCacheEvictor.evictBook(item.getBook()));
     }
 
-    private BigDecimal calculateTax(BigDecimal subTotal) {
-        // 10% VAT
-        return subTotal.multiply(new BigDecimal("0.10"));
-    }
+    private OrderDTO convertToDTO(Order order) {
+        List<OrderItemDTO> itemDTOs = order.getOrderItems().stream()
+                .map(this::convertOrderItemToDTO)
+                .collect(Collectors.toList());
 
-    private BigDecimal calculateDiscount(BigDecimal subTotal, Long userId) {
-        // Simple discount logic - 5% for orders over 1,000,000 VND
-        if (subTotal.compareTo(new BigDecimal("1000000")) >= 0) {
-            return subTotal.multiply(new BigDecimal("0.05"));
-        }
-        return BigDecimal.ZERO;
+        return OrderDTO.builder()
+                .id(order.getId())
+                .orderCode(order.getOrderCode())
+                .orderDate(order.getOrderDate())
+                .subTotalAmount(order.getSubTotalAmount())
+                .shippingFee(order.getShippingFee())
+                .discountAmount(order.getDiscountAmount())
+                .taxAmount(order.getTaxAmount())
+                .totalAmount(order.getTotalAmount())
+                .status(order.getStatus())
+                .paymentStatus(order.getPaymentStatus())
+                .paymentMethod(order.getPaymentMethod())
+                .shippingAddressLine1(order.getShippingAddressLine1())
+                .shippingAddressLine2(order.getShippingAddressLine2())
+                .shippingCity(order.getShippingCity())
+                .shippingPostalCode(order.getShippingPostalCode())
+                .shippingCountry(order.getShippingCountry())
+                .shippingDate(order.getShippingDate())
+                .deliveryDate(order.getDeliveryDate())
+                .stockHoldExpiresAt(order.getStockHoldExpiresAt())
+                .customerNote(order.getCustomerNote())
+                .totalItems(itemDTOs.size())
+                .orderItems(itemDTOs)
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .build();
     }
 
-    private OrderDTO convertToDTO(Order order) {
+    private OrderDTO convertToDTO(ArchivedOrder order) {
+        List<Long> bookIds = order.getOrderItems().stream().map(ArchivedOrderItem::getBookId).toList();
+        Map<Long, Book> books = bookRepository.findAllById(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
         List<OrderItemDTO> itemDTOs = order.getOrderItems().stream()
-                .map(this::convertOrderItemToDTO)
+                .map(item -> convertArchivedItemToDTO(item, books.get(item.getBookId())))
                 .collect(Collectors.toList());
 
         return OrderDTO.builder()
@@ -281,17 +331,17 @@ public class OrderServiceImpl implements OrderService {
                 .build();
     }
 
-    private OrderSummaryDTO convertToSummaryDTO(Order order) {
+    private OrderSummaryDTO convertToSummaryDTO(OrderView order) {
         return OrderSummaryDTO.builder()
-                .id(order.getId())
+                .id(order.getOrderId())
                 .orderCode(order.getOrderCode())
                 .orderDate(order.getOrderDate())
                 .status(order.getStatus())
                 .paymentStatus(order.getPaymentStatus())
                 .totalAmount(order.getTotalAmount())
-                .totalItems(order.getOrderItems().size())
+                .totalItems(order.getTotalItems())
                 .shippingCity(order.getShippingCity())
-                .expectedDeliveryDate(calculateExpectedDeliveryDate(order))
+                .expectedDeliveryDate(order.getExpectedDeliveryDate())
                 .createdAt(order.getCreatedAt())
                 .build();
     }
@@ -311,77 +361,86 @@ public class OrderServiceImpl implements OrderService {
                 .build();
     }
 
-    private LocalDateTime calculateExpectedDeliveryDate(Order order) {
-        if (order.getDeliveryDate() != null) {
-            return order.getDeliveryDate();
-        }
-        if (order.getShippingDate() != null) {
-            return order.getShippingDate().plusDays(3); // 3 days after shipping
-        }
-        return order.getOrderDate().plusDays(7); // 7 days from order date
+    // The book may have been removed since the order was archived
+    private OrderItemDTO convertArchivedItemToDTO(ArchivedOrderItem item, Book book) {
+        return OrderItemDTO.builder()
+                .id(item.getId())
+                .bookId(item.getBookId())
+                .quantity(item.getQuantity())
+                .pricePerUnit(item.getPricePerUnit())
+                .itemTotalPrice(item.getItemTotalPrice())
+                .bookTitle(item.getBookTitle())
+                .bookIsbn(item.getBookIsbn())
+                .bookCoverImageUrl(book != null ? book.getCoverImageUrl() : null)
+                .bookDescription(book != null ? book.getDescription() : null)
+                .bookStillAvailable(book != null && book.getIsSellable() && book.getStockForSale() > 0)
+                .build();
     }
 
     @Override
     public Page<OrderHistoryDTO> getDetailedOrderHistory(Long userId, Pageable pageable) {
-        Page<Order> orders = orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
-        return orders.map(this::convertToHistoryDTO);
+        return historyPage(userId, pageable).map(this::convertToHistoryDTO);
+    }
+
+    /**
+     * Page of the hot views, continued with archived views once the page runs past the hot orders.
+     * Offset pages list all hot orders first; archived ones follow, newest first. A full page of hot
+     * orders leaves the archive alone and takes the total from the user's order stats.
+     */
+    private Page<OrderView> historyPage(Long userId, Pageable pageable) {
+        Page<OrderView> hot = orderViewRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
+        if (hot.getContent().size() == pageable.getPageSize()) {
+            return new PageImpl<>(hot.getContent(), pageable, ordersPlaced(userId, hot.getTotalElements()));
+        }
+        // Short page: the offset reached past the hot orders, so the archive supplies the rest
+        long archivedTotal = archivedOrderViewRepository.countByUserId(userId);
+        if (archivedTotal == 0) {
+            return hot;
+        }
+        List<OrderView> rows = new ArrayList<>(hot.getContent());
+        int remaining = pageable.getPageSize() - rows.size();
+        if (remaining > 0) {
+            long archiveOffset = Math.max(0, pageable.getOffset() - hot.getTotalElements());
+            archivedOrderViewRepository.findByUserIdAt(userId, archiveOffset, remaining)
+                    .forEach(view -> rows.add(view.toView()));
+        }
+        return new PageImpl<>(rows, pageable, hot.getTotalElements() + archivedTotal);
+    }
+
+    // Orders the user ever placed, hot or archived, as kept by the stats row; never fewer than the hot ones
+    private long ordersPlaced(Long userId, long hotTotal) {
+        return userOrderStatsRepository.findById(userId)
+                .map(UserOrderStats::getTotalOrders)
+                .filter(placed -> placed > hotTotal)
+                .orElse(hotTotal);
     }
 
     @Override
     public UserOrderStatsDTO getUserOrderStatistics(Long userId) {
-        List<Order> allOrders = orderRepository.findByUserIdOrderByCreatedAtDesc(userId, Pageable.unpaged()).getContent();
+        UserOrderStats stats = userOrderStatsRepository.findById(userId).orElse(null);
         
-        if (allOrders.isEmpty()) {
+        if (stats == null || stats.getTotalOrders() == 0) {
             return UserOrderStatsDTO.builder()
                     .totalOrders(0L)
                     .canPlaceNewOrder(true)
                     .build();
         }
 
-        long totalOrders = allOrders.size();
-        long completedOrders = allOrders.stream()
-                .filter(o -> o.getStatus() == OrderStatus.DELIVERED)
-                .count();
-        long cancelledOrders = allOrders.stream()
-                .filter(o -> o.getStatus() == OrderStatus.CANCELLED)
-                .count();
-        long pendingOrders = allOrders.stream()
-                .filter(o -> o.getStatus() == OrderStatus.PENDING_PAYMENT || 
-                           o.getStatus() == OrderStatus.PAID || 
-                           o.getStatus() == OrderStatus.PROCESSING)
-                .count();
-
-        BigDecimal totalSpent = allOrders.stream()
-                .filter(o -> o.getPaymentStatus() == PaymentStatus.PAID)
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal averageOrderValue = totalSpent.divide(BigDecimal.valueOf(Math.max(1, completedOrders)), 2, BigDecimal.ROUND_HALF_UP);
-        
-        BigDecimal largestOrderValue = allOrders.stream()
-                .map(Order::getTotalAmount)
-                .max(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO);
-
-        int totalBooksPurchased = allOrders.stream()
-                .filter(o -> o.getPaymentStatus() == PaymentStatus.PAID)
-                .mapToInt(o -> o.getOrderItems().stream()
-                        .mapToInt(OrderItem::getQuantity)
-                        .sum())
-                .sum();
+        BigDecimal averageOrderValue = stats.getTotalSpent()
+                .divide(BigDecimal.valueOf(Math.max(1, stats.getCompletedOrders())), 2, RoundingMode.HALF_UP);
 
         return UserOrderStatsDTO.builder()
-                .totalOrders(totalOrders)
-                .completedOrders(completedOrders)
-                .cancelledOrders(cancelledOrders)
-                .pendingOrders(pendingOrders)
-                .totalSpent(totalSpent)
+                .totalOrders(stats.getTotalOrders())
+                .completedOrders(stats.getCompletedOrders())
+                .cancelledOrders(stats.getCancelledOrders())
+                .pendingOrders(stats.getPendingOrders())
+                .totalSpent(stats.getTotalSpent())
                 .averageOrderValue(averageOrderValue)
-                .largestOrderValue(largestOrderValue)
-                .totalBooksPurchased(totalBooksPurchased)
-                .firstOrderDate(allOrders.get(allOrders.size() - 1).getOrderDate())
-                .lastOrderDate(allOrders.get(0).getOrderDate())
-                .activeOrders((int) pendingOrders)
+                .largestOrderValue(stats.getLargestOrderValue())
+                .totalBooksPurchased(stats.getBooksPurchased().intValue())
+                .firstOrderDate(stats.getFirstOrderDate())
+                .lastOrderDate(stats.getLastOrderDate())
+                .activeOrders(stats.getPendingOrders().intValue())
                 .canPlaceNewOrder(canUserPlaceOrder(userId))
                 .build();
     }
@@ -392,31 +451,29 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderCode));
 
         // Clear current cart
-        cartItemRepository.deleteByUserId(userId);
+        cartStore.clear(userId);
 
-        // Add items from existing order to cart
+        // Add items from existing order to cart, at today's prices
         for (OrderItem item : existingOrder.getOrderItems()) {
             Book book = item.getBook();
             if (book.getIsSellable() && book.getStockForSale() > 0) {
-                CartItem cartItem = CartItem.builder()
-                        .userId(userId)
-                        .book(book)
-                        .quantity(Math.min(item.getQuantity(), book.getStockForSale()))
-                        .build();
-                cartItemRepository.save(cartItem);
+                int quantity = Math.min(item.getQuantity(), book.getStockForSale());
+                cartStore.addLine(userId, book, quantity, book.getStockForSale());
             }
         }
 
         // Return calculation for the new cart
-        return calculateOrderTotals(userId);
+        return calculateOrderTotals(userId, null);
     }
 
     @Override
     public OrderTrackingDTO trackOrder(String orderCode, Long userId) {
-        Order order = orderRepository.findByOrderCodeAndUserId(orderCode, userId)
+        OrderView order = orderViewRepository.findByOrderCodeAndUserId(orderCode, userId)
+                .or(() -> archivedOrderViewRepository.findByOrderCodeAndUserId(orderCode, userId)
+                        .map(ArchivedOrderView::toView))
                 .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderCode));
 
-        List<OrderTrackingDTO.OrderTrackingEvent> timeline = buildOrderTimeline(order);
+        List<OrderTrackingDTO.OrderTrackingEvent> timeline = orderViewService.readTimeline(order);
         
         return OrderTrackingDTO.builder()
                 .orderCode(order.getOrderCode())
@@ -427,97 +484,36 @@ public class OrderServiceImpl implements OrderService {
                 .currentStepDescription(getStatusDescription(order.getStatus()))
                 .nextStepDescription(getNextStepDescription(order.getStatus()))
                 .estimatedNextUpdate(calculateNextUpdateTime(order))
-                .shippingAddress(buildShippingAddress(order))
-                .estimatedDelivery(calculateExpectedDeliveryDate(order))
+                .shippingAddress(order.getShippingAddress())
+                .estimatedDelivery(order.getExpectedDeliveryDate())
                 .progressPercentage(calculateProgressPercentage(order.getStatus()))
                 .canBeCancelled(canOrderBeCancelled(order))
                 .build();
     }
 
-    private OrderHistoryDTO convertToHistoryDTO(Order order) {
-        List<OrderItemDTO> itemsPreview = order.getOrderItems().stream()
-                .limit(3) // Show first 3 items as preview
-                .map(this::convertOrderItemToDTO)
-                .collect(Collectors.toList());
-
+    private OrderHistoryDTO convertToHistoryDTO(OrderView order) {
         return OrderHistoryDTO.builder()
-                .id(order.getId())
+                .id(order.getOrderId())
                 .orderCode(order.getOrderCode())
                 .orderDate(order.getOrderDate())
                 .status(order.getStatus())
                 .paymentStatus(order.getPaymentStatus())
                 .totalAmount(order.getTotalAmount())
-                .totalItems(order.getOrderItems().size())
-                .totalBooks(order.getOrderItems().stream()
-                        .mapToInt(OrderItem::getQuantity)
-                        .sum())
+                .totalItems(order.getTotalItems())
+                .totalBooks(order.getTotalBooks())
                 .shippingDate(order.getShippingDate())
                 .deliveryDate(order.getDeliveryDate())
                 .shippingCity(order.getShippingCity())
                 .statusDescription(getStatusDescription(order.getStatus()))
                 .progressPercentage(calculateProgressPercentage(order.getStatus()))
                 .nextAction(getNextAction(order))
-                .itemsPreview(itemsPreview)
+                .itemsPreview(orderViewService.readItemsPreview(order))
                 .createdAt(order.getCreatedAt())
                 .canBeCancelled(canOrderBeCancelled(order))
                 .canBeReordered(order.getStatus() == OrderStatus.DELIVERED || order.getStatus() == OrderStatus.CANCELLED)
                 .build();
     }
 
-    private List<OrderTrackingDTO.OrderTrackingEvent> buildOrderTimeline(Order order) {
-        List<OrderTrackingDTO.OrderTrackingEvent> events = new ArrayList<>();
-        
-        // Order placed
-        events.add(OrderTrackingDTO.OrderTrackingEvent.builder()
-                .status("ORDER_PLACED")
-                .description("Order placed successfully")
-                .timestamp(order.getOrderDate())
-                .isCompleted(true)
-                .build());
-
-        // Payment
-        if (order.getPaymentStatus() == PaymentStatus.PAID) {
-            events.add(OrderTrackingDTO.OrderTrackingEvent.builder()
-                    .status("PAYMENT_CONFIRMED")
-                    .description("Payment confirmed")
-                    .timestamp(order.getOrderDate().plusHours(1)) // Assuming payment within 1 hour
-                    .isCompleted(true)
-                    .build());
-        }
-
-        // Processing
-        if (order.getStatus().ordinal() >= OrderStatus.PROCESSING.ordinal()) {
-            events.add(OrderTrackingDTO.OrderTrackingEvent.builder()
-                    .status("PROCESSING")
-                    .description("Order is being processed")
-                    .timestamp(order.getOrderDate().plusHours(2))
-                    .isCompleted(true)
-                    .build());
-        }
-
-        // Shipped
-        if (order.getShippingDate() != null) {
-            events.add(OrderTrackingDTO.OrderTrackingEvent.builder()
-                    .status("SHIPPED")
-                    .description("Order has been shipped")
-                    .timestamp(order.getShippingDate())
-                    .isCompleted(true)
-                    .build());
-        }
-
-        // Delivered
-        if (order.getDeliveryDate() != null) {
-            events.add(OrderTrackingDTO.OrderTrackingEvent.builder()
-                    .status("DELIVERED")
-                    .description("Order delivered successfully")
-                    .timestamp(order.getDeliveryDate())
-                    .isCompleted(true)
-                    .build());
-        }
-
-        return events;
-    }
-
     private String getStatusDescription(OrderStatus status) {
         return switch (status) {
             case PENDING_PAYMENT -> "Waiting for payment";
@@ -542,7 +538,7 @@ public class OrderServiceImpl implements OrderService {
         };
     }
 
-    private String getNextAction(Order order) {
+    private String getNextAction(OrderView order) {
         return switch (order.getStatus()) {
             case PENDING_PAYMENT -> "Pay Now";
             case PAID, PROCESSING -> "Track Order";
@@ -564,12 +560,12 @@ public class OrderServiceImpl implements OrderService {
         };
     }
 
-    private boolean canOrderBeCancelled(Order order) {
+    private boolean canOrderBeCancelled(OrderView order) {
         return order.getStatus() == OrderStatus.PENDING_PAYMENT || 
                (order.getStatus() == OrderStatus.PAID && order.getShippingDate() == null);
     }
 
-    private LocalDateTime calculateNextUpdateTime(Order order) {
+    private LocalDateTime calculateNextUpdateTime(OrderView order) {
         return switch (order.getStatus()) {
             case PENDING_PAYMENT -> order.getOrderDate().plusHours(24); // 24 hours to pay
             case PAID -> order.getOrderDate().plusDays(1); // Process within 1 day
@@ -578,21 +574,4 @@ public class OrderServiceImpl implements OrderService {
             default -> null;
         };
     }
-
-    private String buildShippingAddress(Order order) {
-        StringBuilder address = new StringBuilder();
-        if (order.getShippingAddressLine1() != null) {
-            address.append(order.getShippingAddressLine1());
-        }
-        if (order.getShippingAddressLine2() != null) {
-            address.append(", ").append(order.getShippingAddressLine2());
-        }
-        if (order.getShippingCity() != null) {
-            address.append(", ").append(order.getShippingCity());
-        }
-        if (order.getShippingPostalCode() != null) {
-            address.append(" ").append(order.getShippingPostalCode());
-        }
-        return address.toString();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,281 @@
+package com.library.service.impl;
+
+import com.library.dto.OrderStatusJobDTO;
+import com.library.dto.OrderStatusJobFailureDTO;
+import com.library.entity.Order;
+import com.library.entity.OrderStatus;
+import com.library.entity.OrderStatusJob;
+import com.library.entity.OrderStatusJobItem;
+import com.library.event.OrderEvent;
+import com.library.repository.OrderRepository;
+import com.library.repository.OrderStatusJobItemRepository;
+import com.library.repository.OrderStatusJobRepository;
+import com.library.service.OrderAnalyticsService;
+import com.library.service.OrderStatusJobService;
+import com.library.service.OrderViewService;
+import com.library.service.UserOrderStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class OrderStatusJobServiceImpl implements OrderStatusJobService {
+
+    // Statuses an order may have for each supported target
+    private static final Map<OrderStatus, Set<OrderStatus>> ALLOWED_FROM = Map.of(
+            OrderStatus.PROCESSING, EnumSet.of(OrderStatus.PAID),
+            OrderStatus.SHIPPED, EnumSet.of(OrderStatus.PAID, OrderStatus.PROCESSING),
+            OrderStatus.DELIVERED, EnumSet.of(OrderStatus.SHIPPED));
+
+    private final OrderStatusJobRepository jobRepository;
+    private final OrderStatusJobItemRepository itemRepository;
+    private final OrderRepository orderRepository;
+    private final UserOrderStatsService userOrderStatsService;
+    private final OrderAnalyticsService orderAnalyticsService;
+    private final OrderViewService orderViewService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final String owner = UUID.randomUUID().toString();
+
+    @Value("${library.order.bulk-status.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${library.order.bulk-status.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${library.order.bulk-status.max-orders:10000}")
+    private int maxOrders;
+
+    public OrderStatusJobServiceImpl(OrderStatusJobRepository jobRepository,
+                                     OrderStatusJobItemRepository itemRepository,
+                                     OrderRepository orderRepository,
+                                     UserOrderStatsService userOrderStatsService,
+                                     OrderAnalyticsService orderAnalyticsService,
+                                     OrderViewService orderViewService,
+                                     ApplicationEventPublisher eventPublisher,
+                                     PlatformTransactionManager transactionManager) {
+        this.jobRepository = jobRepository;
+        this.itemRepository = itemRepository;
+        this.orderRepository = orderRepository;
+        this.userOrderStatsService = userOrderStatsService;
+        this.orderAnalyticsService = orderAnalyticsService;
+        this.orderViewService = orderViewService;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional
+    public OrderStatusJobDTO submit(List<Long> orderIds, OrderStatus targetStatus) {
+        if (!ALLOWED_FROM.containsKey(targetStatus)) {
+            throw new IllegalArgumentException("Bulk status change supports " + ALLOWED_FROM.keySet()
+                    + ", not " + targetStatus);
+        }
+        Set<Long> ids = orderIds == null ? new TreeSet<>() : orderIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("No order IDs given");
+        }
+        if (ids.size() > maxOrders) {
+            throw new IllegalArgumentException("At most " + maxOrders + " orders can be changed in one job");
+        }
+
+        OrderStatusJob job = jobRepository.save(OrderStatusJob.builder()
+                .targetStatus(targetStatus)
+                .totalCount(ids.size())
+                .requestedBy(currentUser())
+                .build());
+        itemRepository.insertPending(job.getId(), ids);
+
+        log.info("Queued order status job {}: {} orders to {}", job.getId(), ids.size(), targetStatus);
+        return convertToDTO(job);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderStatusJobDTO getJob(Long jobId) {
+        return convertToDTO(findJob(jobId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrderStatusJobFailureDTO> getFailures(Long jobId, Pageable pageable) {
+        findJob(jobId);
+        return itemRepository.findByJobIdAndStateOrderByOrderId(jobId, OrderStatusJobItem.State.FAILED, pageable)
+                .map(item -> new OrderStatusJobFailureDTO(item.getOrderId(), item.getFailureReason()));
+    }
+
+    @Override
+    public int runPendingJobs() {
+        int completed = 0;
+        for (Long jobId : jobRepository.findRunnableIds(LocalDateTime.now(), PageRequest.ofSize(10))) {
+            if (claim(jobId) && run(jobId)) {
+                completed++;
+            }
+        }
+        return completed;
+    }
+
+    // Private helper methods
+
+    private OrderStatusJob findJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Order status job not found: " + jobId));
+    }
+
+    private boolean claim(Long jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transaction.execute(status ->
+                jobRepository.claim(jobId, owner, now, now.plusSeconds(leaseSeconds)));
+        return claimed != null && claimed > 0;
+    }
+
+    private boolean run(Long jobId) {
+        OrderStatusJob job = findJob(jobId);
+        log.info("Running order status job {} after order {}", jobId, job.getLastOrderId());
+
+        try {
+            Long afterOrderId = job.getLastOrderId();
+            while (afterOrderId != null) {
+                Long cursor = afterOrderId;
+                List<OrderEvent> events = new ArrayList<>();
+                afterOrderId = transaction.execute(status -> processChunk(job, cursor, events));
+                // Published per committed chunk, never for a chunk that rolled back
+                events.forEach(eventPublisher::publishEvent);
+            }
+
+            Boolean completed = transaction.execute(status ->
+                    jobRepository.complete(jobId, owner, LocalDateTime.now()) > 0);
+            log.info("Order status job {} completed", jobId);
+            return Boolean.TRUE.equals(completed);
+        } catch (Exception e) {
+            // The job resumes from its last committed chunk once the lease runs out
+            log.error("Order status job {} stopped: {}", jobId, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Change the next chunk of the job's orders in one set-based update
+     * @return Cursor for the next chunk, or null once every order was processed
+     */
+    private Long processChunk(OrderStatusJob job, Long afterOrderId, List<OrderEvent> events) {
+        List<Long> orderIds = itemRepository.findNextOrderIds(job.getId(), afterOrderId, PageRequest.ofSize(chunkSize));
+        if (orderIds.isEmpty()) {
+            return null;
+        }
+
+        OrderStatus targetStatus = job.getTargetStatus();
+        Set<OrderStatus> fromStatuses = ALLOWED_FROM.get(targetStatus);
+        List<Order> orders = orderRepository.findAllWithItemsForUpdate(orderIds);
+
+        Map<String, List<Long>> failures = new LinkedHashMap<>();
+        Set<Long> found = orders.stream().map(Order::getId).collect(Collectors.toSet());
+        orderIds.stream()
+                .filter(orderId -> !found.contains(orderId))
+                .forEach(orderId -> failures.computeIfAbsent("Order not found", reason -> new ArrayList<>()).add(orderId));
+        List<Order> eligible = new ArrayList<>();
+        for (Order order : orders) {
+            if (fromStatuses.contains(order.getStatus())) {
+                eligible.add(order);
+            } else {
+                failures.computeIfAbsent("Order is " + order.getStatus(), reason -> new ArrayList<>()).add(order.getId());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!eligible.isEmpty()) {
+            List<Long> eligibleIds = eligible.stream().map(Order::getId).collect(Collectors.toList());
+            orderRepository.updateStatusIn(eligibleIds, targetStatus, fromStatuses,
+                    targetStatus == OrderStatus.SHIPPED ? now : null,
+                    targetStatus == OrderStatus.DELIVERED ? now : null);
+            itemRepository.markAll(job.getId(), eligibleIds, OrderStatusJobItem.State.UPDATED, null);
+
+            for (Order order : eligible) {
+                OrderStatus previousStatus = order.getStatus();
+                LocalDateTime previousShippingDate = order.getShippingDate();
+                // Mirror the update on the detached copy, for the rollups and events
+                order.setStatus(targetStatus);
+                if (targetStatus == OrderStatus.SHIPPED && order.getShippingDate() == null) {
+                    order.setShippingDate(now);
+                }
+                if (targetStatus == OrderStatus.DELIVERED && order.getDeliveryDate() == null) {
+                    order.setDeliveryDate(now);
+                }
+                userOrderStatsService.recordOrderChange(order, previousStatus, order.getPaymentStatus());
+                orderAnalyticsService.recordOrderChange(order, previousStatus, order.getPaymentStatus(),
+                        previousShippingDate);
+                orderViewService.refresh(order);
+                events.add(new OrderEvent(this, eventType(targetStatus), order.getUserId().toString(),
+                        order.getId(), order.getOrderCode()));
+            }
+        }
+        failures.forEach((reason, ids) ->
+                itemRepository.markAll(job.getId(), ids, OrderStatusJobItem.State.FAILED, reason));
+
+        int failed = orderIds.size() - eligible.size();
+        Long lastOrderId = orderIds.get(orderIds.size() - 1);
+        if (jobRepository.recordChunk(job.getId(), owner, lastOrderId, eligible.size(), failed,
+                now.plusSeconds(leaseSeconds)) == 0) {
+            throw new IllegalStateException("Order status job " + job.getId() + " was taken over by another node");
+        }
+        log.debug("Order status job {}: {} updated, {} failed up to order {}",
+                job.getId(), eligible.size(), failed, lastOrderId);
+        return lastOrderId;
+    }
+
+    private static OrderEvent.OrderEventType eventType(OrderStatus status) {
+        return switch (status) {
+            case SHIPPED -> OrderEvent.OrderEventType.ORDER_SHIPPED;
+            case DELIVERED -> OrderEvent.OrderEventType.ORDER_DELIVERED;
+            default -> OrderEvent.OrderEventType.ORDER_CONFIRMED;
+        };
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private OrderStatusJobDTO convertToDTO(OrderStatusJob job) {
+        double progress = job.getTotalCount() == 0 ? 100.0
+                : Math.round(job.getProcessedCount() * 1000.0 / job.getTotalCount()) / 10.0;
+        return OrderStatusJobDTO.builder()
+                .id(job.getId())
+                .targetStatus(job.getTargetStatus())
+                .state(job.getState())
+                .totalCount(job.getTotalCount())
+                .processedCount(job.getProcessedCount())
+                .updatedCount(job.getUpdatedCount())
+                .failedCount(job.getFailedCount())
+                .progressPercent(progress)
+                .requestedBy(job.getRequestedBy())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
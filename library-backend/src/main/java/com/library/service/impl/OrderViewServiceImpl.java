@@ -0,0 +1,374 @@
+package com.library.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.dto.OrderItemDTO;
+import com.library.dto.OrderTrackingDTO;
+import com.library.dto.OrderViewConsistencyDTO;
+import com.library.entity.Order;
+import com.library.entity.OrderItem;
+import com.library.entity.OrderStatus;
+import com.library.entity.OrderView;
+import com.library.entity.PaymentStatus;
+import com.library.repository.OrderRepository;
+import com.library.repository.OrderViewRepository;
+import com.library.service.OrderViewService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class OrderViewServiceImpl implements OrderViewService {
+
+    private static final TypeReference<List<OrderItemDTO>> ITEMS_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<OrderTrackingDTO.OrderTrackingEvent>> TIMELINE_TYPE =
+            new TypeReference<>() {};
+    private static final int MAX_SAMPLE_IDS = 20;
+
+    private final OrderViewRepository viewRepository;
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+
+    @Value("${library.order.view.preview-items:3}")
+    private int previewItems;
+
+    @Value("${library.order.view.batch-size:500}")
+    private int batchSize;
+
+    @Value("${library.order.view.create-missing-on-startup:true}")
+    private boolean createMissingOnStartup;
+
+    public OrderViewServiceImpl(OrderViewRepository viewRepository,
+                                OrderRepository orderRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.viewRepository = viewRepository;
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Async("eventTaskExecutor")
+    public void createMissingViewsOnStartup() {
+        if (!createMissingOnStartup) {
+            return;
+        }
+        try {
+            int created = createMissingViews();
+            if (created > 0) {
+                log.info("Created {} missing order views", created);
+            }
+        } catch (Exception e) {
+            log.error("Failed to create missing order views", e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void refresh(Order order) {
+        OrderView view = viewRepository.findById(order.getId()).orElse(null);
+        if (view != null) {
+            // Order lines never change after checkout, only the order-level fields are rewritten
+            viewRepository.save(projectOrder(order, view));
+            return;
+        }
+
+        // Loaded with items and books, as the caller's copy may be detached
+        Order loaded = orderRepository.findAllWithItemsAndBooks(List.of(order.getId())).stream()
+                .findFirst()
+                .orElse(order);
+        viewRepository.save(project(loaded, new OrderView()));
+    }
+
+    @Override
+    public List<OrderItemDTO> readItemsPreview(OrderView view) {
+        return read(view.getItemsPreview(), ITEMS_TYPE);
+    }
+
+    @Override
+    public List<OrderTrackingDTO.OrderTrackingEvent> readTimeline(OrderView view) {
+        return read(view.getTimeline(), TIMELINE_TYPE);
+    }
+
+    @Override
+    public int createMissingViews() {
+        int created = 0;
+        Long afterOrderId = 0L;
+        List<Long> orderIds;
+        do {
+            orderIds = viewRepository.findOrderIdsWithoutView(afterOrderId, PageRequest.ofSize(batchSize));
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            List<Long> batch = orderIds;
+            try {
+                Integer saved = transaction.execute(status -> {
+                    List<Order> orders = orderRepository.findAllWithItemsAndBooks(batch);
+                    orders.forEach(order -> viewRepository.save(project(order, new OrderView())));
+                    return orders.size();
+                });
+                created += saved != null ? saved : 0;
+            } catch (DataIntegrityViolationException e) {
+                // An order of the batch got its view concurrently; the consistency check covers the rest
+                log.warn("Order views after order {} were created concurrently, skipped", afterOrderId);
+            }
+            afterOrderId = orderIds.get(orderIds.size() - 1);
+        } while (orderIds.size() == batchSize);
+        return created;
+    }
+
+    @Override
+    public OrderViewConsistencyDTO checkConsistency(boolean repair) {
+        OrderViewConsistencyDTO report = OrderViewConsistencyDTO.builder()
+                .repaired(repair)
+                .sampleOrderIds(new ArrayList<>())
+                .build();
+
+        Long afterOrderId = 0L;
+        List<Long> orderIds;
+        do {
+            orderIds = orderRepository.findIdsAfter(afterOrderId, PageRequest.ofSize(batchSize));
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            List<Long> batch = orderIds;
+            transaction.executeWithoutResult(status -> checkBatch(batch, repair, report));
+            afterOrderId = orderIds.get(orderIds.size() - 1);
+        } while (orderIds.size() == batchSize);
+
+        afterOrderId = 0L;
+        do {
+            orderIds = viewRepository.findOrphanedOrderIds(afterOrderId, PageRequest.ofSize(batchSize));
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            report.setOrphanedViews(report.getOrphanedViews() + orderIds.size());
+            sample(report, orderIds);
+            if (repair) {
+                List<Long> orphaned = orderIds;
+                transaction.executeWithoutResult(status -> viewRepository.deleteByOrderIdIn(orphaned));
+            }
+            afterOrderId = orderIds.get(orderIds.size() - 1);
+        } while (orderIds.size() == batchSize);
+
+        log.info("Order view check: {} orders, {} missing, {} stale, {} orphaned{}",
+                report.getCheckedOrders(), report.getMissingViews(), report.getStaleViews(),
+                report.getOrphanedViews(), repair ? ", repaired" : "");
+        return report;
+    }
+
+    // Private helper methods
+
+    private void checkBatch(List<Long> orderIds, boolean repair, OrderViewConsistencyDTO report) {
+        List<Order> orders = orderRepository.findAllWithItemsAndBooks(orderIds);
+        Map<Long, OrderView> views = viewRepository.findAllById(orderIds).stream()
+                .collect(Collectors.toMap(OrderView::getOrderId, Function.identity()));
+
+        List<Long> differing = new ArrayList<>();
+        for (Order order : orders) {
+            OrderView expected = project(order, new OrderView());
+            OrderView stored = views.get(order.getId());
+            if (stored == null) {
+                report.setMissingViews(report.getMissingViews() + 1);
+            } else if (!expected.equals(stored)) {
+                report.setStaleViews(report.getStaleViews() + 1);
+            } else {
+                continue;
+            }
+            differing.add(order.getId());
+            if (repair) {
+                viewRepository.save(stored != null ? project(order, stored) : expected);
+            }
+        }
+        report.setCheckedOrders(report.getCheckedOrders() + orders.size());
+        sample(report, differing);
+    }
+
+    private static void sample(OrderViewConsistencyDTO report, List<Long> orderIds) {
+        List<Long> sample = report.getSampleOrderIds();
+        orderIds.stream().limit(Math.max(0, MAX_SAMPLE_IDS - sample.size())).forEach(sample::add);
+    }
+
+    /**
+     * Write the read model of an order, lines included, into a view
+     */
+    private OrderView project(Order order, OrderView view) {
+        List<OrderItem> items = order.getOrderItems().stream()
+                .sorted(Comparator.comparing(OrderItem::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.toList());
+
+        view.setTotalItems(items.size());
+        view.setTotalBooks(items.stream().mapToInt(OrderItem::getQuantity).sum());
+        view.setItemsPreview(write(items.stream()
+                .limit(previewItems)
+                .map(this::convertOrderItemToDTO)
+                .collect(Collectors.toList())));
+        return projectOrder(order, view);
+    }
+
+    private OrderView projectOrder(Order order, OrderView view) {
+        view.setOrderId(order.getId());
+        view.setUserId(order.getUserId());
+        view.setOrderCode(order.getOrderCode());
+        view.setOrderDate(toSecond(order.getOrderDate()));
+        view.setStatus(order.getStatus());
+        view.setPaymentStatus(order.getPaymentStatus());
+        view.setTotalAmount(toCents(order.getTotalAmount()));
+        view.setShippingCity(order.getShippingCity());
+        view.setShippingAddress(buildShippingAddress(order));
+        view.setShippingDate(toSecond(order.getShippingDate()));
+        view.setDeliveryDate(toSecond(order.getDeliveryDate()));
+        view.setExpectedDeliveryDate(calculateExpectedDeliveryDate(view));
+        view.setTimeline(write(buildOrderTimeline(view)));
+        view.setCreatedAt(toSecond(order.getCreatedAt()));
+        view.setRefreshedAt(LocalDateTime.now());
+        return view;
+    }
+
+    // Snapshot of the line; the live availability of the book is not part of the read model
+    private OrderItemDTO convertOrderItemToDTO(OrderItem item) {
+        return OrderItemDTO.builder()
+                .id(item.getId())
+                .bookId(item.getBook().getId())
+                .quantity(item.getQuantity())
+                .pricePerUnit(toCents(item.getPricePerUnit()))
+                .itemTotalPrice(toCents(item.getItemTotalPrice()))
+                .bookTitle(item.getBookTitle())
+                .bookIsbn(item.getBookIsbn())
+                .bookCoverImageUrl(item.getBook().getCoverImageUrl())
+                .build();
+    }
+
+    private List<OrderTrackingDTO.OrderTrackingEvent> buildOrderTimeline(OrderView view) {
+        List<OrderTrackingDTO.OrderTrackingEvent> events = new ArrayList<>();
+
+        // Order placed
+        events.add(OrderTrackingDTO.OrderTrackingEvent.builder()
+                .status("ORDER_PLACED")
+                .description("Order placed successfully")
+                .timestamp(view.getOrderDate())
+                .isCompleted(true)
+                .build());
+
+        // Payment
+        if (view.getPaymentStatus() == PaymentStatus.PAID) {
+            events.add(OrderTrackingDTO.OrderTrackingEvent.builder()
+                    .status("PAYMENT_CONFIRMED")
+                    .description("Payment confirmed")
+                    .timestamp(view.getOrderDate().plusHours(1)) // Assuming payment within 1 hour
+                    .isCompleted(true)
+                    .build());
+        }
+
+        // Processing
+        if (view.getStatus().ordinal() >= OrderStatus.PROCESSING.ordinal()) {
+            events.add(OrderTrackingDTO.OrderTrackingEvent.builder()
+                    .status("PROCESSING")
+                    .description("Order is being processed")
+                    .timestamp(view.getOrderDate().plusHours(2))
+                    .isCompleted(true)
+                    .build());
+        }
+
+        // Shipped
+        if (view.getShippingDate() != null) {
+            events.add(OrderTrackingDTO.OrderTrackingEvent.builder()
+                    .status("SHIPPED")
+                    .description("Order has been shipped")
+                    .timestamp(view.getShippingDate())
+                    .isCompleted(true)
+                    .build());
+        }
+
+        // Delivered
+        if (view.getDeliveryDate() != null) {
+            events.add(OrderTrackingDTO.OrderTrackingEvent.builder()
+                    .status("DELIVERED")
+                    .description("Order delivered successfully")
+                    .timestamp(view.getDeliveryDate())
+                    .isCompleted(true)
+                    .build());
+        }
+
+        return events;
+    }
+
+    private static LocalDateTime calculateExpectedDeliveryDate(OrderView view) {
+        if (view.getDeliveryDate() != null) {
+            return view.getDeliveryDate();
+        }
+        if (view.getShippingDate() != null) {
+            return view.getShippingDate().plusDays(3); // 3 days after shipping
+        }
+        return view.getOrderDate().plusDays(7); // 7 days from order date
+    }
+
+    private static String buildShippingAddress(Order order) {
+        StringBuilder address = new StringBuilder();
+        if (order.getShippingAddressLine1() != null) {
+            address.append(order.getShippingAddressLine1());
+        }
+        if (order.getShippingAddressLine2() != null) {
+            address.append(", ").append(order.getShippingAddressLine2());
+        }
+        if (order.getShippingCity() != null) {
+            address.append(", ").append(order.getShippingCity());
+        }
+        if (order.getShippingPostalCode() != null) {
+            address.append(" ").append(order.getShippingPostalCode());
+        }
+        return address.toString();
+    }
+
+    // DATETIME columns round to the second, so an in-memory order projects like a reloaded one
+    private static LocalDateTime toSecond(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.plusNanos(500_000_000).truncatedTo(ChronoUnit.SECONDS) : null;
+    }
+
+    private static BigDecimal toCents(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP) : null;
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write order view", e);
+        }
+    }
+
+    private <T> List<T> read(String json, TypeReference<List<T>> type) {
+        if (json == null) {
+            return Collections.emptyList();
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read order view", e);
+        }
+    }
+}
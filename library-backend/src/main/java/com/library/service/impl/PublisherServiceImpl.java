@@ -6,6 +6,7 @@ import com.library.dto.PublisherDTO;
 import com.library.dto.PublisherDetailDTO;
 import com.library.dto.UpdatePublisherRequestDTO;
 import com.library.entity.Publisher;
+import com.library.event.BookCatalogEvent;
 import com.library.exception.BookNotFoundException;
 import com.library.exception.DuplicateBookException;
 import com.library.mapper.BookMapper;
@@ -14,6 +15,9 @@ import com.library.repository.PublisherRepository;
 import com.library.service.PublisherService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,6 +26,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Year;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -32,6 +37,8 @@ public class PublisherServiceImpl implements PublisherService {
     private final PublisherRepository publisherRepository;
     private final PublisherMapper publisherMapper;
     private final BookMapper bookMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogCacheEvictor catalogCacheEvictor;
     
     @Override
     @Transactional
@@ -59,6 +66,7 @@ public class PublisherServiceImpl implements PublisherService {
     }
     
     @Override
+    @Cacheable(value = "publishers", key = "#id", sync = true)
     public PublisherDetailDTO getPublisherById(Long id) {
         log.debug("Fetching publisher by id: {}", id);
         Publisher publisher = publisherRepository.findById(id)
@@ -86,6 +94,7 @@ public class PublisherServiceImpl implements PublisherService {
     
     @Override
     @Transactional
+    @CacheEvict(value = "publishers", key = "#id")
     public PublisherDetailDTO updatePublisher(Long id, UpdatePublisherRequestDTO updateRequest) {
         log.info("Updating publisher with id: {}", id);
         
@@ -107,15 +116,27 @@ public class PublisherServiceImpl implements PublisherService {
             }
         }
         
+        String previousName = publisher.getName();
         publisherMapper.updateEntityFromDTO(updateRequest, publisher);
         publisher = publisherRepository.save(publisher);
         
+        // Search index and suggestions carry the publisher's name for every book
+        if (!Objects.equals(previousName, publisher.getName())) {
+            publishCatalogUpdates(publisherRepository.findBookIdsByPublisherId(id));
+        }
+        
+        // Book details embed their publisher
+        if (publisherRepository.countBooksByPublisherId(id) > 0) {
+            catalogCacheEvictor.evictAllBooks();
+        }
+        
         log.info("Successfully updated publisher with id: {}", id);
         return enrichPublisherDetailDTO(publisherMapper.toDetailDTO(publisher));
     }
     
     @Override
     @Transactional
+    @CacheEvict(value = "publishers", key = "#id")
     public void deletePublisher(Long id) {
         log.info("Deleting publisher with id: {}", id);
         
@@ -200,4 +221,9 @@ public class PublisherServiceImpl implements PublisherService {
         int currentYear = Year.now().getValue();
         return currentYear - establishedYear;
     }
+    
+    private void publishCatalogUpdates(List<Long> bookIds) {
+        bookIds.forEach(bookId -> eventPublisher.publishEvent(new BookCatalogEvent(this,
+                BookCatalogEvent.BookCatalogEventType.BOOK_UPDATED, bookId)));
+    }
 }
\ No newline at end of file
@@ -2,14 +2,21 @@ package com.library.service.impl;
 
 import com.library.dto.BookDTO;
 import com.library.dto.BookSearchCriteria;
+import com.library.dto.BookSearchResultDTO;
+import com.library.dto.CursorPage;
 import com.library.entity.Book;
 import com.library.mapper.BookMapper;
 import com.library.repository.BookRepository;
+import com.library.service.BookSearchEngine;
+import com.library.service.BookSuggester;
 import com.library.service.SearchService;
 import com.library.specification.BookSpecification;
+import com.library.util.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -19,6 +26,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,12 +39,28 @@ public class SearchServiceImpl implements SearchService {
     
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
+    private final BookSearchEngine bookSearchEngine;
+    private final BookSuggester bookSuggester;
+    private final BookCursorPager bookCursorPager;
+    private final BookFacetCounter bookFacetCounter;
+    
+    @Value("${library.search.engine.max-candidates:10000}")
+    private int maxSearchCandidates;
     
     @Override
     public Page<BookDTO> searchBooks(BookSearchCriteria criteria, Pageable pageable) {
         log.debug("Searching books with criteria: {}", criteria);
         
-        Specification<Book> spec = BookSpecification.withCriteria(criteria);
+        Specification<Book> spec;
+        List<Long> matchingIds = criteria.hasKeyword() ? indexedCandidates(criteria.getKeyword()) : null;
+        if (matchingIds != null) {
+            if (matchingIds.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            spec = BookSpecification.withCriteria(criteria, false).and(BookSpecification.idIn(matchingIds));
+        } else {
+            spec = BookSpecification.withCriteria(criteria);
+        }
         Page<Book> books = bookRepository.findAll(spec, pageable);
         
         log.debug("Found {} books matching criteria", books.getTotalElements());
@@ -49,7 +75,11 @@ public class SearchServiceImpl implements SearchService {
             return Page.empty(pageable);
         }
         
-        // Use PostgreSQL full-text search capabilities
+        if (bookSearchEngine.isReady()) {
+            return indexedFullTextSearch(searchText.trim(), pageable);
+        }
+        
+        // Index not built yet - use PostgreSQL full-text search capabilities
         Page<Book> books = bookRepository.findByFullTextSearch(searchText.trim(), pageable);
         
         log.debug("Full-text search found {} books", books.getTotalElements());
@@ -116,6 +146,11 @@ public class SearchServiceImpl implements SearchService {
             return new ArrayList<>();
         }
         
+        if (bookSuggester.isReady()) {
+            return bookSuggester.suggest(partialText.trim(), limit);
+        }
+        
+        // Dictionary not built yet - fall back to prefix queries
         // Get suggestions from book titles
         List<String> titleSuggestions = bookRepository.findTitleSuggestions(
             partialText.trim(), Pageable.ofSize(Math.min(limit, 10)));
@@ -147,11 +182,67 @@ public class SearchServiceImpl implements SearchService {
     public Page<BookDTO> advancedSearch(BookSearchCriteria criteria, Pageable pageable) {
         log.debug("Performing advanced search with criteria: {}", criteria);
         
+        Specification<Book> spec = buildAdvancedSearchSpec(criteria);
+        if (spec == null) {
+            return Page.empty(pageable);
+        }
+        
+        // Execute search with performance optimization
+        Page<Book> books = bookRepository.findAll(spec, pageable);
+        
+        log.debug("Advanced search found {} books", books.getTotalElements());
+        return books.map(bookMapper::toDTO);
+    }
+    
+    @Override
+    public BookSearchResultDTO advancedSearchWithFacets(BookSearchCriteria criteria, Pageable pageable) {
+        log.debug("Performing faceted advanced search with criteria: {}", criteria);
+        
+        Specification<Book> spec = buildAdvancedSearchSpec(criteria);
+        if (spec == null) {
+            return new BookSearchResultDTO(Page.empty(pageable), bookFacetCounter.empty());
+        }
+        
+        // One grouped query counts the facets and, summed, the matches; the page is then read
+        // without a count query of its own, and not at all when nothing matches
+        BookFacetCounter.FacetCounts counts = bookFacetCounter.count(spec);
+        if (counts.getTotal() == 0) {
+            return new BookSearchResultDTO(Page.empty(pageable), bookFacetCounter.empty());
+        }
+        List<Book> content = bookRepository.findPageContent(spec, pageable);
+        Page<Book> books = new PageImpl<>(content, pageable, counts.getTotal());
+        
+        log.debug("Faceted advanced search found {} books", books.getTotalElements());
+        return new BookSearchResultDTO(books.map(bookMapper::toDTO), counts.getFacets());
+    }
+    
+    @Override
+    public CursorPage<BookDTO> scrollAdvancedSearch(BookSearchCriteria criteria, String cursor, int size,
+                                                    boolean includeTotal) {
+        log.debug("Performing advanced search with cursor pagination, criteria: {}", criteria);
+        
+        Specification<Book> spec = buildAdvancedSearchSpec(criteria);
+        if (spec == null) {
+            return new CursorPage<>(List.of(), PageCursor.pageSize(size), false, null, includeTotal ? 0L : null);
+        }
+        return bookCursorPager.page(spec, criteria.getSortBy(), criteria.getSortDirection(), cursor, size, includeTotal);
+    }
+    
+    /**
+     * Combined filter for advanced search, or null when the keyword matches nothing
+     */
+    private Specification<Book> buildAdvancedSearchSpec(BookSearchCriteria criteria) {
         // Start with base specification
         Specification<Book> spec = Specification.where(null);
         
-        // Add keyword search with enhanced full-text capabilities
-        if (criteria.hasKeyword()) {
+        // Add keyword search, resolved through the search index when it can list every match
+        List<Long> matchingIds = criteria.hasKeyword() ? indexedCandidates(criteria.getKeyword()) : null;
+        if (matchingIds != null) {
+            if (matchingIds.isEmpty()) {
+                return null;
+            }
+            spec = spec.and(BookSpecification.idIn(matchingIds));
+        } else if (criteria.hasKeyword()) {
             spec = spec.and(BookSpecification.enhancedKeywordSearch(criteria.getKeyword()));
         }
         
@@ -206,11 +297,68 @@ public class SearchServiceImpl implements SearchService {
             spec = spec.and(BookSpecification.recentlyAdded(30)); // Last 30 days
         }
         
-        // Execute search with performance optimization
-        Page<Book> books = bookRepository.findAll(spec, pageable);
+        return spec;
+    }
+    
+    /**
+     * Relevance-ordered search answered by the in-memory index. Only the books on the
+     * requested page are loaded; an explicit sort falls back to a primary-key filtered query.
+     */
+    private Page<BookDTO> indexedFullTextSearch(String searchText, Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            List<Long> matchingIds = indexedCandidates(searchText);
+            if (matchingIds == null) {
+                return bookRepository.findByFullTextSearch(searchText, pageable).map(bookMapper::toDTO);
+            }
+            if (matchingIds.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            return bookRepository.findAll(BookSpecification.idIn(matchingIds), pageable).map(bookMapper::toDTO);
+        }
         
-        log.debug("Advanced search found {} books", books.getTotalElements());
-        return books.map(bookMapper::toDTO);
+        BookSearchEngine.SearchHits hits = bookSearchEngine.search(
+            searchText, (int) pageable.getOffset(), pageable.getPageSize());
+        
+        List<BookDTO> content = loadInOrder(hits.getBookIds());
+        
+        log.debug("Indexed full-text search found {} books", hits.getTotalHits());
+        return new PageImpl<>(content, pageable, hits.getTotalHits());
+    }
+    
+    /**
+     * Every book the index matches for the keyword, or null when the index is not built or
+     * matches more than the candidate cap. Database filters applied to a capped list would
+     * silently drop matching books ranked below the cap, so callers then use the keyword query.
+     */
+    private List<Long> indexedCandidates(String keyword) {
+        if (!bookSearchEngine.isReady()) {
+            return null;
+        }
+        List<Long> matchingIds = bookSearchEngine.findMatchingIds(keyword, maxSearchCandidates + 1);
+        if (matchingIds.size() > maxSearchCandidates) {
+            log.debug("Keyword '{}' matches more than {} books; using the database keyword query",
+                keyword, maxSearchCandidates);
+            return null;
+        }
+        return matchingIds;
+    }
+    
+    /**
+     * Loads the given books with their details, keeping the order of the ids
+     */
+    private List<BookDTO> loadInOrder(List<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, Book> booksById = bookRepository.findAllWithDetailsByIdIn(bookIds).stream()
+            .collect(Collectors.toMap(Book::getId, Function.identity()));
+        
+        return bookIds.stream()
+            .map(booksById::get)
+            .filter(Objects::nonNull)
+            .map(bookMapper::toDTO)
+            .collect(Collectors.toList());
     }
     
     /**
@@ -0,0 +1,181 @@
+package com.library.service.impl;
+
+import com.library.entity.Loan;
+import com.library.entity.LoanStatus;
+import com.library.entity.UserLoanBook;
+import com.library.entity.UserLoanSummary;
+import com.library.repository.LoanRepository;
+import com.library.repository.UserLoanBookRepository;
+import com.library.repository.UserLoanSummaryRepository;
+import com.library.service.UserLoanSummaryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+@Slf4j
+public class UserLoanSummaryServiceImpl implements UserLoanSummaryService {
+
+    // What the per-user loan limit counts
+    private static final Set<LoanStatus> ACTIVE_STATUSES =
+            EnumSet.of(LoanStatus.REQUESTED, LoanStatus.APPROVED, LoanStatus.BORROWED);
+
+    // Loans that keep a row in user_loan_books
+    private static final Set<LoanStatus> HELD_STATUSES =
+            EnumSet.of(LoanStatus.REQUESTED, LoanStatus.APPROVED, LoanStatus.BORROWED, LoanStatus.OVERDUE);
+
+    private final UserLoanSummaryRepository summaryRepository;
+    private final UserLoanBookRepository loanBookRepository;
+    private final LoanRepository loanRepository;
+    private final TransactionTemplate newTransaction;
+
+    @Value("${library.loan.summary.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    public UserLoanSummaryServiceImpl(UserLoanSummaryRepository summaryRepository,
+                                      UserLoanBookRepository loanBookRepository,
+                                      LoanRepository loanRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.loanBookRepository = loanBookRepository;
+        this.loanRepository = loanRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional
+    public boolean recordLoanRequested(Loan loan, int maxActiveLoans) {
+        // Locks the row claimSlot locks next, in the request's own transaction
+        summaryRepository.createIfAbsent(loan.getUserId());
+        if (summaryRepository.claimSlot(loan.getUserId(), maxActiveLoans) == 0) {
+            return false;
+        }
+        loanBookRepository.save(held(loan));
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void recordLoanChange(Loan loan, LoanStatus previousStatus) {
+        LoanStatus status = loan.getStatus();
+        if (status == previousStatus) {
+            return;
+        }
+
+        int delta = flag(ACTIVE_STATUSES.contains(status)) - flag(ACTIVE_STATUSES.contains(previousStatus));
+        if (delta != 0) {
+            summaryRepository.applyDelta(loan.getUserId(), delta);
+        }
+        if (HELD_STATUSES.contains(status)) {
+            loanBookRepository.save(held(loan));
+        } else {
+            loanBookRepository.release(loan.getId());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordLoansOverdue(Collection<Long> loanIds) {
+        if (loanIds.isEmpty()) {
+            return;
+        }
+        summaryRepository.releaseOverdue(loanIds);
+        loanBookRepository.markOverdue(loanIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getActiveLoanCount(Long userId) {
+        return summaryRepository.findById(userId)
+                .map(UserLoanSummary::getActiveLoans)
+                .orElse(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean holdsBook(Long userId, Long bookId, Collection<LoanStatus> statuses) {
+        return loanBookRepository.existsByUserIdAndBookIdAndStatusIn(userId, bookId, statuses);
+    }
+
+    @Override
+    public boolean reconcile(Long userId) {
+        Boolean drifted = newTransaction.execute(status -> {
+            summaryRepository.createIfAbsent(userId);
+            return recompute(userId);
+        });
+        return Boolean.TRUE.equals(drifted);
+    }
+
+    @Override
+    public int reconcileAll() {
+        int users = 0;
+        int drifted = 0;
+        Long afterUserId = 0L;
+        List<Long> userIds;
+        do {
+            // Users with a summary or a loan; each list holds its first batch, so their union does too
+            PageRequest page = PageRequest.ofSize(reconcileBatchSize);
+            Set<Long> batch = new TreeSet<>(summaryRepository.findUserIdsAfter(afterUserId, page));
+            batch.addAll(loanRepository.findUserIdsAfter(afterUserId, page));
+            userIds = batch.stream().limit(reconcileBatchSize).toList();
+            for (Long userId : userIds) {
+                if (reconcile(userId)) {
+                    drifted++;
+                }
+                afterUserId = userId;
+            }
+            users += userIds.size();
+        } while (userIds.size() == reconcileBatchSize);
+        log.info("Reconciled loan summaries of {} users, {} had drifted", users, drifted);
+        return drifted;
+    }
+
+    // Private helper methods
+
+    private boolean recompute(Long userId) {
+        // Locked before the loans are read, so a concurrent loan change is either already
+        // committed and counted here, or applies its change after this reconciliation commits
+        UserLoanSummary summary = summaryRepository.findByIdForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("Loan summary row missing for user: " + userId));
+        int activeLoans = (int) loanRepository.countByUserIdAndStatusIn(userId, List.copyOf(ACTIVE_STATUSES));
+
+        loanBookRepository.deleteByUserId(userId);
+        loanBookRepository.copyFromLoans(userId);
+
+        boolean drifted = summary.getActiveLoans() != activeLoans;
+        if (drifted) {
+            log.warn("Loan summary of user {} counted {} active loans instead of {}",
+                    userId, summary.getActiveLoans(), activeLoans);
+            summary.setActiveLoans(activeLoans);
+            summary.setUpdatedAt(LocalDateTime.now());
+            summaryRepository.save(summary);
+        }
+        return drifted;
+    }
+
+    private static UserLoanBook held(Loan loan) {
+        return UserLoanBook.builder()
+                .loanId(loan.getId())
+                .userId(loan.getUserId())
+                .bookId(loan.getBook().getId())
+                .status(loan.getStatus())
+                .build();
+    }
+
+    private static int flag(boolean condition) {
+        return condition ? 1 : 0;
+    }
+}
@@ -0,0 +1,163 @@
+package com.library.service.impl;
+
+import com.library.entity.Order;
+import com.library.entity.OrderItem;
+import com.library.entity.OrderStatus;
+import com.library.entity.PaymentStatus;
+import com.library.entity.UserOrderStats;
+import com.library.repository.ArchivedOrderRepository;
+import com.library.repository.OrderItemRepository;
+import com.library.repository.OrderRepository;
+import com.library.repository.UserOrderStatsRepository;
+import com.library.service.UserOrderStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+@Slf4j
+public class UserOrderStatsServiceImpl implements UserOrderStatsService {
+
+    private static final Set<OrderStatus> PENDING_STATUSES =
+            EnumSet.of(OrderStatus.PENDING_PAYMENT, OrderStatus.PAID, OrderStatus.PROCESSING);
+
+    private final UserOrderStatsRepository statsRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final TransactionTemplate newTransaction;
+
+    @Value("${library.order.stats-rebuild-batch-size:500}")
+    private int rebuildBatchSize;
+
+    public UserOrderStatsServiceImpl(UserOrderStatsRepository statsRepository,
+                                     OrderRepository orderRepository,
+                                     OrderItemRepository orderItemRepository,
+                                     ArchivedOrderRepository archivedOrderRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional
+    public void recordOrderPlaced(Order order) {
+        // Takes the row lock addOrder would take anyway, so no second connection is needed
+        statsRepository.createIfAbsent(order.getUserId());
+        LocalDateTime orderDate = order.getOrderDate() != null ? order.getOrderDate() : LocalDateTime.now();
+        statsRepository.addOrder(order.getUserId(), order.getTotalAmount(), orderDate);
+        recordOrderChange(order, null, null);
+    }
+
+    @Override
+    @Transactional
+    public void recordOrderChange(Order order, OrderStatus previousStatus, PaymentStatus previousPaymentStatus) {
+        OrderStatus status = order.getStatus();
+        PaymentStatus paymentStatus = order.getPaymentStatus();
+        if (status == previousStatus && paymentStatus == previousPaymentStatus) {
+            return;
+        }
+
+        long completed = flag(status == OrderStatus.DELIVERED) - flag(previousStatus == OrderStatus.DELIVERED);
+        long cancelled = flag(status == OrderStatus.CANCELLED) - flag(previousStatus == OrderStatus.CANCELLED);
+        long pending = flag(PENDING_STATUSES.contains(status)) - flag(PENDING_STATUSES.contains(previousStatus));
+        long paid = flag(paymentStatus == PaymentStatus.PAID) - flag(previousPaymentStatus == PaymentStatus.PAID);
+
+        // Items are only loaded when the order enters or leaves PAID
+        BigDecimal spent = paid == 0 ? BigDecimal.ZERO : order.getTotalAmount().multiply(BigDecimal.valueOf(paid));
+        long books = paid == 0 ? 0 : paid * order.getOrderItems().stream().mapToInt(OrderItem::getQuantity).sum();
+
+        if (completed != 0 || cancelled != 0 || pending != 0 || paid != 0) {
+            statsRepository.applyDelta(order.getUserId(), completed, cancelled, pending, spent, books);
+        }
+    }
+
+    @Override
+    public void rebuild(Long userId) {
+        newTransaction.executeWithoutResult(status -> {
+            statsRepository.createIfAbsent(userId);
+            recompute(userId);
+        });
+    }
+
+    @Override
+    public int rebuildAll() {
+        int rebuilt = 0;
+        Long afterUserId = 0L;
+        List<Long> userIds;
+        do {
+            // Users of hot and archived orders; each list holds its first batch, so their union does too
+            PageRequest page = PageRequest.ofSize(rebuildBatchSize);
+            Set<Long> batch = new TreeSet<>(orderRepository.findUserIdsAfter(afterUserId, page));
+            batch.addAll(archivedOrderRepository.findUserIdsAfter(afterUserId, page));
+            userIds = batch.stream().limit(rebuildBatchSize).toList();
+            for (Long userId : userIds) {
+                rebuild(userId);
+                afterUserId = userId;
+            }
+            rebuilt += userIds.size();
+            log.info("Rebuilt order statistics of {} users", rebuilt);
+        } while (userIds.size() == rebuildBatchSize);
+        return rebuilt;
+    }
+
+    // Private helper methods
+
+    private void recompute(Long userId) {
+        // Locked before the orders are read, so a concurrent order change is either already
+        // committed and counted here, or applies its delta after this rebuild commits
+        UserOrderStats stats = statsRepository.findByIdForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("Order statistics row missing for user: " + userId));
+        OrderRepository.UserOrderTotals totals = orderRepository.sumOrdersByUserId(userId);
+        OrderRepository.UserOrderTotals archived = archivedOrderRepository.sumOrdersByUserId(userId);
+
+        stats.setTotalOrders(orZero(totals.getTotalOrders()) + orZero(archived.getTotalOrders()));
+        stats.setCompletedOrders(orZero(totals.getCompletedOrders()) + orZero(archived.getCompletedOrders()));
+        stats.setCancelledOrders(orZero(totals.getCancelledOrders()) + orZero(archived.getCancelledOrders()));
+        stats.setPendingOrders(orZero(totals.getPendingOrders()) + orZero(archived.getPendingOrders()));
+        stats.setTotalSpent(orZero(totals.getTotalSpent()).add(orZero(archived.getTotalSpent())));
+        stats.setLargestOrderValue(orZero(totals.getLargestOrderValue()).max(orZero(archived.getLargestOrderValue())));
+        stats.setBooksPurchased(orZero(orderItemRepository.sumPaidQuantityByUserId(userId))
+                + orZero(archivedOrderRepository.sumPaidQuantityByUserId(userId)));
+        stats.setFirstOrderDate(earliest(archived.getFirstOrderDate(), totals.getFirstOrderDate()));
+        stats.setLastOrderDate(latest(totals.getLastOrderDate(), archived.getLastOrderDate()));
+        stats.setUpdatedAt(LocalDateTime.now());
+        statsRepository.save(stats);
+    }
+
+    private static long flag(boolean condition) {
+        return condition ? 1 : 0;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        return first == null || (second != null && second.isBefore(first)) ? second : first;
+    }
+
+    private static LocalDateTime latest(LocalDateTime first, LocalDateTime second) {
+        return first == null || (second != null && second.isAfter(first)) ? second : first;
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
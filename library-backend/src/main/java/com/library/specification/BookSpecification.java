@@ -12,16 +12,24 @@ import org.springframework.data.jpa.domain.Specification;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class BookSpecification {
 
     public static Specification<Book> withCriteria(BookSearchCriteria criteria) {
+        return withCriteria(criteria, true);
+    }
+
+    /**
+     * @param includeKeyword false when the keyword has already been resolved through the search index
+     */
+    public static Specification<Book> withCriteria(BookSearchCriteria criteria, boolean includeKeyword) {
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             // Keyword search - search in title, description, and ISBN
-            if (criteria.hasKeyword()) {
+            if (includeKeyword && criteria.hasKeyword()) {
                 String keyword = "%" + criteria.getKeyword().toLowerCase() + "%";
                 Predicate titlePredicate = criteriaBuilder.like(
                     criteriaBuilder.lower(root.get("title")), keyword);
@@ -167,6 +175,47 @@ public class BookSpecification {
         };
     }
 
+    public static Specification<Book> idIn(Collection<Long> bookIds) {
+        return (root, query, criteriaBuilder) -> {
+            if (bookIds == null || bookIds.isEmpty()) {
+                return criteriaBuilder.disjunction(); // Always false
+            }
+            return root.get("id").in(bookIds);
+        };
+    }
+
+    /**
+     * Keyset predicate: rows strictly after ({@code value}, {@code id}) in the given direction,
+     * to be combined with {@link #hasSortValue} and an order by {@code field} then {@code id}.
+     *
+     * @throws IllegalArgumentException if {@code value} is null
+     */
+    public static <Y extends Comparable<? super Y>> Specification<Book> seekAfter(String field, Y value, Long id,
+                                                                                boolean ascending) {
+        if (value == null) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        return (root, query, criteriaBuilder) -> {
+            Path<Y> sortPath = root.get(field);
+            Path<Long> idPath = root.get("id");
+            Predicate idBeyond = ascending ? criteriaBuilder.greaterThan(idPath, id) : criteriaBuilder.lessThan(idPath, id);
+            Predicate beyond = ascending
+                    ? criteriaBuilder.greaterThan(sortPath, value)
+                    : criteriaBuilder.lessThan(sortPath, value);
+            Predicate tieBreak = criteriaBuilder.and(criteriaBuilder.equal(sortPath, value), idBeyond);
+            return criteriaBuilder.or(beyond, tieBreak);
+        };
+    }
+
+    /**
+     * Rows with a value to seek on. Keyset listings leave null values out, since databases sort
+     * them differently (lowest on MySQL and H2, highest on PostgreSQL); the sort fields used
+     * (title, created_at, id) are NOT NULL, so nothing is left out in practice.
+     */
+    public static Specification<Book> hasSortValue(String field) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.isNotNull(root.get(field));
+    }
+
     public static Specification<Book> belongsToCategory(Long categoryId) {
         return (root, query, criteriaBuilder) -> {
             if (categoryId == null) {
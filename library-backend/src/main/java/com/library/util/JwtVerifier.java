@@ -60,6 +60,25 @@ import java.util.logging.Logger;
           }
       }
 
+      // The "role" claim issued by the auth service, without a ROLE_ prefix; null when absent
+      public String extractRole(String token) {
+          try {
+              String[] parts = token.split("\\.");
+              String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+
+              ObjectMapper mapper = new ObjectMapper();
+              JsonNode role = mapper.readTree(payload).get("role");
+              if (role == null || role.asText().isBlank()) {
+                  return null;
+              }
+              String name = role.asText().trim().toUpperCase();
+              return name.startsWith("ROLE_") ? name.substring(5) : name;
+
+          } catch (Exception e) {
+              return null;
+          }
+      }
+
       private long extractExpiration(String token) {
           try {
               String[] parts = token.split("\\.");
@@ -0,0 +1,102 @@
+package com.library.util;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset-pagination cursor: the sort key of the last row returned plus its id as tie-breaker.
+ * The sort order is encoded too, so a cursor cannot be replayed against a different ordering.
+ * A null sort key is encoded as such and decodes back to a null value.
+ */
+@Getter
+public class PageCursor {
+
+    /**
+     * Sort order of the user history listings (loans, orders, notifications)
+     */
+    public static final String NEWEST_FIRST = "createdAt,desc";
+
+    private static final String VERSION = "2";
+    // Issued before null sort keys were tagged; the value is stored as is
+    private static final String UNTAGGED_VERSION = "1";
+    private static final String NULL_VALUE = "n";
+    private static final String VALUE_PREFIX = "v";
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final String sortOrder;
+    private final Long id;
+    private final String value;
+
+    private PageCursor(String sortOrder, Long id, String value) {
+        this.sortOrder = sortOrder;
+        this.id = id;
+        this.value = value;
+    }
+
+    public static String encode(String sortOrder, Object sortValue, Long id) {
+        String value = sortValue == null ? NULL_VALUE : VALUE_PREFIX + sortValue;
+        String raw = VERSION + ":" + sortOrder + ":" + id + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor Cursor returned by a previous slice
+     * @param expectedSortOrder Sort order of the current request
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort order
+     */
+    public static PageCursor decode(String cursor, String expectedSortOrder) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+
+        if (parts.length != 4 || !(VERSION.equals(parts[0]) || UNTAGGED_VERSION.equals(parts[0]))) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        if (!parts[1].equals(expectedSortOrder)) {
+            throw new IllegalArgumentException("Page cursor was issued for a different sort order");
+        }
+        String value;
+        if (UNTAGGED_VERSION.equals(parts[0])) {
+            value = parts[3];
+        } else if (NULL_VALUE.equals(parts[3])) {
+            value = null;
+        } else if (parts[3].startsWith(VALUE_PREFIX)) {
+            value = parts[3].substring(VALUE_PREFIX.length());
+        } else {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        try {
+            return new PageCursor(parts[1], Long.valueOf(parts[2]), value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+
+    /**
+     * @return The sort key as a date-time, or null if the last row had none
+     */
+    public LocalDateTime dateTimeValue() {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+
+    /**
+     * Keeps slice sizes between 1 and {@value #MAX_PAGE_SIZE}
+     */
+    public static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+}
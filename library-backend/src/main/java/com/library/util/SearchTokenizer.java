@@ -0,0 +1,77 @@
+package com.library.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class SearchTokenizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    public static final int MIN_TOKEN_LENGTH = 1;
+    public static final int MAX_TOKEN_LENGTH = 64;
+
+    /**
+     * Lower-cases the text and strips accents so that accented and unaccented Vietnamese text match.
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("")
+                .replace('\u0111', 'd') // Vietnamese d-bar has no decomposed form
+                .replace('\u0110', 'D')
+                .toLowerCase();
+    }
+
+    /**
+     * Splits text into normalized tokens on anything that is not a letter or digit.
+     * Duplicates are kept so callers can count term frequencies.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return tokens;
+        }
+
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean tokenChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                addToken(tokens, normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Tokenizes a search query, dropping duplicate terms but keeping their order.
+     */
+    public static List<String> tokenizeQuery(String query) {
+        return new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+    }
+
+    /**
+     * ISBNs are indexed both as their hyphen-separated groups and as one compact token.
+     */
+    public static List<String> tokenizeIsbn(String isbn) {
+        List<String> tokens = tokenize(isbn);
+        if (tokens.size() > 1) {
+            addToken(tokens, String.join("", tokens));
+        }
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, String token) {
+        if (token.length() >= MIN_TOKEN_LENGTH && token.length() <= MAX_TOKEN_LENGTH) {
+            tokens.add(token);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.library.config;
+
+import com.library.dto.BookDTO;
+import com.library.dto.NotificationSummaryDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes per entry and ns/op of the cache value codecs. Run on demand:
+ * {@code mvn test -Dtest=RedisValueSerializerBenchmarkTest -Dbenchmark=true}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RedisValueSerializerBenchmarkTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    void compareCodecs() {
+        Map<String, RedisValueSerializer> codecs = new LinkedHashMap<>();
+        codecs.put("json", new RedisValueSerializer(RedisValueSerializer.Format.JSON, -1));
+        codecs.put("smile", new RedisValueSerializer(RedisValueSerializer.Format.SMILE, -1));
+        codecs.put("smile+lz4", new RedisValueSerializer(RedisValueSerializer.Format.SMILE, 0));
+
+        List<BookDTO> books = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> {
+                    BookDTO book = RedisValueSerializerTest.book("Description of book " + id);
+                    book.setId(id);
+                    return book;
+                })
+                .collect(Collectors.toList());
+        Map<String, Object> payloads = new LinkedHashMap<>();
+        payloads.put("BookDTO", RedisValueSerializerTest.book("A classic on software craftsmanship."));
+        payloads.put("NotificationSummaryDTO", new NotificationSummaryDTO(120L, 14L, 100L, 6L, 2L, 0L));
+        payloads.put("Page<BookDTO>(20)", new PageImpl<>(books, PageRequest.of(0, 20), 250));
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-24s %-10s %8s %12s %12s", "payload", "codec", "bytes", "write ns/op", "read ns/op"));
+        payloads.forEach((payloadName, payload) -> codecs.forEach((codecName, codec) -> {
+            byte[] bytes = codec.serialize(payload);
+            // PageImpl has no creator Jackson can use, so pages are cached only as part of other DTOs
+            boolean readable = !(payload instanceof PageImpl);
+            if (readable) {
+                assertThat(codec.deserialize(bytes)).isEqualTo(payload);
+            }
+            report.add(String.format("%-24s %-10s %8d %12.0f %12s", payloadName, codecName, bytes.length,
+                    writeNanos(codec, payload),
+                    readable ? String.format("%.0f", readNanos(codec, bytes)) : "n/a"));
+        }));
+        report.forEach(System.out::println);
+    }
+
+    private static double writeNanos(RedisValueSerializer codec, Object payload) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += codec.serialize(payload).length;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += codec.serialize(payload).length;
+        }
+        double nanos = (double) (System.nanoTime() - start) / ITERATIONS;
+        assertThat(sink).isPositive();
+        return nanos;
+    }
+
+    private static double readNanos(RedisValueSerializer codec, byte[] bytes) {
+        int sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += codec.deserialize(bytes).hashCode();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += codec.deserialize(bytes).hashCode();
+        }
+        double nanos = (double) (System.nanoTime() - start) / ITERATIONS;
+        assertThat(sink).isNotNull();
+        return nanos;
+    }
+}
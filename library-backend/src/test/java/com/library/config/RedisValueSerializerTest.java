@@ -0,0 +1,84 @@
+package com.library.config;
+
+import com.library.dto.BookDTO;
+import com.library.dto.NotificationSummaryDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RedisValueSerializerTest {
+
+    private final RedisValueSerializer smile = new RedisValueSerializer(RedisValueSerializer.Format.SMILE, 1024);
+    private final RedisValueSerializer json = new RedisValueSerializer(RedisValueSerializer.Format.JSON, 1024);
+
+    @Test
+    void serialize_ShouldRoundTripCachedDtosAsSmile() {
+        BookDTO book = book("A short description");
+
+        byte[] bytes = smile.serialize(book);
+
+        assertThat(bytes[0]).isEqualTo(RedisValueSerializer.MAGIC);
+        assertThat(bytes[2] & RedisValueSerializer.FLAG_LZ4).isZero();
+        assertThat(bytes.length).isLessThan(json.serialize(book).length);
+        assertThat(smile.deserialize(bytes)).isEqualTo(book);
+    }
+
+    @Test
+    void deserialize_ShouldReadJsonWrittenByEarlierReleases() {
+        NotificationSummaryDTO summary = new NotificationSummaryDTO(10L, 3L, 7L, 0L, 1L, 0L);
+
+        assertThat(smile.deserialize(json.serialize(summary))).isEqualTo(summary);
+        assertThat(smile.deserialize(json.serialize("5"))).isEqualTo("5");
+    }
+
+    @Test
+    void serialize_ShouldCompressValuesAboveThreshold() {
+        BookDTO book = book("Chapter summary. ".repeat(200));
+
+        byte[] bytes = smile.serialize(book);
+
+        assertThat(bytes[2] & RedisValueSerializer.FLAG_LZ4).isEqualTo(RedisValueSerializer.FLAG_LZ4);
+        assertThat(bytes.length).isLessThan(book.getDescription().length());
+        assertThat(smile.deserialize(bytes)).isEqualTo(book);
+    }
+
+    @Test
+    void deserialize_ShouldRejectUnknownFormatVersion() {
+        byte[] bytes = smile.serialize(book("A short description"));
+        bytes[1] = 9;
+
+        assertThatThrownBy(() -> smile.deserialize(bytes))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("version");
+    }
+
+    static BookDTO book(String description) {
+        return BookDTO.builder()
+                .id(1L)
+                .title("The Pragmatic Programmer")
+                .isbn("9780135957059")
+                .description(description)
+                .language("en")
+                .numberOfPages(352)
+                .publicationYear(2019)
+                .price(new BigDecimal("39.99"))
+                .stockForSale(12)
+                .isSellable(true)
+                .totalCopiesForLoan(4)
+                .availableCopiesForLoan(2)
+                .isLendable(true)
+                .categoryId(3L)
+                .categoryName("Software Engineering")
+                .publisherId(5L)
+                .publisherName("Addison-Wesley")
+                .authors("David Thomas, Andrew Hunt")
+                .createdAt(LocalDateTime.of(2024, 1, 15, 10, 30))
+                .updatedAt(LocalDateTime.of(2024, 6, 1, 8, 0))
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.library.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class SingleFlightRedisCacheManagerTest {
+
+    private Cache cache;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        // The mocked writer never stores anything, so every lookup is a miss
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig();
+        SingleFlightRedisCacheManager cacheManager = new SingleFlightRedisCacheManager(
+                mock(RedisCacheWriter.class), config, Map.of("books", config));
+        cacheManager.afterPropertiesSet();
+        cache = cacheManager.getCache("books");
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void get_ShouldLoadConcurrentMissesOfOneKeyOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> cache.get(1L, () -> {
+                loads.incrementAndGet();
+                release.await();
+                return "book-1";
+            })));
+        }
+        Thread.sleep(200); // let every caller reach the cache
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("book-1");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void get_ShouldNotBlockMissesOfOtherKeys() throws Exception {
+        CountDownLatch otherKeyLoaded = new CountDownLatch(1);
+
+        // A cache-wide lock would deadlock here: key 1 waits for key 2 to load
+        Future<String> first = executor.submit(() -> cache.get(1L, () -> {
+            assertThat(otherKeyLoaded.await(5, TimeUnit.SECONDS)).isTrue();
+            return "book-1";
+        }));
+        Thread.sleep(100);
+        Future<String> second = executor.submit(() -> cache.get(2L, () -> {
+            otherKeyLoaded.countDown();
+            return "book-2";
+        }));
+
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("book-2");
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("book-1");
+    }
+
+    @Test
+    void get_ShouldPassLoaderFailureToCallerAndRetryNextTime() {
+        assertThatThrownBy(() -> cache.get(1L, () -> {
+            throw new IllegalStateException("database down");
+        }))
+                .isInstanceOf(Cache.ValueRetrievalException.class)
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get(1L, () -> "book-1")).isEqualTo("book-1");
+    }
+}
@@ -0,0 +1,93 @@
+package com.library.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TwoLevelCacheManagerTest {
+
+    // Stands in for Redis: shared by both instances
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private StringRedisTemplate publisherA;
+    private TwoLevelCacheManager instanceA;
+    private TwoLevelCacheManager instanceB;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager("books", "order-stats");
+        Map<String, TwoLevelCacheManager.LocalCacheSpec> localCaches =
+                Map.of("books", new TwoLevelCacheManager.LocalCacheSpec(100, Duration.ofMinutes(5)));
+
+        publisherA = mock(StringRedisTemplate.class);
+        instanceA = new TwoLevelCacheManager(remoteCacheManager, localCaches, publisherA);
+        instanceA.afterPropertiesSet();
+        instanceB = new TwoLevelCacheManager(remoteCacheManager, localCaches, mock(StringRedisTemplate.class));
+        instanceB.afterPropertiesSet();
+    }
+
+    @Test
+    void get_ShouldServeRepeatedReadsFromLocalLevel() {
+        Cache books = instanceA.getCache("books");
+        assertThat(books.get(1L, () -> "book-1")).isEqualTo("book-1");
+
+        remoteCacheManager.getCache("books").evict(1L);
+
+        assertThat(books.get(1L).get()).isEqualTo("book-1");
+    }
+
+    @Test
+    void evict_ShouldDropLocalCopiesOnOtherInstances() {
+        instanceA.getCache("books").get(1L, () -> "book-1");
+        assertThat(instanceB.getCache("books").get(1L).get()).isEqualTo("book-1");
+
+        instanceA.getCache("books").evict(1L);
+        remoteCacheManager.getCache("books").put(1L, "book-1-updated");
+
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(publisherA).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), message.capture());
+        instanceB.onMessage(new DefaultMessage(
+                TwoLevelCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                message.getValue().getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(instanceB.getCache("books").get(1L).get()).isEqualTo("book-1-updated");
+    }
+
+    @Test
+    void get_ShouldNotKeepValueInvalidatedWhileItWasReadFromRemote() {
+        Cache remote = mock(Cache.class);
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = Caffeine.newBuilder().build();
+        TwoLevelCache[] books = new TwoLevelCache[1];
+        when(remote.get(1L)).thenAnswer(invocation -> {
+            // The eviction broadcast for the update arrives while the old value is in flight
+            books[0].evictLocal("1");
+            return new SimpleValueWrapper("book-1");
+        });
+        books[0] = new TwoLevelCache(remote, local, mock(TwoLevelCacheManager.EvictionBroadcaster.class));
+
+        assertThat(books[0].get(1L).get()).isEqualTo("book-1");
+
+        assertThat(local.getIfPresent("1")).isNull();
+    }
+
+    @Test
+    void getCache_ShouldServeCachesWithoutLocalSpecFromRemoteOnly() {
+        assertThat(instanceA.getCache("books")).isInstanceOf(TwoLevelCache.class);
+        assertThat(instanceA.getCache("order-stats")).isNotInstanceOf(TwoLevelCache.class);
+    }
+}
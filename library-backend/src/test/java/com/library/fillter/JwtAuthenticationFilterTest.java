@@ -0,0 +1,113 @@
+package com.library.fillter;
+
+import com.library.util.JwkClient;
+import com.library.util.JwtVerifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtVerifier jwtVerifier;
+
+    @Mock
+    private JwkClient jwkClient;
+
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(jwtVerifier);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ShouldGrantTheRoleOfTheToken() throws Exception {
+        when(jwtVerifier.validateToken("token")).thenReturn(true);
+        when(jwtVerifier.extractUsername("token")).thenReturn("admin");
+        when(jwtVerifier.extractRole("token")).thenReturn("ADMIN");
+
+        filter.doFilter(request("/actuator/jobs"), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getName()).isEqualTo("admin");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void doFilter_ShouldCheckTokenOnActuatorEndpointsOtherThanHealth() throws Exception {
+        filter.doFilter(request("/actuator/health"), new MockHttpServletResponse(), new MockFilterChain());
+        verifyNoInteractions(jwtVerifier);
+
+        filter.doFilter(request("/actuator/jobs"), new MockHttpServletResponse(), new MockFilterChain());
+        verify(jwtVerifier).validateToken("token");
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void doFilter_ShouldGrantAdminFromATokenSignedAsTheAuthServiceIssuesIt() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        when(jwkClient.getPublicKey()).thenReturn((RSAPublicKey) keyPair.getPublic());
+        JwtAuthenticationFilter realFilter = new JwtAuthenticationFilter(new JwtVerifier(jwkClient));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/jobs");
+        request.addHeader("Authorization", "Bearer " + issuedToken(keyPair, "admin", "ADMIN"));
+
+        realFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getName()).isEqualTo("admin");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ADMIN");
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("Authorization", "Bearer token");
+        return request;
+    }
+
+    // Same header, claims and RS256 signature as AuthenService's JwtUtil.generateAccessToken
+    private static String issuedToken(KeyPair keyPair, String username, String role) throws Exception {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        long now = System.currentTimeMillis() / 1000;
+        String header = "{\"alg\":\"RS256\",\"kid\":\"test\"}";
+        String payload = "{\"sub\":\"" + username + "\",\"role\":\"" + role + "\",\"iat\":" + now
+                + ",\"exp\":" + (now + 900) + "}";
+        String dataToSign = encoder.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(keyPair.getPrivate());
+        signature.update(dataToSign.getBytes(StandardCharsets.UTF_8));
+        return dataToSign + "." + encoder.encodeToString(signature.sign());
+    }
+}
@@ -0,0 +1,103 @@
+package com.library.repository;
+
+import com.library.entity.Book;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookStockReservationConcurrencyTest {
+
+    private static final int CHECKOUTS = 500;
+    private static final int STOCK = 100;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Book contended;
+    private Book plentiful;
+
+    @BeforeEach
+    void setUp() {
+        contended = bookRepository.save(book("9780000000001", STOCK));
+        plentiful = bookRepository.save(book("9780000000002", CHECKOUTS * 2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void reserveStockForSale_ShouldNotOversellUnderParallelCheckouts() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Each checkout buys one of each book; a checkout that misses the contended book must
+        // not keep the other line either
+        List<Future<Boolean>> checkouts = new ArrayList<>();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            checkouts.add(executor.submit(() -> {
+                start.await();
+                return transaction.execute(status -> {
+                    List<Long> insufficient = bookRepository.reserveStockForSale(
+                            Map.of(contended.getId(), 1, plentiful.getId(), 1));
+                    if (!insufficient.isEmpty()) {
+                        assertThat(insufficient).containsExactly(contended.getId());
+                        status.setRollbackOnly();
+                        return false;
+                    }
+                    return true;
+                });
+            }));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<Boolean> checkout : checkouts) {
+            if (checkout.get()) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(succeeded).isEqualTo(STOCK);
+        assertThat(bookRepository.findStockForSaleById(contended.getId())).contains(0);
+        assertThat(bookRepository.findStockForSaleById(plentiful.getId())).contains(CHECKOUTS * 2 - STOCK);
+    }
+
+    private static Book book(String isbn, int stock) {
+        Book book = new Book();
+        book.setTitle("Book " + isbn);
+        book.setIsbn(isbn);
+        book.setPrice(new BigDecimal("10.00"));
+        book.setIsSellable(true);
+        book.setStockForSale(stock);
+        return book;
+    }
+}
@@ -0,0 +1,27 @@
+package com.library.repository;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InsertIfAbsentTest {
+
+    private static final String INSERT = "INSERT INTO cart_states (user_id, stale) VALUES (:userId, FALSE)";
+
+    @Test
+    void sql_ShouldDoNothingOnConflictOnPostgreSql() {
+        assertThat(InsertIfAbsent.sql(new PostgreSQLDialect(), INSERT, "stale"))
+                .isEqualTo(INSERT + " ON CONFLICT DO NOTHING");
+    }
+
+    @Test
+    void sql_ShouldKeepTheDuplicateRowOnMySqlAndH2() {
+        assertThat(InsertIfAbsent.sql(new MySQLDialect(), INSERT, "stale"))
+                .isEqualTo(INSERT + " ON DUPLICATE KEY UPDATE stale = stale");
+        assertThat(InsertIfAbsent.sql(new H2Dialect(), INSERT, "stale"))
+                .isEqualTo(INSERT + " ON DUPLICATE KEY UPDATE stale = stale");
+    }
+}
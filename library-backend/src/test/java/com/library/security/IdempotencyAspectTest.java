@@ -0,0 +1,175 @@
+package com.library.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.exception.IdempotencyConflictException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyAspectTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private final Map<String, Object> store = new ConcurrentHashMap<>();
+    private IdempotencyAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        aspect = new IdempotencyAspect(redisTemplate, new ObjectMapper());
+        ReflectionTestUtils.setField(aspect, "ttlHours", 24L);
+        ReflectionTestUtils.setField(aspect, "lockSeconds", 30L);
+        ReflectionTestUtils.setField(aspect, "waitMillis", 5000L);
+        ReflectionTestUtils.setField(aspect, "pollMillis", 5L);
+
+        // Backed by a map, like the single Redis all instances share
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(valueOperations.get(anyString())).thenAnswer(call -> store.get(call.<String>getArgument(0)));
+        lenient().when(valueOperations.setIfAbsent(anyString(), any(), any(Duration.class)))
+                .thenAnswer(call -> store.putIfAbsent(call.getArgument(0), call.getArgument(1)) == null);
+        lenient().doAnswer(call -> store.put(call.getArgument(0), call.getArgument(1)))
+                .when(valueOperations).set(anyString(), any(), any(Duration.class));
+        lenient().when(redisTemplate.delete(anyString()))
+                .thenAnswer(call -> store.remove(call.<String>getArgument(0)) != null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void idempotent_ShouldRunNormallyWithoutKey() throws Throwable {
+        MockHttpServletResponse response = bindRequest(null);
+        ProceedingJoinPoint joinPoint = joinPoint("ORDER-1", 5L, "cart");
+
+        assertThat(aspect.idempotent(joinPoint)).isEqualTo("ORDER-1");
+        assertThat(aspect.idempotent(joinPoint)).isEqualTo("ORDER-1");
+
+        verify(joinPoint, times(2)).proceed();
+        verifyNoInteractions(redisTemplate);
+        assertThat(response.getHeader(IdempotencyAspect.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void idempotent_ShouldReplayStoredResponseForRepeatedKey() throws Throwable {
+        bindRequest("key-1");
+        ProceedingJoinPoint joinPoint = joinPoint("ORDER-1", 5L, "cart");
+        assertThat(aspect.idempotent(joinPoint)).isEqualTo("ORDER-1");
+
+        MockHttpServletResponse retry = bindRequest("key-1");
+        assertThat(aspect.idempotent(joinPoint)).isEqualTo("ORDER-1");
+
+        verify(joinPoint, times(1)).proceed();
+        assertThat(retry.getHeader(IdempotencyAspect.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void idempotent_ShouldMakeConcurrentDuplicateWaitForFirstResult() throws Throwable {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ProceedingJoinPoint slow = joinPoint(null, 5L, "cart");
+        when(slow.proceed()).thenAnswer(call -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "ORDER-1";
+        });
+        ProceedingJoinPoint duplicate = joinPoint("ORDER-2", 5L, "cart");
+
+        CompletableFuture<Object> first = CompletableFuture.supplyAsync(() -> call(slow, "key-2"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Object> second = CompletableFuture.supplyAsync(() -> call(duplicate, "key-2"));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("ORDER-1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("ORDER-1");
+        verify(duplicate, times(0)).proceed();
+    }
+
+    @Test
+    void idempotent_ShouldRejectKeyReusedWithDifferentArguments() throws Throwable {
+        bindRequest("key-3");
+        aspect.idempotent(joinPoint("ORDER-1", 5L, "cart"));
+
+        ProceedingJoinPoint other = joinPoint("ORDER-2", 5L, "other cart");
+        assertThatThrownBy(() -> aspect.idempotent(other)).isInstanceOf(IdempotencyConflictException.class);
+        verify(other, times(0)).proceed();
+    }
+
+    @Test
+    void idempotent_ShouldReleaseKeyWhenExecutionFails() throws Throwable {
+        bindRequest("key-4");
+        ProceedingJoinPoint failing = joinPoint(null, 5L, "cart");
+        when(failing.proceed()).thenThrow(new IllegalStateException("Cart is empty"));
+        assertThatThrownBy(() -> aspect.idempotent(failing)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(aspect.idempotent(joinPoint("ORDER-1", 5L, "cart"))).isEqualTo("ORDER-1");
+    }
+
+    private Object call(ProceedingJoinPoint joinPoint, String idempotencyKey) {
+        bindRequest(idempotencyKey);
+        try {
+            return aspect.idempotent(joinPoint);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private static MockHttpServletResponse bindRequest(String idempotencyKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (idempotencyKey != null) {
+            request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return response;
+    }
+
+    private static ProceedingJoinPoint joinPoint(Object result, Object... args) throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        Signature signature = mock(Signature.class);
+        lenient().when(signature.getName()).thenReturn("createOrder");
+        lenient().when(joinPoint.getSignature()).thenReturn(signature);
+        lenient().when(joinPoint.getArgs()).thenReturn(args);
+        if (result != null) {
+            lenient().when(joinPoint.proceed()).thenReturn(result);
+        }
+        return joinPoint;
+    }
+}
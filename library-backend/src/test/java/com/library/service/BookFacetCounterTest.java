@@ -0,0 +1,158 @@
+package com.library.service;
+
+import com.library.dto.FacetCountDTO;
+import com.library.entity.Book;
+import com.library.entity.Category;
+import com.library.entity.Publisher;
+import com.library.repository.BookRepository;
+import com.library.repository.CategoryRepository;
+import com.library.repository.PublisherRepository;
+import com.library.service.impl.BookFacetCounter;
+import com.library.specification.BookSpecification;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(BookFacetCounter.class)
+class BookFacetCounterTest {
+
+    @Autowired
+    private BookFacetCounter counter;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PublisherRepository publisherRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(counter, "priceBuckets",
+                new BigDecimal[]{new BigDecimal("10"), new BigDecimal("25"), new BigDecimal("50")});
+        ReflectionTestUtils.setField(counter, "maxValues", 2);
+
+        Category programming = category("Programming");
+        Category fiction = category("Fiction");
+        Category history = category("History");
+        Publisher oreilly = publisher("O'Reilly");
+        Publisher addison = publisher("Addison-Wesley");
+        Publisher manning = publisher("Manning");
+
+        saveBook("1", programming, oreilly, "en", 2008, "49.99");
+        saveBook("2", programming, addison, "en", 2018, "25.00");
+        saveBook("3", fiction, oreilly, "vi", 2001, "9.50");
+        saveBook("4", history, null, "vi", null, "120");
+        saveBook("5", programming, manning, null, 1999, null);
+    }
+
+    @Test
+    void count_ShouldCountEveryFacetOverAllMatchingBooks() {
+        Map<String, List<FacetCountDTO>> facets = counter.count(Specification.where(null)).getFacets();
+
+        // Capped at maxValues, most frequent first, ties by label
+        assertThat(facets.get(BookFacetCounter.CATEGORY))
+                .extracting(FacetCountDTO::getLabel, FacetCountDTO::getCount)
+                .containsExactly(tuple("Programming", 3L), tuple("Fiction", 1L));
+        assertThat(facets.get(BookFacetCounter.PUBLISHER))
+                .extracting(FacetCountDTO::getLabel, FacetCountDTO::getCount)
+                .containsExactly(tuple("O'Reilly", 2L), tuple("Addison-Wesley", 1L));
+        assertThat(facets.get(BookFacetCounter.LANGUAGE))
+                .extracting(FacetCountDTO::getValue, FacetCountDTO::getCount)
+                .containsExactly(tuple("en", 2L), tuple("vi", 2L));
+        assertThat(facets.get(BookFacetCounter.DECADE))
+                .extracting(FacetCountDTO::getLabel, FacetCountDTO::getCount)
+                .containsExactly(tuple("1990s", 1L), tuple("2000s", 2L), tuple("2010s", 1L));
+        assertThat(facets.get(BookFacetCounter.PRICE))
+                .extracting(FacetCountDTO::getValue, FacetCountDTO::getLabel, FacetCountDTO::getCount)
+                .containsExactly(
+                        tuple("*-10", "Under 10", 1L),
+                        tuple("25-50", "25 - 50", 2L),
+                        tuple("50-*", "50+", 1L));
+    }
+
+    @Test
+    void count_ShouldOnlyCountBooksMatchingTheFilter() {
+        Map<String, List<FacetCountDTO>> facets = counter.count(BookSpecification.byLanguage("vi")).getFacets();
+
+        assertThat(facets.get(BookFacetCounter.CATEGORY))
+                .extracting(FacetCountDTO::getLabel, FacetCountDTO::getCount)
+                .containsExactly(tuple("Fiction", 1L), tuple("History", 1L));
+        assertThat(facets.get(BookFacetCounter.PUBLISHER))
+                .extracting(FacetCountDTO::getLabel)
+                .containsExactly("O'Reilly");
+        assertThat(facets.get(BookFacetCounter.PRICE))
+                .extracting(FacetCountDTO::getValue, FacetCountDTO::getCount)
+                .containsExactly(tuple("*-10", 1L), tuple("50-*", 1L));
+    }
+
+    @Test
+    void count_ShouldCountAllFacetsAndTheMatchesInOneQuery() {
+        bookRepository.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BookFacetCounter.FacetCounts counts = counter.count(Specification.where(null));
+
+        assertThat(counts.getTotal()).isEqualTo(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void empty_ShouldReturnAllFacetsWithoutValues() {
+        Map<String, List<FacetCountDTO>> facets = counter.empty();
+
+        assertThat(facets).containsOnlyKeys(BookFacetCounter.CATEGORY, BookFacetCounter.PUBLISHER,
+                BookFacetCounter.LANGUAGE, BookFacetCounter.DECADE, BookFacetCounter.PRICE);
+        assertThat(facets.values()).allMatch(List::isEmpty);
+    }
+
+    private Category category(String name) {
+        Category category = new Category();
+        category.setName(name);
+        return categoryRepository.save(category);
+    }
+
+    private Publisher publisher(String name) {
+        Publisher publisher = new Publisher();
+        publisher.setName(name);
+        return publisherRepository.save(publisher);
+    }
+
+    private void saveBook(String isbn, Category category, Publisher publisher, String language, Integer year,
+                          String price) {
+        Book book = new Book();
+        book.setTitle("Book " + isbn);
+        book.setIsbn("978000000010" + isbn);
+        book.setCategory(category);
+        book.setPublisher(publisher);
+        book.setLanguage(language);
+        book.setPublicationYear(year);
+        book.setPrice(price == null ? null : new BigDecimal(price));
+        bookRepository.save(book);
+    }
+}
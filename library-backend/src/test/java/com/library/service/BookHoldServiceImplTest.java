@@ -0,0 +1,142 @@
+package com.library.service;
+
+import com.library.entity.Book;
+import com.library.entity.BookHold;
+import com.library.event.LoanEvent;
+import com.library.repository.BookHoldRepository;
+import com.library.repository.BookRepository;
+import com.library.service.impl.BookHoldServiceImpl;
+import com.library.service.impl.CatalogCacheEvictor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookHoldServiceImplTest {
+
+    private static final long BOOK_ID = 5L;
+
+    @Mock
+    private BookHoldRepository holdRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private CatalogCacheEvictor catalogCacheEvictor;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookHoldServiceImpl bookHoldService;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        bookHoldService = new BookHoldServiceImpl(holdRepository, bookRepository, catalogCacheEvictor,
+                eventPublisher, transactionManager, 48);
+        book = new Book();
+        book.setId(BOOK_ID);
+        book.setTitle("Refactoring");
+    }
+
+    @Test
+    void releaseCopy_ShouldSetCopyAsideForHeadOfQueue() {
+        BookHold head = waitingHold(11L, 7L);
+        when(holdRepository.findQueueHeadForUpdate(eq(BOOK_ID), any(Pageable.class))).thenReturn(List.of(head));
+
+        bookHoldService.releaseCopy(book);
+
+        assertThat(head.getStatus()).isEqualTo(BookHold.Status.READY);
+        assertThat(head.getPickupExpiresAt()).isEqualTo(head.getReadyAt().plusHours(48));
+        verify(holdRepository).save(head);
+        verify(bookRepository, never()).incrementAvailableCopiesForLoan(anyLong());
+
+        LoanEvent event = publishedEvents(1).get(0);
+        assertThat(event.getEventType()).isEqualTo(LoanEvent.LoanEventType.HOLD_READY);
+        assertThat(event.getUserId()).isEqualTo("7");
+        assertThat(event.getBookTitle()).isEqualTo("Refactoring");
+        assertThat(event.getDueDate()).isEqualTo(head.getPickupExpiresAt());
+    }
+
+    @Test
+    void releaseCopy_ShouldReturnCopyToShelfWhenNobodyWaits() {
+        when(holdRepository.findQueueHeadForUpdate(eq(BOOK_ID), any(Pageable.class))).thenReturn(List.of());
+        when(bookRepository.incrementAvailableCopiesForLoan(BOOK_ID)).thenReturn(1);
+
+        bookHoldService.releaseCopy(book);
+
+        verify(catalogCacheEvictor).evictBook(book);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void expireReadyHolds_ShouldPassCopyToNextHolder() {
+        BookHoldRepository.ExpiredHold expired = mock(BookHoldRepository.ExpiredHold.class);
+        when(expired.getId()).thenReturn(10L);
+        when(expired.getBookId()).thenReturn(BOOK_ID);
+        when(expired.getUserId()).thenReturn(6L);
+        when(expired.getBookTitle()).thenReturn("Refactoring");
+        when(holdRepository.findExpired(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(expired));
+        when(holdRepository.expire(eq(10L), any(LocalDateTime.class))).thenReturn(1);
+        when(bookRepository.findById(BOOK_ID)).thenReturn(Optional.of(book));
+        BookHold next = waitingHold(11L, 7L);
+        when(holdRepository.findQueueHeadForUpdate(eq(BOOK_ID), any(Pageable.class))).thenReturn(List.of(next));
+
+        assertThat(bookHoldService.expireReadyHolds(50)).isEqualTo(1);
+
+        assertThat(next.getStatus()).isEqualTo(BookHold.Status.READY);
+        List<LoanEvent> events = publishedEvents(2);
+        assertThat(events.get(0).getEventType()).isEqualTo(LoanEvent.LoanEventType.HOLD_EXPIRED);
+        assertThat(events.get(0).getUserId()).isEqualTo("6");
+        assertThat(events.get(1).getEventType()).isEqualTo(LoanEvent.LoanEventType.HOLD_READY);
+        assertThat(events.get(1).getUserId()).isEqualTo("7");
+        verify(bookRepository, never()).incrementAvailableCopiesForLoan(anyLong());
+    }
+
+    @Test
+    void expireReadyHolds_ShouldSkipHoldPickedUpMeanwhile() {
+        BookHoldRepository.ExpiredHold expired = mock(BookHoldRepository.ExpiredHold.class);
+        when(expired.getId()).thenReturn(10L);
+        when(holdRepository.findExpired(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(expired));
+        when(holdRepository.expire(eq(10L), any(LocalDateTime.class))).thenReturn(0);
+
+        assertThat(bookHoldService.expireReadyHolds(50)).isZero();
+
+        verify(holdRepository, never()).findQueueHeadForUpdate(anyLong(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private BookHold waitingHold(Long id, Long userId) {
+        return BookHold.builder().id(id).bookId(BOOK_ID).userId(userId).build();
+    }
+
+    private List<LoanEvent> publishedEvents(int count) {
+        ArgumentCaptor<LoanEvent> events = ArgumentCaptor.forClass(LoanEvent.class);
+        verify(eventPublisher, times(count)).publishEvent(events.capture());
+        return events.getAllValues();
+    }
+}
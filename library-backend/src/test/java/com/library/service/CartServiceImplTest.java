@@ -0,0 +1,158 @@
+package com.library.service;
+
+import com.library.dto.CartRevalidationDTO;
+import com.library.repository.BookRepository;
+import com.library.service.impl.CartServiceImpl;
+import com.library.service.impl.CartStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CartServiceImplTest {
+
+    private static final long USER_ID = 12L;
+
+    @Mock
+    private CartStore cartStore;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private CartServiceImpl cartService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cartService, "revalidationBatchSize", 2);
+    }
+
+    @Test
+    void revalidateCart_ShouldApplyAllCorrectionsInOneWriteAndReturnDiff() {
+        when(cartStore.snapshots(List.of(USER_ID))).thenReturn(Map.of(USER_ID, Map.of(
+                1L, line(2, "10.00"),
+                2L, line(5, "20.00"),
+                3L, line(1, "30.00"),
+                4L, line(1, "40.00"),
+                5L, line(1, "50.00"))));
+        when(bookRepository.findSaleStatesByIdIn(Set.of(1L, 2L, 3L, 4L, 5L))).thenReturn(List.of(
+                state(1L, "Unchanged", "10.00", 8, true),
+                state(2L, "Scarce", "20.00", 3, true),
+                state(3L, "Repriced", "32.50", 8, true),
+                state(4L, "Withdrawn", "40.00", 8, false)));
+        when(cartStore.applyCorrections(eq(USER_ID), anyList())).thenReturn(4);
+
+        CartRevalidationDTO revalidation = cartService.revalidateCart(USER_ID);
+
+        assertThat(revalidation.getCheckedItems()).isEqualTo(5);
+        assertThat(revalidation.isValid()).isTrue();
+        assertThat(revalidation.getChanges())
+                .extracting(CartRevalidationDTO.LineChange::getBookId, CartRevalidationDTO.LineChange::getType,
+                        CartRevalidationDTO.LineChange::getNewQuantity)
+                .containsExactlyInAnyOrder(
+                        tuple(2L, CartRevalidationDTO.ChangeType.QUANTITY_REDUCED, 3),
+                        tuple(3L, CartRevalidationDTO.ChangeType.PRICE_CHANGED, 1),
+                        tuple(4L, CartRevalidationDTO.ChangeType.REMOVED, 0),
+                        tuple(5L, CartRevalidationDTO.ChangeType.REMOVED, 0));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CartStore.LineCorrection>> corrections = ArgumentCaptor.forClass(List.class);
+        verify(cartStore).applyCorrections(eq(USER_ID), corrections.capture());
+        assertThat(corrections.getValue()).hasSize(4);
+    }
+
+    @Test
+    void revalidateCart_ShouldReportCorrectionsSkippedByConcurrentChanges() {
+        when(cartStore.snapshots(List.of(USER_ID))).thenReturn(Map.of(USER_ID, Map.of(2L, line(5, "20.00"))));
+        when(bookRepository.findSaleStatesByIdIn(Set.of(2L))).thenReturn(List.of(state(2L, "Scarce", "20.00", 3, true)));
+        when(cartStore.applyCorrections(eq(USER_ID), anyList())).thenReturn(0);
+
+        assertThat(cartService.revalidateCart(USER_ID).isValid()).isFalse();
+    }
+
+    @Test
+    void revalidateCart_ShouldNotWriteWhenCartIsCurrent() {
+        when(cartStore.snapshots(List.of(USER_ID))).thenReturn(Map.of(USER_ID, Map.of(1L, line(2, "10.00"))));
+        when(bookRepository.findSaleStatesByIdIn(Set.of(1L))).thenReturn(List.of(state(1L, "Unchanged", "10.00", 8, true)));
+
+        CartRevalidationDTO revalidation = cartService.revalidateCart(USER_ID);
+
+        assertThat(revalidation.getChanges()).isEmpty();
+        assertThat(revalidation.isValid()).isTrue();
+        verify(cartStore, never()).applyCorrections(anyLong(), anyList());
+    }
+
+    @Test
+    void revalidateAllCarts_ShouldReadCartsAndBooksOncePerBatch() {
+        when(cartStore.findCartOwnersAfter(0L, 2)).thenReturn(List.of(1L, 2L));
+        when(cartStore.findCartOwnersAfter(2L, 2)).thenReturn(List.of(3L));
+        when(cartStore.snapshots(List.of(1L, 2L))).thenReturn(Map.of(
+                1L, Map.of(1L, line(1, "10.00")),
+                2L, Map.of(1L, line(9, "10.00"))));
+        when(cartStore.snapshots(List.of(3L))).thenReturn(Map.of(3L, Map.of(1L, line(1, "10.00"))));
+        when(bookRepository.findSaleStatesByIdIn(anyCollection()))
+                .thenReturn(List.of(state(1L, "Shared", "10.00", 4, true)));
+        when(cartStore.applyCorrections(eq(2L), anyList())).thenReturn(1);
+
+        assertThat(cartService.revalidateAllCarts()).isEqualTo(1);
+
+        verify(bookRepository, times(2)).findSaleStatesByIdIn(anyCollection());
+        verify(cartStore, times(1)).applyCorrections(anyLong(), anyList());
+    }
+
+    private static CartStore.Line line(int quantity, String unitPrice) {
+        LocalDateTime addedAt = LocalDateTime.now().minusDays(1);
+        return new CartStore.Line(quantity, new BigDecimal(unitPrice), addedAt, addedAt);
+    }
+
+    private static BookRepository.SaleState state(Long id, String title, String price, int stock, boolean sellable) {
+        return new BookRepository.SaleState() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public BigDecimal getPrice() {
+                return new BigDecimal(price);
+            }
+
+            @Override
+            public Integer getStockForSale() {
+                return stock;
+            }
+
+            @Override
+            public Boolean getIsSellable() {
+                return sellable;
+            }
+        };
+    }
+}
@@ -0,0 +1,242 @@
+package com.library.service;
+
+import com.library.entity.Book;
+import com.library.entity.CartItem;
+import com.library.entity.CartState;
+import com.library.repository.BookRepository;
+import com.library.repository.CartItemRepository;
+import com.library.repository.CartItemRepositoryCustom;
+import com.library.repository.CartStateRepository;
+import com.library.service.impl.CartStore;
+import io.lettuce.core.RedisCommandTimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CartStoreTest {
+
+    private static final long USER_ID = 5L;
+    private static final String CART_KEY = "library:cart:5";
+    private static final String DIRTY_KEY = "library:cart-dirty";
+    private static final String CLAIMED_KEY = "library:cart-dirty-claimed";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private CartStateRepository cartStateRepository;
+
+    @Captor
+    private ArgumentCaptor<Collection<CartItemRepositoryCustom.NewLine>> lines;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CartStore cartStore;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        lenient().when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        cartStore = new CartStore(redisTemplate, cartItemRepository, cartStateRepository, bookRepository,
+                transactionManager, 30);
+
+        book = new Book();
+        book.setId(7L);
+        book.setTitle("Designing Data-Intensive Applications");
+        book.setPrice(new BigDecimal("35.00"));
+        book.setIsSellable(true);
+        book.setStockForSale(10);
+    }
+
+    @Test
+    void addLine_ShouldLoadCartFromDatabaseOnFirstUse() {
+        // Not loaded, loaded, then added to the line loaded with 1 copy
+        when(redisTemplate.execute(any(), anyList(), any(Object[].class))).thenReturn(-1L, 1L, 3L);
+        when(cartItemRepository.findByUserIdWithBooks(USER_ID)).thenReturn(List.of(CartItem.builder()
+                .userId(USER_ID)
+                .book(book)
+                .quantity(1)
+                .unitPrice(book.getPrice())
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build()));
+
+        assertThat(cartStore.addLine(USER_ID, book, 2, 10)).isEqualTo(3);
+        verify(cartItemRepository).findByUserIdWithBooks(USER_ID);
+        verify(cartItemRepository, never()).save(any());
+    }
+
+    @Test
+    void addLine_ShouldReturnZeroWhenLineWouldExceedMaximum() {
+        when(redisTemplate.execute(any(), anyList(), any(Object[].class))).thenReturn(-3L);
+
+        assertThat(cartStore.addLine(USER_ID, book, 20, 10)).isZero();
+    }
+
+    @Test
+    void addLine_ShouldFallBackToDatabaseAndDropStaleCartOnceRedisIsBack() {
+        when(redisTemplate.execute(any(), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+        when(cartItemRepository.findByUserIdAndBookId(USER_ID, 7L)).thenReturn(Optional.empty());
+
+        assertThat(cartStore.addLine(USER_ID, book, 2, 10)).isEqualTo(2);
+        verify(cartItemRepository).save(any(CartItem.class));
+        verify(cartStateRepository).markStale(USER_ID);
+
+        when(hashOperations.multiGet(eq(CART_KEY), anyList())).thenReturn(List.of("1", "2", "7000"));
+        CartStore.CartTotals totals = cartStore.totals(USER_ID);
+
+        verify(redisTemplate).delete(CART_KEY);
+        verify(cartStateRepository).clearStale(USER_ID);
+        assertThat(totals.getLines()).isEqualTo(1);
+        assertThat(totals.getQuantity()).isEqualTo(2);
+        assertThat(totals.getTotalPrice()).isEqualByComparingTo("70.00");
+    }
+
+    @Test
+    void totals_ShouldDropCartMarkedStaleByAnotherNodeBeforeReadingIt() {
+        when(cartStateRepository.existsByUserIdAndStaleTrue(USER_ID)).thenReturn(true);
+        when(hashOperations.multiGet(eq(CART_KEY), anyList())).thenReturn(List.of("0", "0", "0"));
+
+        cartStore.totals(USER_ID);
+
+        verify(redisTemplate).delete(CART_KEY);
+        verify(cartStateRepository).clearStale(USER_ID);
+    }
+
+    @Test
+    void totals_ShouldFallBackToDatabaseOnRedisCommandTimeout() {
+        when(hashOperations.multiGet(eq(CART_KEY), anyList())).thenThrow(new QueryTimeoutException(
+                "Redis command timed out", new RedisCommandTimeoutException("Command timed out after 1 minute")));
+        when(cartItemRepository.countByUserId(USER_ID)).thenReturn(1);
+        when(cartItemRepository.getTotalQuantityByUserId(USER_ID)).thenReturn(2);
+        when(cartItemRepository.getTotalPriceByUserId(USER_ID)).thenReturn(new BigDecimal("70.00"));
+
+        assertThat(cartStore.totals(USER_ID).getQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    void totals_ShouldRethrowDatabaseTimeoutRatherThanFallBack() {
+        when(cartStateRepository.existsByUserIdAndStaleTrue(USER_ID))
+                .thenThrow(new QueryTimeoutException("Statement cancelled due to timeout"));
+
+        assertThatThrownBy(() -> cartStore.totals(USER_ID)).isInstanceOf(QueryTimeoutException.class);
+        verify(cartItemRepository, never()).countByUserId(USER_ID);
+    }
+
+    @Test
+    void flushDirty_ShouldReplaceRowsWithCartLines() {
+        whenClaimed("5");
+        when(cartStateRepository.findByIdForUpdate(USER_ID)).thenReturn(Optional.of(cartState(false)));
+        when(hashOperations.entries(CART_KEY)).thenReturn(Map.of(
+                "lines", "1", "qty", "2", "total", "7000",
+                "b:7", "2:3500:1767225600000:1767229200000"));
+
+        assertThat(cartStore.flushDirty(10)).isEqualTo(1);
+
+        // Claimed until the rows are written
+        InOrder order = inOrder(cartItemRepository, zSetOperations);
+        order.verify(cartItemRepository).deleteLinesByUserId(USER_ID);
+        order.verify(cartItemRepository).insertLines(eq(USER_ID), lines.capture());
+        order.verify(zSetOperations).remove(CLAIMED_KEY, "5");
+        assertThat(lines.getValue()).singleElement().satisfies(line -> {
+            assertThat(line.getBookId()).isEqualTo(7L);
+            assertThat(line.getQuantity()).isEqualTo(2);
+            assertThat(line.getUnitPrice()).isEqualByComparingTo("35.00");
+        });
+    }
+
+    @Test
+    void flushDirty_ShouldNotWriteBackCartMarkedStale() {
+        whenClaimed("5");
+        when(cartStateRepository.findByIdForUpdate(USER_ID)).thenReturn(Optional.of(cartState(true)));
+
+        assertThat(cartStore.flushDirty(10)).isEqualTo(1);
+
+        verify(hashOperations, never()).entries(CART_KEY);
+        verify(cartItemRepository, never()).deleteLinesByUserId(USER_ID);
+    }
+
+    @Test
+    void flushDirty_ShouldDropCartsMarkedStaleBeforeARestart() {
+        when(cartStateRepository.findStaleUserIds()).thenReturn(List.of(USER_ID));
+
+        cartStore.flushDirty(10);
+
+        verify(redisTemplate).delete(CART_KEY);
+        verify(cartStateRepository).clearStale(USER_ID);
+    }
+
+    @Test
+    void flushDirty_ShouldRequeueCartWhenDatabaseWriteFails() {
+        whenClaimed("5");
+        when(cartStateRepository.findByIdForUpdate(USER_ID)).thenReturn(Optional.of(cartState(false)));
+        when(hashOperations.entries(CART_KEY)).thenReturn(Map.of("lines", "0", "qty", "0", "total", "0"));
+        doThrow(new IllegalStateException("Database unavailable")).when(cartItemRepository).deleteLinesByUserId(USER_ID);
+
+        cartStore.flushDirty(10);
+
+        verify(setOperations).add(DIRTY_KEY, "5");
+        verify(zSetOperations).remove(CLAIMED_KEY, "5");
+    }
+
+    private void whenClaimed(String... userIds) {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(DIRTY_KEY, CLAIMED_KEY)), any(Object[].class)))
+                .thenReturn(List.of(userIds));
+    }
+
+    private static CartState cartState(boolean stale) {
+        return CartState.builder().userId(USER_ID).stale(stale).build();
+    }
+}
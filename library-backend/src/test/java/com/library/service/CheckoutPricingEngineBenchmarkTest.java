@@ -0,0 +1,64 @@
+package com.library.service;
+
+import com.library.entity.Book;
+import com.library.entity.CartItem;
+import com.library.service.impl.CheckoutPricingEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carts priced per second by cart size, through the full rule list without a database. Run on demand:
+ * {@code mvn test -Dtest=CheckoutPricingEngineBenchmarkTest -Dbenchmark=true}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CheckoutPricingEngineBenchmarkTest {
+
+    private static final int ITERATIONS = 200_000;
+
+    private final CheckoutPricingEngine engine = new CheckoutPricingEngine(null, new BigDecimal("500000"),
+            new BigDecimal("30000"), new BigDecimal("0.10"), "1000000:0.05,2000000:0.08,5000000:0.10",
+            "WELCOME10:0.10,SUMMER5:0.05");
+
+    @Test
+    void cartsPerSecond() {
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-10s %12s", "lines", "carts/s"));
+        for (int size : new int[]{1, 5, 20, 50}) {
+            List<CartItem> cart = cart(size);
+            run(cart); // warm-up
+            report.add(String.format("%-10d %12.0f", size, run(cart)));
+        }
+        System.out.println(String.join(System.lineSeparator(), report));
+    }
+
+    private double run(List<CartItem> cart) {
+        BigDecimal sink = BigDecimal.ZERO;
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = sink.add(engine.price(cart, (i & 1) == 0 ? "WELCOME10" : null).getCalculation().getTotalAmount());
+        }
+        long elapsed = System.nanoTime() - started;
+        if (sink.signum() < 0) {
+            throw new IllegalStateException("Negative total");
+        }
+        return ITERATIONS * 1_000_000_000.0 / elapsed;
+    }
+
+    private static List<CartItem> cart(int size) {
+        List<CartItem> cart = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Book book = new Book();
+            book.setId((long) i);
+            book.setTitle("Book " + i);
+            book.setPrice(new BigDecimal(45000 + i * 1000));
+            book.setIsSellable(true);
+            book.setStockForSale(100);
+            cart.add(CartItem.builder().book(book).quantity(1 + i % 3).unitPrice(book.getPrice()).build());
+        }
+        return cart;
+    }
+}
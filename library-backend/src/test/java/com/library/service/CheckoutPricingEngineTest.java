@@ -0,0 +1,124 @@
+package com.library.service;
+
+import com.library.dto.OrderCalculationDTO;
+import com.library.entity.Book;
+import com.library.entity.CartItem;
+import com.library.exception.BookNotAvailableException;
+import com.library.exception.InsufficientStockException;
+import com.library.service.impl.CartStore;
+import com.library.service.impl.CheckoutPricingEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CheckoutPricingEngineTest {
+
+    private static final long USER_ID = 9L;
+
+    @Mock
+    private CartStore cartStore;
+
+    private CheckoutPricingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new CheckoutPricingEngine(cartStore, new BigDecimal("500000"), new BigDecimal("30000"),
+                new BigDecimal("0.10"), "1000000:0.05,2000000:0.08", "WELCOME10:0.10");
+    }
+
+    @Test
+    void quote_ShouldChargeShippingAndVatBelowThresholds() {
+        CartItem line = line("Refactoring", "100000", 2, 10);
+        when(cartStore.findLines(USER_ID)).thenReturn(List.of(line));
+
+        CheckoutPricingEngine.CheckoutQuote quote = engine.quote(USER_ID, null);
+        OrderCalculationDTO calculation = quote.getCalculation();
+
+        assertThat(calculation.getSubTotalAmount()).isEqualByComparingTo("200000");
+        assertThat(calculation.getShippingFee()).isEqualByComparingTo("30000");
+        assertThat(calculation.getTaxAmount()).isEqualByComparingTo("20000");
+        assertThat(calculation.getDiscountAmount()).isEqualByComparingTo("0");
+        assertThat(calculation.getTotalAmount()).isEqualByComparingTo("250000");
+        assertThat(calculation.getTotalQuantity()).isEqualTo(2);
+        assertThat(calculation.isCanProceedToCheckout()).isTrue();
+        assertThat(quote.getRejection()).isNull();
+        assertThat(quote.getLines()).containsExactly(line);
+
+        verify(cartStore).findLines(USER_ID);
+        verifyNoMoreInteractions(cartStore);
+    }
+
+    @Test
+    void price_ShouldApplyHighestDiscountTierAndPromoCode() {
+        List<CartItem> lines = List.of(line("Clean Code", "750000", 2, 5), line("SICP", "600000", 1, 5));
+
+        OrderCalculationDTO calculation = engine.price(lines, " welcome10 ").getCalculation();
+
+        // 2,100,000: 8% tier plus 10% promo, free shipping, VAT on the subtotal
+        assertThat(calculation.getSubTotalAmount()).isEqualByComparingTo("2100000");
+        assertThat(calculation.getDiscountAmount()).isEqualByComparingTo("378000");
+        assertThat(calculation.getShippingFee()).isEqualByComparingTo("0");
+        assertThat(calculation.getTaxAmount()).isEqualByComparingTo("210000");
+        assertThat(calculation.getTotalAmount()).isEqualByComparingTo("1932000");
+        assertThat(calculation.getPromoCode()).isEqualTo("WELCOME10");
+    }
+
+    @Test
+    void price_ShouldRejectUnknownPromoCode() {
+        CheckoutPricingEngine.CheckoutQuote quote = engine.price(List.of(line("SICP", "600000", 1, 5)), "EXPIRED");
+
+        assertThat(quote.getCalculation().isCanProceedToCheckout()).isFalse();
+        assertThat(quote.getCalculation().getValidationErrors()).containsExactly("Unknown promo code: EXPIRED");
+        assertThat(quote.getRejection()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void price_ShouldReportEveryInvalidLineAndRejectWithTheFirst() {
+        CartItem unsellable = line("Out of print", "50000", 1, 5);
+        unsellable.getBook().setIsSellable(false);
+        CartItem lowStock = line("Popular", "50000", 3, 2);
+
+        CheckoutPricingEngine.CheckoutQuote quote = engine.price(List.of(lowStock, unsellable), null);
+
+        assertThat(quote.getCalculation().getValidationErrors())
+                .containsExactly("Insufficient stock for: Popular", "Book not available for sale: Out of print");
+        assertThat(quote.getRejection()).isInstanceOf(InsufficientStockException.class);
+        assertThat(engine.price(List.of(unsellable), null).getRejection())
+                .isInstanceOf(BookNotAvailableException.class);
+    }
+
+    @Test
+    void price_ShouldNotProceedWithEmptyCart() {
+        CheckoutPricingEngine.CheckoutQuote quote = engine.price(List.of(), null);
+
+        assertThat(quote.isEmpty()).isTrue();
+        assertThat(quote.getCalculation().isCanProceedToCheckout()).isFalse();
+        assertThat(quote.getCalculation().getValidationErrors()).containsExactly("Cart is empty");
+    }
+
+    private static CartItem line(String title, String price, int quantity, int stock) {
+        Book book = new Book();
+        book.setId((long) title.hashCode());
+        book.setTitle(title);
+        book.setPrice(new BigDecimal(price));
+        book.setIsSellable(true);
+        book.setStockForSale(stock);
+        return CartItem.builder()
+                .userId(USER_ID)
+                .book(book)
+                .quantity(quantity)
+                .unitPrice(book.getPrice())
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.library.service;
+
+import com.library.entity.Book;
+import com.library.entity.Order;
+import com.library.entity.OrderItem;
+import com.library.entity.OrderStatus;
+import com.library.entity.PaymentStatus;
+import com.library.repository.BookRepository;
+import com.library.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+/**
+ * Base of JPA tests of services that run their own transactions. Test methods run outside a
+ * transaction, so every helper commits and the services see each other's rows as in production.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // MySQL mode, for the INSERT ... ON DUPLICATE KEY UPDATE of the counter rows
+        "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+abstract class CommittingJpaTest {
+
+    @Autowired
+    protected BookRepository bookRepository;
+
+    @Autowired
+    protected OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    protected TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUpTransaction() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Runs after the subclass clean-up, which removes the rows referring to orders and books
+    @AfterEach
+    void deleteOrdersAndBooks() {
+        orderRepository.deleteAll();
+        bookRepository.deleteAll();
+    }
+
+    protected Book saveBook(String title, String isbn, String price) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setIsbn(isbn);
+        book.setPrice(new BigDecimal(price));
+        return bookRepository.save(book);
+    }
+
+    // An unsaved, unpaid order with one item of the book per quantity, totalled at the book's price
+    protected Order newOrder(long userId, String orderCode, Book book, int... quantities) {
+        Order order = Order.builder()
+                .userId(userId)
+                .orderCode(orderCode)
+                .paymentStatus(PaymentStatus.UNPAID)
+                .build();
+        BigDecimal subTotal = BigDecimal.ZERO;
+        for (int quantity : quantities) {
+            BigDecimal lineTotal = book.getPrice().multiply(BigDecimal.valueOf(quantity));
+            subTotal = subTotal.add(lineTotal);
+            order.addOrderItem(OrderItem.builder()
+                    .book(book)
+                    .quantity(quantity)
+                    .pricePerUnit(book.getPrice())
+                    .itemTotalPrice(lineTotal)
+                    .bookTitle(book.getTitle())
+                    .bookIsbn(book.getIsbn())
+                    .build());
+        }
+        order.setSubTotalAmount(subTotal);
+        order.setTotalAmount(subTotal);
+        return order;
+    }
+
+    // Saves the order and hands it to the recorder in one transaction
+    protected Order place(Order order, Consumer<Order> recorder) {
+        return transaction.execute(status -> {
+            Order saved = orderRepository.save(order);
+            recorder.accept(saved);
+            return saved;
+        });
+    }
+
+    // Updates and saves the order, then hands it with its previous statuses to the recorder, in one transaction
+    protected void change(Order order, Consumer<Order> update, OrderChangeRecorder recorder) {
+        transaction.executeWithoutResult(status -> {
+            OrderStatus previousStatus = order.getStatus();
+            PaymentStatus previousPaymentStatus = order.getPaymentStatus();
+            update.accept(order);
+            orderRepository.save(order);
+            recorder.record(order, previousStatus, previousPaymentStatus);
+        });
+    }
+
+    @FunctionalInterface
+    protected interface OrderChangeRecorder {
+        void record(Order order, OrderStatus previousStatus, PaymentStatus previousPaymentStatus);
+    }
+}
@@ -0,0 +1,156 @@
+package com.library.service;
+
+import com.library.entity.Author;
+import com.library.entity.Book;
+import com.library.entity.BookAuthor;
+import com.library.entity.Publisher;
+import com.library.repository.BookRepository;
+import com.library.service.impl.InMemoryBookSearchEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryBookSearchEngineTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private InMemoryBookSearchEngine searchEngine;
+
+    private final Map<Long, Book> catalog = new TreeMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(searchEngine, "batchSize", 2);
+
+        lenient().when(bookRepository.findIdsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            Long afterId = invocation.getArgument(0);
+            Pageable pageable = invocation.getArgument(1);
+            return catalog.keySet().stream()
+                    .filter(id -> id > afterId)
+                    .limit(pageable.getPageSize())
+                    .toList();
+        });
+        lenient().when(bookRepository.findAllWithDetailsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            List<Book> books = new ArrayList<>();
+            ids.forEach(id -> {
+                if (catalog.containsKey(id)) {
+                    books.add(catalog.get(id));
+                }
+            });
+            return books;
+        });
+
+        addBook(1L, "Java Programming Mastery", "978-1234567890",
+                "Complete guide to Java programming with Spring Boot", "John Developer", "Tech Publishers");
+        addBook(2L, "Advanced Spring Framework", "978-0987654321",
+                "Deep dive into Spring Framework and microservices", "John Developer", "Tech Publishers");
+        addBook(3L, "The Great Adventure", "978-1111111111",
+                "An epic tale of courage and friendship", "Jane Writer", "Fiction House");
+        addBook(4L, "Lập trình Java cơ bản", "978-2222222222",
+                "Sách nhập môn lập trình", "Nguyễn Văn Đức", "NXB Trẻ");
+
+        searchEngine.rebuildIndex();
+    }
+
+    @Test
+    void rebuildIndex_ShouldIndexWholeCatalogInBatches() {
+        assertThat(searchEngine.isReady()).isTrue();
+        assertThat(searchEngine.getIndexedBookCount()).isEqualTo(4);
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesAboveDescriptionMatches() {
+        BookSearchEngine.SearchHits hits = searchEngine.search("spring", 0, 10);
+
+        assertThat(hits.getTotalHits()).isEqualTo(2);
+        assertThat(hits.getBookIds()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void search_ShouldRequireEveryTermAndMatchLastTermAsPrefix() {
+        assertThat(searchEngine.search("java progr", 0, 10).getBookIds()).containsExactly(1L);
+        assertThat(searchEngine.search("java cobol", 0, 10).getTotalHits()).isZero();
+    }
+
+    @Test
+    void search_ShouldMatchAuthorsPublishersIsbnAndUnaccentedText() {
+        assertThat(searchEngine.search("jane writer", 0, 10).getBookIds()).containsExactly(3L);
+        assertThat(searchEngine.search("fiction house", 0, 10).getBookIds()).containsExactly(3L);
+        assertThat(searchEngine.search("9780987654321", 0, 10).getBookIds()).containsExactly(2L);
+        assertThat(searchEngine.search("lap trinh", 0, 10).getBookIds()).containsExactly(4L);
+        assertThat(searchEngine.search("duc", 0, 10).getBookIds()).containsExactly(4L);
+    }
+
+    @Test
+    void search_ShouldPageThroughRankedHits() {
+        BookSearchEngine.SearchHits firstPage = searchEngine.search("java", 0, 1);
+        BookSearchEngine.SearchHits secondPage = searchEngine.search("java", 1, 1);
+
+        assertThat(firstPage.getTotalHits()).isEqualTo(2);
+        assertThat(firstPage.getBookIds()).hasSize(1);
+        assertThat(secondPage.getBookIds()).hasSize(1);
+        assertThat(secondPage.getBookIds()).doesNotContainAnyElementsOf(firstPage.getBookIds());
+    }
+
+    @Test
+    void indexBook_ShouldReflectCatalogChanges() {
+        addBook(5L, "Spring in Action", "978-3333333333", "Hands-on Spring", "Craig Walls", "Manning");
+        searchEngine.indexBook(5L);
+        assertThat(searchEngine.search("spring", 0, 10).getBookIds()).contains(5L);
+
+        catalog.get(2L).setTitle("Advanced Kotlin");
+        catalog.get(2L).setDescription("Coroutines in depth");
+        searchEngine.indexBook(2L);
+        assertThat(searchEngine.search("spring", 0, 10).getBookIds()).doesNotContain(2L);
+        assertThat(searchEngine.search("kotlin", 0, 10).getBookIds()).containsExactly(2L);
+
+        catalog.remove(5L);
+        searchEngine.removeBook(5L);
+        assertThat(searchEngine.search("spring", 0, 10).getBookIds()).containsExactly(1L);
+        assertThat(searchEngine.getIndexedBookCount()).isEqualTo(4);
+    }
+
+    private void addBook(Long id, String title, String isbn, String description, String authorName,
+                         String publisherName) {
+        Author author = new Author();
+        author.setId(id * 10);
+        author.setName(authorName);
+
+        Publisher publisher = new Publisher();
+        publisher.setId(id * 100);
+        publisher.setName(publisherName);
+
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setIsbn(isbn);
+        book.setDescription(description);
+        book.setPublisher(publisher);
+
+        BookAuthor bookAuthor = new BookAuthor(book, author, "AUTHOR");
+        book.getBookAuthors().add(bookAuthor);
+
+        catalog.put(id, book);
+    }
+}
@@ -0,0 +1,158 @@
+package com.library.service;
+
+import com.library.entity.Author;
+import com.library.entity.Book;
+import com.library.entity.BookAuthor;
+import com.library.entity.Category;
+import com.library.entity.Publisher;
+import com.library.repository.BookRepository;
+import com.library.service.impl.InMemoryBookSuggester;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Heap, rebuild time and suggest(prefix, 10) latency over a synthetic catalog, 1M books by default
+ * (about 1.2M distinct suggestions). Books are generated per batch, so only the dictionary stays on
+ * the heap. Run on demand:
+ * {@code mvn test -Dtest=InMemoryBookSuggesterBenchmarkTest -Dbenchmark=true -DargLine=-Xmx2g}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InMemoryBookSuggesterBenchmarkTest {
+
+    private static final int BOOKS = Integer.getInteger("benchmark.books", 1_000_000);
+    private static final int AUTHORS = BOOKS / 5;
+    private static final int CATEGORIES = 200;
+    private static final int PUBLISHERS = 5_000;
+    private static final int QUERIES = 200_000;
+
+    private static final String[] WORDS = {
+            "java", "spring", "data", "design", "patterns", "history", "war", "peace", "ocean", "river",
+            "mountain", "garden", "city", "night", "morning", "winter", "summer", "secret", "lost", "found",
+            "modern", "ancient", "practical", "complete", "guide", "art", "science", "theory", "stories", "life",
+            "kitchen", "journey", "empire", "algorithms", "systems", "network", "cloud", "mind", "heart", "world"
+    };
+
+    @Test
+    void heapAndLatency() {
+        InMemoryBookSuggester suggester = new InMemoryBookSuggester(syntheticCatalog());
+        ReflectionTestUtils.setField(suggester, "batchSize", 1000);
+        ReflectionTestUtils.setField(suggester, "compactionThreshold", 1024);
+
+        long heapBefore = usedHeap();
+        long started = System.nanoTime();
+        suggester.rebuild();
+        long rebuildMs = (System.nanoTime() - started) / 1_000_000;
+        long heapMb = (usedHeap() - heapBefore) / (1024 * 1024);
+
+        List<String> prefixes = prefixes();
+        measure(suggester, prefixes); // warm-up
+        long[] latencies = measure(suggester, prefixes);
+        Arrays.sort(latencies);
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("books %d, suggestions %d", BOOKS, suggester.getSuggestionCount()));
+        report.add(String.format("heap %d MB, rebuild %d ms", heapMb, rebuildMs));
+        report.add(String.format("suggest(prefix, 10): p50 %.1f us, p99 %.1f us",
+                latencies[latencies.length / 2] / 1000.0, latencies[latencies.length * 99 / 100] / 1000.0));
+        System.out.println(String.join(System.lineSeparator(), report));
+    }
+
+    private static long[] measure(InMemoryBookSuggester suggester, List<String> prefixes) {
+        long[] latencies = new long[prefixes.size()];
+        int sink = 0;
+        for (int i = 0; i < latencies.length; i++) {
+            long started = System.nanoTime();
+            sink += suggester.suggest(prefixes.get(i), 10).size();
+            latencies[i] = System.nanoTime() - started;
+        }
+        if (sink < 0) {
+            throw new IllegalStateException("Negative suggestion count");
+        }
+        return latencies;
+    }
+
+    // Two to five leading characters of titles and author names, as typed into the search box
+    private static List<String> prefixes() {
+        Random random = new Random(7);
+        List<String> prefixes = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            long id = 1 + random.nextInt(BOOKS);
+            String text = (i & 1) == 0 ? title(id) : authorName(id % AUTHORS);
+            prefixes.add(text.substring(0, Math.min(text.length(), 2 + random.nextInt(4))));
+        }
+        return prefixes;
+    }
+
+    private static BookRepository syntheticCatalog() {
+        BookRepository bookRepository = mock(BookRepository.class);
+        when(bookRepository.findIdsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            Pageable pageable = invocation.getArgument(1);
+            return LongStream.rangeClosed(afterId + 1, Math.min(afterId + pageable.getPageSize(), BOOKS))
+                    .boxed()
+                    .toList();
+        });
+        when(bookRepository.findAllWithDetailsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(InMemoryBookSuggesterBenchmarkTest::book).toList();
+        });
+        return bookRepository;
+    }
+
+    private static Book book(Long id) {
+        Author author = new Author();
+        author.setId(id % AUTHORS);
+        author.setName(authorName(id % AUTHORS));
+
+        Category category = new Category();
+        category.setId(id % CATEGORIES);
+        category.setName("Category " + WORDS[(int) (id % WORDS.length)] + " " + id % CATEGORIES);
+
+        Publisher publisher = new Publisher();
+        publisher.setId(id % PUBLISHERS);
+        publisher.setName("Publisher " + id % PUBLISHERS);
+
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title(id));
+        book.setCategory(category);
+        book.setPublisher(publisher);
+        book.getBookAuthors().add(new BookAuthor(book, author, "AUTHOR"));
+        return book;
+    }
+
+    // Distinct per book, with shared leading words so prefixes match many titles
+    private static String title(long id) {
+        Random random = new Random(id);
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                + WORDS[random.nextInt(WORDS.length)] + " " + id;
+    }
+
+    private static String authorName(long authorId) {
+        Random random = new Random(-authorId - 1);
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + authorId;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
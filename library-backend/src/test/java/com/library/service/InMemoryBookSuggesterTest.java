@@ -0,0 +1,160 @@
+package com.library.service;
+
+import com.library.entity.Author;
+import com.library.entity.Book;
+import com.library.entity.BookAuthor;
+import com.library.entity.Category;
+import com.library.entity.Publisher;
+import com.library.repository.BookRepository;
+import com.library.service.impl.InMemoryBookSuggester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryBookSuggesterTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private InMemoryBookSuggester suggester;
+
+    private final Map<Long, Book> catalog = new TreeMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(suggester, "batchSize", 2);
+        ReflectionTestUtils.setField(suggester, "compactionThreshold", 1024);
+
+        lenient().when(bookRepository.findIdsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            Long afterId = invocation.getArgument(0);
+            Pageable pageable = invocation.getArgument(1);
+            return catalog.keySet().stream()
+                    .filter(id -> id > afterId)
+                    .limit(pageable.getPageSize())
+                    .toList();
+        });
+        lenient().when(bookRepository.findAllWithDetailsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            List<Book> books = new ArrayList<>();
+            ids.forEach(id -> {
+                if (catalog.containsKey(id)) {
+                    books.add(catalog.get(id));
+                }
+            });
+            return books;
+        });
+
+        addBook(1L, "Java Programming Mastery", "John Developer", "Programming", "Tech Publishers");
+        addBook(2L, "Java Concurrency in Practice", "Brian Goetz", "Programming", "Tech Publishers");
+        addBook(3L, "JavaScript: The Good Parts", "Douglas Crockford", "Programming", "O'Reilly");
+        addBook(4L, "Lập trình Java cơ bản", "John Developer", "Giáo trình", "NXB Trẻ");
+        addBook(5L, "The Great Adventure", "Jane Writer", "Fiction", "Fiction House");
+
+        suggester.rebuild();
+    }
+
+    @Test
+    void rebuild_ShouldCollectDistinctTitlesAuthorsCategoriesAndPublishers() {
+        assertThat(suggester.isReady()).isTrue();
+        // 5 titles, 4 authors, 3 categories, 4 publishers
+        assertThat(suggester.getSuggestionCount()).isEqualTo(16);
+    }
+
+    @Test
+    void suggest_ShouldRankByReferencesThenShorterText() {
+        assertThat(suggester.suggest("jo", 10)).containsExactly("John Developer");
+        assertThat(suggester.suggest("pro", 10)).containsExactly("Programming");
+        assertThat(suggester.suggest("java", 10)).containsExactly(
+                "Java Programming Mastery", "JavaScript: The Good Parts", "Java Concurrency in Practice");
+        assertThat(suggester.suggest("java", 2)).hasSize(2);
+        assertThat(suggester.suggest("te", 10)).containsExactly("Tech Publishers");
+    }
+
+    @Test
+    void suggest_ShouldIgnoreCaseAccentsAndPunctuation() {
+        assertThat(suggester.suggest("LAP TRINH", 10)).containsExactly("Lập trình Java cơ bản");
+        assertThat(suggester.suggest("giao", 10)).containsExactly("Giáo trình");
+        assertThat(suggester.suggest("javascript the", 10)).containsExactly("JavaScript: The Good Parts");
+        assertThat(suggester.suggest("o reilly", 10)).containsExactly("O'Reilly");
+        assertThat(suggester.suggest("zz", 10)).isEmpty();
+    }
+
+    @Test
+    void indexBook_ShouldUpdateWeightsAndRemoveUnreferencedSuggestions() {
+        addBook(6L, "Fiction Writing Basics", "Jane Writer", "Fiction", "Fiction House");
+        suggester.indexBook(6L);
+        assertThat(suggester.suggest("fic", 10))
+                .containsExactly("Fiction", "Fiction House", "Fiction Writing Basics");
+
+        catalog.get(5L).setTitle("The Grand Voyage");
+        suggester.indexBook(5L);
+        assertThat(suggester.suggest("the gr", 10)).containsExactly("The Grand Voyage");
+
+        catalog.remove(6L);
+        suggester.removeBook(6L);
+        assertThat(suggester.suggest("fic", 10)).containsExactly("Fiction", "Fiction House");
+        assertThat(suggester.getSuggestionCount()).isEqualTo(16);
+    }
+
+    @Test
+    void compaction_ShouldKeepSuggestionsConsistent() {
+        ReflectionTestUtils.setField(suggester, "compactionThreshold", 2);
+
+        addBook(6L, "Spring in Action", "Craig Walls", "Programming", "Manning");
+        suggester.indexBook(6L);
+        catalog.remove(3L);
+        suggester.removeBook(3L);
+        addBook(7L, "Spring Boot Up and Running", "Mark Heckler", "Programming", "O'Reilly");
+        suggester.indexBook(7L);
+
+        assertThat(suggester.suggest("spring", 10)).containsExactly("Spring in Action", "Spring Boot Up and Running");
+        assertThat(suggester.suggest("java", 10)).containsExactly("Java Programming Mastery", "Java Concurrency in Practice");
+        assertThat(suggester.suggest("o r", 10)).containsExactly("O'Reilly");
+        assertThat(suggester.suggest("doug", 10)).isEmpty();
+        assertThat(suggester.getSuggestionCount()).isEqualTo(19);
+    }
+
+    private void addBook(Long id, String title, String authorName, String categoryName, String publisherName) {
+        Author author = new Author();
+        author.setId(id * 10);
+        author.setName(authorName);
+
+        Category category = new Category();
+        category.setId(id * 100);
+        category.setName(categoryName);
+
+        Publisher publisher = new Publisher();
+        publisher.setId(id * 1000);
+        publisher.setName(publisherName);
+
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setCategory(category);
+        book.setPublisher(publisher);
+
+        BookAuthor bookAuthor = new BookAuthor(book, author, "AUTHOR");
+        book.getBookAuthors().add(bookAuthor);
+
+        catalog.put(id, book);
+    }
+}
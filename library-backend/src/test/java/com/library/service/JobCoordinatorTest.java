@@ -0,0 +1,169 @@
+package com.library.service;
+
+import com.library.entity.JobLease;
+import com.library.entity.JobRun;
+import com.library.repository.JobLeaseRepository;
+import com.library.repository.JobRunRepository;
+import com.library.service.impl.JobCoordinator;
+import com.library.service.impl.JobLeaseGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JobCoordinatorTest {
+
+    private static final LocalDateTime DATABASE_NOW = LocalDateTime.of(2026, 1, 5, 3, 30);
+
+    @Mock
+    private JobLeaseRepository leaseRepository;
+
+    @Mock
+    private JobRunRepository runRepository;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private ScheduledFuture<?> heartbeat;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private JobLeaseGuard leaseGuard;
+    private JobCoordinator jobCoordinator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        leaseGuard = new JobLeaseGuard();
+        lenient().when(leaseRepository.currentTime()).thenReturn(DATABASE_NOW);
+        jobCoordinator = new JobCoordinator(leaseRepository, runRepository, taskScheduler, meterRegistry,
+                leaseGuard, transactionManager, 300, 300);
+    }
+
+    @Test
+    void runExclusive_ShouldRunJobAndRecordItWhenLeaseIsTaken() {
+        whenLeaseTaken("order-archive", 7L);
+
+        assertThat(jobCoordinator.runExclusive("order-archive", () -> 12)).isTrue();
+
+        JobRun run = savedRun();
+        assertThat(run.getJobName()).isEqualTo("order-archive");
+        assertThat(run.getOutcome()).isEqualTo(JobRun.Outcome.SUCCEEDED);
+        assertThat(run.getRowsProcessed()).isEqualTo(12L);
+        assertThat(run.getFencingToken()).isEqualTo(7L);
+        // Lease times are taken from the database clock, with a 300 second lease and minimum gap
+        verify(leaseRepository).acquire(eq("order-archive"), anyString(), eq(DATABASE_NOW),
+                eq(DATABASE_NOW.minusMinutes(5)), eq(DATABASE_NOW.plusMinutes(5)));
+        verify(heartbeat).cancel(false);
+        verify(leaseRepository).release(eq("order-archive"), anyString(), eq(7L));
+        assertThat(meterRegistry.counter("library.jobs.rows", "job", "order-archive").count()).isEqualTo(12.0);
+    }
+
+    @Test
+    void runExclusive_ShouldSkipJobWhenLeaseIsHeldElsewhere() {
+        when(leaseRepository.acquire(eq("order-archive"), anyString(), any(), any(), any())).thenReturn(0);
+        when(leaseRepository.existsById("order-archive")).thenReturn(true);
+
+        assertThat(jobCoordinator.runExclusive("order-archive", () -> {
+            throw new AssertionError("Job ran without its lease");
+        })).isFalse();
+
+        verify(leaseRepository, never()).insert(any(), any(), any(), any());
+        verify(runRepository, never()).save(any());
+    }
+
+    @Test
+    void runExclusive_ShouldRecordFailedRunAndRethrow() {
+        whenLeaseTaken("cart-revalidation", 3L);
+
+        assertThatThrownBy(() -> jobCoordinator.runExclusive("cart-revalidation", () -> {
+            throw new IllegalStateException("Redis unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        JobRun run = savedRun();
+        assertThat(run.getOutcome()).isEqualTo(JobRun.Outcome.FAILED);
+        assertThat(run.getErrorMessage()).isEqualTo("Redis unavailable");
+        verify(leaseRepository).release(eq("cart-revalidation"), anyString(), eq(3L));
+    }
+
+    @Test
+    void runExclusive_ShouldStopJobAtItsNextTransactionOnceTheLeaseIsLost() {
+        whenLeaseTaken("order-archive", 7L);
+        when(leaseRepository.renew(eq("order-archive"), anyString(), eq(7L), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> jobCoordinator.runExclusive("order-archive", () -> {
+            leaseGuard.beforeBegin(null);
+            // Another node took the lease before the heartbeat renewed it
+            ArgumentCaptor<Runnable> heartbeatTask = ArgumentCaptor.forClass(Runnable.class);
+            verify(taskScheduler).scheduleAtFixedRate(heartbeatTask.capture(), any(Instant.class), any(Duration.class));
+            heartbeatTask.getValue().run();
+            leaseGuard.beforeBegin(null);
+            throw new AssertionError("Job went on without its lease");
+        })).isInstanceOf(IllegalStateException.class).hasMessageContaining("Lost job lease order-archive");
+
+        assertThat(savedRun().getOutcome()).isEqualTo(JobRun.Outcome.FAILED);
+        // Unbound once the job ends, so the coordinator can still record the run
+        leaseGuard.checkLeaseHeld();
+    }
+
+    @Test
+    void runPartitioned_ShouldRunOnlyPartitionsItCouldTake() {
+        when(leaseRepository.acquire(anyString(), anyString(), any(), any(), any())).thenReturn(0);
+        when(leaseRepository.existsById(anyString())).thenReturn(true);
+        when(leaseRepository.acquire(eq("loan-fine-accrual#2/3"), anyString(), any(), any(), any())).thenReturn(1);
+        when(leaseRepository.findById("loan-fine-accrual#2/3"))
+                .thenReturn(Optional.of(JobLease.builder().fencingToken(4L).build()));
+        doReturn(heartbeat).when(taskScheduler)
+                .scheduleAtFixedRate(any(Runnable.class), any(Instant.class), any(Duration.class));
+
+        int ran = jobCoordinator.runPartitioned("loan-fine-accrual", 3, (partition, partitions) -> {
+            assertThat(partition).isEqualTo(2);
+            return 5;
+        });
+
+        assertThat(ran).isEqualTo(1);
+        assertThat(savedRun().getPartition()).isEqualTo(2);
+        verify(leaseRepository, never()).release(eq("loan-fine-accrual#0/3"), anyString(), anyLong());
+    }
+
+    private void whenLeaseTaken(String leaseKey, long fencingToken) {
+        when(leaseRepository.acquire(eq(leaseKey), anyString(), any(), any(), any())).thenReturn(1);
+        when(leaseRepository.findById(leaseKey))
+                .thenReturn(Optional.of(JobLease.builder().leaseKey(leaseKey).fencingToken(fencingToken).build()));
+        doReturn(heartbeat).when(taskScheduler)
+                .scheduleAtFixedRate(any(Runnable.class), any(Instant.class), any(Duration.class));
+    }
+
+    private JobRun savedRun() {
+        ArgumentCaptor<JobRun> run = ArgumentCaptor.forClass(JobRun.class);
+        verify(runRepository).save(run.capture());
+        return run.getValue();
+    }
+}
@@ -0,0 +1,230 @@
+package com.library.service;
+
+import com.library.entity.Loan;
+import com.library.entity.LoanDueTrigger;
+import com.library.entity.LoanStatus;
+import com.library.event.LoanEvent;
+import com.library.repository.LoanDueTriggerRepository;
+import com.library.service.impl.LoanDueScheduleServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LoanDueScheduleServiceImplTest {
+
+    @Mock
+    private LoanDueTriggerRepository triggerRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LoanDueScheduleServiceImpl loanDueScheduleService;
+
+    @BeforeEach
+    void setUp() {
+        loanDueScheduleService = new LoanDueScheduleServiceImpl(triggerRepository, eventPublisher,
+                transactionManager, 24, 200);
+    }
+
+    @Test
+    void scheduleLoan_ShouldRegisterDueSoonAndFirstOverdueReminder() {
+        LocalDateTime dueDate = LocalDateTime.now().plusDays(14);
+        Loan loan = Loan.builder().id(9L).userId(3L).dueDate(dueDate).status(LoanStatus.APPROVED).build();
+
+        loanDueScheduleService.scheduleLoan(loan);
+
+        List<LoanDueTrigger> triggers = savedTriggers();
+        assertThat(triggers)
+                .extracting(LoanDueTrigger::getTriggerType, LoanDueTrigger::getFireAt)
+                .containsExactly(
+                        tuple(LoanDueTrigger.TriggerType.DUE_SOON, dueDate.minusHours(24)),
+                        tuple(LoanDueTrigger.TriggerType.OVERDUE, dueDate.plusDays(1)));
+        assertThat(triggers).allSatisfy(trigger -> {
+            assertThat(trigger.getLoanId()).isEqualTo(9L);
+            assertThat(trigger.getStatus()).isEqualTo(LoanDueTrigger.Status.PENDING);
+        });
+    }
+
+    @Test
+    void fireDueTriggers_ShouldSendOverdueReminderOnceAndRegisterNextWeekly() {
+        LocalDateTime dueDate = LocalDateTime.now().minusDays(7).minusHours(2);
+        LoanDueTriggerRepository.DueTrigger trigger = trigger(LoanDueTrigger.TriggerType.OVERDUE, dueDate, LoanStatus.OVERDUE);
+        when(triggerRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(trigger));
+        when(triggerRepository.markFired(eq(41L), any(LocalDateTime.class))).thenReturn(1);
+
+        assertThat(loanDueScheduleService.fireDueTriggers(10)).isEqualTo(1);
+
+        ArgumentCaptor<LoanEvent> event = ArgumentCaptor.forClass(LoanEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getEventType()).isEqualTo(LoanEvent.LoanEventType.LOAN_OVERDUE);
+
+        ArgumentCaptor<LoanDueTrigger> next = ArgumentCaptor.forClass(LoanDueTrigger.class);
+        verify(triggerRepository).save(next.capture());
+        assertThat(next.getValue().getTriggerType()).isEqualTo(LoanDueTrigger.TriggerType.OVERDUE);
+        assertThat(ChronoUnit.DAYS.between(dueDate, next.getValue().getFireAt())).isEqualTo(14);
+    }
+
+    @Test
+    void fireDueTriggers_ShouldSendReminderOnlyOnceTheTriggerIsCommitted() {
+        LoanDueTriggerRepository.DueTrigger trigger = trigger(LoanDueTrigger.TriggerType.DUE_SOON,
+                LocalDateTime.now().plusHours(20), LoanStatus.BORROWED);
+        when(triggerRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(trigger));
+        when(triggerRepository.markFired(eq(41L), any(LocalDateTime.class))).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(loanDueScheduleService.fireDueTriggers(10)).isEqualTo(1);
+            verify(eventPublisher, never()).publishEvent(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        ArgumentCaptor<LoanEvent> event = ArgumentCaptor.forClass(LoanEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getEventType()).isEqualTo(LoanEvent.LoanEventType.LOAN_DUE_SOON);
+    }
+
+    @Test
+    void fireDueTriggers_ShouldNotSendReminderClaimedElsewhere() {
+        LoanDueTriggerRepository.DueTrigger trigger = trigger(LoanDueTrigger.TriggerType.DUE_SOON,
+                LocalDateTime.now().plusHours(20), LoanStatus.BORROWED);
+        when(triggerRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(trigger));
+        when(triggerRepository.markFired(eq(41L), any(LocalDateTime.class))).thenReturn(0);
+
+        // Off the queue head all the same, so the drain goes on past it
+        assertThat(loanDueScheduleService.fireDueTriggers(10)).isEqualTo(1);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void fireDueTriggers_ShouldCancelRemindersOfReturnedLoans() {
+        LoanDueTriggerRepository.DueTrigger trigger = trigger(LoanDueTrigger.TriggerType.OVERDUE,
+                LocalDateTime.now().minusDays(2), LoanStatus.RETURNED);
+        when(triggerRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(trigger));
+
+        assertThat(loanDueScheduleService.fireDueTriggers(10)).isEqualTo(1);
+        verify(triggerRepository).cancel(41L);
+        verify(triggerRepository, never()).markFired(anyLong(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void fireDueTriggers_ShouldDeferFailingTriggerWithGrowingDelay() {
+        LoanDueTriggerRepository.DueTrigger trigger = trigger(LoanDueTrigger.TriggerType.DUE_SOON,
+                LocalDateTime.now().plusHours(20), LoanStatus.BORROWED, 3);
+        when(triggerRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(trigger));
+        when(triggerRepository.markFired(eq(41L), any(LocalDateTime.class)))
+                .thenThrow(new IllegalStateException("lock wait timeout"));
+        LocalDateTime before = LocalDateTime.now();
+
+        assertThat(loanDueScheduleService.fireDueTriggers(10)).isEqualTo(1);
+
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(triggerRepository).deferFailed(eq(41L), retryAt.capture());
+        assertThat(retryAt.getValue()).isBetween(before.plusMinutes(8), LocalDateTime.now().plusMinutes(8));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void fireDueTriggers_ShouldLeaveTriggerAtTheHeadWhenItCannotBeDeferred() {
+        LoanDueTriggerRepository.DueTrigger trigger = trigger(LoanDueTrigger.TriggerType.DUE_SOON,
+                LocalDateTime.now().plusHours(20), LoanStatus.BORROWED);
+        when(triggerRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(trigger));
+        when(triggerRepository.markFired(eq(41L), any(LocalDateTime.class)))
+                .thenThrow(new IllegalStateException("lock wait timeout"));
+        when(triggerRepository.deferFailed(eq(41L), any(LocalDateTime.class)))
+                .thenThrow(new IllegalStateException("lock wait timeout"));
+
+        // Not counted, so the scheduler stops draining instead of reading it again
+        assertThat(loanDueScheduleService.fireDueTriggers(1)).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<LoanDueTrigger> savedTriggers() {
+        ArgumentCaptor<List<LoanDueTrigger>> triggers = ArgumentCaptor.forClass(List.class);
+        verify(triggerRepository).saveAll(triggers.capture());
+        return triggers.getValue();
+    }
+
+    private static LoanDueTriggerRepository.DueTrigger trigger(LoanDueTrigger.TriggerType type, LocalDateTime dueDate,
+                                                               LoanStatus loanStatus) {
+        return trigger(type, dueDate, loanStatus, 0);
+    }
+
+    private static LoanDueTriggerRepository.DueTrigger trigger(LoanDueTrigger.TriggerType type, LocalDateTime dueDate,
+                                                               LoanStatus loanStatus, int attempts) {
+        return new LoanDueTriggerRepository.DueTrigger() {
+            @Override
+            public Long getId() {
+                return 41L;
+            }
+
+            @Override
+            public LoanDueTrigger.TriggerType getTriggerType() {
+                return type;
+            }
+
+            @Override
+            public LocalDateTime getFireAt() {
+                return LocalDateTime.now().minusMinutes(1);
+            }
+
+            @Override
+            public Integer getAttempts() {
+                return attempts;
+            }
+
+            @Override
+            public Long getLoanId() {
+                return 9L;
+            }
+
+            @Override
+            public Long getUserId() {
+                return 3L;
+            }
+
+            @Override
+            public LocalDateTime getDueDate() {
+                return dueDate;
+            }
+
+            @Override
+            public LoanStatus getLoanStatus() {
+                return loanStatus;
+            }
+
+            @Override
+            public String getBookTitle() {
+                return "The Pragmatic Programmer";
+            }
+        };
+    }
+}
@@ -0,0 +1,165 @@
+package com.library.service;
+
+import com.library.dto.LoanSweepResultDTO;
+import com.library.entity.LoanStatus;
+import com.library.entity.LoanSweepCheckpoint;
+import com.library.repository.LoanRepository;
+import com.library.repository.LoanSweepCheckpointRepository;
+import com.library.service.impl.LoanSweepEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LoanSweepEngineTest {
+
+    private static final String SWEEP = "overdue-status";
+    private static final List<LoanStatus> STATUSES = List.of(LoanStatus.BORROWED);
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private LoanSweepCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoanSweepEngine sweepEngine;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Chunks of 2, waves of 2 chunks, run on the calling thread
+        sweepEngine = new LoanSweepEngine(loanRepository, checkpointRepository, Runnable::run,
+                transactionManager, meterRegistry, 2, 2);
+    }
+
+    @Test
+    void run_ShouldProcessChunksInWavesAndAdvanceCheckpointPerWave() {
+        when(checkpointRepository.findById(SWEEP)).thenReturn(Optional.empty());
+        when(checkpointRepository.save(any(LoanSweepCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(loanRepository.findOverdueAfter(anyCollection(), any(LocalDateTime.class), eq(0L), eq(0), eq(1),
+                any(Pageable.class))).thenReturn(loans(1, 2));
+        when(loanRepository.findOverdueAfter(anyCollection(), any(LocalDateTime.class), eq(2L), eq(0), eq(1),
+                any(Pageable.class))).thenReturn(loans(3, 4));
+        when(loanRepository.findOverdueAfter(anyCollection(), any(LocalDateTime.class), eq(4L), eq(0), eq(1),
+                any(Pageable.class))).thenReturn(loans(5));
+
+        LoanSweepResultDTO result = sweepEngine.run(SWEEP, STATUSES, (chunk, asOf) -> chunk.size() - 1);
+
+        assertThat(result.isResumed()).isFalse();
+        assertThat(result.getProcessedLoans()).isEqualTo(5);
+        assertThat(result.getUpdatedLoans()).isEqualTo(2);
+        assertThat(result.getChunks()).isEqualTo(3);
+        verify(checkpointRepository).advance(SWEEP, 4L, 4, 2);
+        verify(checkpointRepository).advance(SWEEP, 5L, 1, 0);
+        verify(checkpointRepository).complete(eq(SWEEP), any(LocalDateTime.class));
+        assertThat(meterRegistry.counter("library.loan.sweep.rows", "sweep", SWEEP).count()).isEqualTo(5.0);
+    }
+
+    @Test
+    void run_ShouldResumeRunningSweepWithItsCutoff() {
+        LocalDateTime asOf = LocalDateTime.now().minusHours(3);
+        when(checkpointRepository.findById(SWEEP)).thenReturn(Optional.of(LoanSweepCheckpoint.builder()
+                .sweep(SWEEP)
+                .state(LoanSweepCheckpoint.State.RUNNING)
+                .asOf(asOf)
+                .lastLoanId(40L)
+                .startedAt(asOf)
+                .build()));
+        when(loanRepository.findOverdueAfter(STATUSES, asOf, 40L, 0, 1, Pageable.ofSize(2))).thenReturn(loans(41));
+
+        LoanSweepResultDTO result = sweepEngine.run(SWEEP, STATUSES, (chunk, cutoff) -> chunk.size());
+
+        assertThat(result.isResumed()).isTrue();
+        assertThat(result.getAsOf()).isEqualTo(asOf);
+        assertThat(result.getProcessedLoans()).isEqualTo(1);
+        verify(checkpointRepository, never()).save(any());
+        verify(checkpointRepository).advance(SWEEP, 41L, 1, 1);
+    }
+
+    @Test
+    void run_ShouldSweepPartitionUnderItsOwnCheckpoint() {
+        String partitionSweep = SWEEP + "#1/4";
+        when(checkpointRepository.findById(partitionSweep)).thenReturn(Optional.empty());
+        when(checkpointRepository.save(any(LoanSweepCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(loanRepository.findOverdueAfter(anyCollection(), any(LocalDateTime.class), eq(0L), eq(1), eq(4),
+                any(Pageable.class))).thenReturn(loans(5));
+
+        LoanSweepResultDTO result = sweepEngine.run(SWEEP, STATUSES, 1, 4, (chunk, asOf) -> chunk.size());
+
+        assertThat(result.getSweep()).isEqualTo(partitionSweep);
+        verify(checkpointRepository).advance(partitionSweep, 5L, 1, 1);
+        verify(checkpointRepository).complete(eq(partitionSweep), any(LocalDateTime.class));
+    }
+
+    @Test
+    void run_ShouldKeepCheckpointBeforeFailedWave() {
+        when(checkpointRepository.findById(SWEEP)).thenReturn(Optional.empty());
+        when(checkpointRepository.save(any(LoanSweepCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(loanRepository.findOverdueAfter(anyCollection(), any(LocalDateTime.class), eq(0L), eq(0), eq(1),
+                any(Pageable.class))).thenReturn(loans(1, 2));
+        when(loanRepository.findOverdueAfter(anyCollection(), any(LocalDateTime.class), eq(2L), eq(0), eq(1),
+                any(Pageable.class))).thenReturn(loans(3));
+
+        assertThatThrownBy(() -> sweepEngine.run(SWEEP, STATUSES, (chunk, asOf) -> {
+            if (chunk.get(0).getId() == 3L) {
+                throw new IllegalStateException("Deadlock");
+            }
+            return chunk.size();
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(checkpointRepository, never()).advance(any(), anyLong(), anyLong(), anyLong());
+        verify(checkpointRepository, never()).complete(any(), any());
+    }
+
+    private static List<LoanRepository.OverdueLoan> loans(long... ids) {
+        return LongStream.of(ids).mapToObj(LoanSweepEngineTest::loan).toList();
+    }
+
+    private static LoanRepository.OverdueLoan loan(long id) {
+        return new LoanRepository.OverdueLoan() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUserId() {
+                return 100 + id;
+            }
+
+            @Override
+            public LocalDateTime getDueDate() {
+                return LocalDateTime.now().minusDays(id);
+            }
+
+            @Override
+            public String getBookTitle() {
+                return "Book " + id;
+            }
+        };
+    }
+}
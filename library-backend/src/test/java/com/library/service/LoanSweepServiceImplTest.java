@@ -0,0 +1,123 @@
+package com.library.service;
+
+import com.library.entity.LoanStatus;
+import com.library.repository.LoanFineRepository;
+import com.library.repository.LoanRepository;
+import com.library.service.impl.LoanSweepEngine;
+import com.library.service.impl.LoanSweepServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LoanSweepServiceImplTest {
+
+    private static final LocalDateTime AS_OF = LocalDateTime.of(2026, 3, 1, 0, 15);
+
+    @Mock
+    private LoanSweepEngine sweepEngine;
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private LoanFineRepository loanFineRepository;
+
+    @Mock
+    private FineCalculationService fineCalculationService;
+
+    @Mock
+    private UserLoanSummaryService userLoanSummaryService;
+
+    @InjectMocks
+    private LoanSweepServiceImpl loanSweepService;
+
+    @Test
+    void accrueFines_ShouldWriteLedgerAndFinesOncePerDistinctDayCount() {
+        LoanSweepEngine.ChunkProcessor processor = processorOf("fine-accrual",
+                List.of(LoanStatus.BORROWED, LoanStatus.OVERDUE), loanSweepService::accrueFines);
+        when(fineCalculationService.calculateFine(any(LocalDateTime.class), eq(AS_OF)))
+                .thenAnswer(invocation -> fineFor(invocation.getArgument(0)));
+        when(loanRepository.accrueFine(List.of(1L, 2L), new BigDecimal("15000"))).thenReturn(2);
+        when(loanRepository.accrueFine(List.of(3L), new BigDecimal("50000"))).thenReturn(1);
+
+        int accrued = processor.process(List.of(loan(1L, 3), loan(2L, 3), loan(3L, 12)), AS_OF);
+
+        assertThat(accrued).isEqualTo(3);
+        verify(fineCalculationService, times(2)).calculateFine(any(LocalDateTime.class), eq(AS_OF));
+        InOrder ledgerFirst = inOrder(loanFineRepository, loanRepository);
+        ledgerFirst.verify(loanFineRepository).recordAccruals(List.of(1L, 2L), 3, new BigDecimal("15000"), AS_OF);
+        ledgerFirst.verify(loanRepository).accrueFine(List.of(1L, 2L), new BigDecimal("15000"));
+        verify(loanFineRepository).recordAccruals(List.of(3L), 12, new BigDecimal("50000"), AS_OF);
+    }
+
+    @Test
+    void markOverdueLoans_ShouldAccrueFinesThenFlipStatusOfWholeChunk() {
+        LoanSweepEngine.ChunkProcessor processor = processorOf("overdue-status",
+                List.of(LoanStatus.BORROWED), loanSweepService::markOverdueLoans);
+        when(fineCalculationService.calculateFine(any(LocalDateTime.class), eq(AS_OF))).thenReturn(new BigDecimal("5000"));
+        when(loanRepository.markOverdue(List.of(4L, 5L))).thenReturn(2);
+
+        assertThat(processor.process(List.of(loan(4L, 1), loan(5L, 1)), AS_OF)).isEqualTo(2);
+
+        InOrder finesFirst = inOrder(loanRepository);
+        finesFirst.verify(loanRepository).accrueFine(List.of(4L, 5L), new BigDecimal("5000"));
+        finesFirst.verify(loanRepository).markOverdue(List.of(4L, 5L));
+        verify(userLoanSummaryService).recordLoansOverdue(List.of(4L, 5L));
+    }
+
+    private LoanSweepEngine.ChunkProcessor processorOf(String sweep, List<LoanStatus> statuses, Runnable run) {
+        run.run();
+        ArgumentCaptor<LoanSweepEngine.ChunkProcessor> processor = ArgumentCaptor.forClass(LoanSweepEngine.ChunkProcessor.class);
+        verify(sweepEngine).run(eq(sweep), eq(statuses), eq(0), eq(1), processor.capture());
+        return processor.getValue();
+    }
+
+    // Same shape as the real rules: 5000 a day, capped at 50000
+    private static BigDecimal fineFor(LocalDateTime dueDate) {
+        long days = ChronoUnit.DAYS.between(dueDate, AS_OF);
+        return new BigDecimal(Math.min(days * 5000, 50000));
+    }
+
+    private static LoanRepository.OverdueLoan loan(long id, int daysOverdue) {
+        LocalDateTime dueDate = AS_OF.minusDays(daysOverdue).minusHours(1);
+        return new LoanRepository.OverdueLoan() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUserId() {
+                return 200 + id;
+            }
+
+            @Override
+            public LocalDateTime getDueDate() {
+                return dueDate;
+            }
+
+            @Override
+            public String getBookTitle() {
+                return "Book " + id;
+            }
+        };
+    }
+}
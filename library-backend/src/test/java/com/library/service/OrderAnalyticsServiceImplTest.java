@@ -0,0 +1,119 @@
+package com.library.service;
+
+import com.library.dto.AdminOrderStatsDTO;
+import com.library.entity.Book;
+import com.library.entity.Order;
+import com.library.entity.OrderItem;
+import com.library.entity.OrderStatus;
+import com.library.entity.PaymentStatus;
+import com.library.repository.BookSalesBucketRepository;
+import com.library.repository.OrderStatsBucketRepository;
+import com.library.service.impl.OrderAnalyticsServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Orders stay unsaved: the buckets key on order dates, which saving would overwrite
+@Import(OrderAnalyticsServiceImpl.class)
+class OrderAnalyticsServiceImplTest extends CommittingJpaTest {
+
+    private static final LocalDateTime DAY_1 = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    @Autowired
+    private OrderAnalyticsService orderAnalyticsService;
+
+    @Autowired
+    private OrderStatsBucketRepository orderStatsBucketRepository;
+
+    @Autowired
+    private BookSalesBucketRepository bookSalesBucketRepository;
+
+    @AfterEach
+    void tearDown() {
+        orderStatsBucketRepository.deleteAll();
+        bookSalesBucketRepository.deleteAll();
+    }
+
+    @Test
+    void getOrderStatistics_ShouldCombineDailyAndHourlyBucketsAtTheRangeEdges() {
+        Order delivered = place(1L, DAY_1.plusHours(22).plusMinutes(30), "150.00", 3);
+        change(delivered, OrderStatus.PAID, PaymentStatus.PAID);
+        ship(delivered, delivered.getOrderDate().plusHours(5));
+        change(delivered, OrderStatus.DELIVERED, PaymentStatus.PAID);
+
+        Order cancelled = place(2L, DAY_1.plusDays(1).plusHours(10), "80.00", 2);
+        change(cancelled, OrderStatus.CANCELLED, PaymentStatus.UNPAID);
+
+        place(3L, DAY_1.plusDays(2).plusHours(1).plusMinutes(15), "40.00", 1);
+
+        // Just outside the range on either side
+        place(4L, DAY_1.plusHours(21).plusMinutes(59), "10.00", 1);
+        place(5L, DAY_1.plusDays(2).plusHours(2), "10.00", 1);
+
+        AdminOrderStatsDTO stats = orderAnalyticsService.getOrderStatistics(
+                DAY_1.plusHours(22), DAY_1.plusDays(2).plusHours(2));
+
+        assertThat(stats.getTotalOrders()).isEqualTo(3);
+        assertThat(stats.getDeliveredOrders()).isEqualTo(1);
+        assertThat(stats.getCancelledOrders()).isEqualTo(1);
+        assertThat(stats.getPendingPaymentOrders()).isEqualTo(1);
+        assertThat(stats.getPaidOrders()).isZero();
+        assertThat(stats.getTotalRevenue()).isEqualByComparingTo("150.00");
+        assertThat(stats.getAverageOrderValue()).isEqualByComparingTo("150.00");
+        assertThat(stats.getAverageProcessingTimeHours()).isEqualTo(5.0);
+        assertThat(stats.getTopSellingBooks()).containsExactly(Map.entry("Book 1", 3));
+    }
+
+    @Test
+    void getOrderStatistics_ShouldMoveRefundedOrderOutOfRevenueAndTopSellers() {
+        Order order = place(1L, DAY_1.plusHours(9), "100.00", 2);
+        change(order, OrderStatus.PAID, PaymentStatus.PAID);
+        change(order, OrderStatus.REFUNDED, PaymentStatus.REFUNDED);
+
+        AdminOrderStatsDTO stats = orderAnalyticsService.getOrderStatistics(DAY_1, DAY_1.plusDays(1));
+
+        assertThat(stats.getTotalOrders()).isEqualTo(1);
+        assertThat(stats.getRefundedOrders()).isEqualTo(1);
+        assertThat(stats.getTotalRevenue()).isEqualByComparingTo("0");
+        assertThat(stats.getTotalRefunds()).isEqualByComparingTo("100.00");
+        assertThat(stats.getTopSellingBooks()).isEmpty();
+    }
+
+    private Order place(Long id, LocalDateTime orderDate, String totalAmount, int quantity) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Book " + id);
+        Order order = Order.builder()
+                .id(id)
+                .userId(1L)
+                .orderCode("ORD-202603-00000" + id)
+                .orderDate(orderDate)
+                .totalAmount(new BigDecimal(totalAmount))
+                .build();
+        order.addOrderItem(OrderItem.builder().book(book).bookTitle(book.getTitle()).quantity(quantity).build());
+        orderAnalyticsService.recordOrderPlaced(order);
+        return order;
+    }
+
+    private void change(Order order, OrderStatus newStatus, PaymentStatus newPaymentStatus) {
+        OrderStatus oldStatus = order.getStatus();
+        PaymentStatus oldPaymentStatus = order.getPaymentStatus();
+        order.setStatus(newStatus);
+        order.setPaymentStatus(newPaymentStatus);
+        orderAnalyticsService.recordOrderChange(order, oldStatus, oldPaymentStatus, order.getShippingDate());
+    }
+
+    private void ship(Order order, LocalDateTime shippingDate) {
+        OrderStatus oldStatus = order.getStatus();
+        order.setStatus(OrderStatus.SHIPPED);
+        order.setShippingDate(shippingDate);
+        orderAnalyticsService.recordOrderChange(order, oldStatus, order.getPaymentStatus(), null);
+    }
+}
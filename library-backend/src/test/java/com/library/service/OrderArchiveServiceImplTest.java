@@ -0,0 +1,116 @@
+package com.library.service;
+
+import com.library.entity.ArchivedOrder;
+import com.library.entity.Book;
+import com.library.entity.Order;
+import com.library.entity.OrderStatus;
+import com.library.entity.PaymentStatus;
+import com.library.repository.ArchivedOrderRepository;
+import com.library.repository.ArchivedOrderViewRepository;
+import com.library.repository.OrderViewRepository;
+import com.library.service.impl.OrderArchiveServiceImpl;
+import com.library.service.impl.OrderViewServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A negative archive age puts every finished order past the cutoff
+@TestPropertySource(properties = {
+        "library.order.view.create-missing-on-startup=false",
+        "library.order.archive.after-days=-1",
+        "library.order.archive.batch-size=2"
+})
+@Import({OrderArchiveServiceImpl.class, OrderViewServiceImpl.class, JacksonAutoConfiguration.class})
+class OrderArchiveServiceImplTest extends CommittingJpaTest {
+
+    private static final long USER_ID = 31L;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderViewService orderViewService;
+
+    @Autowired
+    private OrderViewRepository viewRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private ArchivedOrderViewRepository archivedViewRepository;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        book = saveBook("Release It!", "9780000000035", "35.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        archivedViewRepository.deleteAll();
+        archivedOrderRepository.deleteAll();
+        viewRepository.deleteAll();
+    }
+
+    @Test
+    void archiveFinishedOrders_ShouldMoveFinishedOrdersWithItemsAndViews() {
+        Order delivered = place("ORD-202601-000001", OrderStatus.DELIVERED, 2);
+        place("ORD-202601-000002", OrderStatus.CANCELLED, 1);
+        place("ORD-202601-000003", OrderStatus.REFUNDED, 3);
+        Order pending = place("ORD-202601-000004", OrderStatus.PENDING_PAYMENT, 1);
+
+        // Three orders over two batches of two
+        assertThat(orderArchiveService.archiveFinishedOrders()).isEqualTo(3);
+
+        assertThat(orderRepository.findAll()).extracting(Order::getId).containsExactly(pending.getId());
+        assertThat(viewRepository.findAll()).hasSize(1);
+        assertThat(archivedViewRepository.countByUserId(USER_ID)).isEqualTo(3);
+
+        ArchivedOrder archived = transaction.execute(status -> {
+            ArchivedOrder order = archivedOrderRepository
+                    .findWithItemsByOrderCodeAndUserId("ORD-202601-000001", USER_ID).orElseThrow();
+            order.getOrderItems().size();
+            return order;
+        });
+        assertThat(archived.getId()).isEqualTo(delivered.getId());
+        assertThat(archived.getStatus()).isEqualTo(OrderStatus.DELIVERED);
+        assertThat(archived.getTotalAmount()).isEqualByComparingTo("70.00");
+        assertThat(archived.getArchivedAt()).isNotNull();
+        assertThat(archived.getOrderItems()).singleElement()
+                .satisfies(item -> {
+                    assertThat(item.getBookId()).isEqualTo(book.getId());
+                    assertThat(item.getQuantity()).isEqualTo(2);
+                });
+
+        assertThat(orderArchiveService.archiveFinishedOrders()).isZero();
+    }
+
+    @Test
+    void archiveFinishedOrders_ShouldKeepOrdersWithoutViewHot() {
+        Order delivered = place("ORD-202601-000005", OrderStatus.DELIVERED, 1);
+        viewRepository.deleteById(delivered.getId());
+
+        assertThat(orderArchiveService.archiveFinishedOrders()).isZero();
+        assertThat(orderRepository.findById(delivered.getId())).isPresent();
+
+        orderViewService.createMissingViews();
+        assertThat(orderArchiveService.archiveFinishedOrders()).isEqualTo(1);
+        assertThat(archivedViewRepository.findByOrderCodeAndUserId("ORD-202601-000005", USER_ID)).isPresent();
+    }
+
+    private Order place(String orderCode, OrderStatus orderStatus, int quantity) {
+        Order order = newOrder(USER_ID, orderCode, book, quantity);
+        order.setStatus(orderStatus);
+        order.setPaymentStatus(orderStatus == OrderStatus.PENDING_PAYMENT ? PaymentStatus.UNPAID : PaymentStatus.PAID);
+        order.setShippingCity("Da Nang");
+        return place(order, orderViewService::refresh);
+    }
+}
@@ -0,0 +1,97 @@
+package com.library.service;
+
+import com.library.repository.OrderCodeSequenceRepository;
+import com.library.repository.OrderRepository;
+import com.library.service.impl.OrderCodeAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Order codes per second by block size, 8 threads over 2 nodes on an in-memory database. Run on demand:
+ * {@code mvn test -Dtest=OrderCodeAllocatorBenchmarkTest -Dbenchmark=true}
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderCodeAllocatorBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int CODES_PER_THREAD = 20_000;
+
+    @Autowired
+    private OrderCodeSequenceRepository sequenceRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        sequenceRepository.deleteAll();
+    }
+
+    @Test
+    void codesPerSecond() throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-10s %12s", "block size", "codes/s"));
+        for (int blockSize : new int[]{1, 10, 50, 500}) {
+            run(blockSize); // warm-up
+            sequenceRepository.deleteAll();
+            report.add(String.format("%-10d %12.0f", blockSize, run(blockSize)));
+            sequenceRepository.deleteAll();
+        }
+        System.out.println(String.join(System.lineSeparator(), report));
+    }
+
+    private double run(int blockSize) throws Exception {
+        List<OrderCodeAllocator> nodes = List.of(node(blockSize), node(blockSize));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            OrderCodeAllocator node = nodes.get(i % nodes.size());
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < CODES_PER_THREAD; j++) {
+                    node.nextOrderCode();
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        executor.shutdown();
+        return THREADS * (double) CODES_PER_THREAD * 1_000_000_000L / elapsed;
+    }
+
+    private OrderCodeAllocator node(int blockSize) {
+        OrderCodeAllocator allocator = new OrderCodeAllocator(sequenceRepository, orderRepository, transactionManager);
+        ReflectionTestUtils.setField(allocator, "blockSize", blockSize);
+        return allocator;
+    }
+}
@@ -0,0 +1,142 @@
+package com.library.service;
+
+import com.library.entity.Order;
+import com.library.repository.OrderCodeSequenceRepository;
+import com.library.repository.OrderRepository;
+import com.library.service.impl.OrderCodeAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderCodeAllocatorTest {
+
+    private static final String PERIOD = YearMonth.now().format(DateTimeFormatter.ofPattern("yyyyMM"));
+
+    @Autowired
+    private OrderCodeSequenceRepository sequenceRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        sequenceRepository.deleteAll();
+    }
+
+    @Test
+    void nextOrderCode_ShouldStayUniqueAcrossNodes() throws Exception {
+        // Four allocators stand in for four application nodes sharing the database
+        List<OrderCodeAllocator> nodes = List.of(node(7), node(7), node(7), node(7));
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<List<String>>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            OrderCodeAllocator node = nodes.get(i % nodes.size());
+            results.add(executor.submit(() -> {
+                start.await();
+                List<String> codes = new ArrayList<>();
+                for (int j = 0; j < 100; j++) {
+                    codes.add(node.nextOrderCode());
+                }
+                return codes;
+            }));
+        }
+        start.countDown();
+
+        Set<String> codes = new HashSet<>();
+        for (Future<List<String>> result : results) {
+            codes.addAll(result.get());
+        }
+        executor.shutdown();
+
+        assertThat(codes).hasSize(1600);
+        assertThat(codes).allMatch(code -> code.matches("ORD-" + PERIOD + "-\\d{6}"));
+        // Each node wastes at most the unused part of its last block and the block it prefetched
+        assertThat(sequenceRepository.findNextValue(PERIOD)).hasValueSatisfying(
+                leased -> assertThat(leased).isBetween(1600L, 1600L + 4 * 2 * 7));
+    }
+
+    @Test
+    void nextOrderCode_ShouldLeaseTheNextBlockHalfwayThroughTheCurrentOne() throws Exception {
+        OrderCodeAllocator allocator = node(10);
+        for (int i = 0; i < 6; i++) {
+            allocator.nextOrderCode();
+        }
+
+        // Leased in the background, before any caller needs it
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (sequenceRepository.findNextValue(PERIOD).orElse(0L) < 20 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(sequenceRepository.findNextValue(PERIOD)).contains(20L);
+
+        for (int i = 7; i <= 10; i++) {
+            assertThat(allocator.nextOrderCode()).isEqualTo("ORD-" + PERIOD + "-" + String.format("%06d", i));
+        }
+        assertThat(allocator.nextOrderCode()).isEqualTo("ORD-" + PERIOD + "-000011");
+        assertThat(sequenceRepository.findNextValue(PERIOD)).contains(20L);
+    }
+
+    @Test
+    void nextOrderCode_ShouldContinueAfterCodesIssuedBeforeTheSequence() {
+        saveOrder("ORD-" + PERIOD + "-000153");
+
+        OrderCodeAllocator allocator = node(10);
+
+        assertThat(allocator.nextOrderCode()).isEqualTo("ORD-" + PERIOD + "-000154");
+        assertThat(allocator.nextOrderCode()).isEqualTo("ORD-" + PERIOD + "-000155");
+        assertThat(sequenceRepository.findNextValue(PERIOD)).contains(163L);
+    }
+
+    @Test
+    void nextOrderCode_ShouldContinueAfterCodesPastTheZeroPadding() {
+        saveOrder("ORD-" + PERIOD + "-999999");
+        saveOrder("ORD-" + PERIOD + "-1000000");
+
+        assertThat(node(10).nextOrderCode()).isEqualTo("ORD-" + PERIOD + "-1000001");
+    }
+
+    private void saveOrder(String orderCode) {
+        orderRepository.save(Order.builder()
+                .userId(1L)
+                .orderCode(orderCode)
+                .subTotalAmount(BigDecimal.TEN)
+                .totalAmount(BigDecimal.TEN)
+                .build());
+    }
+
+    private OrderCodeAllocator node(int blockSize) {
+        OrderCodeAllocator allocator = new OrderCodeAllocator(sequenceRepository, orderRepository, transactionManager);
+        ReflectionTestUtils.setField(allocator, "blockSize", blockSize);
+        return allocator;
+    }
+}
@@ -0,0 +1,123 @@
+package com.library.service;
+
+import com.library.entity.Book;
+import com.library.entity.Order;
+import com.library.entity.OrderItem;
+import com.library.entity.OrderStatus;
+import com.library.event.OrderEvent;
+import com.library.repository.BookRepository;
+import com.library.repository.OrderRepository;
+import com.library.service.impl.CatalogCacheEvictor;
+import com.library.service.impl.OrderHoldServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderHoldServiceImplTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private CatalogCacheEvictor catalogCacheEvictor;
+
+    @Mock
+    private UserOrderStatsService userOrderStatsService;
+
+    @Mock
+    private OrderAnalyticsService orderAnalyticsService;
+
+    @Mock
+    private OrderViewService orderViewService;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private OrderHoldServiceImpl orderHoldService;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+
+        Book book = new Book();
+        book.setId(7L);
+        book.setIsbn("9780000000007");
+        order = Order.builder()
+                .id(42L)
+                .userId(3L)
+                .orderCode("ORD-202601-000042")
+                .status(OrderStatus.PENDING_PAYMENT)
+                .build();
+        order.addOrderItem(OrderItem.builder().book(book).quantity(2).build());
+    }
+
+    @Test
+    void claimExpiredHolds_ShouldReturnOnlyHoldsThisInstanceRemoved() {
+        when(zSetOperations.rangeByScore(anyString(), anyDouble(), anyDouble(), anyLong(), anyLong()))
+                .thenReturn(new LinkedHashSet<>(List.of("1", "2")));
+        when(zSetOperations.remove(anyString(), eq("1"))).thenReturn(1L);
+        when(zSetOperations.remove(anyString(), eq("2"))).thenReturn(0L); // claimed by another instance
+
+        assertThat(orderHoldService.claimExpiredHolds(10)).containsExactly(1L);
+    }
+
+    @Test
+    void expireHold_ShouldRestoreStockOnlyWhenOrderWasStillUnpaid() {
+        when(orderRepository.expireStockHold(eq(42L), any(LocalDateTime.class))).thenReturn(1, 0);
+        when(orderRepository.findById(42L)).thenReturn(Optional.of(order));
+
+        assertThat(orderHoldService.expireHold(42L)).isTrue();
+        assertThat(orderHoldService.expireHold(42L)).isFalse();
+
+        verify(bookRepository).restoreStockForSale(Map.of(7L, 2));
+        verify(orderViewService).refresh(order);
+        verify(eventPublisher).publishEvent(any(OrderEvent.class));
+    }
+
+    @Test
+    void confirmHold_ShouldFailWhenHoldAlreadyExpired() {
+        order.setStockHoldExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(orderRepository.confirmStockHold(42L)).thenReturn(0);
+
+        assertThatThrownBy(() -> orderHoldService.confirmHold(order))
+                .isInstanceOf(IllegalStateException.class);
+        verify(zSetOperations, never()).remove(anyString(), any());
+    }
+}
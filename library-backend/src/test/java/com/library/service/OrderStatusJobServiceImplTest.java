@@ -0,0 +1,142 @@
+package com.library.service;
+
+import com.library.dto.OrderStatusJobDTO;
+import com.library.dto.OrderStatusJobFailureDTO;
+import com.library.entity.Order;
+import com.library.entity.OrderStatus;
+import com.library.entity.OrderStatusJob;
+import com.library.repository.OrderRepository;
+import com.library.repository.OrderStatusJobItemRepository;
+import com.library.repository.OrderStatusJobRepository;
+import com.library.service.impl.OrderStatusJobServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "library.order.bulk-status.chunk-size=2"
+})
+@Import(OrderStatusJobServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStatusJobServiceImplTest {
+
+    @Autowired
+    private OrderStatusJobService orderStatusJobService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatusJobRepository jobRepository;
+
+    @Autowired
+    private OrderStatusJobItemRepository itemRepository;
+
+    @MockBean
+    private UserOrderStatsService userOrderStatsService;
+
+    @MockBean
+    private OrderAnalyticsService orderAnalyticsService;
+
+    @MockBean
+    private OrderViewService orderViewService;
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        jobRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void runPendingJobs_ShouldUpdateEligibleOrdersInChunksAndRecordFailures() {
+        Long paid = save(OrderStatus.PAID);
+        Long processing = save(OrderStatus.PROCESSING);
+        Long pending = save(OrderStatus.PENDING_PAYMENT);
+        Long delivered = save(OrderStatus.DELIVERED);
+        Long missing = delivered + 100;
+
+        OrderStatusJobDTO job = orderStatusJobService.submit(
+                List.of(paid, processing, pending, delivered, missing, paid), OrderStatus.SHIPPED);
+        assertThat(job.getState()).isEqualTo(OrderStatusJob.State.QUEUED);
+        assertThat(job.getTotalCount()).isEqualTo(5);
+
+        assertThat(orderStatusJobService.runPendingJobs()).isEqualTo(1);
+
+        job = orderStatusJobService.getJob(job.getId());
+        assertThat(job.getState()).isEqualTo(OrderStatusJob.State.COMPLETED);
+        assertThat(job.getUpdatedCount()).isEqualTo(2);
+        assertThat(job.getFailedCount()).isEqualTo(3);
+        assertThat(job.getProgressPercent()).isEqualTo(100.0);
+
+        assertThat(orderRepository.findById(paid).orElseThrow().getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(orderRepository.findById(paid).orElseThrow().getShippingDate()).isNotNull();
+        assertThat(orderRepository.findById(processing).orElseThrow().getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(orderRepository.findById(pending).orElseThrow().getStatus()).isEqualTo(OrderStatus.PENDING_PAYMENT);
+
+        assertThat(orderStatusJobService.getFailures(job.getId(), PageRequest.of(0, 20)).getContent())
+                .extracting(OrderStatusJobFailureDTO::getOrderId, OrderStatusJobFailureDTO::getReason)
+                .containsExactly(
+                        tuple(pending, "Order is PENDING_PAYMENT"),
+                        tuple(delivered, "Order is DELIVERED"),
+                        tuple(missing, "Order not found"));
+    }
+
+    @Test
+    void runPendingJobs_ShouldResumeAfterLastCommittedChunkOnceLeaseExpired() {
+        Long first = save(OrderStatus.PAID);
+        Long second = save(OrderStatus.PAID);
+        Long third = save(OrderStatus.PAID);
+
+        Long jobId = orderStatusJobService.submit(List.of(first, second, third), OrderStatus.PROCESSING).getId();
+        // Another node committed the first chunk, then stopped
+        OrderStatusJob job = jobRepository.findById(jobId).orElseThrow();
+        job.setState(OrderStatusJob.State.RUNNING);
+        job.setOwner("stopped-node");
+        job.setLeaseUntil(LocalDateTime.now().minusSeconds(1));
+        job.setLastOrderId(second);
+        job.setProcessedCount(2);
+        job.setUpdatedCount(2);
+        jobRepository.save(job);
+
+        assertThat(orderStatusJobService.runPendingJobs()).isEqualTo(1);
+
+        OrderStatusJobDTO result = orderStatusJobService.getJob(jobId);
+        assertThat(result.getState()).isEqualTo(OrderStatusJob.State.COMPLETED);
+        assertThat(result.getProcessedCount()).isEqualTo(3);
+        assertThat(orderRepository.findById(first).orElseThrow().getStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(orderRepository.findById(third).orElseThrow().getStatus()).isEqualTo(OrderStatus.PROCESSING);
+    }
+
+    @Test
+    void submit_ShouldRejectStatusesThatNeedSingleOrderHandling() {
+        assertThatThrownBy(() -> orderStatusJobService.submit(List.of(1L), OrderStatus.CANCELLED))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Long save(OrderStatus status) {
+        return orderRepository.save(Order.builder()
+                .userId(1L)
+                .orderCode("ORD-" + System.nanoTime())
+                .subTotalAmount(new BigDecimal("20.00"))
+                .totalAmount(new BigDecimal("20.00"))
+                .status(status)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,130 @@
+package com.library.service;
+
+import com.library.dto.OrderItemDTO;
+import com.library.dto.OrderTrackingDTO;
+import com.library.dto.OrderViewConsistencyDTO;
+import com.library.entity.Book;
+import com.library.entity.Order;
+import com.library.entity.OrderStatus;
+import com.library.entity.OrderView;
+import com.library.entity.PaymentStatus;
+import com.library.repository.OrderViewRepository;
+import com.library.service.impl.OrderViewServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "library.order.view.create-missing-on-startup=false")
+@Import({OrderViewServiceImpl.class, JacksonAutoConfiguration.class})
+class OrderViewServiceImplTest extends CommittingJpaTest {
+
+    private static final long USER_ID = 21L;
+
+    @Autowired
+    private OrderViewService orderViewService;
+
+    @Autowired
+    private OrderViewRepository viewRepository;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        book = saveBook("Domain-Driven Design", "9780000000028", "40.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        viewRepository.deleteAll();
+    }
+
+    @Test
+    void refresh_ShouldProjectPreviewTimelineAndExpectedDelivery() {
+        Order order = place("ORD-202602-000001", 1, 2, 3, 4);
+        LocalDateTime shippingDate = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        change(order, OrderStatus.SHIPPED, PaymentStatus.PAID, shippingDate);
+
+        OrderView view = viewRepository.findByOrderCodeAndUserId("ORD-202602-000001", USER_ID).orElseThrow();
+        assertThat(view.getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(view.getTotalItems()).isEqualTo(4);
+        assertThat(view.getTotalBooks()).isEqualTo(10);
+        assertThat(view.getExpectedDeliveryDate()).isEqualTo(shippingDate.plusDays(3));
+
+        List<OrderItemDTO> preview = orderViewService.readItemsPreview(view);
+        assertThat(preview).extracting(OrderItemDTO::getQuantity).containsExactly(1, 2, 3);
+        assertThat(preview.get(1).getItemTotalPrice()).isEqualByComparingTo("80.00");
+
+        assertThat(orderViewService.readTimeline(view))
+                .extracting(OrderTrackingDTO.OrderTrackingEvent::getStatus)
+                .containsExactly("ORDER_PLACED", "PAYMENT_CONFIRMED", "PROCESSING", "SHIPPED");
+        assertThat(viewRepository.findByUserIdAndStatusInOrderByCreatedAtDesc(USER_ID,
+                List.of(OrderStatus.PAID, OrderStatus.SHIPPED))).hasSize(1);
+    }
+
+    @Test
+    void checkConsistency_ShouldFindAndRepairMissingStaleAndOrphanedViews() {
+        Order current = place("ORD-202602-000002", 1);
+        Order missing = place("ORD-202602-000003", 2);
+        Order stale = place("ORD-202602-000004", 3);
+
+        viewRepository.deleteById(missing.getId());
+        transaction.executeWithoutResult(status -> {
+            stale.setStatus(OrderStatus.CANCELLED);
+            orderRepository.save(stale);
+        });
+        OrderView orphan = viewRepository.findById(current.getId()).orElseThrow();
+        orphan.setOrderId(stale.getId() + 100);
+        orphan.setOrderCode("ORD-202602-999999");
+        viewRepository.save(orphan);
+
+        OrderViewConsistencyDTO report = orderViewService.checkConsistency(true);
+        assertThat(report.getCheckedOrders()).isEqualTo(3);
+        assertThat(report.getMissingViews()).isEqualTo(1);
+        assertThat(report.getStaleViews()).isEqualTo(1);
+        assertThat(report.getOrphanedViews()).isEqualTo(1);
+        assertThat(report.getSampleOrderIds())
+                .containsExactlyInAnyOrder(missing.getId(), stale.getId(), stale.getId() + 100);
+
+        OrderViewConsistencyDTO recheck = orderViewService.checkConsistency(false);
+        assertThat(recheck.getMissingViews() + recheck.getStaleViews() + recheck.getOrphanedViews()).isZero();
+        assertThat(viewRepository.findById(stale.getId()).orElseThrow().getStatus())
+                .isEqualTo(OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void createMissingViews_ShouldOnlyCreateViewsOfOrdersWithoutOne() {
+        place("ORD-202602-000005", 1);
+        Order missing = place("ORD-202602-000006", 2);
+        viewRepository.deleteById(missing.getId());
+
+        assertThat(orderViewService.createMissingViews()).isEqualTo(1);
+        assertThat(viewRepository.findById(missing.getId())).isPresent();
+        assertThat(orderViewService.createMissingViews()).isZero();
+    }
+
+    private Order place(String orderCode, int... quantities) {
+        Order order = newOrder(USER_ID, orderCode, book, quantities);
+        order.setShippingAddressLine1("1 Trang Tien");
+        order.setShippingCity("Hanoi");
+        return place(order, orderViewService::refresh);
+    }
+
+    private void change(Order order, OrderStatus newStatus, PaymentStatus newPaymentStatus,
+                        LocalDateTime shippingDate) {
+        change(order, changed -> {
+            changed.setStatus(newStatus);
+            changed.setPaymentStatus(newPaymentStatus);
+            changed.setShippingDate(shippingDate);
+        }, (changed, previousStatus, previousPaymentStatus) -> orderViewService.refresh(changed));
+    }
+}
@@ -0,0 +1,130 @@
+package com.library.service;
+
+import com.library.entity.Book;
+import com.library.entity.Loan;
+import com.library.entity.LoanStatus;
+import com.library.repository.LoanRepository;
+import com.library.repository.UserLoanBookRepository;
+import com.library.repository.UserLoanSummaryRepository;
+import com.library.service.impl.UserLoanSummaryServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(UserLoanSummaryServiceImpl.class)
+class UserLoanSummaryServiceImplTest extends CommittingJpaTest {
+
+    private static final long USER_ID = 21L;
+    private static final int MAX_ACTIVE_LOANS = 2;
+
+    @Autowired
+    private UserLoanSummaryService userLoanSummaryService;
+
+    @Autowired
+    private UserLoanSummaryRepository summaryRepository;
+
+    @Autowired
+    private UserLoanBookRepository loanBookRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    private Book book;
+    private Book otherBook;
+
+    @BeforeEach
+    void setUp() {
+        book = saveBook("Clean Code", "9780000000021", "40.00");
+        otherBook = saveBook("Working Effectively with Legacy Code", "9780000000022", "40.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanBookRepository.deleteAll();
+        loanRepository.deleteAll();
+        summaryRepository.deleteAll();
+    }
+
+    @Test
+    void recordLoanRequested_ShouldRefuseRequestsPastTheLimit() {
+        assertThat(request(book)).isNotNull();
+        assertThat(request(otherBook)).isNotNull();
+        assertThat(request(book)).isNull();
+
+        assertThat(userLoanSummaryService.getActiveLoanCount(USER_ID)).isEqualTo(2);
+        assertThat(loanRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void recordedChanges_ShouldMatchReconciliationFromLoans() {
+        Loan returned = request(book);
+        change(returned, LoanStatus.APPROVED);
+        change(returned, LoanStatus.BORROWED);
+        change(returned, LoanStatus.RETURNED);
+        Loan approved = request(otherBook);
+        change(approved, LoanStatus.APPROVED);
+
+        assertThat(userLoanSummaryService.getActiveLoanCount(USER_ID)).isEqualTo(1);
+        assertThat(userLoanSummaryService.holdsBook(USER_ID, otherBook.getId(), List.of(LoanStatus.APPROVED))).isTrue();
+        assertThat(userLoanSummaryService.holdsBook(USER_ID, book.getId(), List.of(LoanStatus.values()))).isFalse();
+
+        assertThat(userLoanSummaryService.reconcile(USER_ID)).isFalse();
+        assertThat(userLoanSummaryService.getActiveLoanCount(USER_ID)).isEqualTo(1);
+    }
+
+    @Test
+    void recordLoansOverdue_ShouldStopCountingBorrowedLoans() {
+        Loan loan = request(book);
+        change(loan, LoanStatus.BORROWED);
+
+        transaction.executeWithoutResult(status -> {
+            loanRepository.markOverdue(List.of(loan.getId()));
+            userLoanSummaryService.recordLoansOverdue(List.of(loan.getId()));
+        });
+
+        assertThat(userLoanSummaryService.getActiveLoanCount(USER_ID)).isZero();
+        assertThat(userLoanSummaryService.holdsBook(USER_ID, book.getId(), List.of(LoanStatus.OVERDUE))).isTrue();
+        assertThat(userLoanSummaryService.reconcile(USER_ID)).isFalse();
+    }
+
+    @Test
+    void reconcile_ShouldCorrectDriftedCounter() {
+        request(book);
+        transaction.executeWithoutResult(status -> summaryRepository.applyDelta(USER_ID, 3));
+
+        assertThat(userLoanSummaryService.reconcile(USER_ID)).isTrue();
+        assertThat(userLoanSummaryService.getActiveLoanCount(USER_ID)).isEqualTo(1);
+    }
+
+    // The saved loan, or null if it was refused and rolled back
+    private Loan request(Book requested) {
+        return transaction.execute(status -> {
+            Loan saved = loanRepository.save(Loan.builder()
+                    .userId(USER_ID)
+                    .book(requested)
+                    .dueDate(LocalDateTime.now().plusDays(14))
+                    .build());
+            if (!userLoanSummaryService.recordLoanRequested(saved, MAX_ACTIVE_LOANS)) {
+                status.setRollbackOnly();
+                return null;
+            }
+            return saved;
+        });
+    }
+
+    private void change(Loan loan, LoanStatus newStatus) {
+        transaction.executeWithoutResult(status -> {
+            LoanStatus oldStatus = loan.getStatus();
+            loan.setStatus(newStatus);
+            Loan saved = loanRepository.save(loan);
+            userLoanSummaryService.recordLoanChange(saved, oldStatus);
+        });
+    }
+}
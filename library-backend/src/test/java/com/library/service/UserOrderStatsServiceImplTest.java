@@ -0,0 +1,94 @@
+package com.library.service;
+
+import com.library.entity.Book;
+import com.library.entity.Order;
+import com.library.entity.OrderStatus;
+import com.library.entity.PaymentStatus;
+import com.library.entity.UserOrderStats;
+import com.library.repository.UserOrderStatsRepository;
+import com.library.service.impl.UserOrderStatsServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(UserOrderStatsServiceImpl.class)
+class UserOrderStatsServiceImplTest extends CommittingJpaTest {
+
+    private static final long USER_ID = 11L;
+
+    @Autowired
+    private UserOrderStatsService userOrderStatsService;
+
+    @Autowired
+    private UserOrderStatsRepository statsRepository;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        book = saveBook("Refactoring", "9780000000011", "50.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        statsRepository.deleteAll();
+    }
+
+    @Test
+    void recordedChanges_ShouldMatchRebuildFromOrders() {
+        Order delivered = place("ORD-202601-000001", 3);
+        change(delivered, OrderStatus.PAID, PaymentStatus.PAID);
+        change(delivered, OrderStatus.DELIVERED, PaymentStatus.PAID);
+
+        Order cancelled = place("ORD-202601-000002", 5);
+        change(cancelled, OrderStatus.CANCELLED, PaymentStatus.UNPAID);
+
+        place("ORD-202601-000003", 1);
+
+        UserOrderStats recorded = statsRepository.findById(USER_ID).orElseThrow();
+        assertThat(recorded.getTotalOrders()).isEqualTo(3);
+        assertThat(recorded.getCompletedOrders()).isEqualTo(1);
+        assertThat(recorded.getCancelledOrders()).isEqualTo(1);
+        assertThat(recorded.getPendingOrders()).isEqualTo(1);
+        assertThat(recorded.getTotalSpent()).isEqualByComparingTo("150.00");
+        assertThat(recorded.getLargestOrderValue()).isEqualByComparingTo("250.00");
+        assertThat(recorded.getBooksPurchased()).isEqualTo(3);
+
+        userOrderStatsService.rebuild(USER_ID);
+
+        UserOrderStats rebuilt = statsRepository.findById(USER_ID).orElseThrow();
+        assertThat(rebuilt).usingRecursiveComparison()
+                .ignoringFields("updatedAt", "firstOrderDate", "lastOrderDate")
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(recorded);
+    }
+
+    @Test
+    void recordOrderChange_ShouldTakeRefundedOrderOutOfSpending() {
+        Order order = place("ORD-202601-000004", 2);
+        change(order, OrderStatus.PAID, PaymentStatus.PAID);
+        change(order, OrderStatus.REFUNDED, PaymentStatus.REFUNDED);
+
+        UserOrderStats stats = statsRepository.findById(USER_ID).orElseThrow();
+        assertThat(stats.getPendingOrders()).isZero();
+        assertThat(stats.getTotalSpent()).isEqualByComparingTo("0");
+        assertThat(stats.getBooksPurchased()).isZero();
+    }
+
+    private Order place(String orderCode, int quantity) {
+        return place(newOrder(USER_ID, orderCode, book, quantity), userOrderStatsService::recordOrderPlaced);
+    }
+
+    private void change(Order order, OrderStatus newStatus, PaymentStatus newPaymentStatus) {
+        change(order, changed -> {
+            changed.setStatus(newStatus);
+            changed.setPaymentStatus(newPaymentStatus);
+        }, userOrderStatsService::recordOrderChange);
+    }
+}
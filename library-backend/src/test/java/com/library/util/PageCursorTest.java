@@ -0,0 +1,56 @@
+package com.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void decode_ShouldReturnTheEncodedSortKeyAndId() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 10, 15, 30);
+
+        PageCursor cursor = PageCursor.decode(PageCursor.encode("createdAt,desc", createdAt, 42L), "createdAt,desc");
+
+        assertThat(cursor.getId()).isEqualTo(42L);
+        assertThat(cursor.dateTimeValue()).isEqualTo(createdAt);
+    }
+
+    @Test
+    void decode_ShouldKeepNullSortKeyApartFromTheTextNull() {
+        PageCursor nullTitle = PageCursor.decode(PageCursor.encode("title,asc", null, 7L), "title,asc");
+        PageCursor textNull = PageCursor.decode(PageCursor.encode("title,asc", "null", 8L), "title,asc");
+
+        assertThat(nullTitle.getValue()).isNull();
+        assertThat(nullTitle.dateTimeValue()).isNull();
+        assertThat(textNull.getValue()).isEqualTo("null");
+    }
+
+    @Test
+    void decode_ShouldKeepSeparatorsInsideTheSortKey() {
+        PageCursor cursor = PageCursor.decode(PageCursor.encode("title,asc", "Java: The Good Parts", 3L), "title,asc");
+
+        assertThat(cursor.getValue()).isEqualTo("Java: The Good Parts");
+    }
+
+    @Test
+    void decode_ShouldAcceptCursorsIssuedBeforeNullTagging() {
+        String issued = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("1:title,asc:5:Clean Code".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(PageCursor.decode(issued, "title,asc").getValue()).isEqualTo("Clean Code");
+    }
+
+    @Test
+    void decode_ShouldRejectCursorOfAnotherSortOrder() {
+        String cursor = PageCursor.encode("title,asc", "Clean Code", 5L);
+
+        assertThatThrownBy(() -> PageCursor.decode(cursor, "title,desc"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}